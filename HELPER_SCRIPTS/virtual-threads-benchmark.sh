@@ -0,0 +1,136 @@
+#!/bin/bash
+# virtual-threads-benchmark.sh - Compare request throughput with platform and virtual threads
+# Restarts the servlet-based services with VIRTUAL_THREADS_ENABLED=false, then true, and runs
+# the same load against blocking endpoints in both modes.
+
+set -e  # Exit on error
+
+echo "=========================================="
+echo "Call Auditing Platform - Virtual Threads Benchmark"
+echo "=========================================="
+echo ""
+
+# Configuration
+SERVICES=(
+    "call-ingestion-service"
+    "voc-service"
+    "audit-service"
+    "analytics-service"
+    "notification-service"
+)
+
+CALL_ID=""
+DURATION="30s"
+CONCURRENCY_LEVELS=(50 200 800)
+EXTRA_URLS=()
+
+while [[ $# -gt 0 ]]; do
+    case $1 in
+        --call-id)
+            CALL_ID="$2"
+            shift 2
+            ;;
+        --duration)
+            DURATION="$2"
+            shift 2
+            ;;
+        --concurrency)
+            IFS=',' read -r -a CONCURRENCY_LEVELS <<< "$2"
+            shift 2
+            ;;
+        --url)
+            EXTRA_URLS+=("$2")
+            shift 2
+            ;;
+        --help)
+            echo "Usage: $0 --call-id <uuid> [OPTIONS]"
+            echo ""
+            echo "Options:"
+            echo "  --call-id <uuid>      Ingested call whose audio and status are requested (required)"
+            echo "  --duration <d>        Load duration per run, hey syntax (default: 30s)"
+            echo "  --concurrency <list>  Comma-separated client counts (default: 50,200,800)"
+            echo "  --url <url>           Additional GET endpoint to load; may be repeated"
+            echo "  --help                Show this help message"
+            echo ""
+            echo "Examples:"
+            echo "  $0 --call-id 7f1c...                                  # Audio download and status"
+            echo "  $0 --call-id 7f1c... --url http://localhost:8086/api/analytics/dashboard"
+            echo ""
+            echo "Pinning: run with JAVA_TOOL_OPTIONS=-Djdk.tracePinnedThreads=short and check the"
+            echo "service logs for 'pinned' stack traces during the virtual-thread run."
+            exit 0
+            ;;
+        *)
+            echo "Unknown option: $1"
+            echo "Use --help for usage information"
+            exit 1
+            ;;
+    esac
+done
+
+if [ -z "$CALL_ID" ]; then
+    echo "--call-id is required (upload a recording first; see QUICK_START.md)"
+    exit 1
+fi
+
+if ! command -v hey > /dev/null; then
+    echo "hey is required: go install github.com/rakyll/hey@latest"
+    exit 1
+fi
+
+URLS=(
+    "http://localhost:8081/api/calls/$CALL_ID/audio"
+    "http://localhost:8081/api/calls/$CALL_ID/status"
+    "${EXTRA_URLS[@]}"
+)
+
+# Function to print step header
+step() {
+    echo ""
+    echo "[$1] $2"
+    echo "----------------------------------------"
+}
+
+# Function to wait until a service reports UP
+wait_for_health() {
+    local url=$1
+    for _ in $(seq 1 60); do
+        if curl -sf "$url" | grep -q '"status":"UP"'; then
+            return 0
+        fi
+        sleep 2
+    done
+    echo "Timed out waiting for $url"
+    exit 1
+}
+
+RESULTS=()
+
+for mode in false true; do
+    step "$([ "$mode" = true ] && echo 2 || echo 1)/2" "VIRTUAL_THREADS_ENABLED=$mode"
+    VIRTUAL_THREADS_ENABLED=$mode docker compose up -d --no-deps --force-recreate "${SERVICES[@]}"
+    wait_for_health "http://localhost:8081/actuator/health"
+
+    for url in "${URLS[@]}"; do
+        # Warm up JIT and connection pools before measuring
+        hey -z 10s -c 50 "$url" > /dev/null
+        for c in "${CONCURRENCY_LEVELS[@]}"; do
+            output=$(hey -z "$DURATION" -c "$c" "$url")
+            rps=$(echo "$output" | awk '/Requests\/sec/ {print $2}')
+            p99=$(echo "$output" | awk '/99% in/ {print $3}')
+            errors=$(echo "$output" | awk '/\[[0-9]+\]/ && !/\[200\]|\[206\]|\[304\]/ {sum += $2} END {print sum + 0}')
+            RESULTS+=("$mode|$c|$rps|$p99|$errors|$url")
+            echo "  c=$c  $rps req/s  p99 ${p99}s  non-2xx $errors  $url"
+        done
+    done
+done
+
+step "Summary" "Requests/sec by mode"
+printf "%-8s %-6s %-12s %-10s %-8s %s\n" "virtual" "conc" "req/s" "p99 (s)" "errors" "endpoint"
+for row in "${RESULTS[@]}"; do
+    IFS='|' read -r mode c rps p99 errors url <<< "$row"
+    printf "%-8s %-6s %-12s %-10s %-8s %s\n" "$mode" "$c" "$rps" "$p99" "$errors" "$url"
+done
+
+echo ""
+echo "Services were left running with VIRTUAL_THREADS_ENABLED=true."
@@ -1,10 +1,13 @@
 package com.callaudit.analytics.config;
 
+import com.callaudit.events.codec.EventCodecs;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
@@ -24,6 +27,14 @@ public class KafkaConfig {
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    @Bean
+    public EventCodecs eventCodecs() {
+        return EventCodecs.standard();
+    }
+
     @Bean
     public ConsumerFactory<String, String> consumerFactory() {
         Map<String, Object> config = new HashMap<>();
@@ -44,6 +55,34 @@ public class KafkaConfig {
         factory.setConsumerFactory(consumerFactory());
         factory.setConcurrency(3);
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        return withListenerExecutor(factory);
+    }
+
+    /**
+     * {@link #consumerFactory()} settings with byte values, for events read with {@link EventCodecs},
+     * which picks JSON or CBOR per record
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> eventListenerContainerFactory() {
+        Map<String, Object> props = new HashMap<>(consumerFactory().getConfigurationProperties());
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props));
+        factory.setConcurrency(3);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        return withListenerExecutor(factory);
+    }
+
+    /**
+     * Run listener invocations on virtual threads when {@code spring.threads.virtual.enabled} is set
+     */
+    private <K, V> ConcurrentKafkaListenerContainerFactory<K, V> withListenerExecutor(
+            ConcurrentKafkaListenerContainerFactory<K, V> factory) {
+        if (virtualThreadsEnabled) {
+            factory.getContainerProperties().setListenerTaskExecutor(new VirtualThreadTaskExecutor("kafka-listener-"));
+        }
         return factory;
     }
 }
@@ -2,6 +2,8 @@ package com.callaudit.analytics.controller;
 
 import com.callaudit.analytics.model.AgentMetrics;
 import com.callaudit.analytics.model.DashboardMetrics;
+import com.callaudit.analytics.model.TrendGranularity;
+import com.callaudit.analytics.model.TrendMetric;
 import com.callaudit.analytics.service.AgentPerformanceService;
 import com.callaudit.analytics.service.DashboardService;
 import com.callaudit.analytics.service.TrendService;
@@ -101,20 +103,20 @@ public class AnalyticsController {
     }
 
     /**
-     * Get trends for specific metric
+     * Get trends for specific metric, optionally per bucket (1h, 1d, 1w) and for one agent
      */
     @GetMapping("/trends")
     public ResponseEntity<TrendService.TrendData> getTrends(
             @RequestParam String metric,
-            @RequestParam(required = false) Integer periodDays) {
-        log.info("GET /api/analytics/trends?metric={}&periodDays={}", metric, periodDays);
-
-        TrendService.TrendData trendData = switch (metric.toLowerCase()) {
-            case "sentiment" -> trendService.getSentimentTrends(periodDays);
-            case "compliance" -> trendService.getComplianceTrends(periodDays);
-            case "quality" -> trendService.getQualityTrends(periodDays);
-            default -> throw new IllegalArgumentException("Invalid metric: " + metric);
-        };
+            @RequestParam(required = false) Integer periodDays,
+            @RequestParam(required = false) String bucket,
+            @RequestParam(required = false) String agentId) {
+        log.info("GET /api/analytics/trends?metric={}&periodDays={}&bucket={}&agentId={}",
+                metric, periodDays, bucket, agentId);
+
+        TrendMetric trendMetric = TrendMetric.fromName(metric);
+        TrendGranularity granularity = bucket != null ? TrendGranularity.fromParam(bucket) : null;
+        TrendService.TrendData trendData = trendService.getTrends(trendMetric, periodDays, granularity, agentId);
 
         return ResponseEntity.ok(trendData);
     }
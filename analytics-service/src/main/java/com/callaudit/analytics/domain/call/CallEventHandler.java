@@ -37,7 +37,7 @@ public class CallEventHandler {
      * @param acknowledgment manual acknowledgment for Kafka consumer
      */
     @KafkaListener(
-            topics = "${kafka.topics.calls-received}",
+            topics = {"${kafka.topics.calls-received}", "${kafka.topics.calls-received-priority:calls.received.priority}"},
             groupId = "analytics-service-calls",
             containerFactory = "kafkaListenerContainerFactory"
     )
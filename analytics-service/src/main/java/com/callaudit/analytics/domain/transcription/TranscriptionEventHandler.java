@@ -1,10 +1,11 @@
 package com.callaudit.analytics.domain.transcription;
 
-import com.callaudit.analytics.event.CallTranscribedEvent;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.callaudit.events.CallTranscribedEvent;
+import com.callaudit.events.codec.EventCodecException;
+import com.callaudit.events.codec.EventCodecs;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
@@ -27,27 +28,27 @@ import java.util.UUID;
 public class TranscriptionEventHandler {
 
     private final TranscriptionRepository transcriptionRepository;
-    private final ObjectMapper objectMapper;
+    private final EventCodecs eventCodecs;
 
     /**
      * Handle CallTranscribed event from Kafka.
      * Idempotent processing - skips if transcription already exists for the call ID.
      *
-     * @param eventJson the event JSON string
+     * @param record the event, JSON or CBOR per its content-type header
      * @param acknowledgment manual acknowledgment for Kafka consumer
      */
     @KafkaListener(
-            topics = "${kafka.topics.calls-transcribed}",
+            topics = {"${kafka.topics.calls-transcribed}", "${kafka.topics.calls-transcribed-priority:calls.transcribed.priority}"},
             groupId = "analytics-service-transcription",
-            containerFactory = "kafkaListenerContainerFactory"
+            containerFactory = "eventListenerContainerFactory"
     )
     @Transactional
-    public void handleCallTranscribed(String eventJson, Acknowledgment acknowledgment) {
-        log.info("Received CallTranscribed event: {}", eventJson);
+    public void handleCallTranscribed(ConsumerRecord<String, byte[]> record, Acknowledgment acknowledgment) {
+        log.info("Received CallTranscribed event: {} ({} bytes)", record.key(), record.value() != null ? record.value().length : 0);
 
         try {
             // Parse event
-            CallTranscribedEvent event = objectMapper.readValue(eventJson, CallTranscribedEvent.class);
+            CallTranscribedEvent event = eventCodecs.decode(record, CallTranscribedEvent.class);
             CallTranscribedEvent.Payload payload = event.getPayload();
 
             UUID callId = UUID.fromString(payload.getCallId());
@@ -105,13 +106,13 @@ public class TranscriptionEventHandler {
             // Acknowledge message
             acknowledgment.acknowledge();
 
-        } catch (JsonProcessingException e) {
-            log.error("Failed to parse CallTranscribed event JSON: {}", eventJson, e);
+        } catch (EventCodecException e) {
+            log.error("Failed to parse CallTranscribed event: {}", record.key(), e);
             // Don't acknowledge - message will be retried
             throw new RuntimeException("Failed to parse CallTranscribed event", e);
 
         } catch (Exception e) {
-            log.error("Failed to process CallTranscribed event: {}", eventJson, e);
+            log.error("Failed to process CallTranscribed event: {}", record.key(), e);
             // Don't acknowledge - message will be retried
             throw new RuntimeException("Failed to process CallTranscribed event", e);
         }
@@ -3,9 +3,12 @@ package com.callaudit.analytics.listener;
 import com.callaudit.analytics.event.*;
 import com.callaudit.analytics.service.AgentPerformanceService;
 import com.callaudit.analytics.service.DashboardService;
+import com.callaudit.events.CallTranscribedEvent;
+import com.callaudit.events.codec.EventCodecs;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
@@ -18,8 +21,9 @@ public class AnalyticsEventListener {
     private final ObjectMapper objectMapper;
     private final DashboardService dashboardService;
     private final AgentPerformanceService agentPerformanceService;
+    private final EventCodecs eventCodecs;
 
-    @KafkaListener(topics = "${kafka.topics.calls-received}", groupId = "${spring.kafka.consumer.group-id}")
+    @KafkaListener(topics = {"${kafka.topics.calls-received}", "${kafka.topics.calls-received-priority:calls.received.priority}"}, groupId = "${spring.kafka.consumer.group-id}")
     public void handleCallReceived(String message, Acknowledgment acknowledgment) {
         try {
             log.debug("Received CallReceived event: {}", message);
@@ -37,11 +41,11 @@ public class AnalyticsEventListener {
         }
     }
 
-    @KafkaListener(topics = "${kafka.topics.calls-transcribed}", groupId = "${spring.kafka.consumer.group-id}")
-    public void handleCallTranscribed(String message, Acknowledgment acknowledgment) {
+    @KafkaListener(topics = {"${kafka.topics.calls-transcribed}", "${kafka.topics.calls-transcribed-priority:calls.transcribed.priority}"}, groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = "eventListenerContainerFactory")
+    public void handleCallTranscribed(ConsumerRecord<String, byte[]> record, Acknowledgment acknowledgment) {
         try {
-            log.debug("Received CallTranscribed event: {}", message);
-            CallTranscribedEvent event = objectMapper.readValue(message, CallTranscribedEvent.class);
+            CallTranscribedEvent event = eventCodecs.decode(record, CallTranscribedEvent.class);
 
             // Track transcription completion
             dashboardService.incrementCounter("transcribed_calls");
@@ -54,7 +58,7 @@ public class AnalyticsEventListener {
         }
     }
 
-    @KafkaListener(topics = "${kafka.topics.calls-sentiment-analyzed}", groupId = "${spring.kafka.consumer.group-id}")
+    @KafkaListener(topics = {"${kafka.topics.calls-sentiment-analyzed}", "${kafka.topics.calls-sentiment-analyzed-priority:calls.sentiment-analyzed.priority}"}, groupId = "${spring.kafka.consumer.group-id}")
     public void handleSentimentAnalyzed(String message, Acknowledgment acknowledgment) {
         try {
             log.debug("Received SentimentAnalyzed event: {}", message);
@@ -72,6 +76,7 @@ public class AnalyticsEventListener {
                 // Update agent metrics with sentiment data
                 agentPerformanceService.updateAgentMetrics(
                         agentId,
+                        false, // call is counted by CallAudited
                         null, // quality score - will come from audit event
                         payload.getSentimentScore(),
                         payload.getCustomerSatisfactionScore(),
@@ -89,7 +94,7 @@ public class AnalyticsEventListener {
         }
     }
 
-    @KafkaListener(topics = "${kafka.topics.calls-voc-analyzed}", groupId = "${spring.kafka.consumer.group-id}")
+    @KafkaListener(topics = {"${kafka.topics.calls-voc-analyzed}", "${kafka.topics.calls-voc-analyzed-priority:calls.voc-analyzed.priority}"}, groupId = "${spring.kafka.consumer.group-id}")
     public void handleVocAnalyzed(String message, Acknowledgment acknowledgment) {
         try {
             log.debug("Received VocAnalyzed event: {}", message);
@@ -129,6 +134,7 @@ public class AnalyticsEventListener {
                 // Update agent metrics with churn risk
                 agentPerformanceService.updateAgentMetrics(
                         agentId,
+                        false, // call is counted by CallAudited
                         null, // quality score
                         null, // sentiment score
                         null, // customer satisfaction
@@ -181,6 +187,7 @@ public class AnalyticsEventListener {
                 // Update agent metrics with audit data
                 agentPerformanceService.updateAgentMetrics(
                         agentId,
+                        true,  // the call is complete once audited
                         payload.getQualityScore(),
                         null, // sentiment score
                         null, // customer satisfaction
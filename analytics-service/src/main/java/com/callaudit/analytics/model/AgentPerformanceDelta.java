@@ -0,0 +1,55 @@
+package com.callaudit.analytics.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Calls and metric sums for one agent and hour that are not yet written to agent_performance.
+ * Metrics are kept as sum and count, so deltas add up exactly and merge into the stored averages
+ * weighted by how many events actually carried each metric.
+ */
+public record AgentPerformanceDelta(String agentId, LocalDateTime time, int callsProcessed,
+                                    Sum qualityScore, Sum sentimentScore, Sum customerSatisfaction,
+                                    Sum complianceRate, Sum churnRisk) {
+
+    /**
+     * Delta for a single event
+     *
+     * @param callCompleted true for the event that finishes a call, so each call is counted once
+     */
+    public static AgentPerformanceDelta of(String agentId, LocalDateTime time, boolean callCompleted,
+                                           Double qualityScore, Double sentimentScore,
+                                           Double customerSatisfaction, Double complianceRate, Double churnRisk) {
+        return new AgentPerformanceDelta(agentId, time, callCompleted ? 1 : 0, Sum.of(qualityScore),
+                Sum.of(sentimentScore), Sum.of(customerSatisfaction), Sum.of(complianceRate), Sum.of(churnRisk));
+    }
+
+    /**
+     * Both deltas combined; the other delta must be for the same agent and hour
+     */
+    public AgentPerformanceDelta plus(AgentPerformanceDelta other) {
+        return new AgentPerformanceDelta(agentId, time, callsProcessed + other.callsProcessed,
+                qualityScore.plus(other.qualityScore), sentimentScore.plus(other.sentimentScore),
+                customerSatisfaction.plus(other.customerSatisfaction), complianceRate.plus(other.complianceRate),
+                churnRisk.plus(other.churnRisk));
+    }
+
+    public record Sum(double total, long count) {
+
+        public static final Sum EMPTY = new Sum(0, 0);
+
+        public static Sum of(Double value) {
+            return value != null ? new Sum(value, 1) : EMPTY;
+        }
+
+        public Sum plus(Sum other) {
+            return new Sum(total + other.total, count + other.count);
+        }
+
+        /**
+         * Average of the recorded values, or null if there were none
+         */
+        public Double average() {
+            return count > 0 ? total / count : null;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.callaudit.analytics.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * One bucket of a trend series, rolled up across agents (or for one agent) from a continuous aggregate.
+ * Averages are null when no event in the bucket carried the metric.
+ */
+public record TrendBucket(LocalDateTime bucket, long callsProcessed, Double qualityScore, Double sentimentScore,
+                          Double customerSatisfaction, Double complianceRate, Double churnRisk) {
+}
@@ -0,0 +1,39 @@
+package com.callaudit.analytics.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Bucket width of a trend series, and the continuous aggregate it is read from
+ */
+@Getter
+@RequiredArgsConstructor
+public enum TrendGranularity {
+
+    HOUR("1h", "1 hour", "agent_performance_hourly"),
+    DAY("1d", "1 day", "agent_performance_daily"),
+    WEEK("1w", "1 week", "agent_performance_daily");
+
+    private final String param;    // value of the bucket request parameter
+    private final String interval; // PostgreSQL interval literal
+    private final String view;     // continuous aggregate in the analytics schema
+
+    public static TrendGranularity fromParam(String param) {
+        for (TrendGranularity granularity : values()) {
+            if (granularity.param.equalsIgnoreCase(param)) {
+                return granularity;
+            }
+        }
+        throw new IllegalArgumentException("Invalid bucket: " + param + " (expected 1h, 1d or 1w)");
+    }
+
+    /**
+     * Default granularity for a period: hourly up to 2 days, daily up to 90 days, weekly beyond
+     */
+    public static TrendGranularity forPeriod(int days) {
+        if (days <= 2) {
+            return HOUR;
+        }
+        return days <= 90 ? DAY : WEEK;
+    }
+}
@@ -0,0 +1,38 @@
+package com.callaudit.analytics.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.function.Function;
+
+/**
+ * Metric a trend series can be drawn for
+ */
+@Getter
+@RequiredArgsConstructor
+public enum TrendMetric {
+
+    SENTIMENT("sentiment", "Sentiment Score", TrendBucket::sentimentScore),
+    COMPLIANCE("compliance", "Compliance Rate", TrendBucket::complianceRate),
+    QUALITY("quality", "Quality Score", TrendBucket::qualityScore);
+
+    private final String metricName;
+    private final String label;
+    private final Function<TrendBucket, Double> extractor;
+
+    public static TrendMetric fromName(String name) {
+        for (TrendMetric metric : values()) {
+            if (metric.metricName.equalsIgnoreCase(name)) {
+                return metric;
+            }
+        }
+        throw new IllegalArgumentException("Invalid metric: " + name);
+    }
+
+    /**
+     * This metric's value in a bucket, or null if no event in the bucket carried it
+     */
+    public Double valueIn(TrendBucket bucket) {
+        return extractor.apply(bucket);
+    }
+}
@@ -0,0 +1,83 @@
+package com.callaudit.analytics.repository;
+
+import com.callaudit.analytics.model.AgentPerformanceDelta;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Batched upserts into analytics.agent_performance.
+ *
+ * Bypasses JPA on purpose: a flush of accumulated metrics is one JDBC batch of
+ * INSERT ... ON CONFLICT (agent_id, time) DO UPDATE, instead of a find + save per agent.
+ * Existing averages are merged with the new ones weighted by their sample counts.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AgentPerformanceBatchRepository {
+
+    private static final String UPSERT_SQL = """
+        INSERT INTO analytics.agent_performance AS ap
+            (time, agent_id, calls_processed,
+             avg_quality_score, quality_score_count,
+             avg_sentiment_score, sentiment_score_count,
+             avg_customer_satisfaction, customer_satisfaction_count,
+             compliance_pass_rate, compliance_count,
+             avg_churn_risk, churn_risk_count)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        ON CONFLICT (agent_id, time) DO UPDATE SET
+            calls_processed = ap.calls_processed + EXCLUDED.calls_processed,
+        """
+        + mergeAverage("avg_quality_score", "quality_score_count") + ",\n"
+        + mergeAverage("avg_sentiment_score", "sentiment_score_count") + ",\n"
+        + mergeAverage("avg_customer_satisfaction", "customer_satisfaction_count") + ",\n"
+        + mergeAverage("compliance_pass_rate", "compliance_count") + ",\n"
+        + mergeAverage("avg_churn_risk", "churn_risk_count");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Add deltas to their agent's row for the hour, creating rows as needed.
+     * At most one delta per agent and hour.
+     *
+     * @param deltas accumulated metrics
+     */
+    @Transactional
+    public void upsertAll(List<AgentPerformanceDelta> deltas) {
+        jdbcTemplate.batchUpdate(UPSERT_SQL, deltas, deltas.size(), (ps, delta) -> {
+            ps.setTimestamp(1, Timestamp.valueOf(delta.time()));
+            ps.setString(2, delta.agentId());
+            ps.setInt(3, delta.callsProcessed());
+            setSum(ps, 4, delta.qualityScore());
+            setSum(ps, 6, delta.sentimentScore());
+            setSum(ps, 8, delta.customerSatisfaction());
+            setSum(ps, 10, delta.complianceRate());
+            setSum(ps, 12, delta.churnRisk());
+        });
+    }
+
+    private static void setSum(PreparedStatement ps, int index, AgentPerformanceDelta.Sum sum) throws SQLException {
+        ps.setObject(index, sum.average(), Types.DOUBLE);
+        ps.setLong(index + 1, sum.count());
+    }
+
+    /**
+     * SET clause for an average and its count. Expressions read the row as it was before the update.
+     */
+    private static String mergeAverage(String average, String count) {
+        return """
+                %1$s = CASE WHEN EXCLUDED.%2$s = 0 THEN ap.%1$s
+                            WHEN ap.%2$s = 0 OR ap.%1$s IS NULL THEN EXCLUDED.%1$s
+                            ELSE (ap.%1$s * ap.%2$s + EXCLUDED.%1$s * EXCLUDED.%2$s)
+                                 / (ap.%2$s + EXCLUDED.%2$s) END,
+                    %2$s = ap.%2$s + EXCLUDED.%2$s\
+                """.formatted(average, count);
+    }
+}
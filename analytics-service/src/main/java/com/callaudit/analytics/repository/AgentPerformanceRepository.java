@@ -27,6 +27,11 @@ public interface AgentPerformanceRepository extends JpaRepository<AgentPerforman
      */
     Optional<AgentPerformance> findFirstByAgentIdOrderByTimeDesc(String agentId);
 
+    /**
+     * Find an agent's performance record for a specific time slot
+     */
+    Optional<AgentPerformance> findFirstByAgentIdAndTime(String agentId, LocalDateTime time);
+
     /**
      * Get top performing agents by average quality score
      */
@@ -0,0 +1,81 @@
+package com.callaudit.analytics.repository;
+
+import com.callaudit.analytics.model.TrendBucket;
+import com.callaudit.analytics.model.TrendGranularity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Trend series read from the agent_performance continuous aggregates (see schema.sql).
+ *
+ * Bypasses JPA on purpose: rows are pre-rolled buckets mapped straight to {@link TrendBucket},
+ * so a 30-day trend is 30 rows per series instead of one entity per agent and hour.
+ * Weekly buckets are re-bucketed from the daily aggregate; averages are recombined from the
+ * stored sums and counts, so they are exact at every granularity.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AgentPerformanceTrendRepository {
+
+    private static final String BUCKETS_SQL = """
+        SELECT time_bucket(CAST(? AS interval), bucket) AS bucket_start,
+               SUM(calls_processed) AS calls_processed,
+               SUM(quality_score_sum) / NULLIF(SUM(quality_score_count), 0) AS quality_score,
+               SUM(sentiment_score_sum) / NULLIF(SUM(sentiment_score_count), 0) AS sentiment_score,
+               SUM(customer_satisfaction_sum) / NULLIF(SUM(customer_satisfaction_count), 0) AS customer_satisfaction,
+               SUM(compliance_sum) / NULLIF(SUM(compliance_count), 0) AS compliance_rate,
+               SUM(churn_risk_sum) / NULLIF(SUM(churn_risk_count), 0) AS churn_risk
+        FROM analytics.%s
+        WHERE bucket >= time_bucket(CAST(? AS interval), CAST(? AS timestamptz))
+          AND bucket < CAST(? AS timestamptz)
+          AND (CAST(? AS varchar) IS NULL OR agent_id = CAST(? AS varchar))
+        GROUP BY bucket_start
+        ORDER BY bucket_start
+        """;
+
+    private static final String CALLS_SQL = """
+        SELECT COALESCE(SUM(calls_processed), 0)
+        FROM analytics.%s
+        WHERE bucket >= CAST(? AS timestamptz)
+          AND bucket < CAST(? AS timestamptz)
+        """.formatted(TrendGranularity.HOUR.getView());
+
+    private static final RowMapper<TrendBucket> BUCKET_MAPPER = (rs, rowNum) -> new TrendBucket(
+            rs.getTimestamp("bucket_start").toLocalDateTime(),
+            rs.getLong("calls_processed"),
+            rs.getObject("quality_score", Double.class),
+            rs.getObject("sentiment_score", Double.class),
+            rs.getObject("customer_satisfaction", Double.class),
+            rs.getObject("compliance_rate", Double.class),
+            rs.getObject("churn_risk", Double.class));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Buckets overlapping [startTime, endTime), oldest first. The first bucket starts at or before startTime.
+     *
+     * @param agentId only this agent's calls, or null for all agents
+     */
+    public List<TrendBucket> findBuckets(TrendGranularity granularity, LocalDateTime startTime,
+                                         LocalDateTime endTime, String agentId) {
+        return jdbcTemplate.query(BUCKETS_SQL.formatted(granularity.getView()), BUCKET_MAPPER,
+                granularity.getInterval(), granularity.getInterval(), Timestamp.valueOf(startTime),
+                Timestamp.valueOf(endTime), agentId, agentId);
+    }
+
+    /**
+     * Calls in the hourly buckets that start within [startTime, endTime). Unlike the first bucket of
+     * {@link #findBuckets}, nothing from before startTime is counted; the partial hour at startTime is left out.
+     */
+    public long countCalls(LocalDateTime startTime, LocalDateTime endTime) {
+        Long calls = jdbcTemplate.queryForObject(CALLS_SQL, Long.class,
+                Timestamp.valueOf(startTime), Timestamp.valueOf(endTime));
+        return calls != null ? calls : 0;
+    }
+}
@@ -0,0 +1,199 @@
+package com.callaudit.analytics.service;
+
+import com.callaudit.analytics.model.AgentPerformanceDelta;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory running sums of agent metrics per agent and hour, added to the Valkey buffers of
+ * {@link MetricsAggregator} in batches; the aggregator writes them to agent_performance.
+ *
+ * Events only touch memory. Each (agent, hour) bucket holds an immutable {@link AgentPerformanceDelta} that
+ * is replaced by compare-and-set, so listener threads never block one another and concurrent updates are
+ * never lost; the map spreads agents over independent bins. A flush runs every
+ * {@code analytics.agent.flush-interval-ms}, or as soon as {@code analytics.agent.max-buckets} buckets are
+ * pending. It retires each bucket, so later events start a new one, and buffers all sums in one Valkey script
+ * call. Sums that fail to write are added back, and flushes pause for {@code analytics.agent.retry-backoff-ms},
+ * doubling after each further failure up to {@code max-retry-backoff-ms}. While Valkey stays down,
+ * events for an agent-hour that already has a bucket still merge into it, but no more than
+ * {@code analytics.agent.max-retained-buckets} buckets are kept: events that would open another one are
+ * dropped, counted in the {@value #DROPPED_METRIC} meter and logged.
+ *
+ * Metrics from events acknowledged since the last flush are lost if the process dies.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class AgentMetricsAccumulator {
+
+    static final String DROPPED_METRIC = "analytics.agent.metrics.dropped";
+
+    private final MetricsAggregator metricsAggregator;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${analytics.agent.max-buckets:1000}")
+    private int maxBuckets;
+
+    @Value("${analytics.agent.max-retained-buckets:10000}")
+    private int maxRetainedBuckets;
+
+    @Value("${analytics.agent.retry-backoff-ms:5000}")
+    private long retryBackoffMs;
+
+    @Value("${analytics.agent.max-retry-backoff-ms:300000}")
+    private long maxRetryBackoffMs;
+
+    private final Map<BucketKey, Bucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushing = new AtomicBoolean();
+    private final AtomicLong dropped = new AtomicLong();
+
+    /** No flush before this time (epoch millis) after a failed write */
+    private volatile long retryAt;
+    private int failedFlushes; // guarded by flushing
+
+    /**
+     * Add an event's metrics to its agent's bucket for the hour
+     */
+    public void record(AgentPerformanceDelta delta) {
+        if (add(delta) && buckets.size() >= maxBuckets) {
+            flushIfDue();
+        }
+    }
+
+    /**
+     * Write all pending buckets, unless backing off after a failed write or a flush is already running
+     */
+    @Scheduled(fixedDelayString = "${analytics.agent.flush-interval-ms:5000}")
+    public void flush() {
+        long droppedEvents = dropped.getAndSet(0);
+        if (droppedEvents > 0) {
+            log.warn("Dropped metrics of {} events: {} agent-hours are already waiting to be written",
+                    droppedEvents, maxRetainedBuckets);
+        }
+        flushIfDue();
+    }
+
+    /**
+     * Last attempt to write pending buckets, ignoring any backoff
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        write();
+    }
+
+    private void flushIfDue() {
+        if (System.currentTimeMillis() >= retryAt) {
+            write();
+        }
+    }
+
+    private void write() {
+        if (!flushing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<AgentPerformanceDelta> deltas = new ArrayList<>(buckets.size());
+            for (Map.Entry<BucketKey, Bucket> entry : buckets.entrySet()) {
+                AgentPerformanceDelta delta = entry.getValue().retire();
+                buckets.remove(entry.getKey(), entry.getValue());
+                if (delta != null) {
+                    deltas.add(delta);
+                }
+            }
+            if (deltas.isEmpty()) {
+                return;
+            }
+
+            try {
+                metricsAggregator.bufferAll(deltas);
+                failedFlushes = 0;
+                retryAt = 0;
+                log.debug("Flushed metrics for {} agent-hours", deltas.size());
+            } catch (Exception e) {
+                long backoff = Math.min(maxRetryBackoffMs, retryBackoffMs << Math.min(failedFlushes, 16));
+                failedFlushes++;
+                retryAt = System.currentTimeMillis() + backoff;
+                log.error("Error flushing metrics for {} agent-hours, retrying in {} ms", deltas.size(), backoff, e);
+                deltas.forEach(this::add);
+            }
+        } finally {
+            flushing.set(false);
+        }
+    }
+
+    /**
+     * Merge a delta into its bucket without triggering a flush
+     *
+     * @return false if the delta was dropped because max-retained-buckets are already pending
+     */
+    private boolean add(AgentPerformanceDelta delta) {
+        BucketKey key = new BucketKey(delta.agentId(), delta.time());
+        if (buckets.size() >= maxRetainedBuckets && !buckets.containsKey(key)) {
+            dropped.incrementAndGet();
+            meterRegistry.counter(DROPPED_METRIC).increment();
+            return false;
+        }
+
+        Bucket bucket;
+        while (!(bucket = buckets.computeIfAbsent(key, k -> new Bucket())).add(delta)) {
+            // Retired by a concurrent flush, which is about to remove it; help, then start a new bucket
+            buckets.remove(key, bucket);
+        }
+        return true;
+    }
+
+    /**
+     * Number of agent-hours waiting to be flushed
+     */
+    int pending() {
+        return buckets.size();
+    }
+
+    private record BucketKey(String agentId, LocalDateTime time) {
+    }
+
+    private static final class Bucket {
+
+        /** Marks a bucket that has been flushed; it accepts no more deltas */
+        private static final AgentPerformanceDelta RETIRED = AgentPerformanceDelta.of(
+                "", LocalDateTime.MIN, false, null, null, null, null, null);
+
+        private final AtomicReference<AgentPerformanceDelta> totals = new AtomicReference<>();
+
+        /**
+         * @return false if the bucket was retired and the delta was not added
+         */
+        boolean add(AgentPerformanceDelta delta) {
+            AgentPerformanceDelta current;
+            do {
+                current = totals.get();
+                if (current == RETIRED) {
+                    return false;
+                }
+            } while (!totals.compareAndSet(current, current == null ? delta : current.plus(delta)));
+            return true;
+        }
+
+        /**
+         * Close the bucket and take its totals, or null if nothing was added
+         */
+        AgentPerformanceDelta retire() {
+            AgentPerformanceDelta last = totals.getAndSet(RETIRED);
+            return last == RETIRED ? null : last;
+        }
+    }
+}
@@ -2,19 +2,19 @@ package com.callaudit.analytics.service;
 
 import com.callaudit.analytics.model.AgentMetrics;
 import com.callaudit.analytics.model.AgentPerformance;
+import com.callaudit.analytics.model.AgentPerformanceDelta;
 import com.callaudit.analytics.repository.AgentPerformanceRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,6 +23,7 @@ import java.util.stream.Collectors;
 public class AgentPerformanceService {
 
     private final AgentPerformanceRepository agentPerformanceRepository;
+    private final AgentMetricsAccumulator agentMetricsAccumulator;
 
     @Value("${analytics.agent.top-limit:10}")
     private int topLimit;
@@ -98,59 +99,19 @@ public class AgentPerformanceService {
                 .build();
     }
 
-    @Transactional
-    public void updateAgentMetrics(String agentId, Double qualityScore, Double sentimentScore,
+    /**
+     * Record an agent's metrics from one pipeline event. Values are accumulated in memory by
+     * {@link AgentMetricsAccumulator} and written to agent_performance through {@link MetricsAggregator}.
+     *
+     * @param callCompleted true for the event that finishes a call (CallAudited), so each call is counted once
+     */
+    public void updateAgentMetrics(String agentId, boolean callCompleted, Double qualityScore, Double sentimentScore,
                                    Double customerSatisfaction, Double complianceRate, Double churnRisk) {
-        log.info("Updating metrics for agent: {}", agentId);
-
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime timeSlot = now.withMinute(0).withSecond(0).withNano(0);
-
-        Optional<AgentPerformance> existingOpt = agentPerformanceRepository
-                .findFirstByAgentIdOrderByTimeDesc(agentId);
-
-        AgentPerformance performance;
-        if (existingOpt.isPresent() && existingOpt.get().getTime().equals(timeSlot)) {
-            // Update existing record for this time slot
-            performance = existingOpt.get();
-            performance.setCallsProcessed(performance.getCallsProcessed() + 1);
-
-            // Update running averages
-            if (qualityScore != null) {
-                performance.setAvgQualityScore(calculateNewAverage(
-                        performance.getAvgQualityScore(), qualityScore, performance.getCallsProcessed()));
-            }
-            if (sentimentScore != null) {
-                performance.setAvgSentimentScore(calculateNewAverage(
-                        performance.getAvgSentimentScore(), sentimentScore, performance.getCallsProcessed()));
-            }
-            if (customerSatisfaction != null) {
-                performance.setAvgCustomerSatisfaction(calculateNewAverage(
-                        performance.getAvgCustomerSatisfaction(), customerSatisfaction, performance.getCallsProcessed()));
-            }
-            if (complianceRate != null) {
-                performance.setCompliancePassRate(calculateNewAverage(
-                        performance.getCompliancePassRate(), complianceRate, performance.getCallsProcessed()));
-            }
-            if (churnRisk != null) {
-                performance.setAvgChurnRisk(calculateNewAverage(
-                        performance.getAvgChurnRisk(), churnRisk, performance.getCallsProcessed()));
-            }
-        } else {
-            // Create new record
-            performance = AgentPerformance.builder()
-                    .time(timeSlot)
-                    .agentId(agentId)
-                    .callsProcessed(1)
-                    .avgQualityScore(qualityScore)
-                    .avgSentimentScore(sentimentScore)
-                    .avgCustomerSatisfaction(customerSatisfaction)
-                    .compliancePassRate(complianceRate)
-                    .avgChurnRisk(churnRisk)
-                    .build();
-        }
+        log.debug("Updating metrics for agent: {}", agentId);
 
-        agentPerformanceRepository.save(performance);
+        LocalDateTime timeSlot = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        agentMetricsAccumulator.record(AgentPerformanceDelta.of(agentId, timeSlot, callCompleted,
+                qualityScore, sentimentScore, customerSatisfaction, complianceRate, churnRisk));
     }
 
     public List<AgentMetrics> getTopAgents(Integer limit) {
@@ -182,14 +143,4 @@ public class AgentPerformanceService {
                 .lastUpdated(LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME))
                 .build();
     }
-
-    private Double calculateNewAverage(Double currentAvg, Double newValue, int count) {
-        if (currentAvg == null) {
-            return newValue;
-        }
-        if (newValue == null) {
-            return currentAvg;
-        }
-        return ((currentAvg * (count - 1)) + newValue) / count;
-    }
 }
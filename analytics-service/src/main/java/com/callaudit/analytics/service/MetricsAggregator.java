@@ -1,15 +1,22 @@
 package com.callaudit.analytics.service;
 
 import com.callaudit.analytics.model.AgentPerformance;
+import com.callaudit.analytics.model.AgentPerformanceDelta;
+import com.callaudit.analytics.repository.AgentPerformanceBatchRepository;
 import com.callaudit.analytics.repository.AgentPerformanceRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.temporal.ChronoField;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -17,6 +24,18 @@ import java.util.stream.Collectors;
 /**
  * Aggregates real-time metrics from events and computes rolling averages.
  * Processes events and updates time-series data in TimescaleDB.
+ *
+ * {@link AgentMetricsAccumulator} flushes each replica's in-memory sums into Valkey with {@link #bufferAll},
+ * so every agent-hour is written to agent_performance once per aggregation run rather than once per replica
+ * and flush, and flushed sums survive a replica restart. Metrics are buffered as running sums, one hash per
+ * agent and hour slot ({@code metrics:sums:<agentId>:<hour>}): {@code calls} plus {@code <metric>:sum} and
+ * {@code <metric>:count} for each metric, since an event may carry only some of them. A buffer's size does not
+ * grow with the number of calls, and an aggregation reads one hash per agent. Every agent with a buffer is also
+ * a member of its slot's registry set ({@code metrics:buffers:<hour>}), and every slot with a registry is a
+ * member of {@code metrics:slots}, so aggregation pops agents from the registries of pending slots instead of
+ * scanning the keyspace, and reads and clears each batch of buffers in one atomic script call. SPOP hands every
+ * agent to exactly one instance, so replicas can aggregate concurrently. Each drained batch is written with one
+ * {@link AgentPerformanceBatchRepository#upsertAll} call, which merges every metric by its own sample count.
  */
 @Service
 @Slf4j
@@ -24,80 +43,116 @@ import java.util.stream.Collectors;
 public class MetricsAggregator {
 
     private final AgentPerformanceRepository agentPerformanceRepository;
-    private final RedisTemplate<String, Object> redisTemplate;
+    private final AgentPerformanceBatchRepository agentPerformanceBatchRepository;
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private static final String AGENT_BUFFER_PREFIX = "metrics:sums:";
+    private static final String BUFFER_REGISTRY_PREFIX = "metrics:buffers:";
+    private static final String PENDING_SLOTS_KEY = "metrics:slots";
+    private static final int BUFFER_EXPIRY_HOURS = 24;
+    private static final DateTimeFormatter HOUR_KEY_FORMAT = new DateTimeFormatterBuilder()
+            .appendPattern("yyyyMMddHH")
+            .parseDefaulting(ChronoField.MINUTE_OF_HOUR, 0)
+            .toFormatter();
+    private static final String CALLS_FIELD = "calls";
+    private static final String SUM_SUFFIX = ":sum";
+    private static final String COUNT_SUFFIX = ":count";
 
-    private static final String METRIC_BUFFER_PREFIX = "metrics:buffer:";
-    private static final String AGENT_BUFFER_PREFIX = "metrics:agent:";
-    private static final int BUFFER_EXPIRY_MINUTES = 60;
+    /**
+     * KEYS: pending slots, then buffer and registry of each agent-hour. ARGV: TTL in seconds, then for each
+     * agent-hour its agent ID, hour slot, field count and field/increment pairs. The increments and the
+     * registrations happen together, so a drain never sees one without the other.
+     */
+    private static final RedisScript<Long> INCREMENT_SCRIPT = RedisScript.of("""
+            local arg = 2
+            for k = 2, #KEYS, 2 do
+                local agent, slot, fields = ARGV[arg], ARGV[arg + 1], tonumber(ARGV[arg + 2])
+                arg = arg + 3
+                for i = 1, fields do
+                    redis.call('HINCRBYFLOAT', KEYS[k], ARGV[arg], ARGV[arg + 1])
+                    arg = arg + 2
+                end
+                redis.call('EXPIRE', KEYS[k], ARGV[1])
+                redis.call('SADD', KEYS[k + 1], agent)
+                redis.call('EXPIRE', KEYS[k + 1], ARGV[1])
+                redis.call('SADD', KEYS[1], slot)
+            end
+            return 1
+            """, Long.class);
 
     /**
-     * Aggregate call metrics from an event
+     * KEYS: pending slots, registry. ARGV: slot. Forgets the slot once its registry is empty; atomic with
+     * INCREMENT_SCRIPT, so a slot that gets new buffers meanwhile stays pending.
      */
-    public void aggregateCallMetrics(String callId, String agentId, MetricValues values) {
-        log.debug("Aggregating metrics for call: {}, agent: {}", callId, agentId);
+    private static final RedisScript<Long> RELEASE_SLOT_SCRIPT = RedisScript.of("""
+            if redis.call('SCARD', KEYS[2]) == 0 then
+                return redis.call('SREM', KEYS[1], ARGV[1])
+            end
+            return 0
+            """, Long.class);
 
-        try {
-            // Store in temporary buffer for aggregation
-            String bufferKey = AGENT_BUFFER_PREFIX + agentId + ":" + getCurrentHourKey();
-            Map<String, Double> metricMap = new HashMap<>();
+    /**
+     * KEYS: buffers. Returns the fields of each buffer (HGETALL), in KEYS order, and deletes it. An increment
+     * lands either in what is returned or in a fresh buffer, never in between.
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> DRAIN_SCRIPT = RedisScript.of("""
+            local drained = {}
+            for i, key in ipairs(KEYS) do
+                drained[i] = redis.call('HGETALL', key)
+                redis.call('DEL', key)
+            end
+            return drained
+            """, List.class);
+
+    @Value("${analytics.aggregation.batch-size:100}")
+    private int batchSize;
 
-            if (values.getQualityScore() != null) {
-                metricMap.put("qualityScore", values.getQualityScore());
-            }
-            if (values.getSentimentScore() != null) {
-                metricMap.put("sentimentScore", values.getSentimentScore());
-            }
-            if (values.getCustomerSatisfaction() != null) {
-                metricMap.put("customerSatisfaction", values.getCustomerSatisfaction());
-            }
-            if (values.getComplianceRate() != null) {
-                metricMap.put("complianceRate", values.getComplianceRate());
-            }
-            if (values.getChurnRisk() != null) {
-                metricMap.put("churnRisk", values.getChurnRisk());
+    /**
+     * Add agent-hour sums to their Valkey buffers in one script call
+     *
+     * @throws RuntimeException if Valkey is unavailable; nothing is buffered then
+     */
+    public void bufferAll(List<AgentPerformanceDelta> deltas) {
+        Map<BufferKey, Map<String, Double>> increments = new LinkedHashMap<>();
+        for (AgentPerformanceDelta delta : deltas) {
+            Map<String, Double> fields = increments.computeIfAbsent(
+                    new BufferKey(delta.agentId(), delta.time().truncatedTo(ChronoUnit.HOURS)),
+                    key -> new LinkedHashMap<>());
+            if (delta.callsProcessed() > 0) {
+                fields.merge(CALLS_FIELD, (double) delta.callsProcessed(), Double::sum);
             }
-
-            // Append to buffer list
-            redisTemplate.opsForList().rightPush(bufferKey, metricMap);
-            redisTemplate.expire(bufferKey, BUFFER_EXPIRY_MINUTES, TimeUnit.MINUTES);
-
-            log.debug("Buffered metrics for agent {} in key {}", agentId, bufferKey);
-        } catch (Exception e) {
-            log.error("Error aggregating call metrics for callId: {}", callId, e);
+            addSum(fields, "qualityScore", delta.qualityScore());
+            addSum(fields, "sentimentScore", delta.sentimentScore());
+            addSum(fields, "customerSatisfaction", delta.customerSatisfaction());
+            addSum(fields, "complianceRate", delta.complianceRate());
+            addSum(fields, "churnRisk", delta.churnRisk());
         }
+        increment(increments);
+        log.debug("Buffered metrics for {} agent-hours", increments.size());
     }
 
     /**
-     * Process buffered metrics and update agent performance records
+     * Process buffered metrics and update agent performance records, oldest hour slot first
      * Scheduled to run every 5 minutes
      */
     @Scheduled(fixedRateString = "${analytics.aggregation.interval-minutes:5}", timeUnit = TimeUnit.MINUTES)
-    @Transactional
     public void processBufferedMetrics() {
         log.info("Starting scheduled metrics aggregation");
 
         try {
-            LocalDateTime now = LocalDateTime.now();
-            LocalDateTime currentHour = now.withMinute(0).withSecond(0).withNano(0);
-
-            // Get all agent buffer keys
-            Set<String> agentKeys = redisTemplate.keys(AGENT_BUFFER_PREFIX + "*");
+            Set<String> slots = stringRedisTemplate.opsForSet().members(PENDING_SLOTS_KEY);
+            int processedAgents = 0;
+            for (String slot : slots != null ? new TreeSet<>(slots) : Set.<String>of()) {
+                processedAgents += processSlot(slot);
+                stringRedisTemplate.execute(RELEASE_SLOT_SCRIPT, List.of(PENDING_SLOTS_KEY, registryKey(slot)), slot);
+            }
 
-            if (agentKeys == null || agentKeys.isEmpty()) {
+            if (processedAgents == 0) {
                 log.debug("No buffered metrics to process");
                 return;
             }
 
-            int processedAgents = 0;
-            for (String key : agentKeys) {
-                try {
-                    processAgentBuffer(key, currentHour);
-                    processedAgents++;
-                } catch (Exception e) {
-                    log.error("Error processing buffer for key: {}", key, e);
-                }
-            }
-
             log.info("Completed metrics aggregation. Processed {} agents", processedAgents);
         } catch (Exception e) {
             log.error("Error in scheduled metrics aggregation", e);
@@ -105,157 +160,148 @@ public class MetricsAggregator {
     }
 
     /**
-     * Process metrics buffer for a specific agent
+     * Drain the buffers registered for an hour slot, batchSize agents at a time
+     *
+     * @return number of agents whose performance record was updated
      */
-    private void processAgentBuffer(String bufferKey, LocalDateTime timeSlot) {
-        // Extract agent ID from buffer key
-        String[] parts = bufferKey.split(":");
-        if (parts.length < 3) {
-            log.warn("Invalid buffer key format: {}", bufferKey);
-            return;
-        }
-        String agentId = parts[2];
+    private int processSlot(String slot) {
+        LocalDateTime timeSlot = LocalDateTime.parse(slot, HOUR_KEY_FORMAT);
+        String registryKey = registryKey(slot);
+        // Requeued after the slot is drained, so a failing agent is not popped again in the same run
+        Map<BufferKey, Map<String, Double>> failed = new LinkedHashMap<>();
+        int processedAgents = 0;
+
+        List<String> agentIds;
+        while (!(agentIds = popAgents(registryKey)).isEmpty()) {
+            List<String> bufferKeys = agentIds.stream().map(agentId -> bufferKey(agentId, slot)).toList();
+
+            List<?> drained;
+            try {
+                drained = stringRedisTemplate.execute(DRAIN_SCRIPT, bufferKeys);
+            } catch (Exception e) {
+                // Buffers are untouched; register the agents again for the next run
+                stringRedisTemplate.opsForSet().add(registryKey, agentIds.toArray(String[]::new));
+                throw e;
+            }
 
-        // Get all buffered metrics
-        List<Object> bufferedMetrics = redisTemplate.opsForList().range(bufferKey, 0, -1);
+            Map<BufferKey, Map<String, Double>> batch = new LinkedHashMap<>();
+            List<AgentPerformanceDelta> deltas = new ArrayList<>(agentIds.size());
+            for (int i = 0; i < agentIds.size(); i++) {
+                Map<String, Double> sums = toSums(drained != null && i < drained.size() ? drained.get(i) : null);
+                if (sums.isEmpty()) {
+                    continue; // expired, or drained after a concurrent re-registration
+                }
+                batch.put(new BufferKey(agentIds.get(i), timeSlot), sums);
+                deltas.add(processAgentBuffer(agentIds.get(i), sums, timeSlot));
+            }
+            if (deltas.isEmpty()) {
+                continue;
+            }
 
-        if (bufferedMetrics == null || bufferedMetrics.isEmpty()) {
-            return;
+            try {
+                agentPerformanceBatchRepository.upsertAll(deltas);
+                processedAgents += deltas.size();
+            } catch (Exception e) {
+                log.error("Error writing buffers for {} agents at {}", deltas.size(), timeSlot, e);
+                failed.putAll(batch);
+            }
         }
 
-        log.debug("Processing {} buffered metrics for agent {}", bufferedMetrics.size(), agentId);
-
-        // Calculate aggregated values
-        AggregatedMetrics aggregated = calculateAggregatedMetrics(bufferedMetrics);
-
-        // Update or create agent performance record
-        Optional<AgentPerformance> existingOpt = agentPerformanceRepository
-                .findFirstByAgentIdOrderByTimeDesc(agentId);
-
-        AgentPerformance performance;
-        if (existingOpt.isPresent() && existingOpt.get().getTime().equals(timeSlot)) {
-            // Update existing record for this time slot
-            performance = existingOpt.get();
-            int previousCount = performance.getCallsProcessed() != null ? performance.getCallsProcessed() : 0;
-            int newCount = previousCount + aggregated.getCount();
-
-            performance.setCallsProcessed(newCount);
-            performance.setAvgQualityScore(mergeAverage(
-                    performance.getAvgQualityScore(), aggregated.getAvgQualityScore(),
-                    previousCount, aggregated.getCount()));
-            performance.setAvgSentimentScore(mergeAverage(
-                    performance.getAvgSentimentScore(), aggregated.getAvgSentimentScore(),
-                    previousCount, aggregated.getCount()));
-            performance.setAvgCustomerSatisfaction(mergeAverage(
-                    performance.getAvgCustomerSatisfaction(), aggregated.getAvgCustomerSatisfaction(),
-                    previousCount, aggregated.getCount()));
-            performance.setCompliancePassRate(mergeAverage(
-                    performance.getCompliancePassRate(), aggregated.getAvgComplianceRate(),
-                    previousCount, aggregated.getCount()));
-            performance.setAvgChurnRisk(mergeAverage(
-                    performance.getAvgChurnRisk(), aggregated.getAvgChurnRisk(),
-                    previousCount, aggregated.getCount()));
-        } else {
-            // Create new record
-            performance = AgentPerformance.builder()
-                    .time(timeSlot)
-                    .agentId(agentId)
-                    .callsProcessed(aggregated.getCount())
-                    .avgQualityScore(aggregated.getAvgQualityScore())
-                    .avgSentimentScore(aggregated.getAvgSentimentScore())
-                    .avgCustomerSatisfaction(aggregated.getAvgCustomerSatisfaction())
-                    .compliancePassRate(aggregated.getAvgComplianceRate())
-                    .avgChurnRisk(aggregated.getAvgChurnRisk())
-                    .build();
+        if (!failed.isEmpty()) {
+            increment(failed);
         }
+        return processedAgents;
+    }
 
-        agentPerformanceRepository.save(performance);
-
-        // Clear the buffer after processing
-        redisTemplate.delete(bufferKey);
-
-        log.debug("Updated performance record for agent {} at time {}", agentId, timeSlot);
+    /**
+     * Turn an agent's drained sums into a delta for its agent_performance row
+     */
+    private AgentPerformanceDelta processAgentBuffer(String agentId, Map<String, Double> sums, LocalDateTime timeSlot) {
+        int calls = sums.getOrDefault(CALLS_FIELD, 0.0).intValue();
+        log.debug("Processing {} buffered calls for agent {}", calls, agentId);
+
+        return new AgentPerformanceDelta(agentId, timeSlot, calls,
+                sumOf(sums, "qualityScore"),
+                sumOf(sums, "sentimentScore"),
+                sumOf(sums, "customerSatisfaction"),
+                sumOf(sums, "complianceRate"),
+                sumOf(sums, "churnRisk"));
     }
 
     /**
-     * Calculate aggregated metrics from buffered data
+     * Add a metric's sum and count increments if any event carried the metric
      */
-    private AggregatedMetrics calculateAggregatedMetrics(List<Object> bufferedMetrics) {
-        int count = bufferedMetrics.size();
-
-        List<Double> qualityScores = new ArrayList<>();
-        List<Double> sentimentScores = new ArrayList<>();
-        List<Double> satisfactionScores = new ArrayList<>();
-        List<Double> complianceRates = new ArrayList<>();
-        List<Double> churnRisks = new ArrayList<>();
-
-        for (Object obj : bufferedMetrics) {
-            if (obj instanceof Map) {
-                @SuppressWarnings("unchecked")
-                Map<String, Object> metricMap = (Map<String, Object>) obj;
-
-                addIfPresent(metricMap, "qualityScore", qualityScores);
-                addIfPresent(metricMap, "sentimentScore", sentimentScores);
-                addIfPresent(metricMap, "customerSatisfaction", satisfactionScores);
-                addIfPresent(metricMap, "complianceRate", complianceRates);
-                addIfPresent(metricMap, "churnRisk", churnRisks);
-            }
+    private void addSum(Map<String, Double> increments, String metric, AgentPerformanceDelta.Sum sum) {
+        if (sum.count() > 0) {
+            increments.merge(metric + SUM_SUFFIX, sum.total(), Double::sum);
+            increments.merge(metric + COUNT_SUFFIX, (double) sum.count(), Double::sum);
         }
-
-        return AggregatedMetrics.builder()
-                .count(count)
-                .avgQualityScore(calculateAverage(qualityScores))
-                .avgSentimentScore(calculateAverage(sentimentScores))
-                .avgCustomerSatisfaction(calculateAverage(satisfactionScores))
-                .avgComplianceRate(calculateAverage(complianceRates))
-                .avgChurnRisk(calculateAverage(churnRisks))
-                .build();
     }
 
     /**
-     * Add metric value to list if present in map
+     * A metric's buffered sum and the number of calls that carried it
      */
-    private void addIfPresent(Map<String, Object> map, String key, List<Double> list) {
-        Object value = map.get(key);
-        if (value instanceof Number) {
-            list.add(((Number) value).doubleValue());
+    private AgentPerformanceDelta.Sum sumOf(Map<String, Double> sums, String metric) {
+        long count = sums.getOrDefault(metric + COUNT_SUFFIX, 0.0).longValue();
+        if (count == 0) {
+            return AgentPerformanceDelta.Sum.EMPTY;
         }
+        return new AgentPerformanceDelta.Sum(sums.getOrDefault(metric + SUM_SUFFIX, 0.0), count);
     }
 
     /**
-     * Calculate average from list of values
+     * Add to the running sums of each agent-hour and register it in its slot's registry and the pending slots
      */
-    private Double calculateAverage(List<Double> values) {
-        if (values.isEmpty()) {
-            return null;
-        }
-        return values.stream()
-                .mapToDouble(Double::doubleValue)
-                .average()
-                .orElse(0.0);
+    private void increment(Map<BufferKey, Map<String, Double>> increments) {
+        List<String> keys = new ArrayList<>(increments.size() * 2 + 1);
+        List<String> args = new ArrayList<>();
+        keys.add(PENDING_SLOTS_KEY);
+        args.add(String.valueOf(TimeUnit.HOURS.toSeconds(BUFFER_EXPIRY_HOURS)));
+        increments.forEach((key, fields) -> {
+            String slot = key.timeSlot().format(HOUR_KEY_FORMAT);
+            keys.add(bufferKey(key.agentId(), slot));
+            keys.add(registryKey(slot));
+            args.add(key.agentId());
+            args.add(slot);
+            args.add(String.valueOf(fields.size()));
+            fields.forEach((field, value) -> {
+                args.add(field);
+                args.add(Double.toString(value));
+            });
+        });
+        stringRedisTemplate.execute(INCREMENT_SCRIPT, keys, args.toArray());
     }
 
     /**
-     * Merge two averages based on their counts
+     * Remove up to batchSize agents from a slot registry
      */
-    private Double mergeAverage(Double existingAvg, Double newAvg, int existingCount, int newCount) {
-        if (newAvg == null) {
-            return existingAvg;
-        }
-        if (existingAvg == null) {
-            return newAvg;
-        }
-        int totalCount = existingCount + newCount;
-        return ((existingAvg * existingCount) + (newAvg * newCount)) / totalCount;
+    private List<String> popAgents(String registryKey) {
+        List<String> agents = stringRedisTemplate.opsForSet().pop(registryKey, batchSize);
+        return agents != null ? agents : List.of();
     }
 
     /**
-     * Get current hour key for buffering
+     * Fields of a drained buffer, from HGETALL's flat field/value reply
      */
-    private String getCurrentHourKey() {
-        LocalDateTime now = LocalDateTime.now();
-        return String.format("%04d%02d%02d%02d",
-                now.getYear(), now.getMonthValue(), now.getDayOfMonth(), now.getHour());
+    private static Map<String, Double> toSums(Object reply) {
+        Map<String, Double> sums = new HashMap<>();
+        if (reply instanceof List<?> fields) {
+            for (int i = 0; i + 1 < fields.size(); i += 2) {
+                sums.put(String.valueOf(fields.get(i)), Double.parseDouble(String.valueOf(fields.get(i + 1))));
+            }
+        }
+        return sums;
+    }
+
+    private static String bufferKey(String agentId, String slot) {
+        return AGENT_BUFFER_PREFIX + agentId + ":" + slot;
+    }
+
+    private static String registryKey(String slot) {
+        return BUFFER_REGISTRY_PREFIX + slot;
+    }
+
+    private record BufferKey(String agentId, LocalDateTime timeSlot) {
     }
 
     /**
@@ -310,31 +356,6 @@ public class MetricsAggregator {
     }
 
     // DTOs
-    @lombok.Data
-    @lombok.Builder
-    @lombok.AllArgsConstructor
-    @lombok.NoArgsConstructor
-    public static class MetricValues {
-        private Double qualityScore;
-        private Double sentimentScore;
-        private Double customerSatisfaction;
-        private Double complianceRate;
-        private Double churnRisk;
-    }
-
-    @lombok.Data
-    @lombok.Builder
-    @lombok.AllArgsConstructor
-    @lombok.NoArgsConstructor
-    private static class AggregatedMetrics {
-        private Integer count;
-        private Double avgQualityScore;
-        private Double avgSentimentScore;
-        private Double avgCustomerSatisfaction;
-        private Double avgComplianceRate;
-        private Double avgChurnRisk;
-    }
-
     @lombok.Data
     @lombok.Builder
     @lombok.AllArgsConstructor
@@ -0,0 +1,97 @@
+package com.callaudit.analytics.service;
+
+import com.callaudit.analytics.model.TrendBucket;
+import com.callaudit.analytics.model.TrendGranularity;
+import com.callaudit.analytics.model.TrendMetric;
+import com.callaudit.analytics.repository.AgentPerformanceTrendRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Computes trend series for several metrics from a single read of the trend window.
+ *
+ * The buckets are fetched once and walked once; each requested metric's values go into its own
+ * primitive array as the walk goes, and the series are built from those arrays afterwards.
+ * Results are cached per window, granularity and metric set. This is a separate bean from
+ * {@link TrendService} so its callers always go through the cache proxy.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class TrendEngine {
+
+    private final AgentPerformanceTrendRepository agentPerformanceTrendRepository;
+
+    /**
+     * Series for each requested metric over the last periodDays, keyed by metric name in metric order
+     *
+     * @param agentId only this agent's calls, or null for all agents
+     * @param metrics metrics to compute; pass an {@link java.util.EnumSet} so the cache key is stable
+     */
+    @Cacheable(value = "trends",
+            key = "'series_' + #periodDays + '_' + #granularity + '_' + #agentId + '_' + #metrics")
+    public Map<String, TrendService.TrendData> compute(int periodDays, TrendGranularity granularity,
+                                                       String agentId, Set<TrendMetric> metrics) {
+        log.info("Computing {} trends for period: {} days, bucket: {}, agent: {}",
+                metrics, periodDays, granularity.getParam(), agentId);
+
+        LocalDateTime endTime = LocalDateTime.now();
+        LocalDateTime startTime = endTime.minusDays(periodDays);
+        List<TrendBucket> buckets = agentPerformanceTrendRepository.findBuckets(
+                granularity, startTime, endTime, agentId);
+
+        TrendMetric[] requested = metrics.toArray(new TrendMetric[0]);
+        int bucketCount = buckets.size();
+        String[] timestamps = new String[bucketCount];
+        double[][] values = new double[requested.length][bucketCount];
+        int[][] positions = new int[requested.length][bucketCount]; // bucket index of each value
+        int[] sizes = new int[requested.length];
+
+        for (int i = 0; i < bucketCount; i++) {
+            TrendBucket bucket = buckets.get(i);
+            timestamps[i] = bucket.bucket().format(DateTimeFormatter.ISO_DATE_TIME);
+            for (int m = 0; m < requested.length; m++) {
+                Double value = requested[m].valueIn(bucket);
+                if (value != null) {
+                    values[m][sizes[m]] = value;
+                    positions[m][sizes[m]] = i;
+                    sizes[m]++;
+                }
+            }
+        }
+
+        String start = startTime.format(DateTimeFormatter.ISO_DATE_TIME);
+        String end = endTime.format(DateTimeFormatter.ISO_DATE_TIME);
+        Map<String, TrendService.TrendData> series = new LinkedHashMap<>();
+        for (int m = 0; m < requested.length; m++) {
+            List<TrendService.DataPoint> dataPoints = new ArrayList<>(sizes[m]);
+            for (int k = 0; k < sizes[m]; k++) {
+                dataPoints.add(TrendService.DataPoint.builder()
+                        .timestamp(timestamps[positions[m][k]])
+                        .value(values[m][k])
+                        .label(requested[m].getLabel())
+                        .build());
+            }
+            series.put(requested[m].getMetricName(), TrendService.TrendData.builder()
+                    .metric(requested[m].getMetricName())
+                    .periodDays(periodDays)
+                    .bucket(granularity.getParam())
+                    .agentId(agentId)
+                    .dataPoints(dataPoints)
+                    .startTime(start)
+                    .endTime(end)
+                    .build());
+        }
+        return series;
+    }
+}
@@ -1,7 +1,9 @@
 package com.callaudit.analytics.service;
 
-import com.callaudit.analytics.model.AgentPerformance;
-import com.callaudit.analytics.repository.AgentPerformanceRepository;
+import com.callaudit.analytics.model.TrendBucket;
+import com.callaudit.analytics.model.TrendGranularity;
+import com.callaudit.analytics.model.TrendMetric;
+import com.callaudit.analytics.repository.AgentPerformanceTrendRepository;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -13,8 +15,7 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -24,65 +25,18 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class TrendService {
 
-    private final AgentPerformanceRepository agentPerformanceRepository;
+    private final AgentPerformanceTrendRepository agentPerformanceTrendRepository;
+    private final TrendEngine trendEngine;
 
     @Value("${analytics.trends.default-period-days:7}")
     private int defaultPeriodDays;
 
-    @Cacheable(value = "trends", key = "'sentiment_' + #periodDays")
     public TrendData getSentimentTrends(Integer periodDays) {
-        log.info("Fetching sentiment trends for period: {} days", periodDays);
-
-        int days = periodDays != null ? periodDays : defaultPeriodDays;
-        LocalDateTime endTime = LocalDateTime.now();
-        LocalDateTime startTime = endTime.minusDays(days);
-
-        List<AgentPerformance> data = agentPerformanceRepository.getTrendData(startTime, endTime);
-
-        List<DataPoint> dataPoints = data.stream()
-                .filter(ap -> ap.getAvgSentimentScore() != null)
-                .map(ap -> DataPoint.builder()
-                        .timestamp(ap.getTime().format(DateTimeFormatter.ISO_DATE_TIME))
-                        .value(ap.getAvgSentimentScore())
-                        .label("Sentiment Score")
-                        .build())
-                .collect(Collectors.toList());
-
-        return TrendData.builder()
-                .metric("sentiment")
-                .periodDays(days)
-                .dataPoints(dataPoints)
-                .startTime(startTime.format(DateTimeFormatter.ISO_DATE_TIME))
-                .endTime(endTime.format(DateTimeFormatter.ISO_DATE_TIME))
-                .build();
+        return getAllTrends(periodDays).get(TrendMetric.SENTIMENT.getMetricName());
     }
 
-    @Cacheable(value = "trends", key = "'compliance_' + #periodDays")
     public TrendData getComplianceTrends(Integer periodDays) {
-        log.info("Fetching compliance trends for period: {} days", periodDays);
-
-        int days = periodDays != null ? periodDays : defaultPeriodDays;
-        LocalDateTime endTime = LocalDateTime.now();
-        LocalDateTime startTime = endTime.minusDays(days);
-
-        List<AgentPerformance> data = agentPerformanceRepository.getTrendData(startTime, endTime);
-
-        List<DataPoint> dataPoints = data.stream()
-                .filter(ap -> ap.getCompliancePassRate() != null)
-                .map(ap -> DataPoint.builder()
-                        .timestamp(ap.getTime().format(DateTimeFormatter.ISO_DATE_TIME))
-                        .value(ap.getCompliancePassRate())
-                        .label("Compliance Rate")
-                        .build())
-                .collect(Collectors.toList());
-
-        return TrendData.builder()
-                .metric("compliance")
-                .periodDays(days)
-                .dataPoints(dataPoints)
-                .startTime(startTime.format(DateTimeFormatter.ISO_DATE_TIME))
-                .endTime(endTime.format(DateTimeFormatter.ISO_DATE_TIME))
-                .build();
+        return getAllTrends(periodDays).get(TrendMetric.COMPLIANCE.getMetricName());
     }
 
     @Cacheable(value = "trends", key = "'volume_' + #periodDays")
@@ -92,25 +46,24 @@ public class TrendService {
         int days = periodDays != null ? periodDays : defaultPeriodDays;
         LocalDateTime endTime = LocalDateTime.now();
         LocalDateTime startTime = endTime.minusDays(days);
+        TrendGranularity granularity = TrendGranularity.forPeriod(days);
 
-        List<AgentPerformance> data = agentPerformanceRepository.getTrendData(startTime, endTime);
+        List<TrendBucket> buckets = agentPerformanceTrendRepository.findBuckets(granularity, startTime, endTime, null);
 
-        // Calculate total volume
-        Long totalCalls = data.stream()
-                .mapToLong(ap -> ap.getCallsProcessed() != null ? ap.getCallsProcessed() : 0L)
-                .sum();
+        // Total volume from the window itself; the first bucket above may start before it
+        long totalCalls = agentPerformanceTrendRepository.countCalls(startTime, endTime);
 
         // Volume by time
-        List<DataPoint> volumeByTime = data.stream()
-                .map(ap -> DataPoint.builder()
-                        .timestamp(ap.getTime().format(DateTimeFormatter.ISO_DATE_TIME))
-                        .value(ap.getCallsProcessed() != null ? ap.getCallsProcessed().doubleValue() : 0.0)
+        List<DataPoint> volumeByTime = buckets.stream()
+                .map(b -> DataPoint.builder()
+                        .timestamp(b.bucket().format(DateTimeFormatter.ISO_DATE_TIME))
+                        .value((double) b.callsProcessed())
                         .label("Call Volume")
                         .build())
                 .collect(Collectors.toList());
 
         // Average daily volume
-        double avgDailyVolume = days > 0 ? totalCalls.doubleValue() / days : 0.0;
+        double avgDailyVolume = days > 0 ? (double) totalCalls / days : 0.0;
 
         return VolumeMetrics.builder()
                 .totalCalls(totalCalls)
@@ -122,43 +75,31 @@ public class TrendService {
                 .build();
     }
 
-    @Cacheable(value = "trends", key = "'quality_' + #periodDays")
     public TrendData getQualityTrends(Integer periodDays) {
-        log.info("Fetching quality trends for period: {} days", periodDays);
+        return getAllTrends(periodDays).get(TrendMetric.QUALITY.getMetricName());
+    }
 
+    /**
+     * Trend series for a metric, one data point per bucket, read from the continuous aggregates
+     *
+     * @param granularity bucket width, or null to pick one from the period (see {@link TrendGranularity#forPeriod})
+     * @param agentId     only this agent's calls, or null for all agents
+     */
+    public TrendData getTrends(TrendMetric metric, Integer periodDays, TrendGranularity granularity, String agentId) {
         int days = periodDays != null ? periodDays : defaultPeriodDays;
-        LocalDateTime endTime = LocalDateTime.now();
-        LocalDateTime startTime = endTime.minusDays(days);
-
-        List<AgentPerformance> data = agentPerformanceRepository.getTrendData(startTime, endTime);
-
-        List<DataPoint> dataPoints = data.stream()
-                .filter(ap -> ap.getAvgQualityScore() != null)
-                .map(ap -> DataPoint.builder()
-                        .timestamp(ap.getTime().format(DateTimeFormatter.ISO_DATE_TIME))
-                        .value(ap.getAvgQualityScore())
-                        .label("Quality Score")
-                        .build())
-                .collect(Collectors.toList());
-
-        return TrendData.builder()
-                .metric("quality")
-                .periodDays(days)
-                .dataPoints(dataPoints)
-                .startTime(startTime.format(DateTimeFormatter.ISO_DATE_TIME))
-                .endTime(endTime.format(DateTimeFormatter.ISO_DATE_TIME))
-                .build();
+        TrendGranularity bucket = granularity != null ? granularity : TrendGranularity.forPeriod(days);
+        return trendEngine.compute(days, bucket, agentId, EnumSet.of(metric)).get(metric.getMetricName());
     }
 
+    /**
+     * Every metric's series over the period, for all agents, from one read of the window.
+     * The single-metric shortcuts above share this result, so the dashboard endpoints for a period
+     * are served by one query and one cache entry.
+     */
     public Map<String, TrendData> getAllTrends(Integer periodDays) {
-        log.info("Fetching all trends for period: {} days", periodDays);
-
-        Map<String, TrendData> trends = new HashMap<>();
-        trends.put("sentiment", getSentimentTrends(periodDays));
-        trends.put("compliance", getComplianceTrends(periodDays));
-        trends.put("quality", getQualityTrends(periodDays));
-
-        return trends;
+        int days = periodDays != null ? periodDays : defaultPeriodDays;
+        log.info("Fetching all trends for period: {} days", days);
+        return trendEngine.compute(days, TrendGranularity.forPeriod(days), null, EnumSet.allOf(TrendMetric.class));
     }
 
     @Data
@@ -167,6 +108,8 @@ public class TrendService {
     public static class TrendData {
         private String metric;
         private Integer periodDays;
+        private String bucket;  // 1h, 1d or 1w
+        private String agentId; // null for all agents
         private List<DataPoint> dataPoints;
         private String startTime;
         private String endTime;
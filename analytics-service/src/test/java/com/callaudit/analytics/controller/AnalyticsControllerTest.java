@@ -2,6 +2,8 @@ package com.callaudit.analytics.controller;
 
 import com.callaudit.analytics.model.AgentMetrics;
 import com.callaudit.analytics.model.DashboardMetrics;
+import com.callaudit.analytics.model.TrendGranularity;
+import com.callaudit.analytics.model.TrendMetric;
 import com.callaudit.analytics.service.AgentPerformanceService;
 import com.callaudit.analytics.service.DashboardService;
 import com.callaudit.analytics.service.TrendService;
@@ -187,7 +189,7 @@ class AnalyticsControllerTest {
     void getTrends_SentimentMetric_ReturnsTrendData() throws Exception {
         // Arrange
         TrendService.TrendData trendData = createTestTrendData("sentiment", 7);
-        when(trendService.getSentimentTrends(null)).thenReturn(trendData);
+        when(trendService.getTrends(TrendMetric.SENTIMENT, null, null, null)).thenReturn(trendData);
 
         // Act & Assert
         mockMvc.perform(get("/api/analytics/trends")
@@ -197,14 +199,14 @@ class AnalyticsControllerTest {
                 .andExpect(jsonPath("$.periodDays").value(7))
                 .andExpect(jsonPath("$.dataPoints", hasSize(3)));
 
-        verify(trendService).getSentimentTrends(null);
+        verify(trendService).getTrends(TrendMetric.SENTIMENT, null, null, null);
     }
 
     @Test
     void getTrends_ComplianceMetric_ReturnsTrendData() throws Exception {
         // Arrange
         TrendService.TrendData trendData = createTestTrendData("compliance", 7);
-        when(trendService.getComplianceTrends(null)).thenReturn(trendData);
+        when(trendService.getTrends(TrendMetric.COMPLIANCE, null, null, null)).thenReturn(trendData);
 
         // Act & Assert
         mockMvc.perform(get("/api/analytics/trends")
@@ -212,14 +214,14 @@ class AnalyticsControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.metric").value("compliance"));
 
-        verify(trendService).getComplianceTrends(null);
+        verify(trendService).getTrends(TrendMetric.COMPLIANCE, null, null, null);
     }
 
     @Test
     void getTrends_QualityMetric_ReturnsTrendData() throws Exception {
         // Arrange
         TrendService.TrendData trendData = createTestTrendData("quality", 7);
-        when(trendService.getQualityTrends(null)).thenReturn(trendData);
+        when(trendService.getTrends(TrendMetric.QUALITY, null, null, null)).thenReturn(trendData);
 
         // Act & Assert
         mockMvc.perform(get("/api/analytics/trends")
@@ -227,7 +229,38 @@ class AnalyticsControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.metric").value("quality"));
 
-        verify(trendService).getQualityTrends(null);
+        verify(trendService).getTrends(TrendMetric.QUALITY, null, null, null);
+    }
+
+    @Test
+    void getTrends_WeeklyBucketForAgent_PassesGranularityAndAgent() throws Exception {
+        // Arrange
+        TrendService.TrendData trendData = createTestTrendData("quality", 90);
+        when(trendService.getTrends(TrendMetric.QUALITY, 90, TrendGranularity.WEEK, "agent-001"))
+                .thenReturn(trendData);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/analytics/trends")
+                        .param("metric", "quality")
+                        .param("periodDays", "90")
+                        .param("bucket", "1w")
+                        .param("agentId", "agent-001"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.metric").value("quality"));
+
+        verify(trendService).getTrends(TrendMetric.QUALITY, 90, TrendGranularity.WEEK, "agent-001");
+    }
+
+    @Test
+    void getTrends_InvalidBucket_Returns400BadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/analytics/trends")
+                        .param("metric", "quality")
+                        .param("bucket", "5m"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid bucket: 5m (expected 1h, 1d or 1w)"));
+
+        verifyNoInteractions(trendService);
     }
 
     @Test
@@ -3,7 +3,11 @@ package com.callaudit.analytics.listener;
 import com.callaudit.analytics.event.*;
 import com.callaudit.analytics.service.AgentPerformanceService;
 import com.callaudit.analytics.service.DashboardService;
+import com.callaudit.events.CallTranscribedEvent;
+import com.callaudit.events.codec.EventCodecException;
+import com.callaudit.events.codec.EventCodecs;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -35,6 +39,9 @@ class AnalyticsEventListenerTest {
     @Mock
     private AgentPerformanceService agentPerformanceService;
 
+    @Mock
+    private EventCodecs eventCodecs;
+
     @Mock
     private Acknowledgment acknowledgment;
 
@@ -46,7 +53,7 @@ class AnalyticsEventListenerTest {
 
     @BeforeEach
     void setUp() {
-        reset(objectMapper, dashboardService, agentPerformanceService, acknowledgment);
+        reset(objectMapper, dashboardService, agentPerformanceService, eventCodecs, acknowledgment);
     }
 
     @Test
@@ -84,13 +91,13 @@ class AnalyticsEventListenerTest {
     @Test
     void handleCallTranscribed_ValidEvent_IncrementsCounter() throws Exception {
         // Arrange
-        String eventJson = "{\"eventType\":\"CallTranscribed\"}";
+        ConsumerRecord<String, byte[]> record = record("{\"eventType\":\"CallTranscribed\"}");
         CallTranscribedEvent event = createCallTranscribedEvent();
 
-        when(objectMapper.readValue(eventJson, CallTranscribedEvent.class)).thenReturn(event);
+        when(eventCodecs.decode(record, CallTranscribedEvent.class)).thenReturn(event);
 
         // Act
-        listener.handleCallTranscribed(eventJson, acknowledgment);
+        listener.handleCallTranscribed(record, acknowledgment);
 
         // Assert
         verify(dashboardService).incrementCounter("transcribed_calls");
@@ -100,12 +107,12 @@ class AnalyticsEventListenerTest {
     @Test
     void handleCallTranscribed_InvalidJson_AcknowledgesAnyway() throws Exception {
         // Arrange
-        String invalidJson = "invalid json";
-        when(objectMapper.readValue(invalidJson, CallTranscribedEvent.class))
-                .thenThrow(new RuntimeException("JSON parse error"));
+        ConsumerRecord<String, byte[]> invalidRecord = record("invalid json");
+        when(eventCodecs.decode(invalidRecord, CallTranscribedEvent.class))
+                .thenThrow(new EventCodecException("JSON parse error"));
 
         // Act
-        assertDoesNotThrow(() -> listener.handleCallTranscribed(invalidJson, acknowledgment));
+        assertDoesNotThrow(() -> listener.handleCallTranscribed(invalidRecord, acknowledgment));
 
         // Assert
         verify(acknowledgment).acknowledge();
@@ -127,6 +134,7 @@ class AnalyticsEventListenerTest {
         verify(dashboardService).incrementCounter("sentiment_analyzed");
         verify(agentPerformanceService).updateAgentMetrics(
                 eq(TEST_AGENT_ID),
+                eq(false),
                 isNull(),
                 eq(0.75),
                 eq(0.82),
@@ -218,6 +226,7 @@ class AnalyticsEventListenerTest {
         // Assert
         verify(agentPerformanceService).updateAgentMetrics(
                 eq(TEST_AGENT_ID),
+                eq(false),
                 isNull(),
                 isNull(),
                 isNull(),
@@ -291,6 +300,7 @@ class AnalyticsEventListenerTest {
         // Assert
         verify(agentPerformanceService).updateAgentMetrics(
                 eq(TEST_AGENT_ID),
+                eq(true),
                 eq(0.88),
                 isNull(),
                 isNull(),
@@ -314,6 +324,7 @@ class AnalyticsEventListenerTest {
         // Assert
         verify(agentPerformanceService).updateAgentMetrics(
                 eq(TEST_AGENT_ID),
+                eq(true),
                 eq(0.88),
                 isNull(),
                 isNull(),
@@ -371,6 +382,10 @@ class AnalyticsEventListenerTest {
                 .build();
     }
 
+    private ConsumerRecord<String, byte[]> record(String value) {
+        return new ConsumerRecord<>("calls.transcribed", 0, 0L, TEST_CALL_ID, value.getBytes());
+    }
+
     private CallTranscribedEvent createCallTranscribedEvent() {
         CallTranscribedEvent.Transcription transcription = CallTranscribedEvent.Transcription.builder()
                 .fullText("This is a test transcription")
@@ -0,0 +1,233 @@
+package com.callaudit.analytics.service;
+
+import com.callaudit.analytics.model.AgentPerformanceDelta;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AgentMetricsAccumulator
+ */
+@ExtendWith(MockitoExtension.class)
+class AgentMetricsAccumulatorTest {
+
+    private static final LocalDateTime HOUR = LocalDateTime.of(2026, 1, 2, 10, 0);
+
+    @Mock
+    private MetricsAggregator metricsAggregator;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private AgentMetricsAccumulator agentMetricsAccumulator;
+
+    @Captor
+    private ArgumentCaptor<List<AgentPerformanceDelta>> deltasCaptor;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(agentMetricsAccumulator, "maxBuckets", 1000);
+        ReflectionTestUtils.setField(agentMetricsAccumulator, "maxRetainedBuckets", 10000);
+        ReflectionTestUtils.setField(agentMetricsAccumulator, "retryBackoffMs", 0L);
+        ReflectionTestUtils.setField(agentMetricsAccumulator, "maxRetryBackoffMs", 0L);
+    }
+
+    @Test
+    void flush_EventsForSameAgentHour_BuffersOneSummedDelta() {
+        // Arrange: sentiment, VoC and audit events of one call
+        agentMetricsAccumulator.record(AgentPerformanceDelta.of("agent-001", HOUR, false, null, 0.6, 0.8, null, null));
+        agentMetricsAccumulator.record(AgentPerformanceDelta.of("agent-001", HOUR, false, null, null, null, null, 0.3));
+        agentMetricsAccumulator.record(AgentPerformanceDelta.of("agent-001", HOUR, true, 0.9, null, null, 1.0, null));
+        agentMetricsAccumulator.record(AgentPerformanceDelta.of("agent-002", HOUR, true, 0.7, null, null, 0.0, null));
+
+        // Act
+        agentMetricsAccumulator.flush();
+
+        // Assert
+        verify(metricsAggregator).bufferAll(deltasCaptor.capture());
+        List<AgentPerformanceDelta> deltas = deltasCaptor.getValue();
+        assertEquals(2, deltas.size());
+
+        AgentPerformanceDelta agent1 = deltas.stream()
+                .filter(d -> d.agentId().equals("agent-001")).findFirst().orElseThrow();
+        assertEquals(1, agent1.callsProcessed()); // counted once, not once per event
+        assertEquals(0.9, agent1.qualityScore().average());
+        assertEquals(0.6, agent1.sentimentScore().average());
+        assertEquals(0.3, agent1.churnRisk().average());
+        assertEquals(1, agent1.churnRisk().count());
+        assertEquals(0, agentMetricsAccumulator.pending());
+    }
+
+    @Test
+    void flush_NothingRecorded_DoesNotTouchValkey() {
+        // Act
+        agentMetricsAccumulator.flush();
+
+        // Assert
+        verifyNoInteractions(metricsAggregator);
+    }
+
+    @Test
+    void flush_BufferFails_KeepsSumsForNextFlush() {
+        // Arrange
+        agentMetricsAccumulator.record(AgentPerformanceDelta.of("agent-001", HOUR, true, 0.8, null, null, null, null));
+        doThrow(new RuntimeException("Valkey unavailable"))
+                .doNothing()
+                .when(metricsAggregator).bufferAll(anyList());
+
+        // Act
+        agentMetricsAccumulator.flush();
+        agentMetricsAccumulator.record(AgentPerformanceDelta.of("agent-001", HOUR, true, 1.0, null, null, null, null));
+        agentMetricsAccumulator.flush();
+
+        // Assert
+        verify(metricsAggregator, times(2)).bufferAll(deltasCaptor.capture());
+        AgentPerformanceDelta retried = deltasCaptor.getAllValues().get(1).get(0);
+        assertEquals(2, retried.callsProcessed());
+        assertEquals(0.9, retried.qualityScore().average(), 0.001);
+    }
+
+    @Test
+    void flush_AfterFailedFlush_WaitsForBackoff() {
+        // Arrange
+        ReflectionTestUtils.setField(agentMetricsAccumulator, "retryBackoffMs", 60000L);
+        ReflectionTestUtils.setField(agentMetricsAccumulator, "maxRetryBackoffMs", 300000L);
+        agentMetricsAccumulator.record(AgentPerformanceDelta.of("agent-001", HOUR, true, 0.8, null, null, null, null));
+        doThrow(new RuntimeException("Valkey unavailable"))
+                .doNothing()
+                .when(metricsAggregator).bufferAll(anyList());
+
+        // Act
+        agentMetricsAccumulator.flush();
+        agentMetricsAccumulator.flush();
+
+        // Assert
+        verify(metricsAggregator, times(1)).bufferAll(anyList());
+        assertEquals(1, agentMetricsAccumulator.pending());
+
+        agentMetricsAccumulator.flushOnShutdown();
+        verify(metricsAggregator, times(2)).bufferAll(anyList());
+        assertEquals(0, agentMetricsAccumulator.pending());
+    }
+
+    @Test
+    void record_BackingOffAboveMaxBuckets_DoesNotFlushAgain() {
+        // Arrange
+        ReflectionTestUtils.setField(agentMetricsAccumulator, "maxBuckets", 1);
+        ReflectionTestUtils.setField(agentMetricsAccumulator, "retryBackoffMs", 60000L);
+        ReflectionTestUtils.setField(agentMetricsAccumulator, "maxRetryBackoffMs", 300000L);
+        doThrow(new RuntimeException("Valkey unavailable"))
+                .when(metricsAggregator).bufferAll(anyList());
+
+        // Act
+        agentMetricsAccumulator.record(AgentPerformanceDelta.of("agent-001", HOUR, true, 0.8, null, null, null, null));
+        agentMetricsAccumulator.record(AgentPerformanceDelta.of("agent-002", HOUR, true, 0.8, null, null, null, null));
+        agentMetricsAccumulator.record(AgentPerformanceDelta.of("agent-003", HOUR, true, 0.8, null, null, null, null));
+
+        // Assert
+        verify(metricsAggregator, times(1)).bufferAll(anyList());
+        assertEquals(3, agentMetricsAccumulator.pending());
+    }
+
+    @Test
+    void record_MaxRetainedBucketsPending_DropsNewAgentHoursAndCountsThem() {
+        // Arrange
+        ReflectionTestUtils.setField(agentMetricsAccumulator, "maxRetainedBuckets", 2);
+
+        // Act
+        agentMetricsAccumulator.record(AgentPerformanceDelta.of("agent-001", HOUR, true, 0.8, null, null, null, null));
+        agentMetricsAccumulator.record(AgentPerformanceDelta.of("agent-002", HOUR, true, 0.8, null, null, null, null));
+        agentMetricsAccumulator.record(AgentPerformanceDelta.of("agent-003", HOUR, true, 0.8, null, null, null, null));
+        agentMetricsAccumulator.record(AgentPerformanceDelta.of("agent-001", HOUR, true, 1.0, null, null, null, null));
+        agentMetricsAccumulator.flush();
+
+        // Assert
+        assertEquals(1.0, meterRegistry.counter(AgentMetricsAccumulator.DROPPED_METRIC).count());
+        verify(metricsAggregator).bufferAll(deltasCaptor.capture());
+        assertEquals(2, deltasCaptor.getValue().size());
+        AgentPerformanceDelta agent1 = deltasCaptor.getValue().stream()
+                .filter(d -> d.agentId().equals("agent-001")).findFirst().orElseThrow();
+        assertEquals(2, agent1.callsProcessed()); // an existing bucket still takes new events
+    }
+
+    @Test
+    void record_MaxBucketsReached_FlushesImmediately() {
+        // Arrange
+        ReflectionTestUtils.setField(agentMetricsAccumulator, "maxBuckets", 2);
+
+        // Act
+        agentMetricsAccumulator.record(AgentPerformanceDelta.of("agent-001", HOUR, true, 0.8, null, null, null, null));
+        verifyNoInteractions(metricsAggregator);
+        agentMetricsAccumulator.record(AgentPerformanceDelta.of("agent-002", HOUR, true, 0.8, null, null, null, null));
+
+        // Assert
+        verify(metricsAggregator).bufferAll(deltasCaptor.capture());
+        assertEquals(2, deltasCaptor.getValue().size());
+    }
+
+    @Test
+    void record_ConcurrentWithFlushes_LosesNoUpdates() throws Exception {
+        // Arrange
+        List<AgentPerformanceDelta> written = new ArrayList<>();
+        doAnswer(invocation -> {
+            synchronized (written) {
+                written.addAll(invocation.getArgument(0));
+            }
+            return null;
+        }).when(metricsAggregator).bufferAll(anyList());
+
+        int threads = 4;
+        int eventsPerThread = 5_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+
+        // Act
+        List<Future<?>> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            writers.add(executor.submit(() -> {
+                for (int i = 0; i < eventsPerThread; i++) {
+                    agentMetricsAccumulator.record(
+                            AgentPerformanceDelta.of("agent-" + (i % 3), HOUR, true, 1.0, null, null, null, null));
+                }
+            }));
+        }
+        Future<?> flusher = executor.submit(() -> {
+            while (writers.stream().anyMatch(w -> !w.isDone())) {
+                agentMetricsAccumulator.flush();
+            }
+        });
+        for (Future<?> writer : writers) {
+            writer.get(30, TimeUnit.SECONDS);
+        }
+        flusher.get(30, TimeUnit.SECONDS);
+        executor.shutdown();
+        agentMetricsAccumulator.flush();
+
+        // Assert
+        int calls = written.stream().mapToInt(AgentPerformanceDelta::callsProcessed).sum();
+        long qualityCount = written.stream().mapToLong(d -> d.qualityScore().count()).sum();
+        assertEquals(threads * eventsPerThread, calls);
+        assertEquals(threads * eventsPerThread, qualityCount);
+    }
+}
@@ -2,6 +2,7 @@ package com.callaudit.analytics.service;
 
 import com.callaudit.analytics.model.AgentMetrics;
 import com.callaudit.analytics.model.AgentPerformance;
+import com.callaudit.analytics.model.AgentPerformanceDelta;
 import com.callaudit.analytics.repository.AgentPerformanceRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,8 +15,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
-import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -30,11 +31,14 @@ class AgentPerformanceServiceTest {
     @Mock
     private AgentPerformanceRepository agentPerformanceRepository;
 
+    @Mock
+    private AgentMetricsAccumulator agentMetricsAccumulator;
+
     @InjectMocks
     private AgentPerformanceService agentPerformanceService;
 
     @Captor
-    private ArgumentCaptor<AgentPerformance> performanceCaptor;
+    private ArgumentCaptor<AgentPerformanceDelta> deltaCaptor;
 
     @BeforeEach
     void setUp() {
@@ -116,91 +120,53 @@ class AgentPerformanceServiceTest {
     }
 
     @Test
-    void updateAgentMetrics_NewAgent_CreatesNewRecord() {
+    void updateAgentMetrics_RecordsDeltaForCurrentHour() {
         // Arrange
         String agentId = "agent-003";
-        when(agentPerformanceRepository.findFirstByAgentIdOrderByTimeDesc(agentId))
-                .thenReturn(Optional.empty());
-        when(agentPerformanceRepository.save(any(AgentPerformance.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
 
         // Act
-        agentPerformanceService.updateAgentMetrics(agentId, 0.85, 0.70, 0.80, 0.90, 0.25);
+        agentPerformanceService.updateAgentMetrics(agentId, true, 0.85, 0.70, 0.80, 0.90, 0.25);
 
         // Assert
-        verify(agentPerformanceRepository).save(performanceCaptor.capture());
-        AgentPerformance saved = performanceCaptor.getValue();
-
-        assertNotNull(saved);
-        assertEquals(agentId, saved.getAgentId());
-        assertEquals(1, saved.getCallsProcessed());
-        assertEquals(0.85, saved.getAvgQualityScore());
-        assertEquals(0.70, saved.getAvgSentimentScore());
-        assertEquals(0.80, saved.getAvgCustomerSatisfaction());
-        assertEquals(0.90, saved.getCompliancePassRate());
-        assertEquals(0.25, saved.getAvgChurnRisk());
+        verify(agentMetricsAccumulator).record(deltaCaptor.capture());
+        AgentPerformanceDelta delta = deltaCaptor.getValue();
+
+        assertEquals(agentId, delta.agentId());
+        assertEquals(LocalDateTime.now().truncatedTo(ChronoUnit.HOURS), delta.time());
+        assertEquals(1, delta.callsProcessed());
+        assertEquals(0.85, delta.qualityScore().average());
+        assertEquals(0.70, delta.sentimentScore().average());
+        assertEquals(0.80, delta.customerSatisfaction().average());
+        assertEquals(0.90, delta.complianceRate().average());
+        assertEquals(0.25, delta.churnRisk().average());
+        verifyNoInteractions(agentPerformanceRepository);
     }
 
     @Test
-    void updateAgentMetrics_ExistingAgent_UpdatesExistingRecord() {
-        // Arrange
-        String agentId = "agent-004";
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime timeSlot = now.withMinute(0).withSecond(0).withNano(0);
-
-        AgentPerformance existing = AgentPerformance.builder()
-                .id(1L)
-                .agentId(agentId)
-                .time(timeSlot)
-                .callsProcessed(5)
-                .avgQualityScore(0.80)
-                .avgSentimentScore(0.65)
-                .avgCustomerSatisfaction(0.75)
-                .compliancePassRate(0.85)
-                .avgChurnRisk(0.30)
-                .build();
-
-        when(agentPerformanceRepository.findFirstByAgentIdOrderByTimeDesc(agentId))
-                .thenReturn(Optional.of(existing));
-        when(agentPerformanceRepository.save(any(AgentPerformance.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
-
+    void updateAgentMetrics_CallNotCompleted_DoesNotCountCall() {
         // Act
-        agentPerformanceService.updateAgentMetrics(agentId, 0.90, 0.75, 0.85, 0.95, 0.20);
+        agentPerformanceService.updateAgentMetrics("agent-004", false, null, 0.75, 0.85, null, null);
 
         // Assert
-        verify(agentPerformanceRepository).save(performanceCaptor.capture());
-        AgentPerformance updated = performanceCaptor.getValue();
-
-        assertNotNull(updated);
-        assertEquals(6, updated.getCallsProcessed()); // Incremented from 5 to 6
-        // Running average calculation: ((old_avg * (count-1)) + new_value) / count
-        // Quality: ((0.80 * 5) + 0.90) / 6 = 4.90 / 6 = 0.8166...
-        assertTrue(updated.getAvgQualityScore() > 0.80 && updated.getAvgQualityScore() < 0.85);
+        verify(agentMetricsAccumulator).record(deltaCaptor.capture());
+        assertEquals(0, deltaCaptor.getValue().callsProcessed());
     }
 
     @Test
-    void updateAgentMetrics_WithNullValues_OnlyUpdatesNonNull() {
-        // Arrange
-        String agentId = "agent-005";
-        when(agentPerformanceRepository.findFirstByAgentIdOrderByTimeDesc(agentId))
-                .thenReturn(Optional.empty());
-        when(agentPerformanceRepository.save(any(AgentPerformance.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
-
+    void updateAgentMetrics_WithNullValues_OnlyRecordsNonNull() {
         // Act
-        agentPerformanceService.updateAgentMetrics(agentId, 0.85, null, null, 0.90, null);
+        agentPerformanceService.updateAgentMetrics("agent-005", true, 0.85, null, null, 0.90, null);
 
         // Assert
-        verify(agentPerformanceRepository).save(performanceCaptor.capture());
-        AgentPerformance saved = performanceCaptor.getValue();
-
-        assertNotNull(saved);
-        assertEquals(0.85, saved.getAvgQualityScore());
-        assertNull(saved.getAvgSentimentScore());
-        assertNull(saved.getAvgCustomerSatisfaction());
-        assertEquals(0.90, saved.getCompliancePassRate());
-        assertNull(saved.getAvgChurnRisk());
+        verify(agentMetricsAccumulator).record(deltaCaptor.capture());
+        AgentPerformanceDelta delta = deltaCaptor.getValue();
+
+        assertEquals(0.85, delta.qualityScore().average());
+        assertNull(delta.sentimentScore().average());
+        assertEquals(0, delta.sentimentScore().count());
+        assertNull(delta.customerSatisfaction().average());
+        assertEquals(0.90, delta.complianceRate().average());
+        assertNull(delta.churnRisk().average());
     }
 
     @Test
@@ -275,38 +241,6 @@ class AgentPerformanceServiceTest {
         assertTrue(result.isEmpty());
     }
 
-    @Test
-    void updateAgentMetrics_CalculatesRunningAverageCorrectly() {
-        // Arrange
-        String agentId = "agent-006";
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime timeSlot = now.withMinute(0).withSecond(0).withNano(0);
-
-        AgentPerformance existing = AgentPerformance.builder()
-                .id(1L)
-                .agentId(agentId)
-                .time(timeSlot)
-                .callsProcessed(3)
-                .avgQualityScore(0.80)  // Average of 3 calls
-                .build();
-
-        when(agentPerformanceRepository.findFirstByAgentIdOrderByTimeDesc(agentId))
-                .thenReturn(Optional.of(existing));
-        when(agentPerformanceRepository.save(any(AgentPerformance.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
-
-        // Act
-        agentPerformanceService.updateAgentMetrics(agentId, 1.0, null, null, null, null);
-
-        // Assert
-        verify(agentPerformanceRepository).save(performanceCaptor.capture());
-        AgentPerformance updated = performanceCaptor.getValue();
-
-        // Running average: ((0.80 * 3) + 1.0) / 4 = 3.4 / 4 = 0.85
-        assertEquals(0.85, updated.getAvgQualityScore(), 0.001);
-        assertEquals(4, updated.getCallsProcessed());
-    }
-
     // Helper method
     private AgentPerformance createPerformance(String agentId, Integer callsProcessed,
                                                Double qualityScore, Double customerSatisfaction,
@@ -0,0 +1,177 @@
+package com.callaudit.analytics.service;
+
+import com.callaudit.analytics.model.AgentPerformanceDelta;
+import com.callaudit.analytics.repository.AgentPerformanceBatchRepository;
+import com.callaudit.analytics.repository.AgentPerformanceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for MetricsAggregator
+ */
+@ExtendWith(MockitoExtension.class)
+class MetricsAggregatorTest {
+
+    private static final LocalDateTime HOUR = LocalDateTime.of(2026, 1, 2, 10, 0);
+    private static final String SLOT = "2026010210";
+
+    @Mock
+    private AgentPerformanceRepository agentPerformanceRepository;
+
+    @Mock
+    private AgentPerformanceBatchRepository agentPerformanceBatchRepository;
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private SetOperations<String, String> setOperations;
+
+    @InjectMocks
+    private MetricsAggregator metricsAggregator;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(metricsAggregator, "batchSize", 100);
+    }
+
+    @Test
+    void bufferAll_MergesDeltasPerAgentHourAndRegistersThemInOneScript() {
+        // Act
+        metricsAggregator.bufferAll(List.of(
+                AgentPerformanceDelta.of("agent-1", HOUR, true, 80.0, null, null, null, null),
+                AgentPerformanceDelta.of("agent-1", HOUR, false, null, 0.5, null, null, null),
+                AgentPerformanceDelta.of("agent-2", HOUR, true, null, null, null, null, null)));
+
+        // Assert
+        verify(stringRedisTemplate).execute(any(RedisScript.class),
+                eq(List.of("metrics:slots",
+                        "metrics:sums:agent-1:" + SLOT, "metrics:buffers:" + SLOT,
+                        "metrics:sums:agent-2:" + SLOT, "metrics:buffers:" + SLOT)),
+                eq("86400"),
+                eq("agent-1"), eq(SLOT), eq("5"), eq("calls"), eq("1.0"),
+                eq("qualityScore:sum"), eq("80.0"), eq("qualityScore:count"), eq("1.0"),
+                eq("sentimentScore:sum"), eq("0.5"), eq("sentimentScore:count"), eq("1.0"),
+                eq("agent-2"), eq(SLOT), eq("1"), eq("calls"), eq("1.0"));
+        verify(stringRedisTemplate, never()).keys(anyString());
+    }
+
+    @Test
+    void processBufferedMetrics_NoPendingSlots_DoesNothing() {
+        // Arrange
+        when(stringRedisTemplate.opsForSet()).thenReturn(setOperations);
+        when(setOperations.members("metrics:slots")).thenReturn(Set.of());
+
+        // Act
+        metricsAggregator.processBufferedMetrics();
+
+        // Assert
+        verify(setOperations, never()).pop(anyString(), anyLong());
+        verifyNoInteractions(agentPerformanceBatchRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void processBufferedMetrics_DrainsRegisteredAgentsWithoutScanningKeys() {
+        // Arrange
+        when(stringRedisTemplate.opsForSet()).thenReturn(setOperations);
+        when(setOperations.members("metrics:slots")).thenReturn(Set.of(SLOT));
+        when(setOperations.pop("metrics:buffers:" + SLOT, 100L))
+                .thenReturn(List.of("agent-1", "agent-2"))
+                .thenReturn(List.of());
+        // lenient: the slot release and requeue scripts go through the same execute overload
+        lenient().doReturn(List.of(
+                List.of("calls", "1", "qualityScore:sum", "80", "qualityScore:count", "1"),
+                List.of()))
+                .when(stringRedisTemplate).execute(any(RedisScript.class), anyList());
+
+        // Act
+        metricsAggregator.processBufferedMetrics();
+
+        // Assert
+        ArgumentCaptor<List<AgentPerformanceDelta>> captor = ArgumentCaptor.forClass(List.class);
+        verify(agentPerformanceBatchRepository).upsertAll(captor.capture());
+        assertEquals(1, captor.getValue().size());
+        assertEquals("agent-1", captor.getValue().get(0).agentId());
+        assertEquals(HOUR, captor.getValue().get(0).time());
+        verify(stringRedisTemplate).execute(any(RedisScript.class),
+                eq(List.of("metrics:sums:agent-1:" + SLOT, "metrics:sums:agent-2:" + SLOT)));
+        // The drained slot is forgotten once its registry is empty
+        verify(stringRedisTemplate).execute(any(RedisScript.class),
+                eq(List.of("metrics:slots", "metrics:buffers:" + SLOT)), eq(SLOT));
+        verify(stringRedisTemplate, never()).keys(anyString());
+        verify(stringRedisTemplate, never()).delete(anyString());
+        verifyNoInteractions(agentPerformanceRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void processBufferedMetrics_MetricMissingFromSomeEvents_WritesPerMetricCounts() {
+        // Arrange
+        when(stringRedisTemplate.opsForSet()).thenReturn(setOperations);
+        when(setOperations.members("metrics:slots")).thenReturn(Set.of(SLOT));
+        when(setOperations.pop("metrics:buffers:" + SLOT, 100L))
+                .thenReturn(List.of("agent-1"))
+                .thenReturn(List.of());
+        // 2 calls; sentiment was only present on one of them, churn risk on neither
+        // lenient: the slot release and requeue scripts go through the same execute overload
+        lenient().doReturn(List.of(
+                List.of("calls", "2", "qualityScore:sum", "170", "qualityScore:count", "2",
+                        "sentimentScore:sum", "0.5", "sentimentScore:count", "1")))
+                .when(stringRedisTemplate).execute(any(RedisScript.class), anyList());
+
+        // Act
+        metricsAggregator.processBufferedMetrics();
+
+        // Assert
+        ArgumentCaptor<List<AgentPerformanceDelta>> captor = ArgumentCaptor.forClass(List.class);
+        verify(agentPerformanceBatchRepository).upsertAll(captor.capture());
+        AgentPerformanceDelta delta = captor.getValue().get(0);
+        assertEquals(2, delta.callsProcessed());
+        assertEquals(new AgentPerformanceDelta.Sum(170, 2), delta.qualityScore());
+        assertEquals(new AgentPerformanceDelta.Sum(0.5, 1), delta.sentimentScore());
+        assertEquals(0.5, delta.sentimentScore().average(), 0.001);
+        assertEquals(AgentPerformanceDelta.Sum.EMPTY, delta.churnRisk());
+        assertNull(delta.churnRisk().average());
+    }
+
+    @Test
+    void processBufferedMetrics_UpsertFails_RequeuesDrainedSums() {
+        // Arrange
+        when(stringRedisTemplate.opsForSet()).thenReturn(setOperations);
+        when(setOperations.members("metrics:slots")).thenReturn(Set.of(SLOT));
+        when(setOperations.pop("metrics:buffers:" + SLOT, 100L))
+                .thenReturn(List.of("agent-1"))
+                .thenReturn(List.of());
+        // lenient: the slot release and requeue scripts go through the same execute overload
+        lenient().doReturn(List.of(List.of("qualityScore:sum", "70")))
+                .when(stringRedisTemplate).execute(any(RedisScript.class), anyList());
+        doThrow(new RuntimeException("Database unavailable"))
+                .when(agentPerformanceBatchRepository).upsertAll(anyList());
+
+        // Act
+        metricsAggregator.processBufferedMetrics();
+
+        // Assert
+        verify(stringRedisTemplate).execute(any(RedisScript.class),
+                eq(List.of("metrics:slots", "metrics:sums:agent-1:" + SLOT, "metrics:buffers:" + SLOT)),
+                eq("86400"), eq("agent-1"), eq(SLOT), eq("1"), eq("qualityScore:sum"), eq("70.0"));
+    }
+}
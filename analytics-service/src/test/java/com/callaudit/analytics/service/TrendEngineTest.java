@@ -0,0 +1,103 @@
+package com.callaudit.analytics.service;
+
+import com.callaudit.analytics.model.TrendBucket;
+import com.callaudit.analytics.model.TrendGranularity;
+import com.callaudit.analytics.model.TrendMetric;
+import com.callaudit.analytics.repository.AgentPerformanceTrendRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TrendEngine
+ */
+@ExtendWith(MockitoExtension.class)
+class TrendEngineTest {
+
+    private static final LocalDateTime DAY_1 = LocalDateTime.of(2026, 1, 1, 0, 0);
+    private static final LocalDateTime DAY_2 = LocalDateTime.of(2026, 1, 2, 0, 0);
+    private static final LocalDateTime DAY_3 = LocalDateTime.of(2026, 1, 3, 0, 0);
+
+    @Mock
+    private AgentPerformanceTrendRepository agentPerformanceTrendRepository;
+
+    @InjectMocks
+    private TrendEngine trendEngine;
+
+    @Test
+    void compute_AllMetrics_BuildsEverySeriesFromOneRead() {
+        // Arrange: day 2 has audits but no sentiment events
+        when(agentPerformanceTrendRepository.findBuckets(eq(TrendGranularity.DAY),
+                any(LocalDateTime.class), any(LocalDateTime.class), eq("agent-001")))
+                .thenReturn(List.of(
+                        new TrendBucket(DAY_1, 10, 80.0, 0.5, null, 0.9, null),
+                        new TrendBucket(DAY_2, 12, 85.0, null, null, 1.0, null),
+                        new TrendBucket(DAY_3, 8, 90.0, 0.7, null, 0.8, null)));
+
+        // Act
+        Map<String, TrendService.TrendData> result = trendEngine.compute(7, TrendGranularity.DAY, "agent-001",
+                EnumSet.allOf(TrendMetric.class));
+
+        // Assert
+        verify(agentPerformanceTrendRepository, times(1)).findBuckets(any(), any(), any(), any());
+        assertEquals(List.of("sentiment", "compliance", "quality"), List.copyOf(result.keySet()));
+
+        List<TrendService.DataPoint> sentiment = result.get("sentiment").getDataPoints();
+        assertEquals(2, sentiment.size());
+        assertEquals(DAY_3.format(DateTimeFormatter.ISO_DATE_TIME), sentiment.get(1).getTimestamp());
+        assertEquals(0.7, sentiment.get(1).getValue());
+
+        TrendService.TrendData quality = result.get("quality");
+        assertEquals(3, quality.getDataPoints().size());
+        assertEquals(85.0, quality.getDataPoints().get(1).getValue());
+        assertEquals("Quality Score", quality.getDataPoints().get(1).getLabel());
+        assertEquals("1d", quality.getBucket());
+        assertEquals("agent-001", quality.getAgentId());
+        assertEquals(7, quality.getPeriodDays());
+    }
+
+    @Test
+    void compute_MetricSubset_ReturnsOnlyRequestedSeries() {
+        // Arrange
+        when(agentPerformanceTrendRepository.findBuckets(any(), any(LocalDateTime.class),
+                any(LocalDateTime.class), any()))
+                .thenReturn(List.of(new TrendBucket(DAY_1, 10, 80.0, 0.5, null, 0.9, null)));
+
+        // Act
+        Map<String, TrendService.TrendData> result = trendEngine.compute(1, TrendGranularity.HOUR, null,
+                EnumSet.of(TrendMetric.COMPLIANCE));
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals(0.9, result.get("compliance").getDataPoints().get(0).getValue());
+    }
+
+    @Test
+    void compute_NoBuckets_ReturnsEmptySeries() {
+        // Arrange
+        when(agentPerformanceTrendRepository.findBuckets(any(), any(LocalDateTime.class),
+                any(LocalDateTime.class), any()))
+                .thenReturn(List.of());
+
+        // Act
+        Map<String, TrendService.TrendData> result = trendEngine.compute(7, TrendGranularity.DAY, null,
+                EnumSet.allOf(TrendMetric.class));
+
+        // Assert
+        assertEquals(3, result.size());
+        result.values().forEach(trendData -> assertTrue(trendData.getDataPoints().isEmpty()));
+    }
+}
@@ -1,11 +1,13 @@
 package com.callaudit.analytics.service;
 
-import com.callaudit.analytics.model.AgentPerformance;
-import com.callaudit.analytics.repository.AgentPerformanceRepository;
+import com.callaudit.analytics.model.TrendBucket;
+import com.callaudit.analytics.model.TrendGranularity;
+import com.callaudit.analytics.model.TrendMetric;
+import com.callaudit.analytics.repository.AgentPerformanceTrendRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
@@ -16,6 +18,8 @@ import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 /**
@@ -25,27 +29,29 @@ import static org.mockito.Mockito.*;
 class TrendServiceTest {
 
     @Mock
-    private AgentPerformanceRepository agentPerformanceRepository;
+    private AgentPerformanceTrendRepository agentPerformanceTrendRepository;
 
-    @InjectMocks
     private TrendService trendService;
 
     @BeforeEach
     void setUp() {
+        trendService = new TrendService(agentPerformanceTrendRepository,
+                new TrendEngine(agentPerformanceTrendRepository));
         ReflectionTestUtils.setField(trendService, "defaultPeriodDays", 7);
     }
 
     @Test
     void getSentimentTrends_WithData_ReturnsTrendData() {
         // Arrange
-        List<AgentPerformance> performanceData = List.of(
-                createPerformance(0.70, 0.85, 0.90, 50),
-                createPerformance(0.72, 0.87, 0.92, 55),
-                createPerformance(0.75, 0.88, 0.94, 60)
+        List<TrendBucket> buckets = List.of(
+                createBucket(3, 0.70, 0.85, 0.90, 50),
+                createBucket(2, 0.72, 0.87, 0.92, 55),
+                createBucket(1, 0.75, 0.88, 0.94, 60)
         );
 
-        when(agentPerformanceRepository.getTrendData(any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(performanceData);
+        when(agentPerformanceTrendRepository.findBuckets(eq(TrendGranularity.DAY),
+                any(LocalDateTime.class), any(LocalDateTime.class), isNull()))
+                .thenReturn(buckets);
 
         // Act
         TrendService.TrendData result = trendService.getSentimentTrends(7);
@@ -54,6 +60,7 @@ class TrendServiceTest {
         assertNotNull(result);
         assertEquals("sentiment", result.getMetric());
         assertEquals(7, result.getPeriodDays());
+        assertEquals("1d", result.getBucket());
         assertEquals(3, result.getDataPoints().size());
 
         TrendService.DataPoint firstPoint = result.getDataPoints().get(0);
@@ -64,7 +71,8 @@ class TrendServiceTest {
     @Test
     void getSentimentTrends_WithNullPeriod_UsesDefaultPeriod() {
         // Arrange
-        when(agentPerformanceRepository.getTrendData(any(LocalDateTime.class), any(LocalDateTime.class)))
+        when(agentPerformanceTrendRepository.findBuckets(any(), any(LocalDateTime.class),
+                any(LocalDateTime.class), isNull()))
                 .thenReturn(List.of());
 
         // Act
@@ -73,20 +81,22 @@ class TrendServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(7, result.getPeriodDays()); // Default period
-        verify(agentPerformanceRepository).getTrendData(any(LocalDateTime.class), any(LocalDateTime.class));
+        verify(agentPerformanceTrendRepository).findBuckets(eq(TrendGranularity.DAY),
+                any(LocalDateTime.class), any(LocalDateTime.class), isNull());
     }
 
     @Test
-    void getSentimentTrends_FiltersOutNullSentimentScores() {
+    void getSentimentTrends_FiltersOutBucketsWithoutSentiment() {
         // Arrange
-        List<AgentPerformance> performanceData = List.of(
-                createPerformance(0.70, 0.85, 0.90, 50),
-                createPerformance(null, 0.87, 0.92, 55), // Null sentiment
-                createPerformance(0.75, 0.88, 0.94, 60)
+        List<TrendBucket> buckets = List.of(
+                createBucket(3, 0.70, 0.85, 0.90, 50),
+                createBucket(2, null, 0.87, 0.92, 55), // No sentiment events in this bucket
+                createBucket(1, 0.75, 0.88, 0.94, 60)
         );
 
-        when(agentPerformanceRepository.getTrendData(any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(performanceData);
+        when(agentPerformanceTrendRepository.findBuckets(any(), any(LocalDateTime.class),
+                any(LocalDateTime.class), isNull()))
+                .thenReturn(buckets);
 
         // Act
         TrendService.TrendData result = trendService.getSentimentTrends(7);
@@ -99,14 +109,15 @@ class TrendServiceTest {
     @Test
     void getComplianceTrends_WithData_ReturnsTrendData() {
         // Arrange
-        List<AgentPerformance> performanceData = List.of(
-                createPerformance(0.70, 0.85, 0.90, 50),
-                createPerformance(0.72, 0.87, 0.92, 55),
-                createPerformance(0.75, 0.88, 0.94, 60)
+        List<TrendBucket> buckets = List.of(
+                createBucket(3, 0.70, 0.85, 0.90, 50),
+                createBucket(2, 0.72, 0.87, 0.92, 55),
+                createBucket(1, 0.75, 0.88, 0.94, 60)
         );
 
-        when(agentPerformanceRepository.getTrendData(any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(performanceData);
+        when(agentPerformanceTrendRepository.findBuckets(any(), any(LocalDateTime.class),
+                any(LocalDateTime.class), isNull()))
+                .thenReturn(buckets);
 
         // Act
         TrendService.TrendData result = trendService.getComplianceTrends(7);
@@ -114,7 +125,6 @@ class TrendServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals("compliance", result.getMetric());
-        assertEquals(7, result.getPeriodDays());
         assertEquals(3, result.getDataPoints().size());
 
         TrendService.DataPoint firstPoint = result.getDataPoints().get(0);
@@ -122,37 +132,18 @@ class TrendServiceTest {
         assertEquals("Compliance Rate", firstPoint.getLabel());
     }
 
-    @Test
-    void getComplianceTrends_FiltersOutNullComplianceRates() {
-        // Arrange
-        List<AgentPerformance> performanceData = List.of(
-                createPerformance(0.70, 0.85, 0.90, 50),
-                createPerformance(0.72, 0.87, null, 55), // Null compliance
-                createPerformance(0.75, 0.88, 0.94, 60)
-        );
-
-        when(agentPerformanceRepository.getTrendData(any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(performanceData);
-
-        // Act
-        TrendService.TrendData result = trendService.getComplianceTrends(7);
-
-        // Assert
-        assertNotNull(result);
-        assertEquals(2, result.getDataPoints().size());
-    }
-
     @Test
     void getQualityTrends_WithData_ReturnsTrendData() {
         // Arrange
-        List<AgentPerformance> performanceData = List.of(
-                createPerformance(0.70, 0.85, 0.90, 50),
-                createPerformance(0.72, 0.87, 0.92, 55),
-                createPerformance(0.75, 0.88, 0.94, 60)
+        List<TrendBucket> buckets = List.of(
+                createBucket(3, 0.70, 0.85, 0.90, 50),
+                createBucket(2, 0.72, null, 0.92, 55), // No quality events in this bucket
+                createBucket(1, 0.75, 0.88, 0.94, 60)
         );
 
-        when(agentPerformanceRepository.getTrendData(any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(performanceData);
+        when(agentPerformanceTrendRepository.findBuckets(any(), any(LocalDateTime.class),
+                any(LocalDateTime.class), isNull()))
+                .thenReturn(buckets);
 
         // Act
         TrendService.TrendData result = trendService.getQualityTrends(14);
@@ -161,7 +152,7 @@ class TrendServiceTest {
         assertNotNull(result);
         assertEquals("quality", result.getMetric());
         assertEquals(14, result.getPeriodDays());
-        assertEquals(3, result.getDataPoints().size());
+        assertEquals(2, result.getDataPoints().size());
 
         TrendService.DataPoint firstPoint = result.getDataPoints().get(0);
         assertEquals(0.85, firstPoint.getValue());
@@ -169,36 +160,52 @@ class TrendServiceTest {
     }
 
     @Test
-    void getQualityTrends_FiltersOutNullQualityScores() {
+    void getTrends_ExplicitBucketAndAgent_QueriesThatGranularityForTheAgent() {
         // Arrange
-        List<AgentPerformance> performanceData = List.of(
-                createPerformance(0.70, 0.85, 0.90, 50),
-                createPerformance(0.72, null, 0.92, 55), // Null quality
-                createPerformance(0.75, 0.88, 0.94, 60)
-        );
+        when(agentPerformanceTrendRepository.findBuckets(eq(TrendGranularity.WEEK),
+                any(LocalDateTime.class), any(LocalDateTime.class), eq("agent-001")))
+                .thenReturn(List.of(createBucket(7, 0.70, 0.85, 0.90, 50)));
+
+        // Act
+        TrendService.TrendData result = trendService.getTrends(TrendMetric.QUALITY, 30,
+                TrendGranularity.WEEK, "agent-001");
+
+        // Assert
+        assertEquals("1w", result.getBucket());
+        assertEquals("agent-001", result.getAgentId());
+        assertEquals(1, result.getDataPoints().size());
+    }
 
-        when(agentPerformanceRepository.getTrendData(any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(performanceData);
+    @Test
+    void getTrends_NoBucket_PicksGranularityFromPeriod() {
+        // Arrange
+        when(agentPerformanceTrendRepository.findBuckets(any(), any(LocalDateTime.class),
+                any(LocalDateTime.class), isNull()))
+                .thenReturn(List.of());
 
         // Act
-        TrendService.TrendData result = trendService.getQualityTrends(7);
+        TrendService.TrendData hourly = trendService.getTrends(TrendMetric.SENTIMENT, 1, null, null);
+        TrendService.TrendData weekly = trendService.getTrends(TrendMetric.SENTIMENT, 180, null, null);
 
         // Assert
-        assertNotNull(result);
-        assertEquals(2, result.getDataPoints().size());
+        assertEquals("1h", hourly.getBucket());
+        assertEquals("1w", weekly.getBucket());
     }
 
     @Test
     void getVolumeMetrics_WithData_ReturnsVolumeMetrics() {
         // Arrange
-        List<AgentPerformance> performanceData = List.of(
-                createPerformance(0.70, 0.85, 0.90, 50),
-                createPerformance(0.72, 0.87, 0.92, 55),
-                createPerformance(0.75, 0.88, 0.94, 60)
+        List<TrendBucket> buckets = List.of(
+                createBucket(3, 0.70, 0.85, 0.90, 50),
+                createBucket(2, 0.72, 0.87, 0.92, 55),
+                createBucket(1, 0.75, 0.88, 0.94, 60)
         );
 
-        when(agentPerformanceRepository.getTrendData(any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(performanceData);
+        when(agentPerformanceTrendRepository.findBuckets(any(), any(LocalDateTime.class),
+                any(LocalDateTime.class), isNull()))
+                .thenReturn(buckets);
+        when(agentPerformanceTrendRepository.countCalls(any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(165L);
 
         // Act
         TrendService.VolumeMetrics result = trendService.getVolumeMetrics(7);
@@ -216,34 +223,37 @@ class TrendServiceTest {
     }
 
     @Test
-    void getVolumeMetrics_WithNullCallsProcessed_HandlesGracefully() {
-        // Arrange
-        List<AgentPerformance> performanceData = List.of(
-                createPerformance(0.70, 0.85, 0.90, 50),
-                createPerformance(0.72, 0.87, 0.92, null), // Null calls
-                createPerformance(0.75, 0.88, 0.94, 60)
+    void getVolumeMetrics_FirstBucketStartsBeforeWindow_CountsOnlyCallsInWindow() {
+        // Arrange: the first daily bucket holds 50 calls, but only 10 of them fall inside the window
+        List<TrendBucket> buckets = List.of(
+                createBucket(7, 0.70, 0.85, 0.90, 50),
+                createBucket(6, 0.72, 0.87, 0.92, 55),
+                createBucket(5, 0.75, 0.88, 0.94, 60)
         );
-
-        when(agentPerformanceRepository.getTrendData(any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(performanceData);
+        when(agentPerformanceTrendRepository.findBuckets(any(), any(LocalDateTime.class),
+                any(LocalDateTime.class), isNull()))
+                .thenReturn(buckets);
+        when(agentPerformanceTrendRepository.countCalls(any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(125L);
 
         // Act
         TrendService.VolumeMetrics result = trendService.getVolumeMetrics(7);
 
         // Assert
-        assertNotNull(result);
-        assertEquals(110L, result.getTotalCalls()); // 50 + 0 + 60
+        ArgumentCaptor<LocalDateTime> start = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> end = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(agentPerformanceTrendRepository).countCalls(start.capture(), end.capture());
+        assertEquals(start.getValue().plusDays(7), end.getValue()); // the exact window, not bucket-aligned
+        assertEquals(125L, result.getTotalCalls());
+        assertEquals(125.0 / 7, result.getAverageDailyVolume(), 0.01);
         assertEquals(3, result.getVolumeByTime().size());
-
-        // The null value should be converted to 0.0
-        TrendService.DataPoint secondPoint = result.getVolumeByTime().get(1);
-        assertEquals(0.0, secondPoint.getValue());
     }
 
     @Test
     void getVolumeMetrics_EmptyData_ReturnsZeroMetrics() {
         // Arrange
-        when(agentPerformanceRepository.getTrendData(any(LocalDateTime.class), any(LocalDateTime.class)))
+        when(agentPerformanceTrendRepository.findBuckets(any(), any(LocalDateTime.class),
+                any(LocalDateTime.class), isNull()))
                 .thenReturn(List.of());
 
         // Act
@@ -259,12 +269,9 @@ class TrendServiceTest {
     @Test
     void getAllTrends_ReturnsAllThreeTrends() {
         // Arrange
-        List<AgentPerformance> performanceData = List.of(
-                createPerformance(0.70, 0.85, 0.90, 50)
-        );
-
-        when(agentPerformanceRepository.getTrendData(any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(performanceData);
+        when(agentPerformanceTrendRepository.findBuckets(any(), any(LocalDateTime.class),
+                any(LocalDateTime.class), isNull()))
+                .thenReturn(List.of(createBucket(1, 0.70, 0.85, 0.90, 50)));
 
         // Act
         Map<String, TrendService.TrendData> result = trendService.getAllTrends(7);
@@ -272,54 +279,20 @@ class TrendServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(3, result.size());
-        assertTrue(result.containsKey("sentiment"));
-        assertTrue(result.containsKey("compliance"));
-        assertTrue(result.containsKey("quality"));
-
         assertEquals("sentiment", result.get("sentiment").getMetric());
         assertEquals("compliance", result.get("compliance").getMetric());
         assertEquals("quality", result.get("quality").getMetric());
 
-        // Verify repository was called 3 times (once for each trend)
-        verify(agentPerformanceRepository, times(3)).getTrendData(any(LocalDateTime.class), any(LocalDateTime.class));
-    }
-
-    @Test
-    void getAllTrends_WithNullPeriod_UsesDefaultPeriod() {
-        // Arrange
-        when(agentPerformanceRepository.getTrendData(any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(List.of());
-
-        // Act
-        Map<String, TrendService.TrendData> result = trendService.getAllTrends(null);
-
-        // Assert
-        assertNotNull(result);
-        assertEquals(3, result.size());
-
-        result.values().forEach(trendData -> {
-            assertEquals(7, trendData.getPeriodDays()); // Default period
-        });
-    }
-
-    @Test
-    void getSentimentTrends_CustomPeriod30Days_UsesCorrectPeriod() {
-        // Arrange
-        when(agentPerformanceRepository.getTrendData(any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(List.of());
-
-        // Act
-        TrendService.TrendData result = trendService.getSentimentTrends(30);
-
-        // Assert
-        assertNotNull(result);
-        assertEquals(30, result.getPeriodDays());
+        // One read of the window serves all three series
+        verify(agentPerformanceTrendRepository, times(1)).findBuckets(any(), any(LocalDateTime.class),
+                any(LocalDateTime.class), isNull());
     }
 
     @Test
     void getVolumeMetrics_ZeroDays_HandlesGracefully() {
         // Arrange
-        when(agentPerformanceRepository.getTrendData(any(LocalDateTime.class), any(LocalDateTime.class)))
+        when(agentPerformanceTrendRepository.findBuckets(any(), any(LocalDateTime.class),
+                any(LocalDateTime.class), isNull()))
                 .thenReturn(List.of());
 
         // Act
@@ -332,16 +305,9 @@ class TrendServiceTest {
     }
 
     // Helper method
-    private AgentPerformance createPerformance(Double sentimentScore, Double qualityScore,
-                                               Double complianceRate, Integer callsProcessed) {
-        return AgentPerformance.builder()
-                .id(1L)
-                .time(LocalDateTime.now().minusDays(1))
-                .agentId("agent-001")
-                .avgSentimentScore(sentimentScore)
-                .avgQualityScore(qualityScore)
-                .compliancePassRate(complianceRate)
-                .callsProcessed(callsProcessed)
-                .build();
+    private TrendBucket createBucket(int daysAgo, Double sentimentScore, Double qualityScore,
+                                     Double complianceRate, long callsProcessed) {
+        return new TrendBucket(LocalDateTime.now().minusDays(daysAgo).withHour(0), callsProcessed,
+                qualityScore, sentimentScore, null, complianceRate, null);
     }
 }
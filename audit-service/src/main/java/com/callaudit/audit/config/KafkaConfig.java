@@ -1,15 +1,18 @@
 package com.callaudit.audit.config;
 
 import com.callaudit.audit.event.*;
+import com.callaudit.events.codec.EventCodecs;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.*;
@@ -30,6 +33,9 @@ public class KafkaConfig {
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
     @Bean
     public ObjectMapper objectMapper() {
         ObjectMapper mapper = new ObjectMapper();
@@ -37,6 +43,11 @@ public class KafkaConfig {
         return mapper;
     }
 
+    @Bean
+    public EventCodecs eventCodecs() {
+        return EventCodecs.standard();
+    }
+
     @Bean
     public ProducerFactory<String, Object> producerFactory() {
         Map<String, Object> configProps = new HashMap<>();
@@ -70,6 +81,32 @@ public class KafkaConfig {
         ConcurrentKafkaListenerContainerFactory<String, String> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        return withListenerExecutor(factory);
+    }
+
+    /**
+     * {@link #consumerFactory()} settings with byte values, for events read with {@link EventCodecs},
+     * which picks JSON or CBOR per record
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> eventListenerContainerFactory() {
+        Map<String, Object> props = new HashMap<>(consumerFactory().getConfigurationProperties());
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props));
+        return withListenerExecutor(factory);
+    }
+
+    /**
+     * Run listener invocations on virtual threads when {@code spring.threads.virtual.enabled} is set
+     */
+    private <K, V> ConcurrentKafkaListenerContainerFactory<K, V> withListenerExecutor(
+            ConcurrentKafkaListenerContainerFactory<K, V> factory) {
+        if (virtualThreadsEnabled) {
+            factory.getContainerProperties().setListenerTaskExecutor(new VirtualThreadTaskExecutor("kafka-listener-"));
+        }
         return factory;
     }
 }
@@ -1,39 +1,59 @@
 package com.callaudit.audit.listener;
 
-import com.callaudit.audit.event.CallTranscribedEvent;
+import com.callaudit.audit.event.BaseEvent;
 import com.callaudit.audit.event.SentimentAnalyzedEvent;
 import com.callaudit.audit.event.VocAnalyzedEvent;
 import com.callaudit.audit.service.AuditService;
+import com.callaudit.events.CallTranscribedEvent;
+import com.callaudit.events.EventEnvelope;
+import com.callaudit.events.codec.EventCodecs;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Component
 @Slf4j
 @RequiredArgsConstructor
 public class AuditEventListener {
 
+    static final String PRIORITY_HIGH = "HIGH";
+    static final String PRIORITY_NORMAL = "NORMAL";
+
     private final AuditService auditService;
     private final ObjectMapper objectMapper;
+    private final EventCodecs eventCodecs;
 
     // Store events by call ID until all three are received
-    private final ConcurrentHashMap<UUID, CallTranscribedEvent.TranscriptionPayload> transcriptions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, CallTranscribedEvent.Payload> transcriptions = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<UUID, SentimentAnalyzedEvent.SentimentPayload> sentiments = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<UUID, VocAnalyzedEvent.VocPayload> vocInsights = new ConcurrentHashMap<>();
-
-    @KafkaListener(topics = "${audit.kafka.topics.transcribed:calls.transcribed}", groupId = "${spring.kafka.consumer.group-id}")
-    public void handleCallTranscribed(String message) {
+    private final Set<UUID> highPriorityCalls = ConcurrentHashMap.newKeySet();
+
+    // Same serialisation as a synchronized method, but a virtual thread blocked in auditCall does not pin its carrier
+    private final ReentrantLock auditLock = new ReentrantLock();
+
+    // Each priority topic gets its own listener container, so HIGH calls are not queued behind the normal backlog
+    // Transcripts arrive as JSON or CBOR; the shared codec reads either per the record's content-type header
+    @KafkaListener(topics = "${audit.kafka.topics.transcribed:calls.transcribed}", groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = "eventListenerContainerFactory")
+    @KafkaListener(topics = "${audit.kafka.topics.transcribed-priority:calls.transcribed.priority}", groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = "eventListenerContainerFactory")
+    public void handleCallTranscribed(ConsumerRecord<String, byte[]> record) {
         try {
-            log.debug("Received CallTranscribed event: {}", message);
-            CallTranscribedEvent event = objectMapper.readValue(message, CallTranscribedEvent.class);
+            CallTranscribedEvent event = eventCodecs.decode(record, CallTranscribedEvent.class);
+            log.debug("Received CallTranscribed event for call ID: {}", event.getPayload().getCallId());
 
-            UUID callId = event.getPayload().getCallId();
+            UUID callId = UUID.fromString(event.getPayload().getCallId());
             transcriptions.put(callId, event.getPayload());
+            rememberPriority(callId, event);
 
             log.info("Stored transcription for call ID: {}", callId);
             tryProcessAudit(callId);
@@ -43,6 +63,7 @@ public class AuditEventListener {
     }
 
     @KafkaListener(topics = "${audit.kafka.topics.sentiment-analyzed:calls.sentiment-analyzed}", groupId = "${spring.kafka.consumer.group-id}")
+    @KafkaListener(topics = "${audit.kafka.topics.sentiment-analyzed-priority:calls.sentiment-analyzed.priority}", groupId = "${spring.kafka.consumer.group-id}")
     public void handleSentimentAnalyzed(String message) {
         try {
             log.debug("Received SentimentAnalyzed event: {}", message);
@@ -50,6 +71,7 @@ public class AuditEventListener {
 
             UUID callId = event.getPayload().getCallId();
             sentiments.put(callId, event.getPayload());
+            rememberPriority(callId, event);
 
             log.info("Stored sentiment analysis for call ID: {}", callId);
             tryProcessAudit(callId);
@@ -59,6 +81,7 @@ public class AuditEventListener {
     }
 
     @KafkaListener(topics = "${audit.kafka.topics.voc-analyzed:calls.voc-analyzed}", groupId = "${spring.kafka.consumer.group-id}")
+    @KafkaListener(topics = "${audit.kafka.topics.voc-analyzed-priority:calls.voc-analyzed.priority}", groupId = "${spring.kafka.consumer.group-id}")
     public void handleVocAnalyzed(String message) {
         try {
             log.debug("Received VocAnalyzed event: {}", message);
@@ -66,6 +89,7 @@ public class AuditEventListener {
 
             UUID callId = event.getPayload().getCallId();
             vocInsights.put(callId, event.getPayload());
+            rememberPriority(callId, event);
 
             log.info("Stored VoC analysis for call ID: {}", callId);
             tryProcessAudit(callId);
@@ -74,34 +98,56 @@ public class AuditEventListener {
         }
     }
 
-    private synchronized void tryProcessAudit(UUID callId) {
-        CallTranscribedEvent.TranscriptionPayload transcription = transcriptions.get(callId);
-        SentimentAnalyzedEvent.SentimentPayload sentiment = sentiments.get(callId);
-        VocAnalyzedEvent.VocPayload voc = vocInsights.get(callId);
-
-        // Check if all three events have been received
-        if (transcription != null && sentiment != null && voc != null) {
-            log.info("All events received for call ID: {}. Starting audit process.", callId);
-
-            try {
-                auditService.auditCall(transcription, sentiment, voc);
+    private void tryProcessAudit(UUID callId) {
+        auditLock.lock();
+        try {
+            CallTranscribedEvent.Payload transcription = transcriptions.get(callId);
+            SentimentAnalyzedEvent.SentimentPayload sentiment = sentiments.get(callId);
+            VocAnalyzedEvent.VocPayload voc = vocInsights.get(callId);
+
+            // Check if all three events have been received
+            if (transcription != null && sentiment != null && voc != null) {
+                String priority = highPriorityCalls.contains(callId) ? PRIORITY_HIGH : PRIORITY_NORMAL;
+                log.info("All events received for call ID: {}. Starting {} priority audit process.", callId, priority);
+
+                try {
+                    auditService.auditCall(transcription, sentiment, voc, priority);
+
+                    // Clean up stored events
+                    transcriptions.remove(callId);
+                    sentiments.remove(callId);
+                    vocInsights.remove(callId);
+                    highPriorityCalls.remove(callId);
+
+                    log.info("Completed audit and cleaned up cached events for call ID: {}", callId);
+                } catch (Exception e) {
+                    log.error("Error during audit processing for call ID {}: {}", callId, e.getMessage(), e);
+                    // Keep events in cache for potential retry
+                }
+            } else {
+                log.debug("Waiting for more events for call ID: {}. Have: transcription={}, sentiment={}, voc={}",
+                        callId,
+                        transcription != null,
+                        sentiment != null,
+                        voc != null);
+            }
+        } finally {
+            auditLock.unlock();
+        }
+    }
 
-                // Clean up stored events
-                transcriptions.remove(callId);
-                sentiments.remove(callId);
-                vocInsights.remove(callId);
+    /**
+     * Note a HIGH priority call; the lane is set at ingest and carried in each event's metadata
+     */
+    private void rememberPriority(UUID callId, BaseEvent event) {
+        if (event.getMetadata() != null && PRIORITY_HIGH.equals(event.getMetadata().get("priority"))) {
+            highPriorityCalls.add(callId);
+        }
+    }
 
-                log.info("Completed audit and cleaned up cached events for call ID: {}", callId);
-            } catch (Exception e) {
-                log.error("Error during audit processing for call ID {}: {}", callId, e.getMessage(), e);
-                // Keep events in cache for potential retry
-            }
-        } else {
-            log.debug("Waiting for more events for call ID: {}. Have: transcription={}, sentiment={}, voc={}",
-                    callId,
-                    transcription != null,
-                    sentiment != null,
-                    voc != null);
+    private void rememberPriority(UUID callId, EventEnvelope event) {
+        if (PRIORITY_HIGH.equals(event.priority())) {
+            highPriorityCalls.add(callId);
         }
     }
 }
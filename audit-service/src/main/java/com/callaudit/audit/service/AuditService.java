@@ -5,6 +5,7 @@ import com.callaudit.audit.model.*;
 import com.callaudit.audit.repository.AuditResultRepository;
 import com.callaudit.audit.repository.ComplianceRuleRepository;
 import com.callaudit.audit.repository.ComplianceViolationRepository;
+import com.callaudit.events.CallTranscribedEvent;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -49,12 +50,27 @@ public class AuditService {
 
     @Transactional
     public AuditResult auditCall(
-            CallTranscribedEvent.TranscriptionPayload transcription,
+            CallTranscribedEvent.Payload transcription,
             SentimentAnalyzedEvent.SentimentPayload sentiment,
             VocAnalyzedEvent.VocPayload voc) {
+        return auditCall(transcription, sentiment, voc, "NORMAL");
+    }
+
+    /**
+     * Audit a call and publish CallAudited with the call's processing lane in its metadata
+     *
+     * @param priority lane set at ingest, "NORMAL" or "HIGH"
+     */
+    @Transactional
+    public AuditResult auditCall(
+            CallTranscribedEvent.Payload transcription,
+            SentimentAnalyzedEvent.SentimentPayload sentiment,
+            VocAnalyzedEvent.VocPayload voc,
+            String priority) {
 
         long startTime = System.currentTimeMillis();
-        log.info("Starting audit for call ID: {}", transcription.getCallId());
+        UUID callId = UUID.fromString(transcription.getCallId());
+        log.info("Starting audit for call ID: {}", callId);
 
         // Evaluate compliance
         List<ComplianceViolation> violations = evaluateCompliance(transcription, sentiment);
@@ -80,7 +96,7 @@ public class AuditService {
 
         // Create audit result
         AuditResult auditResult = AuditResult.builder()
-                .callId(transcription.getCallId())
+                .callId(callId)
                 .overallScore(overallScore)
                 .complianceStatus(complianceStatus)
                 .scriptAdherence(scriptAdherence)
@@ -93,7 +109,7 @@ public class AuditService {
 
         auditResult = auditResultRepository.save(auditResult);
         log.info("Saved audit result for call ID: {} with overall score: {}",
-                transcription.getCallId(), overallScore);
+                callId, overallScore);
 
         // Save violations
         for (ComplianceViolation violation : violations) {
@@ -102,13 +118,13 @@ public class AuditService {
         }
 
         // Publish CallAudited event
-        publishCallAuditedEvent(auditResult, violations, transcription.getCallId());
+        publishCallAuditedEvent(auditResult, violations, callId, priority);
 
         return auditResult;
     }
 
     public List<ComplianceViolation> evaluateCompliance(
-            CallTranscribedEvent.TranscriptionPayload transcription,
+            CallTranscribedEvent.Payload transcription,
             SentimentAnalyzedEvent.SentimentPayload sentiment) {
 
         List<ComplianceViolation> violations = new ArrayList<>();
@@ -127,7 +143,7 @@ public class AuditService {
         return violations;
     }
 
-    public int calculateScriptAdherence(CallTranscribedEvent.TranscriptionPayload transcription) {
+    public int calculateScriptAdherence(CallTranscribedEvent.Payload transcription) {
         // Define required script phrases
         List<String> requiredPhrases = Arrays.asList(
                 "hello", "hi", "welcome", "good morning", "good afternoon",  // Greeting
@@ -135,7 +151,7 @@ public class AuditService {
                 "thank you for calling", "have a great day", "is there anything else"  // Closing
         );
 
-        String fullText = transcription.getFullText().toLowerCase();
+        String fullText = fullText(transcription).toLowerCase();
 
         long foundPhrases = requiredPhrases.stream()
                 .filter(fullText::contains)
@@ -148,7 +164,7 @@ public class AuditService {
     }
 
     public int calculateCustomerService(
-            CallTranscribedEvent.TranscriptionPayload transcription,
+            CallTranscribedEvent.Payload transcription,
             SentimentAnalyzedEvent.SentimentPayload sentiment) {
 
         int baseScore = 70;
@@ -168,7 +184,7 @@ public class AuditService {
         }
 
         // Check for empathy words
-        String fullText = transcription.getFullText().toLowerCase();
+        String fullText = fullText(transcription).toLowerCase();
         List<String> empathyWords = Arrays.asList(
                 "understand", "sorry", "apologize", "appreciate", "help"
         );
@@ -184,6 +200,11 @@ public class AuditService {
         return Math.max(0, Math.min(100, baseScore));
     }
 
+    private static String fullText(CallTranscribedEvent.Payload transcribed) {
+        CallTranscribedEvent.Transcription transcription = transcribed.getTranscription();
+        return transcription != null && transcription.getFullText() != null ? transcription.getFullText() : "";
+    }
+
     public int calculateResolutionEffectiveness(VocAnalyzedEvent.VocPayload voc) {
         int baseScore = 60;
 
@@ -311,7 +332,8 @@ public class AuditService {
     private void publishCallAuditedEvent(
             AuditResult auditResult,
             List<ComplianceViolation> violations,
-            UUID callId) {
+            UUID callId,
+            String priority) {
 
         CallAuditedEvent event = new CallAuditedEvent();
         event.setEventId(UUID.randomUUID());
@@ -325,6 +347,7 @@ public class AuditService {
         Map<String, Object> metadata = new HashMap<>();
         metadata.put("service", "audit-service");
         metadata.put("userId", "system");
+        metadata.put("priority", priority);
         event.setMetadata(metadata);
 
         // Build payload
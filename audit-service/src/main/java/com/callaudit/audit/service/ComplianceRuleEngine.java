@@ -1,10 +1,10 @@
 package com.callaudit.audit.service;
 
-import com.callaudit.audit.event.CallTranscribedEvent;
 import com.callaudit.audit.event.SentimentAnalyzedEvent;
 import com.callaudit.audit.model.ComplianceRule;
 import com.callaudit.audit.model.ComplianceViolation;
 import com.callaudit.audit.model.ViolationSeverity;
+import com.callaudit.events.CallTranscribedEvent;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
@@ -23,7 +23,7 @@ public class ComplianceRuleEngine {
 
     public ComplianceViolation evaluateRule(
             ComplianceRule rule,
-            CallTranscribedEvent.TranscriptionPayload transcription,
+            CallTranscribedEvent.Payload transcription,
             SentimentAnalyzedEvent.SentimentPayload sentiment) {
 
         try {
@@ -51,7 +51,7 @@ public class ComplianceRuleEngine {
 
     private ComplianceViolation evaluateKeywordCheck(
             ComplianceRule rule,
-            CallTranscribedEvent.TranscriptionPayload transcription,
+            CallTranscribedEvent.Payload transcription,
             Map<String, Object> ruleDefinition) {
 
         @SuppressWarnings("unchecked")
@@ -62,7 +62,7 @@ public class ComplianceRuleEngine {
         Map<String, Object> timeWindow = (Map<String, Object>) ruleDefinition.get("time_window");
 
         // Filter segments by speaker if specified
-        List<CallTranscribedEvent.Segment> relevantSegments = transcription.getSegments().stream()
+        List<CallTranscribedEvent.Segment> relevantSegments = segments(transcription).stream()
                 .filter(s -> speaker == null || speaker.equalsIgnoreCase(s.getSpeaker()))
                 .toList();
 
@@ -77,11 +77,11 @@ public class ComplianceRuleEngine {
                             // Negative start means from end of call
                             return true; // Handle negative time windows
                         }
-                        if (startTime != null && s.getStartTime().compareTo(startTime) < 0) {
+                        if (startTime != null && decimal(s.getStartTime()).compareTo(startTime) < 0) {
                             return false;
                         }
                         if (endTime != null && endTime.compareTo(BigDecimal.ZERO) > 0) {
-                            return s.getEndTime().compareTo(endTime) <= 0;
+                            return decimal(s.getEndTime()).compareTo(endTime) <= 0;
                         }
                         return true;
                     })
@@ -108,7 +108,7 @@ public class ComplianceRuleEngine {
 
     private ComplianceViolation evaluateProhibitedWords(
             ComplianceRule rule,
-            CallTranscribedEvent.TranscriptionPayload transcription,
+            CallTranscribedEvent.Payload transcription,
             Map<String, Object> ruleDefinition) {
 
         @SuppressWarnings("unchecked")
@@ -116,7 +116,7 @@ public class ComplianceRuleEngine {
         String speaker = (String) ruleDefinition.get("speaker");
 
         // Filter segments by speaker if specified
-        List<CallTranscribedEvent.Segment> relevantSegments = transcription.getSegments().stream()
+        List<CallTranscribedEvent.Segment> relevantSegments = segments(transcription).stream()
                 .filter(s -> speaker == null || speaker.equalsIgnoreCase(s.getSpeaker()))
                 .toList();
 
@@ -129,7 +129,7 @@ public class ComplianceRuleEngine {
                             .ruleName(rule.getName())
                             .severity(rule.getSeverity())
                             .description("Prohibited word detected: " + prohibitedWord)
-                            .timestampInCall(segment.getStartTime())
+                            .timestampInCall(decimal(segment.getStartTime()))
                             .evidence(segment.getText())
                             .build();
                 }
@@ -141,7 +141,7 @@ public class ComplianceRuleEngine {
 
     private ComplianceViolation evaluateSentimentResponse(
             ComplianceRule rule,
-            CallTranscribedEvent.TranscriptionPayload transcription,
+            CallTranscribedEvent.Payload transcription,
             SentimentAnalyzedEvent.SentimentPayload sentiment,
             Map<String, Object> ruleDefinition) {
 
@@ -166,9 +166,9 @@ public class ComplianceRuleEngine {
         // Find agent responses after negative customer sentiment
         for (SentimentAnalyzedEvent.SegmentSentiment negSeg : negativeSegments) {
             // Find agent segments after this negative segment
-            List<CallTranscribedEvent.Segment> agentResponses = transcription.getSegments().stream()
+            List<CallTranscribedEvent.Segment> agentResponses = segments(transcription).stream()
                     .filter(s -> speaker == null || speaker.equalsIgnoreCase(s.getSpeaker()))
-                    .filter(s -> s.getStartTime().compareTo(negSeg.getEndTime()) >= 0)
+                    .filter(s -> decimal(s.getStartTime()).compareTo(negSeg.getEndTime()) >= 0)
                     .limit(3) // Check next 3 agent segments
                     .toList();
 
@@ -192,6 +192,15 @@ public class ComplianceRuleEngine {
         return null; // No violation
     }
 
+    private List<CallTranscribedEvent.Segment> segments(CallTranscribedEvent.Payload transcribed) {
+        CallTranscribedEvent.Transcription transcription = transcribed.getTranscription();
+        return transcription != null && transcription.getSegments() != null ? transcription.getSegments() : List.of();
+    }
+
+    private BigDecimal decimal(Double seconds) {
+        return seconds != null ? BigDecimal.valueOf(seconds) : null;
+    }
+
     private BigDecimal getBigDecimal(Object value) {
         if (value == null) {
             return null;
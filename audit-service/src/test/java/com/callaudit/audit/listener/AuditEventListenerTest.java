@@ -1,12 +1,15 @@
 package com.callaudit.audit.listener;
 
-import com.callaudit.audit.event.CallTranscribedEvent;
 import com.callaudit.audit.event.SentimentAnalyzedEvent;
 import com.callaudit.audit.event.VocAnalyzedEvent;
 import com.callaudit.audit.model.AuditResult;
 import com.callaudit.audit.model.ComplianceStatus;
 import com.callaudit.audit.service.AuditService;
+import com.callaudit.events.CallTranscribedEvent;
+import com.callaudit.events.codec.EventCodecException;
+import com.callaudit.events.codec.EventCodecs;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,6 +18,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -36,6 +40,9 @@ class AuditEventListenerTest {
     @Mock
     private ObjectMapper objectMapper;
 
+    @Mock
+    private EventCodecs eventCodecs;
+
     @InjectMocks
     private AuditEventListener auditEventListener;
 
@@ -54,21 +61,21 @@ class AuditEventListenerTest {
         vocAnalyzedEvent = createVocAnalyzedEvent();
 
         // Reset mocks
-        reset(auditService, objectMapper);
+        reset(auditService, objectMapper, eventCodecs);
     }
 
     @Test
     void handleCallTranscribed_ValidEvent_StoresEventInMemory() throws Exception {
         // Arrange
-        String eventJson = "{\"eventId\":\"test\"}";
-        when(objectMapper.readValue(eventJson, CallTranscribedEvent.class))
+        ConsumerRecord<String, byte[]> eventRecord = record("{\"eventId\":\"test\"}");
+        when(eventCodecs.decode(eventRecord, CallTranscribedEvent.class))
             .thenReturn(callTranscribedEvent);
 
         // Act
-        auditEventListener.handleCallTranscribed(eventJson);
+        auditEventListener.handleCallTranscribed(eventRecord);
 
         // Assert
-        verify(objectMapper).readValue(eventJson, CallTranscribedEvent.class);
+        verify(eventCodecs).decode(eventRecord, CallTranscribedEvent.class);
         verifyNoInteractions(auditService);  // Should not process yet (waiting for other events)
     }
 
@@ -105,11 +112,11 @@ class AuditEventListenerTest {
     @Test
     void handleAllThreeEvents_TriggersAuditProcessing() throws Exception {
         // Arrange
-        String transcribedJson = "{\"eventId\":\"1\"}";
+        ConsumerRecord<String, byte[]> transcribedRecord = record("{\"eventId\":\"1\"}");
         String sentimentJson = "{\"eventId\":\"2\"}";
         String vocJson = "{\"eventId\":\"3\"}";
 
-        when(objectMapper.readValue(transcribedJson, CallTranscribedEvent.class))
+        when(eventCodecs.decode(transcribedRecord, CallTranscribedEvent.class))
             .thenReturn(callTranscribedEvent);
         when(objectMapper.readValue(sentimentJson, SentimentAnalyzedEvent.class))
             .thenReturn(sentimentAnalyzedEvent);
@@ -117,10 +124,10 @@ class AuditEventListenerTest {
             .thenReturn(vocAnalyzedEvent);
 
         AuditResult mockResult = createMockAuditResult();
-        when(auditService.auditCall(any(), any(), any())).thenReturn(mockResult);
+        when(auditService.auditCall(any(), any(), any(), any())).thenReturn(mockResult);
 
         // Act - receive all three events
-        auditEventListener.handleCallTranscribed(transcribedJson);
+        auditEventListener.handleCallTranscribed(transcribedRecord);
         auditEventListener.handleSentimentAnalyzed(sentimentJson);
         auditEventListener.handleVocAnalyzed(vocJson);  // This should trigger processing
 
@@ -128,18 +135,19 @@ class AuditEventListenerTest {
         verify(auditService).auditCall(
             eq(callTranscribedEvent.getPayload()),
             eq(sentimentAnalyzedEvent.getPayload()),
-            eq(vocAnalyzedEvent.getPayload())
+            eq(vocAnalyzedEvent.getPayload()),
+            eq("NORMAL")
         );
     }
 
     @Test
     void handleAllThreeEvents_DifferentOrder_TriggersAuditProcessing() throws Exception {
         // Arrange
-        String transcribedJson = "{\"eventId\":\"1\"}";
+        ConsumerRecord<String, byte[]> transcribedRecord = record("{\"eventId\":\"1\"}");
         String sentimentJson = "{\"eventId\":\"2\"}";
         String vocJson = "{\"eventId\":\"3\"}";
 
-        when(objectMapper.readValue(transcribedJson, CallTranscribedEvent.class))
+        when(eventCodecs.decode(transcribedRecord, CallTranscribedEvent.class))
             .thenReturn(callTranscribedEvent);
         when(objectMapper.readValue(sentimentJson, SentimentAnalyzedEvent.class))
             .thenReturn(sentimentAnalyzedEvent);
@@ -147,49 +155,75 @@ class AuditEventListenerTest {
             .thenReturn(vocAnalyzedEvent);
 
         AuditResult mockResult = createMockAuditResult();
-        when(auditService.auditCall(any(), any(), any())).thenReturn(mockResult);
+        when(auditService.auditCall(any(), any(), any(), any())).thenReturn(mockResult);
 
         // Act - receive events in different order
         auditEventListener.handleSentimentAnalyzed(sentimentJson);
         auditEventListener.handleVocAnalyzed(vocJson);
-        auditEventListener.handleCallTranscribed(transcribedJson);  // This should trigger processing
+        auditEventListener.handleCallTranscribed(transcribedRecord);  // This should trigger processing
 
         // Assert
         verify(auditService).auditCall(
             eq(callTranscribedEvent.getPayload()),
             eq(sentimentAnalyzedEvent.getPayload()),
-            eq(vocAnalyzedEvent.getPayload())
+            eq(vocAnalyzedEvent.getPayload()),
+            eq("NORMAL")
         );
     }
 
     @Test
     void handleTwoEvents_DoesNotTriggerProcessing() throws Exception {
         // Arrange
-        String transcribedJson = "{\"eventId\":\"1\"}";
+        ConsumerRecord<String, byte[]> transcribedRecord = record("{\"eventId\":\"1\"}");
         String sentimentJson = "{\"eventId\":\"2\"}";
 
-        when(objectMapper.readValue(transcribedJson, CallTranscribedEvent.class))
+        when(eventCodecs.decode(transcribedRecord, CallTranscribedEvent.class))
             .thenReturn(callTranscribedEvent);
         when(objectMapper.readValue(sentimentJson, SentimentAnalyzedEvent.class))
             .thenReturn(sentimentAnalyzedEvent);
 
         // Act - receive only two events
-        auditEventListener.handleCallTranscribed(transcribedJson);
+        auditEventListener.handleCallTranscribed(transcribedRecord);
         auditEventListener.handleSentimentAnalyzed(sentimentJson);
 
         // Assert
         verifyNoInteractions(auditService);  // Should not process yet
     }
 
+    @Test
+    void handleAllThreeEvents_HighPriorityMetadata_AuditsAsHigh() throws Exception {
+        // Arrange
+        callTranscribedEvent.setMetadata(Map.of("priority", "HIGH"));
+        ConsumerRecord<String, byte[]> transcribedRecord = record("{\"eventId\":\"1\"}");
+        String sentimentJson = "{\"eventId\":\"2\"}";
+        String vocJson = "{\"eventId\":\"3\"}";
+
+        when(eventCodecs.decode(transcribedRecord, CallTranscribedEvent.class))
+            .thenReturn(callTranscribedEvent);
+        when(objectMapper.readValue(sentimentJson, SentimentAnalyzedEvent.class))
+            .thenReturn(sentimentAnalyzedEvent);
+        when(objectMapper.readValue(vocJson, VocAnalyzedEvent.class))
+            .thenReturn(vocAnalyzedEvent);
+        when(auditService.auditCall(any(), any(), any(), any())).thenReturn(createMockAuditResult());
+
+        // Act
+        auditEventListener.handleCallTranscribed(transcribedRecord);
+        auditEventListener.handleSentimentAnalyzed(sentimentJson);
+        auditEventListener.handleVocAnalyzed(vocJson);
+
+        // Assert
+        verify(auditService).auditCall(any(), any(), any(), eq("HIGH"));
+    }
+
     @Test
     void handleCallTranscribed_InvalidJson_HandlesGracefully() throws Exception {
         // Arrange
-        String invalidJson = "{invalid}";
-        when(objectMapper.readValue(invalidJson, CallTranscribedEvent.class))
-            .thenThrow(new RuntimeException("Invalid JSON"));
+        ConsumerRecord<String, byte[]> invalidRecord = record("{invalid}");
+        when(eventCodecs.decode(invalidRecord, CallTranscribedEvent.class))
+            .thenThrow(new EventCodecException("Invalid JSON"));
 
         // Act - should not throw exception
-        auditEventListener.handleCallTranscribed(invalidJson);
+        auditEventListener.handleCallTranscribed(invalidRecord);
 
         // Assert
         verifyNoInteractions(auditService);
@@ -226,27 +260,27 @@ class AuditEventListenerTest {
     @Test
     void handleAllThreeEvents_AuditServiceThrows_KeepsEventsInCache() throws Exception {
         // Arrange
-        String transcribedJson = "{\"eventId\":\"1\"}";
+        ConsumerRecord<String, byte[]> transcribedRecord = record("{\"eventId\":\"1\"}");
         String sentimentJson = "{\"eventId\":\"2\"}";
         String vocJson = "{\"eventId\":\"3\"}";
 
-        when(objectMapper.readValue(transcribedJson, CallTranscribedEvent.class))
+        when(eventCodecs.decode(transcribedRecord, CallTranscribedEvent.class))
             .thenReturn(callTranscribedEvent);
         when(objectMapper.readValue(sentimentJson, SentimentAnalyzedEvent.class))
             .thenReturn(sentimentAnalyzedEvent);
         when(objectMapper.readValue(vocJson, VocAnalyzedEvent.class))
             .thenReturn(vocAnalyzedEvent);
 
-        when(auditService.auditCall(any(), any(), any()))
+        when(auditService.auditCall(any(), any(), any(), any()))
             .thenThrow(new RuntimeException("Audit processing failed"));
 
         // Act - should not throw exception
-        auditEventListener.handleCallTranscribed(transcribedJson);
+        auditEventListener.handleCallTranscribed(transcribedRecord);
         auditEventListener.handleSentimentAnalyzed(sentimentJson);
         auditEventListener.handleVocAnalyzed(vocJson);
 
         // Assert
-        verify(auditService).auditCall(any(), any(), any());
+        verify(auditService).auditCall(any(), any(), any(), any());
         // Events should remain in cache for potential retry
     }
 
@@ -264,13 +298,15 @@ class AuditEventListenerTest {
         SentimentAnalyzedEvent sentiment2 = createSentimentAnalyzedEventWithId(callId2);
         VocAnalyzedEvent voc2 = createVocAnalyzedEventWithId(callId2);
 
-        when(objectMapper.readValue(eq("event1"), eq(CallTranscribedEvent.class)))
+        ConsumerRecord<String, byte[]> record1 = record("event1");
+        ConsumerRecord<String, byte[]> record2 = record("event2");
+        when(eventCodecs.decode(record1, CallTranscribedEvent.class))
             .thenReturn(event1);
         when(objectMapper.readValue(eq("sentiment1"), eq(SentimentAnalyzedEvent.class)))
             .thenReturn(sentiment1);
         when(objectMapper.readValue(eq("voc1"), eq(VocAnalyzedEvent.class)))
             .thenReturn(voc1);
-        when(objectMapper.readValue(eq("event2"), eq(CallTranscribedEvent.class)))
+        when(eventCodecs.decode(record2, CallTranscribedEvent.class))
             .thenReturn(event2);
         when(objectMapper.readValue(eq("sentiment2"), eq(SentimentAnalyzedEvent.class)))
             .thenReturn(sentiment2);
@@ -278,59 +314,60 @@ class AuditEventListenerTest {
             .thenReturn(voc2);
 
         AuditResult mockResult = createMockAuditResult();
-        when(auditService.auditCall(any(), any(), any())).thenReturn(mockResult);
+        when(auditService.auditCall(any(), any(), any(), any())).thenReturn(mockResult);
 
         // Act - Process first call
-        auditEventListener.handleCallTranscribed("event1");
+        auditEventListener.handleCallTranscribed(record1);
         auditEventListener.handleSentimentAnalyzed("sentiment1");
         auditEventListener.handleVocAnalyzed("voc1");
 
         // Process second call
-        auditEventListener.handleCallTranscribed("event2");
+        auditEventListener.handleCallTranscribed(record2);
         auditEventListener.handleSentimentAnalyzed("sentiment2");
         auditEventListener.handleVocAnalyzed("voc2");
 
         // Assert
-        verify(auditService, times(2)).auditCall(any(), any(), any());
+        verify(auditService, times(2)).auditCall(any(), any(), any(), any());
     }
 
     // Helper methods
 
-    private CallTranscribedEvent createCallTranscribedEvent() {
-        CallTranscribedEvent event = new CallTranscribedEvent();
-        event.setEventId(UUID.randomUUID());
-        event.setEventType("CallTranscribed");
-        event.setAggregateId(testCallId);
-        event.setTimestamp(OffsetDateTime.now());
-
-        CallTranscribedEvent.TranscriptionPayload payload =
-            new CallTranscribedEvent.TranscriptionPayload();
-        payload.setCallId(testCallId);
-        payload.setFullText("Hello! How can I help you?");
-        payload.setLanguage("en-US");
-        payload.setConfidence(BigDecimal.valueOf(0.95));
-        payload.setWordCount(20);
-        payload.setSegments(new ArrayList<>());
+    private ConsumerRecord<String, byte[]> record(String value) {
+        return new ConsumerRecord<>("calls.transcribed", 0, 0L, null, value.getBytes());
+    }
 
-        event.setPayload(payload);
-        return event;
+    private CallTranscribedEvent createCallTranscribedEvent() {
+        return CallTranscribedEvent.builder()
+            .eventId(UUID.randomUUID().toString())
+            .eventType("CallTranscribed")
+            .aggregateId(testCallId.toString())
+            .timestamp(Instant.now())
+            .payload(CallTranscribedEvent.Payload.builder()
+                .callId(testCallId.toString())
+                .transcription(CallTranscribedEvent.Transcription.builder()
+                    .fullText("Hello! How can I help you?")
+                    .language("en-US")
+                    .confidence(0.95)
+                    .segments(List.of(new CallTranscribedEvent.Segment("agent", 0.0, 1.8, "Hello! How can I help you?")))
+                    .build())
+                .build())
+            .build();
     }
 
     private CallTranscribedEvent createCallTranscribedEventWithId(UUID callId) {
-        CallTranscribedEvent event = new CallTranscribedEvent();
-        event.setEventId(UUID.randomUUID());
-        event.setEventType("CallTranscribed");
-        event.setAggregateId(callId);
-        event.setTimestamp(OffsetDateTime.now());
-
-        CallTranscribedEvent.TranscriptionPayload payload =
-            new CallTranscribedEvent.TranscriptionPayload();
-        payload.setCallId(callId);
-        payload.setFullText("Test transcription");
-        payload.setSegments(new ArrayList<>());
-
-        event.setPayload(payload);
-        return event;
+        return CallTranscribedEvent.builder()
+            .eventId(UUID.randomUUID().toString())
+            .eventType("CallTranscribed")
+            .aggregateId(callId.toString())
+            .timestamp(Instant.now())
+            .payload(CallTranscribedEvent.Payload.builder()
+                .callId(callId.toString())
+                .transcription(CallTranscribedEvent.Transcription.builder()
+                    .fullText("Test transcription")
+                    .segments(new ArrayList<>())
+                    .build())
+                .build())
+            .build();
     }
 
     private SentimentAnalyzedEvent createSentimentAnalyzedEvent() {
@@ -1,6 +1,5 @@
 package com.callaudit.audit.service;
 
-import com.callaudit.audit.event.CallTranscribedEvent;
 import com.callaudit.audit.event.SentimentAnalyzedEvent;
 import com.callaudit.audit.event.VocAnalyzedEvent;
 import com.callaudit.audit.model.AuditResult;
@@ -11,6 +10,7 @@ import com.callaudit.audit.model.ViolationSeverity;
 import com.callaudit.audit.repository.AuditResultRepository;
 import com.callaudit.audit.repository.ComplianceRuleRepository;
 import com.callaudit.audit.repository.ComplianceViolationRepository;
+import com.callaudit.events.CallTranscribedEvent;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -67,7 +67,7 @@ class AuditServiceTest {
     private ArgumentCaptor<ComplianceViolation> violationCaptor;
 
     private UUID testCallId;
-    private CallTranscribedEvent.TranscriptionPayload transcription;
+    private CallTranscribedEvent.Payload transcription;
     private SentimentAnalyzedEvent.SentimentPayload sentiment;
     private VocAnalyzedEvent.VocPayload voc;
 
@@ -119,7 +119,7 @@ class AuditServiceTest {
         VocAnalyzedEvent.VocPayload highChurnVoc =
             createVoc("low", BigDecimal.valueOf(0.9));
 
-        CallTranscribedEvent.TranscriptionPayload poorTranscription =
+        CallTranscribedEvent.Payload poorTranscription =
             createPoorTranscription();
 
         ComplianceViolation criticalViolation = ComplianceViolation.builder()
@@ -155,7 +155,7 @@ class AuditServiceTest {
     @Test
     void auditCall_MediumQualityCall_ReturnsReviewRequired() {
         // Arrange
-        CallTranscribedEvent.TranscriptionPayload mediumTranscription =
+        CallTranscribedEvent.Payload mediumTranscription =
             createMediumTranscription();
         SentimentAnalyzedEvent.SentimentPayload neutralSentiment =
             createSentiment("neutral", BigDecimal.ZERO, false);
@@ -230,11 +230,8 @@ class AuditServiceTest {
     @Test
     void calculateScriptAdherence_AllRequiredPhrases_Returns100() {
         // Arrange
-        CallTranscribedEvent.TranscriptionPayload perfectScript = new CallTranscribedEvent.TranscriptionPayload();
-        perfectScript.setCallId(testCallId);
-        perfectScript.setFullText("Hello! Welcome to our service. How can I help you today? " +
+        CallTranscribedEvent.Payload perfectScript = createTranscription("Hello! Welcome to our service. How can I help you today? " +
             "Thank you for calling. Have a great day! Is there anything else I can assist with?");
-        perfectScript.setSegments(List.of());
 
         // Act
         int score = auditService.calculateScriptAdherence(perfectScript);
@@ -246,10 +243,7 @@ class AuditServiceTest {
     @Test
     void calculateScriptAdherence_MissingPhrases_ReturnsLowerScore() {
         // Arrange
-        CallTranscribedEvent.TranscriptionPayload poorScript = new CallTranscribedEvent.TranscriptionPayload();
-        poorScript.setCallId(testCallId);
-        poorScript.setFullText("What do you want?");
-        poorScript.setSegments(List.of());
+        CallTranscribedEvent.Payload poorScript = createTranscription("What do you want?");
 
         // Act
         int score = auditService.calculateScriptAdherence(poorScript);
@@ -300,12 +294,8 @@ class AuditServiceTest {
     @Test
     void calculateCustomerService_EmpathyWords_IncreasesScore() {
         // Arrange
-        CallTranscribedEvent.TranscriptionPayload empatheticTranscription =
-            new CallTranscribedEvent.TranscriptionPayload();
-        empatheticTranscription.setCallId(testCallId);
-        empatheticTranscription.setFullText("I understand your concern. I'm sorry for the inconvenience. " +
+        CallTranscribedEvent.Payload empatheticTranscription = createTranscription("I understand your concern. I'm sorry for the inconvenience. " +
             "I appreciate your patience. Let me help you with that.");
-        empatheticTranscription.setSegments(List.of());
 
         SentimentAnalyzedEvent.SentimentPayload neutralSentiment =
             createSentiment("neutral", BigDecimal.ZERO, false);
@@ -451,46 +441,30 @@ class AuditServiceTest {
 
     // Helper methods
 
-    private CallTranscribedEvent.TranscriptionPayload createTranscription() {
-        CallTranscribedEvent.TranscriptionPayload payload = new CallTranscribedEvent.TranscriptionPayload();
-        payload.setCallId(testCallId);
-        payload.setFullText("Hello! Welcome. How can I help you today? I understand your concern. " +
-            "Thank you for calling. Have a great day!");
-        payload.setLanguage("en-US");
-        payload.setConfidence(BigDecimal.valueOf(0.95));
-        payload.setWordCount(50);
-
-        CallTranscribedEvent.Segment segment = new CallTranscribedEvent.Segment();
-        segment.setSpeaker("agent");
-        segment.setStartTime(BigDecimal.ZERO);
-        segment.setEndTime(BigDecimal.valueOf(5.0));
-        segment.setText("Hello! Welcome. How can I help you today?");
-        segment.setConfidence(BigDecimal.valueOf(0.95));
-
-        payload.setSegments(List.of(segment));
-        return payload;
+    private CallTranscribedEvent.Payload createTranscription() {
+        return createTranscription("Hello! Welcome. How can I help you today? I understand your concern. " +
+                "Thank you for calling. Have a great day!",
+            new CallTranscribedEvent.Segment("agent", 0.0, 5.0, "Hello! Welcome. How can I help you today?"));
     }
 
-    private CallTranscribedEvent.TranscriptionPayload createPoorTranscription() {
-        CallTranscribedEvent.TranscriptionPayload payload = new CallTranscribedEvent.TranscriptionPayload();
-        payload.setCallId(testCallId);
-        payload.setFullText("What do you want?");
-        payload.setLanguage("en-US");
-        payload.setConfidence(BigDecimal.valueOf(0.8));
-        payload.setWordCount(10);
-        payload.setSegments(List.of());
-        return payload;
+    private CallTranscribedEvent.Payload createPoorTranscription() {
+        return createTranscription("What do you want?");
     }
 
-    private CallTranscribedEvent.TranscriptionPayload createMediumTranscription() {
-        CallTranscribedEvent.TranscriptionPayload payload = new CallTranscribedEvent.TranscriptionPayload();
-        payload.setCallId(testCallId);
-        payload.setFullText("Hi, how can I help?");
-        payload.setLanguage("en-US");
-        payload.setConfidence(BigDecimal.valueOf(0.9));
-        payload.setWordCount(20);
-        payload.setSegments(List.of());
-        return payload;
+    private CallTranscribedEvent.Payload createMediumTranscription() {
+        return createTranscription("Hi, how can I help?");
+    }
+
+    private CallTranscribedEvent.Payload createTranscription(String fullText, CallTranscribedEvent.Segment... segments) {
+        return CallTranscribedEvent.Payload.builder()
+            .callId(testCallId.toString())
+            .transcription(CallTranscribedEvent.Transcription.builder()
+                .fullText(fullText)
+                .language("en-US")
+                .confidence(0.95)
+                .segments(List.of(segments))
+                .build())
+            .build();
     }
 
     private SentimentAnalyzedEvent.SentimentPayload createSentiment(
@@ -1,10 +1,10 @@
 package com.callaudit.audit.service;
 
-import com.callaudit.audit.event.CallTranscribedEvent;
 import com.callaudit.audit.event.SentimentAnalyzedEvent;
 import com.callaudit.audit.model.ComplianceRule;
 import com.callaudit.audit.model.ComplianceViolation;
 import com.callaudit.audit.model.ViolationSeverity;
+import com.callaudit.events.CallTranscribedEvent;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -38,7 +38,7 @@ class ComplianceRuleEngineTest {
     private ComplianceRuleEngine ruleEngine;
 
     private UUID testCallId;
-    private CallTranscribedEvent.TranscriptionPayload transcription;
+    private CallTranscribedEvent.Payload transcription;
     private SentimentAnalyzedEvent.SentimentPayload sentiment;
 
     @BeforeEach
@@ -139,7 +139,7 @@ class ComplianceRuleEngineTest {
     @Test
     void evaluateRule_ProhibitedWordsFound_ReturnsViolation() throws Exception {
         // Arrange
-        CallTranscribedEvent.TranscriptionPayload badTranscription = createBadTranscription();
+        CallTranscribedEvent.Payload badTranscription = createBadTranscription();
         ComplianceRule rule = createProhibitedWordsRule();
         Map<String, Object> ruleDefinition = Map.of(
             "type", "prohibited_words",
@@ -165,7 +165,7 @@ class ComplianceRuleEngineTest {
     @Test
     void evaluateRule_ProhibitedWordsAnySpeaker_DetectsViolation() throws Exception {
         // Arrange
-        CallTranscribedEvent.TranscriptionPayload badTranscription = createBadTranscription();
+        CallTranscribedEvent.Payload badTranscription = createBadTranscription();
         ComplianceRule rule = createProhibitedWordsRule();
         // Note: Map.of() doesn't accept null values, use HashMap for nullable values
         Map<String, Object> ruleDefinition = new java.util.HashMap<>();
@@ -208,7 +208,7 @@ class ComplianceRuleEngineTest {
     void evaluateRule_SentimentResponseWithEmpathy_ReturnsNull() throws Exception {
         // Arrange
         SentimentAnalyzedEvent.SentimentPayload negativeSentiment = createNegativeSentiment();
-        CallTranscribedEvent.TranscriptionPayload empatheticTranscription = createEmpatheticTranscription();
+        CallTranscribedEvent.Payload empatheticTranscription = createEmpatheticTranscription();
 
         ComplianceRule rule = createSentimentResponseRule();
         Map<String, Object> ruleDefinition = Map.of(
@@ -312,66 +312,39 @@ class ComplianceRuleEngineTest {
 
     // Helper methods
 
-    private CallTranscribedEvent.TranscriptionPayload createTranscription() {
-        CallTranscribedEvent.TranscriptionPayload payload = new CallTranscribedEvent.TranscriptionPayload();
-        payload.setCallId(testCallId);
-        payload.setFullText("Hello! Welcome to our service. How can I help you?");
-
-        CallTranscribedEvent.Segment segment1 = new CallTranscribedEvent.Segment();
-        segment1.setSpeaker("agent");
-        segment1.setStartTime(BigDecimal.ZERO);
-        segment1.setEndTime(BigDecimal.valueOf(5.0));
-        segment1.setText("Hello! Welcome to our service.");
-        segment1.setConfidence(BigDecimal.valueOf(0.95));
-
-        CallTranscribedEvent.Segment segment2 = new CallTranscribedEvent.Segment();
-        segment2.setSpeaker("agent");
-        segment2.setStartTime(BigDecimal.valueOf(5.0));
-        segment2.setEndTime(BigDecimal.valueOf(10.0));
-        segment2.setText("How can I help you?");
-        segment2.setConfidence(BigDecimal.valueOf(0.95));
-
-        payload.setSegments(List.of(segment1, segment2));
-        return payload;
+    private CallTranscribedEvent.Payload createTranscription() {
+        return CallTranscribedEvent.Payload.builder()
+            .callId(testCallId.toString())
+            .transcription(CallTranscribedEvent.Transcription.builder()
+                .fullText("Hello! Welcome to our service. How can I help you?")
+                .segments(List.of(
+                    new CallTranscribedEvent.Segment("agent", 0.0, 5.0, "Hello! Welcome to our service."),
+                    new CallTranscribedEvent.Segment("agent", 5.0, 10.0, "How can I help you?")))
+                .build())
+            .build();
     }
 
-    private CallTranscribedEvent.TranscriptionPayload createBadTranscription() {
-        CallTranscribedEvent.TranscriptionPayload payload = new CallTranscribedEvent.TranscriptionPayload();
-        payload.setCallId(testCallId);
-        payload.setFullText("That's a stupid question. This is terrible service.");
-
-        CallTranscribedEvent.Segment segment = new CallTranscribedEvent.Segment();
-        segment.setSpeaker("agent");
-        segment.setStartTime(BigDecimal.ZERO);
-        segment.setEndTime(BigDecimal.valueOf(5.0));
-        segment.setText("That's a stupid question. This is terrible service.");
-        segment.setConfidence(BigDecimal.valueOf(0.9));
-
-        payload.setSegments(List.of(segment));
-        return payload;
+    private CallTranscribedEvent.Payload createBadTranscription() {
+        return CallTranscribedEvent.Payload.builder()
+            .callId(testCallId.toString())
+            .transcription(CallTranscribedEvent.Transcription.builder()
+                .fullText("That's a stupid question. This is terrible service.")
+                .segments(List.of(
+                    new CallTranscribedEvent.Segment("agent", 0.0, 5.0, "That's a stupid question. This is terrible service.")))
+                .build())
+            .build();
     }
 
-    private CallTranscribedEvent.TranscriptionPayload createEmpatheticTranscription() {
-        CallTranscribedEvent.TranscriptionPayload payload = new CallTranscribedEvent.TranscriptionPayload();
-        payload.setCallId(testCallId);
-        payload.setFullText("I understand your frustration. I'm sorry about that.");
-
-        CallTranscribedEvent.Segment customerSegment = new CallTranscribedEvent.Segment();
-        customerSegment.setSpeaker("customer");
-        customerSegment.setStartTime(BigDecimal.ZERO);
-        customerSegment.setEndTime(BigDecimal.valueOf(5.0));
-        customerSegment.setText("This is frustrating!");
-        customerSegment.setConfidence(BigDecimal.valueOf(0.9));
-
-        CallTranscribedEvent.Segment agentSegment = new CallTranscribedEvent.Segment();
-        agentSegment.setSpeaker("agent");
-        agentSegment.setStartTime(BigDecimal.valueOf(5.0));
-        agentSegment.setEndTime(BigDecimal.valueOf(10.0));
-        agentSegment.setText("I understand your frustration. I'm sorry about that.");
-        agentSegment.setConfidence(BigDecimal.valueOf(0.95));
-
-        payload.setSegments(List.of(customerSegment, agentSegment));
-        return payload;
+    private CallTranscribedEvent.Payload createEmpatheticTranscription() {
+        return CallTranscribedEvent.Payload.builder()
+            .callId(testCallId.toString())
+            .transcription(CallTranscribedEvent.Transcription.builder()
+                .fullText("I understand your frustration. I'm sorry about that.")
+                .segments(List.of(
+                    new CallTranscribedEvent.Segment("customer", 0.0, 5.0, "This is frustrating!"),
+                    new CallTranscribedEvent.Segment("agent", 5.0, 10.0, "I understand your frustration. I'm sorry about that.")))
+                .build())
+            .build();
     }
 
     private SentimentAnalyzedEvent.SentimentPayload createSentiment() {
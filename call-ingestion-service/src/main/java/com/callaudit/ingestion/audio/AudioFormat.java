@@ -0,0 +1,96 @@
+package com.callaudit.ingestion.audio;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Audio container formats accepted by the ingestion service.
+ * Each format knows its file extension, MIME type and leading magic bytes.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum AudioFormat {
+
+    WAV("wav", "audio/wav"),
+    MP3("mp3", "audio/mpeg"),
+    M4A("m4a", "audio/mp4"),
+    FLAC("flac", "audio/flac"),
+    OGG("ogg", "audio/ogg");
+
+    /**
+     * Number of leading bytes needed to recognise any supported format
+     */
+    public static final int SIGNATURE_LENGTH = 12;
+
+    private final String extension;
+    private final String contentType;
+
+    /**
+     * Resolve a format from a file extension (case-insensitive)
+     */
+    public static Optional<AudioFormat> fromExtension(String extension) {
+        if (extension == null) {
+            return Optional.empty();
+        }
+        return Arrays.stream(values())
+            .filter(format -> format.extension.equalsIgnoreCase(extension))
+            .findFirst();
+    }
+
+    /**
+     * Resolve a format from an uploaded filename
+     *
+     * @throws IllegalArgumentException if the filename is missing, has no extension or is not a supported format
+     */
+    public static AudioFormat fromFilename(String filename) {
+        if (filename == null || filename.isEmpty()) {
+            throw new IllegalArgumentException("Filename cannot be null or empty");
+        }
+        if (!filename.contains(".")) {
+            throw new IllegalArgumentException("Invalid filename: no extension found");
+        }
+        return fromExtension(filename.substring(filename.lastIndexOf('.') + 1))
+            .orElseThrow(() -> new IllegalArgumentException(
+                "Invalid file format. Supported formats: WAV, MP3, M4A, FLAC, OGG"));
+    }
+
+    /**
+     * Check whether the leading bytes of a file look like this format
+     *
+     * @param header first bytes of the file
+     * @param length number of valid bytes in header
+     * @return true if the magic bytes match
+     */
+    public boolean matchesSignature(byte[] header, int length) {
+        return switch (this) {
+            // RIFF....WAVE (RF64 for recordings over 4GB)
+            case WAV -> (startsWith(header, length, 0, "RIFF") || startsWith(header, length, 0, "RF64"))
+                    && startsWith(header, length, 8, "WAVE");
+            // ID3v2 tag or a bare MPEG audio frame sync (11 set bits)
+            case MP3 -> startsWith(header, length, 0, "ID3")
+                    || (length >= 2 && (header[0] & 0xFF) == 0xFF && (header[1] & 0xE0) == 0xE0);
+            // ISO base media file: box size followed by 'ftyp'
+            case M4A -> startsWith(header, length, 4, "ftyp");
+            // Native FLAC stream, optionally behind an ID3v2 tag
+            case FLAC -> startsWith(header, length, 0, "fLaC") || startsWith(header, length, 0, "ID3");
+            case OGG -> startsWith(header, length, 0, "OggS");
+        };
+    }
+
+    private static boolean startsWith(byte[] header, int length, int offset, String magic) {
+        byte[] expected = magic.getBytes(StandardCharsets.US_ASCII);
+        if (length < offset + expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (header[offset + i] != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,496 @@
+package com.callaudit.ingestion.audio;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads duration, sample rate, bit depth and channel count from an audio container
+ * while its bytes stream past on their way to storage.
+ *
+ * Only a bounded window is retained: the first 64KB (where WAV, FLAC, MP3 and Ogg keep their
+ * headers), the last 64KB for Ogg (the final page carries the stream length) and the MP4
+ * 'moov' box wherever it appears. Everything else is only counted.
+ * Parsing is best effort - an unreadable header yields nulls, it never fails an upload.
+ */
+@Slf4j
+public class AudioHeaderProbe {
+
+    public static final int HEAD_BYTES = 64 * 1024;
+    public static final int TAIL_BYTES = 64 * 1024;
+    static final int MAX_MOOV_BYTES = 8 * 1024 * 1024;
+
+    private final AudioFormat format;
+    private final byte[] head = new byte[HEAD_BYTES];
+    private int headLength;
+    private final byte[] tail;
+    private int tailLength;
+    private int tailPosition;
+    private final Mp4BoxScanner boxes;
+    private long totalBytes;
+
+    public AudioHeaderProbe(AudioFormat format) {
+        this.format = format;
+        this.tail = format == AudioFormat.OGG ? new byte[TAIL_BYTES] : null;
+        this.boxes = format == AudioFormat.M4A ? new Mp4BoxScanner() : null;
+    }
+
+    public void update(int b) {
+        update(new byte[] {(byte) b}, 0, 1);
+    }
+
+    public void update(byte[] b, int off, int len) {
+        if (len <= 0) {
+            return;
+        }
+        if (headLength < HEAD_BYTES) {
+            int n = Math.min(HEAD_BYTES - headLength, len);
+            System.arraycopy(b, off, head, headLength, n);
+            headLength += n;
+        }
+        if (tail != null) {
+            appendTail(b, off, len);
+        }
+        if (boxes != null) {
+            boxes.update(b, off, len);
+        }
+        totalBytes += len;
+    }
+
+    /**
+     * Account for bytes that were not seen, e.g. the middle of an object read back as head and tail ranges
+     */
+    public void skip(long n) {
+        totalBytes += n;
+        tailLength = 0;
+        tailPosition = 0;
+        if (boxes != null) {
+            boxes.skip(n);
+        }
+    }
+
+    /**
+     * Parse what was collected. Call once the whole stream has gone by.
+     */
+    public AudioProperties finish() {
+        try {
+            return switch (format) {
+                case WAV -> parseWav();
+                case FLAC -> parseFlac();
+                case MP3 -> parseMp3();
+                case OGG -> parseOgg();
+                case M4A -> parseMp4();
+            };
+        } catch (RuntimeException e) {
+            log.debug("Could not read {} header", format, e);
+            return AudioProperties.UNKNOWN;
+        }
+    }
+
+    // WAV / RF64: fmt chunk for the layout, data chunk size over the byte rate for the duration
+    private AudioProperties parseWav() {
+        boolean rf64 = matches(head, 0, "RF64");
+        Integer channels = null;
+        Integer sampleRate = null;
+        Integer bitDepth = null;
+        long byteRate = 0;
+        long ds64DataSize = -1;
+
+        int offset = 12;
+        while (offset + 8 <= headLength) {
+            String id = new String(head, offset, 4, StandardCharsets.ISO_8859_1);
+            long size = uint32le(head, offset + 4);
+            int body = offset + 8;
+
+            switch (id) {
+                case "fmt " -> {
+                    channels = uint16le(head, body + 2);
+                    sampleRate = (int) uint32le(head, body + 4);
+                    byteRate = uint32le(head, body + 8);
+                    bitDepth = uint16le(head, body + 14);
+                }
+                case "ds64" -> ds64DataSize = int64le(head, body + 8);
+                case "data" -> {
+                    long dataSize = rf64 && size == 0xFFFFFFFFL ? ds64DataSize : size;
+                    if (dataSize <= 0 || size == 0xFFFFFFFFL && !rf64 || body + dataSize > totalBytes) {
+                        dataSize = totalBytes - body; // streaming writers leave the size unset
+                    }
+                    Long duration = byteRate > 0 ? dataSize * 1000 / byteRate : null;
+                    return new AudioProperties(duration, sampleRate, bitDepth, channels);
+                }
+                default -> {
+                }
+            }
+            offset = body + (int) Math.min(size + (size & 1), HEAD_BYTES);
+        }
+        return new AudioProperties(null, sampleRate, bitDepth, channels);
+    }
+
+    // FLAC: STREAMINFO is always the first metadata block
+    private AudioProperties parseFlac() {
+        int offset = skipId3(head, headLength);
+        if (!matches(head, offset, "fLaC") || (head[offset + 4] & 0x7F) != 0) {
+            return AudioProperties.UNKNOWN;
+        }
+        return parseStreamInfo(head, offset + 8);
+    }
+
+    private static AudioProperties parseStreamInfo(byte[] data, int offset) {
+        long bits = int64be(data, offset + 10);
+        int sampleRate = (int) (bits >>> 44);
+        int channels = (int) ((bits >>> 41) & 0x7) + 1;
+        int bitDepth = (int) ((bits >>> 36) & 0x1F) + 1;
+        long totalSamples = bits & 0xFFFFFFFFFL;
+        Long duration = totalSamples > 0 && sampleRate > 0 ? totalSamples * 1000 / sampleRate : null;
+        return new AudioProperties(duration, sampleRate > 0 ? sampleRate : null, bitDepth, channels);
+    }
+
+    private static final int[][] MP3_BITRATES = {
+        {32, 64, 96, 128, 160, 192, 224, 256, 288, 320, 352, 384, 416, 448}, // MPEG-1 layer I
+        {32, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320, 384},    // MPEG-1 layer II
+        {32, 40, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320},     // MPEG-1 layer III
+        {32, 48, 56, 64, 80, 96, 112, 128, 144, 160, 176, 192, 224, 256},    // MPEG-2/2.5 layer I
+        {8, 16, 24, 32, 40, 48, 56, 64, 80, 96, 112, 128, 144, 160}          // MPEG-2/2.5 layer II and III
+    };
+    private static final int[] MP3_SAMPLE_RATES = {44100, 48000, 32000};
+
+    // MP3: first frame header, then the Xing/Info or VBRI frame count; constant bitrate otherwise
+    private AudioProperties parseMp3() {
+        int offset = skipId3(head, headLength);
+        while (offset + 4 <= headLength
+                && !((head[offset] & 0xFF) == 0xFF && (head[offset + 1] & 0xE0) == 0xE0)) {
+            offset++;
+        }
+        if (offset + 4 > headLength) {
+            return AudioProperties.UNKNOWN;
+        }
+
+        int header = (int) int32be(head, offset);
+        int version = (header >>> 19) & 0x3;      // 0 = 2.5, 2 = 2, 3 = 1
+        int layer = 4 - ((header >>> 17) & 0x3);  // 1..3
+        int bitrateIndex = (header >>> 12) & 0xF;
+        int rateIndex = (header >>> 10) & 0x3;
+        boolean mono = ((header >>> 6) & 0x3) == 3;
+        if (version == 1 || layer == 4 || bitrateIndex == 0 || bitrateIndex == 15 || rateIndex == 3) {
+            return AudioProperties.UNKNOWN;
+        }
+
+        boolean mpeg1 = version == 3;
+        int sampleRate = MP3_SAMPLE_RATES[rateIndex] >> (mpeg1 ? 0 : version == 2 ? 1 : 2);
+        int bitrate = MP3_BITRATES[mpeg1 ? layer - 1 : Math.min(layer, 2) + 2][bitrateIndex - 1] * 1000;
+        int samplesPerFrame = layer == 1 ? 384 : layer == 2 || mpeg1 ? 1152 : 576;
+        int channels = mono ? 1 : 2;
+
+        long frames = -1;
+        int xing = offset + 4 + (mpeg1 ? (mono ? 17 : 32) : (mono ? 9 : 17));
+        int vbri = offset + 4 + 32;
+        if ((matches(head, xing, "Xing") || matches(head, xing, "Info")) && (int32be(head, xing + 4) & 0x1) != 0) {
+            frames = int32be(head, xing + 8);
+        } else if (matches(head, vbri, "VBRI")) {
+            frames = int32be(head, vbri + 14);
+        }
+
+        Long duration = frames > 0
+            ? frames * samplesPerFrame * 1000 / sampleRate
+            : (totalBytes - offset) * 8 * 1000 / bitrate;
+        return new AudioProperties(duration, sampleRate, null, channels);
+    }
+
+    // Ogg: codec identification header on the first page, granule position of the last page
+    private AudioProperties parseOgg() {
+        if (!matches(head, 0, "OggS")) {
+            return AudioProperties.UNKNOWN;
+        }
+        int packet = 27 + (head[26] & 0xFF);
+
+        int sampleRate;
+        int granuleRate;
+        long preSkip = 0;
+        Integer channels;
+        Integer bitDepth = null;
+        if (matches(head, packet + 1, "vorbis") && head[packet] == 1) {
+            channels = head[packet + 11] & 0xFF;
+            sampleRate = (int) uint32le(head, packet + 12);
+            granuleRate = sampleRate;
+        } else if (matches(head, packet, "OpusHead")) {
+            channels = head[packet + 9] & 0xFF;
+            preSkip = uint16le(head, packet + 10);
+            long inputRate = uint32le(head, packet + 12);
+            sampleRate = inputRate > 0 ? (int) inputRate : 48000;
+            granuleRate = 48000; // Opus granules always count 48kHz samples
+        } else if (matches(head, packet + 1, "FLAC") && (head[packet] & 0xFF) == 0x7F) {
+            AudioProperties streamInfo = parseStreamInfo(head, packet + 17);
+            sampleRate = streamInfo.sampleRate();
+            granuleRate = sampleRate;
+            channels = streamInfo.channels();
+            bitDepth = streamInfo.bitDepth();
+        } else {
+            return AudioProperties.UNKNOWN;
+        }
+
+        Long duration = null;
+        long granule = lastGranule();
+        if (granule > preSkip && granuleRate > 0) {
+            duration = (granule - preSkip) * 1000 / granuleRate;
+        }
+        return new AudioProperties(duration, sampleRate, bitDepth, channels);
+    }
+
+    private long lastGranule() {
+        byte[] data = tailBytes();
+        for (int i = data.length - 14; i >= 0; i--) {
+            if (matches(data, i, "OggS") && data[i + 4] == 0) {
+                long granule = int64le(data, i + 6);
+                if (granule != -1) { // -1: no packet finishes on this page
+                    return granule;
+                }
+            }
+        }
+        return -1;
+    }
+
+    // MP4/M4A: duration from the sound track's mdhd, layout from its stsd sample entry
+    private AudioProperties parseMp4() {
+        byte[] moov = boxes.moov();
+        if (moov == null) {
+            return AudioProperties.UNKNOWN;
+        }
+
+        int[] range = {0, moov.length};
+        for (int[] trak = child(moov, range, "trak", 0); trak != null; trak = child(moov, range, "trak", trak[2])) {
+            int[] mdia = child(moov, trak, "mdia", trak[0]);
+            int[] hdlr = mdia != null ? child(moov, mdia, "hdlr", mdia[0]) : null;
+            if (hdlr == null || !matches(moov, hdlr[0] + 8, "soun")) {
+                continue;
+            }
+
+            int[] mdhd = child(moov, mdia, "mdhd", mdia[0]);
+            Long duration = null;
+            long timescale = 0;
+            if (mdhd != null) {
+                boolean v1 = moov[mdhd[0]] == 1;
+                timescale = int32be(moov, mdhd[0] + (v1 ? 20 : 12));
+                long units = v1 ? int64be(moov, mdhd[0] + 24) : int32be(moov, mdhd[0] + 16);
+                duration = timescale > 0 ? units * 1000 / timescale : null;
+            }
+
+            int[] stsd = descend(moov, mdia, "minf", "stbl", "stsd");
+            Integer channels = null;
+            Integer bitDepth = null;
+            Integer sampleRate = timescale > 0 ? (int) timescale : null;
+            if (stsd != null) {
+                int entry = stsd[0] + 8; // version/flags + entry count
+                channels = uint16be(moov, entry + 24);
+                int entryRate = uint16be(moov, entry + 32); // 16.16 fixed point, integer part
+                if (entryRate > 0) {
+                    sampleRate = entryRate;
+                }
+                if (matches(moov, entry + 4, "alac")) {
+                    bitDepth = uint16be(moov, entry + 26); // only meaningful for lossless entries
+                }
+            }
+            return new AudioProperties(duration, sampleRate, bitDepth, channels);
+        }
+        return AudioProperties.UNKNOWN;
+    }
+
+    private static int[] descend(byte[] data, int[] parent, String... path) {
+        int[] box = parent;
+        for (String type : path) {
+            box = child(data, box, type, box[0]);
+            if (box == null) {
+                return null;
+            }
+        }
+        return box;
+    }
+
+    /**
+     * Find the next box of a type among the children of parent, starting at from.
+     *
+     * @return {bodyStart, bodyEnd, nextSibling}, or null
+     */
+    private static int[] child(byte[] data, int[] parent, String type, int from) {
+        int offset = from;
+        while (offset + 8 <= parent[1]) {
+            long size = int32be(data, offset);
+            int headerSize = 8;
+            if (size == 1) {
+                size = int64be(data, offset + 8);
+                headerSize = 16;
+            } else if (size == 0) {
+                size = parent[1] - offset;
+            }
+            if (size < headerSize || offset + size > parent[1]) {
+                return null;
+            }
+            int next = (int) (offset + size);
+            if (matches(data, offset + 4, type)) {
+                return new int[] {offset + headerSize, next, next};
+            }
+            offset = next;
+        }
+        return null;
+    }
+
+    private void appendTail(byte[] b, int off, int len) {
+        if (len >= TAIL_BYTES) {
+            System.arraycopy(b, off + len - TAIL_BYTES, tail, 0, TAIL_BYTES);
+            tailPosition = 0;
+            tailLength = TAIL_BYTES;
+            return;
+        }
+        int first = Math.min(len, TAIL_BYTES - tailPosition);
+        System.arraycopy(b, off, tail, tailPosition, first);
+        System.arraycopy(b, off + first, tail, 0, len - first);
+        tailPosition = (tailPosition + len) % TAIL_BYTES;
+        tailLength = Math.min(TAIL_BYTES, tailLength + len);
+    }
+
+    private byte[] tailBytes() {
+        if (tail == null) {
+            return new byte[0];
+        }
+        byte[] data = new byte[tailLength];
+        int start = (tailPosition - tailLength + TAIL_BYTES) % TAIL_BYTES;
+        int first = Math.min(tailLength, TAIL_BYTES - start);
+        System.arraycopy(tail, start, data, 0, first);
+        System.arraycopy(tail, 0, data, first, tailLength - first);
+        return data;
+    }
+
+    /**
+     * Offset of the first byte after an ID3v2 tag, or 0 if there is none
+     */
+    private static int skipId3(byte[] data, int length) {
+        if (length < 10 || !matches(data, 0, "ID3")) {
+            return 0;
+        }
+        int size = (data[6] & 0x7F) << 21 | (data[7] & 0x7F) << 14 | (data[8] & 0x7F) << 7 | (data[9] & 0x7F);
+        boolean footer = (data[5] & 0x10) != 0;
+        return 10 + size + (footer ? 10 : 0);
+    }
+
+    private static boolean matches(byte[] data, int offset, String ascii) {
+        if (offset < 0 || offset + ascii.length() > data.length) {
+            return false;
+        }
+        for (int i = 0; i < ascii.length(); i++) {
+            if (data[offset + i] != (byte) ascii.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int uint16le(byte[] d, int o) {
+        return (d[o] & 0xFF) | (d[o + 1] & 0xFF) << 8;
+    }
+
+    private static int uint16be(byte[] d, int o) {
+        return (d[o] & 0xFF) << 8 | (d[o + 1] & 0xFF);
+    }
+
+    private static long uint32le(byte[] d, int o) {
+        return (d[o] & 0xFFL) | (d[o + 1] & 0xFFL) << 8 | (d[o + 2] & 0xFFL) << 16 | (d[o + 3] & 0xFFL) << 24;
+    }
+
+    private static long int32be(byte[] d, int o) {
+        return (d[o] & 0xFFL) << 24 | (d[o + 1] & 0xFFL) << 16 | (d[o + 2] & 0xFFL) << 8 | (d[o + 3] & 0xFFL);
+    }
+
+    private static long int64le(byte[] d, int o) {
+        return uint32le(d, o) | uint32le(d, o + 4) << 32;
+    }
+
+    private static long int64be(byte[] d, int o) {
+        return int32be(d, o) << 32 | int32be(d, o + 4);
+    }
+
+    /**
+     * Walks top-level MP4 boxes as they stream by, skipping 'mdat' and keeping only 'moov'
+     */
+    private static final class Mp4BoxScanner {
+
+        private final byte[] header = new byte[16];
+        private int headerLength;
+        private long remaining;
+        private boolean inBody;
+        private ByteArrayOutputStream capture;
+        private byte[] moov;
+        private boolean lost;
+
+        void update(byte[] b, int off, int len) {
+            while (len > 0 && !lost && moov == null) {
+                if (!inBody) {
+                    int needed = headerLength >= 8 && int32be(header, 0) == 1 ? 16 : 8;
+                    int n = Math.min(needed - headerLength, len);
+                    System.arraycopy(b, off, header, headerLength, n);
+                    headerLength += n;
+                    off += n;
+                    len -= n;
+                    if (headerLength < needed || needed == 8 && int32be(header, 0) == 1) {
+                        continue; // header incomplete, or a 64-bit size follows
+                    }
+                    startBox(needed);
+                } else {
+                    int n = (int) Math.min(remaining, len);
+                    if (capture != null) {
+                        capture.write(b, off, n);
+                    }
+                    off += n;
+                    len -= n;
+                    remaining -= n;
+                    if (remaining == 0) {
+                        endBox();
+                    }
+                }
+            }
+        }
+
+        void skip(long n) {
+            if (lost || moov != null) {
+                return;
+            }
+            if (inBody && capture == null && n <= remaining) {
+                remaining -= n;
+                if (remaining == 0) {
+                    endBox();
+                }
+            } else {
+                lost = true;
+            }
+        }
+
+        byte[] moov() {
+            return moov;
+        }
+
+        private void startBox(int headerSize) {
+            long size = headerSize == 16 ? int64be(header, 8) : int32be(header, 0);
+            boolean isMoov = matches(header, 4, "moov");
+            headerLength = 0;
+            if (size < headerSize || isMoov && size - headerSize > MAX_MOOV_BYTES) {
+                lost = true; // size 0 (box runs to end of file) or implausible
+                return;
+            }
+            remaining = size - headerSize;
+            inBody = true;
+            if (isMoov) {
+                capture = new ByteArrayOutputStream((int) remaining);
+            }
+            if (remaining == 0) {
+                endBox();
+            }
+        }
+
+        private void endBox() {
+            inBody = false;
+            if (capture != null) {
+                moov = capture.toByteArray();
+                capture = null;
+            }
+        }
+    }
+}
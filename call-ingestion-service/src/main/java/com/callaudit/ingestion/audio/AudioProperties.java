@@ -0,0 +1,22 @@
+package com.callaudit.ingestion.audio;
+
+/**
+ * Technical properties of a recording, read from its container header.
+ * Any value the header does not carry (e.g. bit depth of lossy formats) is null.
+ *
+ * @param durationMillis playback length in milliseconds
+ * @param sampleRate samples per second
+ * @param bitDepth bits per sample (PCM and lossless formats only)
+ * @param channels number of audio channels
+ */
+public record AudioProperties(Long durationMillis, Integer sampleRate, Integer bitDepth, Integer channels) {
+
+    public static final AudioProperties UNKNOWN = new AudioProperties(null, null, null, null);
+
+    /**
+     * Duration rounded to whole seconds, as stored in core.calls.duration
+     */
+    public Integer durationSeconds() {
+        return durationMillis != null ? (int) Math.round(durationMillis / 1000.0) : null;
+    }
+}
@@ -0,0 +1,160 @@
+package com.callaudit.ingestion.audio;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Pass-through stream that validates an audio upload while it is being read.
+ *
+ * The leading bytes are sniffed once via {@link #verifySignature(AudioFormat)} and pushed back,
+ * so the storage layer still sees the complete file. Every byte handed downstream is counted,
+ * and reading fails as soon as the configured size cap is crossed - no spooling to disk or heap.
+ * A SHA-256 digest of the content is computed along the way for de-duplication, and an
+ * optional {@link AudioHeaderProbe} reads the container header from the same bytes.
+ */
+public class AudioUploadStream extends FilterInputStream {
+
+    private final long maxBytes;
+    private long bytesRead;
+    private boolean limitExceeded;
+    private final MessageDigest digest;
+    private String sha256;
+    private AudioHeaderProbe probe;
+
+    public AudioUploadStream(InputStream source, long maxBytes) {
+        super(new PushbackInputStream(source, AudioFormat.SIGNATURE_LENGTH));
+        this.maxBytes = maxBytes;
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Peek at the first bytes and check them against the expected format.
+     * Must be called before any other read.
+     *
+     * @param format format implied by the file extension
+     * @throws IllegalArgumentException if the stream is empty or the magic bytes don't match
+     */
+    public void verifySignature(AudioFormat format) throws IOException {
+        byte[] header = new byte[AudioFormat.SIGNATURE_LENGTH];
+        int length = in.readNBytes(header, 0, header.length);
+        if (length == 0) {
+            throw new IllegalArgumentException("File cannot be null or empty");
+        }
+        ((PushbackInputStream) in).unread(header, 0, length);
+
+        if (!format.matchesSignature(header, length)) {
+            throw new IllegalArgumentException(
+                "File content does not match the " + format.getExtension().toUpperCase() + " format"
+            );
+        }
+    }
+
+    /**
+     * Read the container header (duration, sample rate, ...) as the bytes go by.
+     * Must be called before any other read.
+     *
+     * @param format format implied by the file extension
+     */
+    public void probeHeader(AudioFormat format) {
+        this.probe = new AudioHeaderProbe(format);
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            count(1);
+            digest.update((byte) b);
+            if (probe != null) {
+                probe.update(b);
+            }
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        if (n > 0) {
+            count(n);
+            digest.update(b, off, n);
+            if (probe != null) {
+                probe.update(b, off, n);
+            }
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        if (n <= 0) {
+            return 0;
+        }
+        // Read rather than skip so the skipped bytes still reach the digest
+        byte[] buffer = new byte[(int) Math.min(n, 8192)];
+        long skipped = 0;
+        while (skipped < n) {
+            int read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+            if (read < 0) {
+                break;
+            }
+            skipped += read;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    /**
+     * Number of bytes passed downstream so far
+     */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    /**
+     * Hex SHA-256 of everything read so far. Call once the stream has been fully consumed.
+     */
+    public String getSha256() {
+        if (sha256 == null) {
+            sha256 = HexFormat.of().formatHex(digest.digest());
+        }
+        return sha256;
+    }
+
+    /**
+     * Properties read from the container header. Call once the stream has been fully consumed.
+     *
+     * @return the probed properties, or {@link AudioProperties#UNKNOWN} if probing was not enabled
+     */
+    public AudioProperties getAudioProperties() {
+        return probe != null ? probe.finish() : AudioProperties.UNKNOWN;
+    }
+
+    /**
+     * Whether reading was aborted because the size cap was crossed
+     */
+    public boolean isLimitExceeded() {
+        return limitExceeded;
+    }
+
+    private void count(long n) throws IOException {
+        bytesRead += n;
+        if (bytesRead > maxBytes) {
+            limitExceeded = true;
+            throw new IOException("Upload exceeds maximum allowed size of " + maxBytes + " bytes");
+        }
+    }
+}
@@ -0,0 +1,411 @@
+package com.callaudit.ingestion.audio;
+
+import java.util.Arrays;
+
+/**
+ * Encodes blocks of PCM samples as FLAC frames.
+ * Each channel becomes a CONSTANT, VERBATIM or FIXED (order 0-4) subframe with a
+ * partitioned Rice residual, whichever is smallest; stereo additionally picks the best of
+ * left/right, left/side, side/right and mid/side. No LPC, which keeps the encoder cheap enough
+ * to run inline with an upload while still roughly halving speech PCM.
+ */
+final class FlacFrameEncoder {
+
+    static final int BLOCK_SIZE = 4096;
+
+    private static final int MAX_FIXED_ORDER = 4;
+    private static final int MAX_PARTITION_ORDER = 8;
+    private static final int[] SAMPLE_RATE_CODES = {
+        0, 88200, 176400, 192000, 8000, 16000, 22050, 24000, 32000, 44100, 48000, 96000
+    };
+
+    private final int channels;
+    private final int bitsPerSample;
+    private final int sampleRateCode;
+    private final int[] residual = new int[BLOCK_SIZE];
+    private final int[] mid = new int[BLOCK_SIZE];
+    private final int[] side = new int[BLOCK_SIZE];
+
+    FlacFrameEncoder(int channels, int sampleRate, int bitsPerSample) {
+        this.channels = channels;
+        this.bitsPerSample = bitsPerSample;
+        int code = Arrays.stream(SAMPLE_RATE_CODES).boxed().toList().indexOf(sampleRate);
+        this.sampleRateCode = code > 0 ? code : 0; // 0: read the rate from STREAMINFO
+    }
+
+    /**
+     * "fLaC" marker plus a STREAMINFO block. Frame sizes and the MD5 are left as "unknown"
+     * since they are only known after the last frame.
+     *
+     * @param totalSamples samples per channel, or 0 if unknown
+     * @param last whether no other metadata block follows
+     */
+    static byte[] streamHeader(int channels, int sampleRate, int bitsPerSample, long totalSamples, boolean last) {
+        BitWriter out = new BitWriter(42);
+        out.writeBits(0x664C6143, 32); // "fLaC"
+        out.writeBits(last ? 1 : 0, 1);
+        out.writeBits(0, 7);           // STREAMINFO
+        out.writeBits(34, 24);
+        out.writeBits(BLOCK_SIZE, 16);
+        out.writeBits(BLOCK_SIZE, 16);
+        out.writeBits(0, 24);
+        out.writeBits(0, 24);
+        out.writeBits(sampleRate, 20);
+        out.writeBits(channels - 1, 3);
+        out.writeBits(bitsPerSample - 1, 5);
+        out.writeBits(totalSamples >>> 32, 4);
+        out.writeBits(totalSamples, 32);
+        for (int i = 0; i < 4; i++) {
+            out.writeBits(0, 32);      // MD5 unknown
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Metadata block carrying opaque bytes under a 4-character application ID
+     */
+    static byte[] applicationBlock(String applicationId, byte[] data, boolean last) {
+        BitWriter out = new BitWriter(data.length + 8);
+        out.writeBits(last ? 1 : 0, 1);
+        out.writeBits(2, 7);           // APPLICATION
+        out.writeBits(data.length + 4, 24);
+        for (char c : applicationId.toCharArray()) {
+            out.writeBits(c, 8);
+        }
+        for (byte b : data) {
+            out.writeBits(b, 8);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Encode one frame
+     *
+     * @param samples per-channel samples; only the first blockSize of each are used
+     * @param blockSize samples per channel in this frame, at most {@link #BLOCK_SIZE}
+     * @param frameNumber 0-based frame index
+     */
+    byte[] encode(int[][] samples, int blockSize, long frameNumber) {
+        BitWriter out = new BitWriter(blockSize * channels * bitsPerSample / 8 + 64);
+
+        int assignment = channels - 1;
+        Subframe[] subframes = new Subframe[channels];
+        if (channels == 2) {
+            int[] left = samples[0];
+            int[] right = samples[1];
+            for (int i = 0; i < blockSize; i++) {
+                mid[i] = (left[i] + right[i]) >> 1;
+                side[i] = left[i] - right[i];
+            }
+            Subframe l = Subframe.plan(left, blockSize, bitsPerSample, residual);
+            Subframe r = Subframe.plan(right, blockSize, bitsPerSample, residual);
+            Subframe m = Subframe.plan(mid, blockSize, bitsPerSample, residual);
+            Subframe s = Subframe.plan(side, blockSize, bitsPerSample + 1, residual);
+
+            long independent = l.bits + r.bits;
+            long leftSide = l.bits + s.bits;
+            long sideRight = s.bits + r.bits;
+            long midSide = m.bits + s.bits;
+            long best = Math.min(Math.min(independent, leftSide), Math.min(sideRight, midSide));
+            if (best == independent) {
+                subframes = new Subframe[] {l, r};
+            } else if (best == leftSide) {
+                assignment = 8;
+                subframes = new Subframe[] {l, s};
+            } else if (best == sideRight) {
+                assignment = 9;
+                subframes = new Subframe[] {s, r};
+            } else {
+                assignment = 10;
+                subframes = new Subframe[] {m, s};
+            }
+        } else {
+            for (int c = 0; c < channels; c++) {
+                subframes[c] = Subframe.plan(samples[c], blockSize, bitsPerSample, residual);
+            }
+        }
+
+        writeFrameHeader(out, assignment, blockSize, frameNumber);
+        for (Subframe subframe : subframes) {
+            subframe.write(out, residual);
+        }
+        out.alignToByte();
+        out.writeBits(crc16(out.buffer(), out.length()), 16);
+        return out.toByteArray();
+    }
+
+    private void writeFrameHeader(BitWriter out, int assignment, int blockSize, long frameNumber) {
+        out.writeBits(0xFFF8, 16);             // sync, fixed block size
+        out.writeBits(7, 4);                   // block size - 1 follows as 16 bits
+        out.writeBits(sampleRateCode, 4);
+        out.writeBits(assignment, 4);
+        out.writeBits(bitsPerSample == 8 ? 1 : bitsPerSample == 16 ? 4 : 6, 3);
+        out.writeBits(0, 1);
+        writeUtf8(out, frameNumber);
+        out.writeBits(blockSize - 1, 16);
+        out.writeBits(crc8(out.buffer(), out.length()), 8);
+    }
+
+    /**
+     * Frame numbers use the UTF-8 style variable length coding, extended to 36 bits
+     */
+    private static void writeUtf8(BitWriter out, long value) {
+        if (value < 0x80) {
+            out.writeBits(value, 8);
+            return;
+        }
+        int bytes = 2;
+        while (bytes < 7 && value >= 1L << (5 * bytes + 1)) {
+            bytes++;
+        }
+        out.writeBits((0xFF00 >> bytes) & 0xFF | value >>> (6 * (bytes - 1)), 8);
+        for (int i = bytes - 2; i >= 0; i--) {
+            out.writeBits(0x80 | (value >>> (6 * i)) & 0x3F, 8);
+        }
+    }
+
+    static int crc8(byte[] data, int length) {
+        int crc = 0;
+        for (int i = 0; i < length; i++) {
+            crc ^= data[i] & 0xFF;
+            for (int bit = 0; bit < 8; bit++) {
+                crc = (crc & 0x80) != 0 ? (crc << 1) ^ 0x07 : crc << 1;
+            }
+        }
+        return crc & 0xFF;
+    }
+
+    static int crc16(byte[] data, int length) {
+        int crc = 0;
+        for (int i = 0; i < length; i++) {
+            crc ^= (data[i] & 0xFF) << 8;
+            for (int bit = 0; bit < 8; bit++) {
+                crc = (crc & 0x8000) != 0 ? (crc << 1) ^ 0x8005 : crc << 1;
+            }
+        }
+        return crc & 0xFFFF;
+    }
+
+    /**
+     * The cheapest encoding found for one channel of a block
+     */
+    private static final class Subframe {
+
+        private static final int CONSTANT = 0;
+        private static final int VERBATIM = 1;
+        private static final int FIXED = 8;
+
+        private int[] signal;
+        private int blockSize;
+        private int bitsPerSample;
+        private int type;
+        private int order;
+        private int partitionOrder;
+        private int[] riceParameters;
+        private long bits;
+
+        static Subframe plan(int[] signal, int blockSize, int bitsPerSample, int[] residual) {
+            Subframe subframe = new Subframe();
+            subframe.signal = signal;
+            subframe.blockSize = blockSize;
+            subframe.bitsPerSample = bitsPerSample;
+
+            boolean constant = true;
+            for (int i = 1; i < blockSize && constant; i++) {
+                constant = signal[i] == signal[0];
+            }
+            if (constant) {
+                subframe.type = CONSTANT;
+                subframe.bits = 8 + bitsPerSample;
+                return subframe;
+            }
+
+            subframe.type = VERBATIM;
+            subframe.bits = 8 + (long) blockSize * bitsPerSample;
+
+            // Order with the smallest absolute residual, then the best Rice partitioning for it
+            int bestOrder = -1;
+            long bestSum = Long.MAX_VALUE;
+            for (int order = 0; order <= MAX_FIXED_ORDER && order < blockSize; order++) {
+                computeResidual(signal, blockSize, order, residual);
+                long sum = 0;
+                for (int i = order; i < blockSize; i++) {
+                    sum += Math.abs((long) residual[i]);
+                }
+                if (sum < bestSum) {
+                    bestSum = sum;
+                    bestOrder = order;
+                }
+            }
+            computeResidual(signal, blockSize, bestOrder, residual);
+
+            long bestBits = Long.MAX_VALUE;
+            for (int p = 0; p <= MAX_PARTITION_ORDER; p++) {
+                if (blockSize % (1 << p) != 0 || (blockSize >> p) <= bestOrder) {
+                    break;
+                }
+                int[] parameters = new int[1 << p];
+                long bits = riceBits(residual, blockSize, bestOrder, p, parameters);
+                if (bits < bestBits) {
+                    bestBits = bits;
+                    subframe.partitionOrder = p;
+                    subframe.riceParameters = parameters;
+                }
+            }
+
+            long fixedBits = 8 + (long) bestOrder * bitsPerSample + bestBits;
+            if (fixedBits < subframe.bits) {
+                subframe.type = FIXED;
+                subframe.order = bestOrder;
+                subframe.bits = fixedBits;
+            }
+            return subframe;
+        }
+
+        void write(BitWriter out, int[] residual) {
+            out.writeBits(0, 1);
+            out.writeBits(type == FIXED ? FIXED | order : type, 6);
+            out.writeBits(0, 1); // no wasted bits
+            switch (type) {
+                case CONSTANT -> out.writeBits(signal[0], bitsPerSample);
+                case VERBATIM -> {
+                    for (int i = 0; i < blockSize; i++) {
+                        out.writeBits(signal[i], bitsPerSample);
+                    }
+                }
+                default -> {
+                    for (int i = 0; i < order; i++) {
+                        out.writeBits(signal[i], bitsPerSample);
+                    }
+                    computeResidual(signal, blockSize, order, residual);
+                    writeResidual(out, residual);
+                }
+            }
+        }
+
+        private void writeResidual(BitWriter out, int[] residual) {
+            boolean rice2 = Arrays.stream(riceParameters).anyMatch(k -> k > 14);
+            out.writeBits(rice2 ? 1 : 0, 2);
+            out.writeBits(partitionOrder, 4);
+            int partitionSize = blockSize >> partitionOrder;
+            int i = order;
+            for (int p = 0; p < riceParameters.length; p++) {
+                int k = riceParameters[p];
+                out.writeBits(k, rice2 ? 5 : 4);
+                int end = (p + 1) * partitionSize;
+                for (; i < end; i++) {
+                    long u = zigzag(residual[i]);
+                    out.writeUnary(u >>> k);
+                    out.writeBits(u, k);
+                }
+            }
+        }
+
+        private static void computeResidual(int[] x, int n, int order, int[] residual) {
+            for (int i = order; i < n; i++) {
+                residual[i] = switch (order) {
+                    case 0 -> x[i];
+                    case 1 -> x[i] - x[i - 1];
+                    case 2 -> x[i] - 2 * x[i - 1] + x[i - 2];
+                    case 3 -> x[i] - 3 * x[i - 1] + 3 * x[i - 2] - x[i - 3];
+                    default -> x[i] - 4 * x[i - 1] + 6 * x[i - 2] - 4 * x[i - 3] + x[i - 4];
+                };
+            }
+        }
+
+        /**
+         * Estimated residual size for a partition order; fills in the Rice parameter per partition
+         */
+        private static long riceBits(int[] residual, int n, int order, int partitionOrder, int[] parameters) {
+            int partitionSize = n >> partitionOrder;
+            long bits = 6;
+            int i = order;
+            for (int p = 0; p < parameters.length; p++) {
+                int end = (p + 1) * partitionSize;
+                int count = end - i;
+                long sum = 0;
+                for (; i < end; i++) {
+                    sum += zigzag(residual[i]);
+                }
+                int k = 0;
+                while (k < 30 && (long) count << (k + 1) < sum) {
+                    k++;
+                }
+                parameters[p] = k;
+                bits += (k > 14 ? 5 : 4) + (long) count * (k + 1) + (sum >>> k);
+            }
+            return bits;
+        }
+
+        private static long zigzag(int value) {
+            return value >= 0 ? 2L * value : -2L * value - 1;
+        }
+    }
+
+    /**
+     * MSB-first bit packing into a growable byte array
+     */
+    static final class BitWriter {
+
+        private byte[] buffer;
+        private int length;
+        private long accumulator;
+        private int pending;
+
+        BitWriter(int capacity) {
+            buffer = new byte[Math.max(capacity, 16)];
+        }
+
+        void writeBits(long value, int count) {
+            if (count == 0) {
+                return;
+            }
+            if (count > 32) {
+                writeBits(value >>> 32, count - 32);
+                count = 32;
+            }
+            accumulator = accumulator << count | value & ((1L << count) - 1);
+            pending += count;
+            while (pending >= 8) {
+                pending -= 8;
+                put((byte) (accumulator >>> pending));
+            }
+        }
+
+        void writeUnary(long zeros) {
+            while (zeros >= 32) {
+                writeBits(0, 32);
+                zeros -= 32;
+            }
+            writeBits(1, (int) zeros + 1);
+        }
+
+        void alignToByte() {
+            if (pending > 0) {
+                writeBits(0, 8 - pending);
+            }
+        }
+
+        /**
+         * Backing array; only whole bytes up to {@link #length()} are valid
+         */
+        byte[] buffer() {
+            return buffer;
+        }
+
+        int length() {
+            return length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, length);
+        }
+
+        private void put(byte b) {
+            if (length == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            buffer[length++] = b;
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package com.callaudit.ingestion.audio;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Decodes FLAC back into WAV while it is being read: both FLAC written by {@link WavToFlacStream},
+ * whose original WAV header is restored from the {@code riff} APPLICATION block, and FLAC from other
+ * encoders, which gets a canonical 44-byte header generated from STREAMINFO.
+ * <p>
+ * All subframe types (CONSTANT, VERBATIM, FIXED, LPC) are decoded; streams of other than 8, 16 or
+ * 24 bits per sample fail with an IOException.
+ */
+public final class FlacToWavStream extends InputStream {
+
+    private final BitReader in;
+    private final int channels;
+    private final int bitsPerSample;
+    private final int[][] samples;
+
+    private byte[] pending;
+    private int pendingPosition;
+    private boolean finished;
+
+    /**
+     * Read the FLAC metadata from source; frames are decoded as the WAV is read
+     */
+    public FlacToWavStream(InputStream source) throws IOException {
+        this.in = new BitReader(new BufferedInputStream(source, 64 * 1024));
+        if (in.readBits(32) != 0x664C6143) { // "fLaC"
+            throw new IOException("Not a FLAC stream");
+        }
+
+        int sampleRate = 0;
+        int channelCount = 0;
+        int bits = 0;
+        int maxBlockSize = 0;
+        long totalSamples = 0;
+        byte[] wavHeader = null;
+        boolean last = false;
+        while (!last) {
+            last = in.readBits(1) == 1;
+            int type = (int) in.readBits(7);
+            int length = (int) in.readBits(24);
+            byte[] block = in.readBytes(length);
+            if (type == 0) {
+                maxBlockSize = uint16be(block, 2);
+                sampleRate = uint16be(block, 10) << 4 | (block[12] & 0xFF) >> 4;
+                channelCount = (block[12] >> 1 & 0x7) + 1;
+                bits = ((block[12] & 0x1) << 4 | (block[13] & 0xFF) >> 4) + 1;
+                totalSamples = (block[13] & 0xFL) << 32 | (long) uint16be(block, 14) << 16 | uint16be(block, 16);
+            } else if (type == 2 && length >= 4
+                    && new String(block, 0, 4, StandardCharsets.ISO_8859_1).equals(WavToFlacStream.RIFF_APPLICATION_ID)) {
+                wavHeader = new byte[length - 4];
+                System.arraycopy(block, 4, wavHeader, 0, wavHeader.length);
+            }
+        }
+        if (channelCount == 0 || bits % 8 != 0 || bits > 24) {
+            throw new IOException("Unsupported FLAC stream layout");
+        }
+
+        this.channels = channelCount;
+        this.bitsPerSample = bits;
+        this.samples = new int[channelCount][Math.max(maxBlockSize, 16)];
+        this.pending = wavHeader != null
+            ? wavHeader
+            : WavHeader.canonical(channelCount, sampleRate, bits,
+                totalSamples > 0 ? totalSamples * channelCount * (bits / 8) : -1);
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] one = new byte[1];
+        return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        while (pendingPosition == pending.length) {
+            if (finished || !decodeNextFrame()) {
+                finished = true;
+                return -1;
+            }
+        }
+        int n = Math.min(len, pending.length - pendingPosition);
+        System.arraycopy(pending, pendingPosition, b, off, n);
+        pendingPosition += n;
+        return n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private boolean decodeNextFrame() throws IOException {
+        int sync = in.readBitsOrEof(16);
+        if (sync < 0) {
+            return false;
+        }
+        if ((sync & 0xFFFE) != 0xFFF8) {
+            throw new IOException("Lost FLAC frame sync");
+        }
+        int blockSizeCode = (int) in.readBits(4);
+        int sampleRateCode = (int) in.readBits(4);
+        int assignment = (int) in.readBits(4);
+        in.readBits(4); // sample size (taken from STREAMINFO) and reserved bit
+        in.skipUtf8();
+
+        int blockSize = switch (blockSizeCode) {
+            case 1 -> 192;
+            case 2, 3, 4, 5 -> 576 << (blockSizeCode - 2);
+            case 6 -> (int) in.readBits(8) + 1;
+            case 7 -> (int) in.readBits(16) + 1;
+            default -> blockSizeCode >= 8 ? 256 << (blockSizeCode - 8) : 0;
+        };
+        if (blockSize == 0) {
+            throw new IOException("Invalid FLAC block size code " + blockSizeCode);
+        }
+        if (blockSize > samples[0].length) {
+            for (int c = 0; c < channels; c++) {
+                samples[c] = new int[blockSize];
+            }
+        }
+        if (sampleRateCode == 12) {
+            in.readBits(8);
+        } else if (sampleRateCode == 13 || sampleRateCode == 14) {
+            in.readBits(16);
+        }
+        in.readBits(8); // header CRC-8
+
+        int frameChannels = assignment < 8 ? assignment + 1 : 2;
+        if (frameChannels != channels || assignment > 10) {
+            throw new IOException("Unexpected FLAC channel assignment " + assignment);
+        }
+        for (int c = 0; c < channels; c++) {
+            boolean side = assignment == 8 && c == 1 || assignment == 9 && c == 0 || assignment == 10 && c == 1;
+            decodeSubframe(samples[c], blockSize, bitsPerSample + (side ? 1 : 0));
+        }
+        in.alignToByte();
+        in.readBits(16); // frame CRC-16
+
+        restoreStereo(assignment, blockSize);
+        interleave(blockSize);
+        return true;
+    }
+
+    private void decodeSubframe(int[] out, int blockSize, int bits) throws IOException {
+        in.readBits(1);
+        int type = (int) in.readBits(6);
+        int wasted = in.readBits(1) == 1 ? (int) in.readUnary() + 1 : 0;
+        bits -= wasted;
+
+        if (type == 0) {
+            int value = in.readSigned(bits);
+            for (int i = 0; i < blockSize; i++) {
+                out[i] = value;
+            }
+        } else if (type == 1) {
+            for (int i = 0; i < blockSize; i++) {
+                out[i] = in.readSigned(bits);
+            }
+        } else if ((type & 0x38) == 0x08 && (type & 0x7) <= 4) {
+            int order = type & 0x7;
+            for (int i = 0; i < order; i++) {
+                out[i] = in.readSigned(bits);
+            }
+            decodeResidual(out, blockSize, order);
+            for (int i = order; i < blockSize; i++) {
+                out[i] += switch (order) {
+                    case 0 -> 0;
+                    case 1 -> out[i - 1];
+                    case 2 -> 2 * out[i - 1] - out[i - 2];
+                    case 3 -> 3 * out[i - 1] - 3 * out[i - 2] + out[i - 3];
+                    default -> 4 * out[i - 1] - 6 * out[i - 2] + 4 * out[i - 3] - out[i - 4];
+                };
+            }
+        } else if ((type & 0x20) != 0) {
+            decodeLpc(out, blockSize, bits, (type & 0x1F) + 1);
+        } else {
+            throw new IOException("Unsupported FLAC subframe type " + type);
+        }
+        for (int i = 0; wasted > 0 && i < blockSize; i++) {
+            out[i] <<= wasted;
+        }
+    }
+
+    private void decodeLpc(int[] out, int blockSize, int bits, int order) throws IOException {
+        for (int i = 0; i < order; i++) {
+            out[i] = in.readSigned(bits);
+        }
+        int precision = (int) in.readBits(4) + 1;
+        if (precision == 16) {
+            throw new IOException("Invalid FLAC LPC coefficient precision");
+        }
+        int shift = in.readSigned(5);
+        int[] coefficients = new int[order];
+        for (int j = 0; j < order; j++) {
+            coefficients[j] = in.readSigned(precision);
+        }
+        decodeResidual(out, blockSize, order);
+        for (int i = order; i < blockSize; i++) {
+            long prediction = 0;
+            for (int j = 0; j < order; j++) {
+                prediction += (long) coefficients[j] * out[i - j - 1];
+            }
+            out[i] += (int) (prediction >> shift);
+        }
+    }
+
+    private void decodeResidual(int[] out, int blockSize, int order) throws IOException {
+        int method = (int) in.readBits(2);
+        if (method > 1) {
+            throw new IOException("Unsupported FLAC residual coding " + method);
+        }
+        int parameterBits = method == 0 ? 4 : 5;
+        int escape = (1 << parameterBits) - 1;
+        int partitionOrder = (int) in.readBits(4);
+        int partitionSize = blockSize >> partitionOrder;
+
+        int i = order;
+        for (int p = 0; p < 1 << partitionOrder; p++) {
+            int k = (int) in.readBits(parameterBits);
+            int end = (p + 1) * partitionSize;
+            if (k == escape) {
+                int rawBits = (int) in.readBits(5);
+                for (; i < end; i++) {
+                    out[i] = rawBits == 0 ? 0 : in.readSigned(rawBits);
+                }
+                continue;
+            }
+            for (; i < end; i++) {
+                long u = in.readUnary() << k | in.readBits(k);
+                out[i] = (int) (u >>> 1 ^ -(u & 1));
+            }
+        }
+    }
+
+    private void restoreStereo(int assignment, int blockSize) {
+        int[] a = samples[0];
+        int[] b = channels > 1 ? samples[1] : null;
+        for (int i = 0; i < blockSize && assignment >= 8; i++) {
+            switch (assignment) {
+                case 8 -> b[i] = a[i] - b[i];             // left, side -> right
+                case 9 -> a[i] = a[i] + b[i];             // side, right -> left
+                default -> {                              // mid, side
+                    int mid = a[i] << 1 | b[i] & 1;
+                    int side = b[i];
+                    a[i] = (mid + side) >> 1;
+                    b[i] = (mid - side) >> 1;
+                }
+            }
+        }
+    }
+
+    private void interleave(int blockSize) {
+        int bytesPerSample = bitsPerSample / 8;
+        byte[] pcm = new byte[blockSize * channels * bytesPerSample];
+        int offset = 0;
+        for (int i = 0; i < blockSize; i++) {
+            for (int c = 0; c < channels; c++) {
+                int sample = samples[c][i];
+                if (bytesPerSample == 1) {
+                    pcm[offset++] = (byte) (sample + 128);
+                    continue;
+                }
+                for (int k = 0; k < bytesPerSample; k++) {
+                    pcm[offset++] = (byte) (sample >> (8 * k));
+                }
+            }
+        }
+        pending = pcm;
+        pendingPosition = 0;
+    }
+
+    private static int uint16be(byte[] d, int o) {
+        return (d[o] & 0xFF) << 8 | (d[o + 1] & 0xFF);
+    }
+
+    /**
+     * MSB-first bit reading over a byte stream
+     */
+    private static final class BitReader {
+
+        private final InputStream in;
+        private long cache;
+        private int cached;
+
+        BitReader(InputStream in) {
+            this.in = in;
+        }
+
+        long readBits(int count) throws IOException {
+            if (count == 0) {
+                return 0;
+            }
+            while (cached < count) {
+                int b = in.read();
+                if (b < 0) {
+                    throw new EOFException("Truncated FLAC stream");
+                }
+                cache = cache << 8 | b;
+                cached += 8;
+            }
+            cached -= count;
+            return cache >>> cached & ((1L << count) - 1);
+        }
+
+        /**
+         * Like {@link #readBits} at a byte boundary, but -1 on a clean end of stream
+         */
+        int readBitsOrEof(int count) throws IOException {
+            if (cached == 0) {
+                int b = in.read();
+                if (b < 0) {
+                    return -1;
+                }
+                cache = b;
+                cached = 8;
+            }
+            return (int) readBits(count);
+        }
+
+        int readSigned(int count) throws IOException {
+            long value = readBits(count);
+            return (int) (value << (64 - count) >> (64 - count));
+        }
+
+        long readUnary() throws IOException {
+            long zeros = 0;
+            while (readBits(1) == 0) {
+                zeros++;
+            }
+            return zeros;
+        }
+
+        void skipUtf8() throws IOException {
+            int first = (int) readBits(8);
+            int extra = Integer.numberOfLeadingZeros(~first << 24);
+            for (int i = 1; i < extra; i++) {
+                readBits(8);
+            }
+        }
+
+        byte[] readBytes(int length) throws IOException {
+            byte[] bytes = new byte[length];
+            for (int i = 0; i < length; i++) {
+                bytes[i] = (byte) readBits(8);
+            }
+            return bytes;
+        }
+
+        void alignToByte() {
+            cached -= cached % 8;
+        }
+
+        void close() throws IOException {
+            in.close();
+        }
+    }
+}
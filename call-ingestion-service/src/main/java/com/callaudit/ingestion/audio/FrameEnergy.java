@@ -0,0 +1,116 @@
+package com.callaudit.ingestion.audio;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Loudness of a PCM WAV recording in 20ms frames: the mean square of every sample in the frame,
+ * all channels together, on a 0..1 scale. Measured in one sequential pass without buffering the audio.
+ */
+public final class FrameEnergy {
+
+    static final int FRAMES_PER_SECOND = 50;
+
+    private final int sampleRate;
+    private final int channels;
+    private final int bitsPerSample;
+    private final int frameSamples;
+    private final double[] energy;
+    private final int frames;
+    private final long totalSamples;
+
+    private FrameEnergy(WavHeader header, int frameSamples, double[] energy, int frames, long totalSamples) {
+        this.sampleRate = header.sampleRate();
+        this.channels = header.channels();
+        this.bitsPerSample = header.bitsPerSample();
+        this.frameSamples = frameSamples;
+        this.energy = energy;
+        this.frames = frames;
+        this.totalSamples = totalSamples;
+    }
+
+    /**
+     * Read a WAV recording to the end and measure it
+     *
+     * @return the measurement, or empty if the recording is not integer PCM WAV
+     */
+    public static Optional<FrameEnergy> measure(InputStream wav) throws IOException {
+        WavHeader header = WavHeader.read(wav);
+        if (!header.isPcm()) {
+            return Optional.empty();
+        }
+
+        int blockAlign = header.blockAlign();
+        int frameSamples = Math.max(header.sampleRate() / FRAMES_PER_SECOND, 1);
+        byte[] frame = new byte[frameSamples * blockAlign];
+        double[] energy = new double[1024];
+        int frames = 0;
+        long totalSamples = 0;
+        long remaining = header.dataSize() >= 0 ? header.dataSize() : Long.MAX_VALUE;
+
+        while (remaining > 0) {
+            int read = wav.readNBytes(frame, 0, (int) Math.min(frame.length, remaining));
+            int samples = read / blockAlign;
+            if (samples == 0) {
+                break;
+            }
+            remaining -= read;
+            totalSamples += samples;
+            if (frames == energy.length) {
+                energy = Arrays.copyOf(energy, frames * 2);
+            }
+            energy[frames++] = meanSquare(frame, samples * header.channels(), header.bitsPerSample());
+        }
+        return Optional.of(new FrameEnergy(header, frameSamples, energy, frames, totalSamples));
+    }
+
+    public int sampleRate() {
+        return sampleRate;
+    }
+
+    public int channels() {
+        return channels;
+    }
+
+    public int bitsPerSample() {
+        return bitsPerSample;
+    }
+
+    /**
+     * Samples per channel in one frame; the last frame may be shorter
+     */
+    public int frameSamples() {
+        return frameSamples;
+    }
+
+    public int frames() {
+        return frames;
+    }
+
+    /**
+     * Samples per channel in the whole recording
+     */
+    public long totalSamples() {
+        return totalSamples;
+    }
+
+    public double energy(int frame) {
+        return energy[frame];
+    }
+
+    private static double meanSquare(byte[] pcm, int samples, int bitsPerSample) {
+        double sum = 0;
+        int bytesPerSample = bitsPerSample / 8;
+        for (int i = 0, offset = 0; i < samples; i++, offset += bytesPerSample) {
+            double sample = switch (bytesPerSample) {
+                case 1 -> ((pcm[offset] & 0xFF) - 128) / 128.0;
+                case 2 -> ((pcm[offset] & 0xFF) | pcm[offset + 1] << 8) / 32768.0;
+                default -> ((pcm[offset] & 0xFF) | (pcm[offset + 1] & 0xFF) << 8 | pcm[offset + 2] << 16) / 8388608.0;
+            };
+            sum += sample * sample;
+        }
+        return sum / samples;
+    }
+}
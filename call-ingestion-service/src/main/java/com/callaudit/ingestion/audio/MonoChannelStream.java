@@ -0,0 +1,111 @@
+package com.callaudit.ingestion.audio;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * One channel of a PCM WAV recording as a mono WAV, extracted while it is being read.
+ * Used to split dual-channel call recordings (agent on one side, customer on the other)
+ * into a recording per speaker.
+ */
+public final class MonoChannelStream extends InputStream {
+
+    private final InputStream source;
+    private final int channel;
+    private final int bytesPerSample;
+    private final int blockAlign;
+    private final long size;
+    private final byte[] frames;
+    private long remaining;
+
+    private byte[] pending;
+    private int pendingPosition;
+    private int pendingLength;
+
+    private MonoChannelStream(InputStream source, WavHeader header, int channel) {
+        this.source = source;
+        this.channel = channel;
+        this.bytesPerSample = header.bitsPerSample() / 8;
+        this.blockAlign = header.blockAlign();
+        this.frames = new byte[4096 * blockAlign];
+        this.remaining = header.dataSize() >= 0 ? header.dataSize() : Long.MAX_VALUE;
+
+        long monoDataSize = header.dataSize() >= 0 ? header.dataSize() / header.channels() : -1;
+        this.size = monoDataSize >= 0 ? 44 + monoDataSize : -1;
+        this.pending = WavHeader.canonical(1, header.sampleRate(), header.bitsPerSample(), monoDataSize);
+        this.pendingLength = pending.length;
+    }
+
+    /**
+     * Read the WAV header from source and prepare to extract one channel
+     *
+     * @param source WAV stream, positioned at its first byte
+     * @param channel 0-based channel, e.g. 0 for left
+     * @throws IOException if the recording is not PCM WAV or has no such channel
+     */
+    public static MonoChannelStream open(InputStream source, int channel) throws IOException {
+        WavHeader header = WavHeader.read(source);
+        if (!header.isPcm()) {
+            throw new IOException("Recording is not PCM WAV");
+        }
+        if (channel < 0 || channel >= header.channels()) {
+            throw new IOException("Recording has " + header.channels() + " channels, not channel " + channel);
+        }
+        return new MonoChannelStream(source, header, channel);
+    }
+
+    /**
+     * Length of the mono WAV, header included, or -1 if the source did not declare its data size
+     */
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] one = new byte[1];
+        return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        while (pendingPosition == pendingLength) {
+            if (!extractNextFrames()) {
+                return -1;
+            }
+        }
+        int n = Math.min(len, pendingLength - pendingPosition);
+        System.arraycopy(pending, pendingPosition, b, off, n);
+        pendingPosition += n;
+        return n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+
+    private boolean extractNextFrames() throws IOException {
+        int read = remaining > 0 ? source.readNBytes(frames, 0, (int) Math.min(frames.length, remaining)) : 0;
+        remaining -= read;
+        int count = read / blockAlign;
+        if (count == 0) {
+            return false; // a trailing partial sample is dropped
+        }
+
+        if (pending.length < count * bytesPerSample) {
+            pending = new byte[frames.length / blockAlign * bytesPerSample];
+        }
+        for (int i = 0, from = channel * bytesPerSample, to = 0; i < count; i++, from += blockAlign) {
+            for (int k = 0; k < bytesPerSample; k++) {
+                pending[to++] = frames[from + k];
+            }
+        }
+        pendingPosition = 0;
+        pendingLength = count * bytesPerSample;
+        return true;
+    }
+}
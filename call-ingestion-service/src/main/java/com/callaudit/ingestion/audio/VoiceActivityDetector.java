@@ -0,0 +1,207 @@
+package com.callaudit.ingestion.audio;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Energy-based voice activity detection over 20ms PCM frames.
+ * <p>
+ * A frame counts as speech when it is louder than the recording's own noise floor (its 10th
+ * percentile frame level) by a margin. The threshold is kept between -55 and -30 dBFS so that
+ * digital silence does not turn line hiss into speech and a noisy line still has pauses.
+ * Short gaps are bridged and every region is padded, so word onsets and trailing consonants are kept.
+ * <p>
+ * Only loudness is measured: dead air and silence on hold are removed, hold music is not.
+ */
+public final class VoiceActivityDetector {
+
+    private static final double MIN_THRESHOLD_DB = -55;
+    private static final double MAX_THRESHOLD_DB = -30;
+
+    private final double marginDb;
+    private final Duration minSilence;
+    private final Duration padding;
+
+    /**
+     * @param marginDb how far above the noise floor a frame must be to count as speech
+     * @param minSilence shorter gaps between speech are kept as speech
+     * @param padding audio kept before and after each region
+     */
+    public VoiceActivityDetector(double marginDb, Duration minSilence, Duration padding) {
+        this.marginDb = marginDb;
+        this.minSilence = minSilence;
+        this.padding = padding;
+    }
+
+    /**
+     * A stretch of speech, in samples per channel
+     *
+     * @param startSample first sample of the region
+     * @param endSample sample after the last one
+     */
+    public record Region(long startSample, long endSample) {
+
+        public long sampleCount() {
+            return endSample - startSample;
+        }
+    }
+
+    /**
+     * Speech regions of a recording, in order and non-overlapping
+     */
+    public record SpeechMap(int sampleRate, int channels, int bitsPerSample, long totalSamples,
+                            List<Region> regions) {
+
+        public long toMillis(long samples) {
+            return samples * 1000 / sampleRate;
+        }
+
+        public long speechSamples() {
+            return regions.stream().mapToLong(Region::sampleCount).sum();
+        }
+
+        /**
+         * Size of the WAV written by {@link #trim}, header included
+         */
+        public long trimmedFileSize() {
+            return 44 + speechSamples() * channels * (bitsPerSample / 8);
+        }
+    }
+
+    /**
+     * Find the speech in a measured recording
+     */
+    public SpeechMap detect(FrameEnergy energy) {
+        int frames = energy.frames();
+        int frameSamples = energy.frameSamples();
+        List<Region> regions = new ArrayList<>();
+        if (frames == 0) {
+            return new SpeechMap(energy.sampleRate(), energy.channels(), energy.bitsPerSample(),
+                energy.totalSamples(), regions);
+        }
+
+        double[] levels = new double[frames];
+        for (int f = 0; f < frames; f++) {
+            levels[f] = decibels(energy.energy(f));
+        }
+        double[] sorted = levels.clone();
+        Arrays.sort(sorted);
+        double threshold = Math.min(Math.max(sorted[frames / 10] + marginDb, MIN_THRESHOLD_DB), MAX_THRESHOLD_DB);
+
+        long gapSamples = minSilence.toMillis() * energy.sampleRate() / 1000;
+        long padSamples = padding.toMillis() * energy.sampleRate() / 1000;
+        long total = energy.totalSamples();
+
+        int f = 0;
+        while (f < frames) {
+            if (levels[f] <= threshold) {
+                f++;
+                continue;
+            }
+            int first = f;
+            while (f < frames && levels[f] > threshold) {
+                f++;
+            }
+            long start = Math.max((long) first * frameSamples - padSamples, 0);
+            long end = Math.min((long) f * frameSamples + padSamples, total);
+
+            Region previous = regions.isEmpty() ? null : regions.get(regions.size() - 1);
+            if (previous != null && start - previous.endSample() < gapSamples) {
+                regions.set(regions.size() - 1, new Region(previous.startSample(), end));
+            } else {
+                regions.add(new Region(start, end));
+            }
+        }
+        return new SpeechMap(energy.sampleRate(), energy.channels(), energy.bitsPerSample(), total, regions);
+    }
+
+    /**
+     * Second pass: the speech regions of a recording back to back, as a WAV stream of
+     * {@link SpeechMap#trimmedFileSize()} bytes. The source is read as the result is read.
+     *
+     * @param wav the recording, from the start
+     */
+    public static InputStream trim(InputStream wav, SpeechMap speech) throws IOException {
+        WavHeader header = WavHeader.read(wav);
+        if (!header.isPcm()) {
+            throw new IOException("Recording is not PCM WAV");
+        }
+        return new TrimmedWavStream(wav, speech, header.blockAlign());
+    }
+
+    private static double decibels(double meanSquare) {
+        return 10 * Math.log10(meanSquare + 1e-12);
+    }
+
+    /**
+     * Emits a canonical WAV header, then only the bytes inside speech regions
+     */
+    private static final class TrimmedWavStream extends InputStream {
+
+        private final InputStream source;
+        private final List<Region> regions;
+        private final int blockAlign;
+        private byte[] header;
+        private int headerPosition;
+        private int region;
+        private long position; // byte offset into the source's audio data
+
+        TrimmedWavStream(InputStream source, SpeechMap speech, int blockAlign) {
+            this.source = source;
+            this.regions = speech.regions();
+            this.blockAlign = blockAlign;
+            this.header = WavHeader.canonical(speech.channels(), speech.sampleRate(), speech.bitsPerSample(),
+                speech.speechSamples() * blockAlign);
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (header != null) {
+                int n = Math.min(len, header.length - headerPosition);
+                System.arraycopy(header, headerPosition, b, off, n);
+                headerPosition += n;
+                if (headerPosition == header.length) {
+                    header = null;
+                }
+                return n;
+            }
+            while (region < regions.size() && position >= regions.get(region).endSample() * blockAlign) {
+                region++;
+            }
+            if (region == regions.size()) {
+                return -1;
+            }
+
+            Region current = regions.get(region);
+            long start = current.startSample() * blockAlign;
+            if (position < start) {
+                source.skipNBytes(start - position);
+                position = start;
+            }
+            int n = source.read(b, off, (int) Math.min(len, current.endSample() * blockAlign - position));
+            if (n < 0) {
+                throw new IOException("Recording ended before the last speech region");
+            }
+            position += n;
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            source.close();
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.callaudit.ingestion.audio;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Splits long PCM WAV recordings into fixed-length, slightly overlapping chunks whose
+ * boundaries sit in pauses, so each chunk can be transcribed independently.
+ * <p>
+ * Works in two sequential passes over the recording, neither of which buffers it:
+ * {@link #plan} measures loudness per 20ms frame and picks the quietest 300ms within
+ * a search window before every nominal boundary; {@link #split} then streams each chunk
+ * out as its own WAV file, keeping only the overlap in memory.
+ */
+public final class WavChunker {
+
+    private static final int PAUSE_FRAMES = 15; // pauses are judged over 300ms of 20ms frames
+
+    private final Duration chunkLength;
+    private final Duration overlap;
+    private final Duration searchWindow;
+
+    /**
+     * @param chunkLength nominal chunk length
+     * @param overlap audio shared by neighbouring chunks, centered on the boundary
+     * @param searchWindow how far before the nominal boundary to look for a pause
+     */
+    public WavChunker(Duration chunkLength, Duration overlap, Duration searchWindow) {
+        if (searchWindow.compareTo(chunkLength.dividedBy(2)) > 0 || overlap.compareTo(searchWindow) > 0) {
+            throw new IllegalArgumentException("Search window must be at most half a chunk, and overlap at most the window");
+        }
+        this.chunkLength = chunkLength;
+        this.overlap = overlap;
+        this.searchWindow = searchWindow;
+    }
+
+    /**
+     * One chunk of a recording, in samples per channel
+     *
+     * @param index 0-based chunk number
+     * @param startSample first sample of the chunk
+     * @param endSample sample after the last one
+     */
+    public record Chunk(int index, long startSample, long endSample) {
+
+        public long sampleCount() {
+            return endSample - startSample;
+        }
+    }
+
+    /**
+     * Where a recording will be cut. An empty chunk list means the recording is short enough to keep whole.
+     */
+    public record Plan(int sampleRate, int channels, int bitsPerSample, long totalSamples, List<Chunk> chunks) {
+
+        public long toMillis(long samples) {
+            return samples * 1000 / sampleRate;
+        }
+
+        /**
+         * Size of a chunk written by {@link #split}, WAV header included
+         */
+        public long chunkFileSize(Chunk chunk) {
+            return 44 + chunk.sampleCount() * channels * (bitsPerSample / 8);
+        }
+    }
+
+    /**
+     * Receives each chunk as a complete WAV stream of known size
+     */
+    @FunctionalInterface
+    public interface ChunkSink {
+        void accept(Chunk chunk, InputStream wav, long size) throws IOException;
+    }
+
+    /**
+     * First pass: find the cut points
+     *
+     * @param wav the recording; read to the end
+     * @return the plan, or empty if the recording is not integer PCM WAV
+     */
+    public Optional<Plan> plan(InputStream wav) throws IOException {
+        return FrameEnergy.measure(wav).map(this::plan);
+    }
+
+    /**
+     * Find the cut points of a recording that has already been measured
+     */
+    public Plan plan(FrameEnergy energy) {
+        return new Plan(energy.sampleRate(), energy.channels(), energy.bitsPerSample(), energy.totalSamples(),
+            cut(energy));
+    }
+
+    /**
+     * Second pass: stream every chunk of the plan to the sink, in order
+     *
+     * @param wav the same recording again, from the start
+     */
+    public void split(InputStream wav, Plan plan, ChunkSink sink) throws IOException {
+        WavHeader header = WavHeader.read(wav);
+        if (!header.isPcm()) {
+            throw new IOException("Recording is not PCM WAV");
+        }
+        int blockAlign = header.blockAlign();
+        List<Chunk> chunks = plan.chunks();
+
+        byte[] carry = new byte[0]; // samples [chunk start, position) kept from the previous chunk
+        long position = 0;
+        for (int i = 0; i < chunks.size(); i++) {
+            Chunk chunk = chunks.get(i);
+            long nextStart = i + 1 < chunks.size() ? chunks.get(i + 1).startSample() : chunk.endSample();
+            long keepFrom = Math.max(nextStart, position) - position; // offset into the fresh bytes
+
+            ByteArrayOutputStream nextCarry = new ByteArrayOutputStream();
+            TeeInputStream fresh = new TeeInputStream(wav, (chunk.endSample() - position) * blockAlign,
+                keepFrom * blockAlign, nextCarry);
+            byte[] chunkHeader = WavHeader.canonical(plan.channels(), plan.sampleRate(), plan.bitsPerSample(),
+                chunk.sampleCount() * blockAlign);
+
+            InputStream body = new SequenceInputStream(
+                new SequenceInputStream(new ByteArrayInputStream(chunkHeader), new ByteArrayInputStream(carry)),
+                fresh);
+            sink.accept(chunk, body, plan.chunkFileSize(chunk));
+            fresh.transferTo(OutputStream.nullOutputStream()); // whatever the sink left unread
+
+            position = chunk.endSample();
+            carry = nextCarry.toByteArray();
+        }
+    }
+
+    private List<Chunk> cut(FrameEnergy energy) {
+        int sampleRate = energy.sampleRate();
+        int frames = energy.frames();
+        int frameSamples = energy.frameSamples();
+        long totalSamples = energy.totalSamples();
+        long chunkSamples = chunkLength.toMillis() * sampleRate / 1000;
+        long halfOverlap = overlap.toMillis() * sampleRate / 2000;
+        int windowFrames = (int) (searchWindow.toMillis() * FrameEnergy.FRAMES_PER_SECOND / 1000);
+
+        List<Chunk> chunks = new ArrayList<>();
+        if (totalSamples <= chunkSamples + chunkSamples / 2) {
+            return chunks;
+        }
+
+        // Prefix sums give the loudness of any run of frames in O(1)
+        double[] prefix = new double[frames + 1];
+        for (int f = 0; f < frames; f++) {
+            prefix[f + 1] = prefix[f] + energy.energy(f);
+        }
+
+        long start = 0;
+        while (true) {
+            long target = start + chunkSamples;
+            if (totalSamples - target < chunkSamples / 2) {
+                chunks.add(new Chunk(chunks.size(), start, totalSamples)); // a short remainder joins the last chunk
+                return chunks;
+            }
+
+            int targetFrame = (int) (target / frameSamples);
+            int runEnd = targetFrame;   // latest run of equally quiet frames, e.g. digital silence
+            int runStart = targetFrame;
+            double quietest = Double.MAX_VALUE;
+            for (int f = Math.min(targetFrame, frames - 1); f >= Math.max(targetFrame - windowFrames, 0); f--) {
+                int from = Math.max(f - PAUSE_FRAMES / 2, 0);
+                int to = Math.min(f + PAUSE_FRAMES / 2 + 1, frames);
+                double loudness = (prefix[to] - prefix[from]) / (to - from);
+                if (loudness < quietest) {
+                    quietest = loudness;
+                    runEnd = f;
+                    runStart = f;
+                } else if (loudness == quietest && f == runStart - 1) {
+                    runStart = f;
+                }
+            }
+
+            long cut = (long) (runStart + runEnd) / 2 * frameSamples + frameSamples / 2; // middle of the pause
+            chunks.add(new Chunk(chunks.size(), start, Math.min(cut + halfOverlap, totalSamples)));
+            start = cut - halfOverlap;
+        }
+    }
+
+    /**
+     * Reads a fixed number of bytes from the source, copying those past keepFrom aside
+     */
+    private static final class TeeInputStream extends InputStream {
+
+        private final InputStream source;
+        private final long keepFrom;
+        private final OutputStream copy;
+        private final long length;
+        private long position;
+
+        TeeInputStream(InputStream source, long length, long keepFrom, OutputStream copy) {
+            this.source = source;
+            this.length = length;
+            this.keepFrom = keepFrom;
+            this.copy = copy;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (position >= length) {
+                return -1;
+            }
+            int n = source.read(b, off, (int) Math.min(len, length - position));
+            if (n < 0) {
+                throw new IOException("Recording ended before the planned chunk end");
+            }
+            long skip = Math.max(keepFrom - position, 0);
+            if (skip < n) {
+                copy.write(b, off + (int) skip, n - (int) skip);
+            }
+            position += n;
+            return n;
+        }
+    }
+}
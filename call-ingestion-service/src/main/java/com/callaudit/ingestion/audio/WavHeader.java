@@ -0,0 +1,169 @@
+package com.callaudit.ingestion.audio;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Leading chunks of a RIFF/WAVE file, read up to and including the data chunk header.
+ * Every byte consumed is kept in {@link #raw()}, so a recording that turns out not to be
+ * plain PCM can still be passed on untouched.
+ */
+final class WavHeader {
+
+    static final int MAX_HEADER_BYTES = 64 * 1024;
+
+    private static final int FORMAT_PCM = 0x0001;
+    private static final int FORMAT_EXTENSIBLE = 0xFFFE;
+
+    private final byte[] raw;
+    private int formatTag;
+    private int channels;
+    private int sampleRate;
+    private int blockAlign;
+    private int bitsPerSample;
+    private int subFormat;
+    private long dataSize = -1;
+    private boolean complete;
+
+    private WavHeader(byte[] raw) {
+        this.raw = raw;
+    }
+
+    /**
+     * Consume the header from in. Stops early (with {@link #isPcm()} false) on anything
+     * unexpected: not RIFF/WAVE, end of stream, or more than {@link #MAX_HEADER_BYTES} before the data chunk.
+     */
+    static WavHeader read(InputStream in) throws IOException {
+        ByteArrayOutputStream consumed = new ByteArrayOutputStream();
+        byte[] riff = in.readNBytes(12);
+        consumed.writeBytes(riff);
+        if (riff.length < 12 || !ascii(riff, 0, "RIFF") || !ascii(riff, 8, "WAVE")) {
+            return new WavHeader(consumed.toByteArray());
+        }
+
+        byte[] fmt = null;
+        while (true) {
+            byte[] chunk = in.readNBytes(8);
+            consumed.writeBytes(chunk);
+            if (chunk.length < 8) {
+                return new WavHeader(consumed.toByteArray());
+            }
+            long size = uint32le(chunk, 4);
+            if (ascii(chunk, 0, "data")) {
+                WavHeader header = new WavHeader(consumed.toByteArray());
+                header.complete = fmt != null;
+                header.dataSize = size == 0 || size == 0xFFFFFFFFL ? -1 : size; // unset by streaming writers
+                if (fmt != null) {
+                    header.parseFormat(fmt);
+                }
+                return header;
+            }
+            long padded = size + (size & 1);
+            if (consumed.size() + padded > MAX_HEADER_BYTES) {
+                return new WavHeader(consumed.toByteArray());
+            }
+            byte[] body = in.readNBytes((int) padded);
+            consumed.writeBytes(body);
+            if (body.length < padded) {
+                return new WavHeader(consumed.toByteArray());
+            }
+            if (ascii(chunk, 0, "fmt ") && size >= 16) {
+                fmt = body;
+            }
+        }
+    }
+
+    private void parseFormat(byte[] fmt) {
+        formatTag = uint16le(fmt, 0);
+        channels = uint16le(fmt, 2);
+        sampleRate = (int) uint32le(fmt, 4);
+        blockAlign = uint16le(fmt, 12);
+        bitsPerSample = uint16le(fmt, 14);
+        if (formatTag == FORMAT_EXTENSIBLE && fmt.length >= 40) {
+            subFormat = uint16le(fmt, 24); // first two bytes of the sub-format GUID
+        }
+    }
+
+    /**
+     * Integer PCM that FLAC can hold: 8, 16 or 24 bits, 1 to 8 channels
+     */
+    boolean isPcm() {
+        boolean pcm = formatTag == FORMAT_PCM || formatTag == FORMAT_EXTENSIBLE && subFormat == FORMAT_PCM;
+        return complete && pcm
+            && channels >= 1 && channels <= 8
+            && (bitsPerSample == 8 || bitsPerSample == 16 || bitsPerSample == 24)
+            && blockAlign == channels * bitsPerSample / 8
+            && sampleRate > 0 && sampleRate < (1 << 20);
+    }
+
+    byte[] raw() {
+        return raw;
+    }
+
+    int channels() {
+        return channels;
+    }
+
+    int sampleRate() {
+        return sampleRate;
+    }
+
+    int bitsPerSample() {
+        return bitsPerSample;
+    }
+
+    int blockAlign() {
+        return blockAlign;
+    }
+
+    /**
+     * Declared size of the data chunk in bytes, or -1 if the writer left it unset
+     */
+    long dataSize() {
+        return dataSize;
+    }
+
+    /**
+     * Minimal 44-byte header for PCM of the given layout
+     */
+    static byte[] canonical(int channels, int sampleRate, int bitsPerSample, long dataSize) {
+        int blockAlign = channels * bitsPerSample / 8;
+        long size = dataSize >= 0 && dataSize <= 0xFFFFFFFFL - 36 ? dataSize : 0xFFFFFFFFL - 36;
+        byte[] header = new byte[44];
+        putAscii(header, 0, "RIFF");
+        putUint32le(header, 4, size + 36);
+        putAscii(header, 8, "WAVEfmt ");
+        putUint32le(header, 16, 16);
+        putUint32le(header, 20, FORMAT_PCM | (long) channels << 16);
+        putUint32le(header, 24, sampleRate);
+        putUint32le(header, 28, (long) sampleRate * blockAlign);
+        putUint32le(header, 32, blockAlign | (long) bitsPerSample << 16);
+        putAscii(header, 36, "data");
+        putUint32le(header, 40, size);
+        return header;
+    }
+
+    private static boolean ascii(byte[] data, int offset, String value) {
+        return new String(data, offset, value.length(), StandardCharsets.ISO_8859_1).equals(value);
+    }
+
+    private static void putAscii(byte[] data, int offset, String value) {
+        System.arraycopy(value.getBytes(StandardCharsets.ISO_8859_1), 0, data, offset, value.length());
+    }
+
+    private static int uint16le(byte[] d, int o) {
+        return (d[o] & 0xFF) | (d[o + 1] & 0xFF) << 8;
+    }
+
+    private static long uint32le(byte[] d, int o) {
+        return (d[o] & 0xFFL) | (d[o + 1] & 0xFFL) << 8 | (d[o + 2] & 0xFFL) << 16 | (d[o + 3] & 0xFFL) << 24;
+    }
+
+    private static void putUint32le(byte[] d, int o, long v) {
+        for (int i = 0; i < 4; i++) {
+            d[o + i] = (byte) (v >>> (8 * i));
+        }
+    }
+}
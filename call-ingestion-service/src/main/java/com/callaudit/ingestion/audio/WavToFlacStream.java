@@ -0,0 +1,159 @@
+package com.callaudit.ingestion.audio;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Re-encodes a PCM WAV stream as FLAC while it is being read, one 4096-sample frame at a time,
+ * so a recording can be compressed on its way into storage without being buffered.
+ * <p>
+ * The WAV header (everything up to the data chunk) travels in an APPLICATION metadata block
+ * with ID {@code riff}, which lets {@link FlacToWavStream} give the original header back.
+ * Chunks after the audio data are not kept.
+ * <p>
+ * Recordings that are not plain integer PCM (float, A-law/&mu;-law, RF64, ...) pass through
+ * unchanged; check {@link #isTranscoding()} before deciding how to store the result.
+ */
+public final class WavToFlacStream extends InputStream {
+
+    static final String RIFF_APPLICATION_ID = "riff";
+
+    private final InputStream source;
+    private final WavHeader header;
+    private final FlacFrameEncoder encoder;
+    private final int[][] samples;
+    private final byte[] pcm;
+    private long remaining;
+    private long frameNumber;
+    private boolean finished;
+
+    private byte[] pending;
+    private int pendingPosition;
+    private long bytesWritten;
+
+    private WavToFlacStream(InputStream source, WavHeader header) {
+        this.source = source;
+        this.header = header;
+        if (header.isPcm()) {
+            this.encoder = new FlacFrameEncoder(header.channels(), header.sampleRate(), header.bitsPerSample());
+            this.samples = new int[header.channels()][FlacFrameEncoder.BLOCK_SIZE];
+            this.pcm = new byte[FlacFrameEncoder.BLOCK_SIZE * header.blockAlign()];
+            this.remaining = header.dataSize() >= 0 ? header.dataSize() : Long.MAX_VALUE;
+            long totalSamples = header.dataSize() >= 0 ? header.dataSize() / header.blockAlign() : 0;
+            this.pending = concat(
+                FlacFrameEncoder.streamHeader(header.channels(), header.sampleRate(), header.bitsPerSample(),
+                    totalSamples, false),
+                FlacFrameEncoder.applicationBlock(RIFF_APPLICATION_ID, header.raw(), true));
+        } else {
+            this.encoder = null;
+            this.samples = null;
+            this.pcm = null;
+            this.pending = header.raw();
+        }
+    }
+
+    /**
+     * Read the WAV header from source and prepare to encode the audio that follows
+     *
+     * @param source WAV stream, positioned at its first byte
+     */
+    public static WavToFlacStream open(InputStream source) throws IOException {
+        return new WavToFlacStream(source, WavHeader.read(source));
+    }
+
+    /**
+     * Whether the output is FLAC; false if the input was passed through as-is
+     */
+    public boolean isTranscoding() {
+        return encoder != null;
+    }
+
+    /**
+     * Number of bytes handed out so far, i.e. the stored size once the stream is exhausted
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] one = new byte[1];
+        return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        while (pending == null || pendingPosition == pending.length) {
+            if (encoder == null) {
+                int n = source.read(b, off, len);
+                if (n > 0) {
+                    bytesWritten += n;
+                }
+                return n;
+            }
+            if (!encodeNextFrame()) {
+                return -1;
+            }
+        }
+        int n = Math.min(len, pending.length - pendingPosition);
+        System.arraycopy(pending, pendingPosition, b, off, n);
+        pendingPosition += n;
+        bytesWritten += n;
+        return n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+
+    private boolean encodeNextFrame() throws IOException {
+        if (finished) {
+            return false;
+        }
+        int blockAlign = header.blockAlign();
+        int wanted = (int) Math.min(pcm.length, remaining);
+        int read = source.readNBytes(pcm, 0, wanted);
+        remaining -= read;
+        int blockSize = read / blockAlign;
+        if (read < wanted || remaining == 0) {
+            finished = true;
+            source.transferTo(OutputStream.nullOutputStream()); // trailing chunks still count towards digest and size cap
+        }
+        if (blockSize == 0) {
+            return false; // a trailing partial sample is dropped
+        }
+
+        deinterleave(blockSize);
+        pending = encoder.encode(samples, blockSize, frameNumber++);
+        pendingPosition = 0;
+        return true;
+    }
+
+    private void deinterleave(int blockSize) {
+        int channels = header.channels();
+        int bytesPerSample = header.bitsPerSample() / 8;
+        int offset = 0;
+        for (int i = 0; i < blockSize; i++) {
+            for (int c = 0; c < channels; c++) {
+                samples[c][i] = switch (bytesPerSample) {
+                    case 1 -> (pcm[offset] & 0xFF) - 128; // 8-bit WAV is unsigned
+                    case 2 -> (pcm[offset] & 0xFF) | pcm[offset + 1] << 8;
+                    default -> (pcm[offset] & 0xFF) | (pcm[offset + 1] & 0xFF) << 8 | pcm[offset + 2] << 16;
+                };
+                offset += bytesPerSample;
+            }
+        }
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] result = new byte[first.length + second.length];
+        System.arraycopy(first, 0, result, 0, first.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+}
@@ -1,13 +1,20 @@
 package com.callaudit.ingestion.config;
 
+import com.callaudit.events.codec.EventCodecs;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
@@ -22,21 +29,25 @@ public class KafkaConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    @Value("${spring.kafka.producer.batch-size:65536}")
+    private int batchSize;
+
+    @Value("${spring.kafka.producer.properties.linger.ms:20}")
+    private int lingerMs;
+
+    @Value("${minio.notifications.max-batch:500}")
+    private int minioNotificationMaxBatch;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
     @Bean
     public ProducerFactory<String, Object> producerFactory(ObjectMapper objectMapper) {
-        Map<String, Object> configProps = new HashMap<>();
-        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
-        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
-        configProps.put(ProducerConfig.RETRIES_CONFIG, 3);
-        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
-
         // Create JsonSerializer with custom ObjectMapper for ISO-8601 timestamp formatting
         JsonSerializer<Object> jsonSerializer = new JsonSerializer<>(objectMapper);
 
         return new DefaultKafkaProducerFactory<>(
-            configProps,
+            producerConfigs(),
             new StringSerializer(),
             jsonSerializer
         );
@@ -47,6 +58,91 @@ public class KafkaConfig {
         return new KafkaTemplate<>(producerFactory(objectMapper));
     }
 
+    /**
+     * Producer for the outbox relay. Payloads are already serialized JSON,
+     * so they are sent as-is instead of being parsed and re-serialized.
+     */
+    @Bean
+    public KafkaTemplate<String, String> outboxKafkaTemplate() {
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(
+            producerConfigs(),
+            new StringSerializer(),
+            new StringSerializer()
+        ));
+    }
+
+    /**
+     * Batch listener for MinIO bucket notifications: everything one poll returns is
+     * registered with a single multi-row insert
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, String> minioNotificationListenerContainerFactory() {
+        Map<String, Object> configProps = consumerConfigs();
+        configProps.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, minioNotificationMaxBatch);
+
+        ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(configProps));
+        factory.setBatchListener(true);
+        return withListenerExecutor(factory);
+    }
+
+    @Bean
+    public EventCodecs eventCodecs() {
+        return EventCodecs.standard();
+    }
+
+    /**
+     * Listener for downstream pipeline events that advance call status. Values are read as bytes
+     * and decoded with {@link EventCodecs} (JSON or CBOR per record); only the envelope is needed.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> callStatusListenerContainerFactory() {
+        Map<String, Object> configProps = consumerConfigs();
+        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(configProps));
+        return withListenerExecutor(factory);
+    }
+
+    /**
+     * Same as {@link #callStatusListenerContainerFactory()} for the per-instance status stream group,
+     * which starts at the latest offset: a new instance has no subscribers for past events
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> callStatusStreamListenerContainerFactory() {
+        Map<String, Object> configProps = consumerConfigs();
+        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(configProps));
+        return withListenerExecutor(factory);
+    }
+
+    private Map<String, Object> consumerConfigs() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        return configProps;
+    }
+
+    private Map<String, Object> producerConfigs() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        configProps.put(ProducerConfig.RETRIES_CONFIG, 3);
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        // Let bursts (bulk ingestion, outbox relay) share produce requests instead of one request per event
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        return configProps;
+    }
+
     @Bean
     public ObjectMapper objectMapper() {
         ObjectMapper mapper = new ObjectMapper();
@@ -56,4 +152,15 @@ public class KafkaConfig {
         mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
         return mapper;
     }
+
+    /**
+     * Run listener invocations on virtual threads when {@code spring.threads.virtual.enabled} is set
+     */
+    private <K, V> ConcurrentKafkaListenerContainerFactory<K, V> withListenerExecutor(
+            ConcurrentKafkaListenerContainerFactory<K, V> factory) {
+        if (virtualThreadsEnabled) {
+            factory.getContainerProperties().setListenerTaskExecutor(new VirtualThreadTaskExecutor("kafka-listener-"));
+        }
+        return factory;
+    }
 }
@@ -5,6 +5,7 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 
 @Configuration
 @ConfigurationProperties(prefix = "minio")
@@ -15,12 +16,33 @@ public class MinioConfig {
     private String accessKey;
     private String secretKey;
     private String bucketName;
+    private String publicEndpoint;
+    private String region = "us-east-1";
 
+    /**
+     * Client for all storage operations; injected wherever a MinioClient is asked for without a qualifier
+     */
     @Bean
+    @Primary
     public MinioClient minioClient() {
         return MinioClient.builder()
                 .endpoint(endpoint)
                 .credentials(accessKey, secretKey)
                 .build();
     }
+
+    /**
+     * Client used only to sign presigned URLs. Signing is offline, but the host is part of
+     * the signature, so it must use the endpoint clients can reach (minio.public-endpoint).
+     * The region is fixed so no bucket-location lookup goes to that endpoint.
+     * Injected with {@code @Qualifier("presignMinioClient")}.
+     */
+    @Bean
+    public MinioClient presignMinioClient() {
+        return MinioClient.builder()
+                .endpoint(publicEndpoint != null && !publicEndpoint.isBlank() ? publicEndpoint : endpoint)
+                .credentials(accessKey, secretKey)
+                .region(region)
+                .build();
+    }
 }
@@ -0,0 +1,74 @@
+package com.callaudit.ingestion.controller;
+
+import com.callaudit.ingestion.model.CallChannel;
+import com.callaudit.ingestion.model.CallPriority;
+import com.callaudit.ingestion.service.BulkIngestionReport;
+import com.callaudit.ingestion.service.BulkIngestionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/calls/bulk")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Bulk Ingestion", description = "API for backfilling many call recordings in one request")
+public class BulkIngestionController {
+
+    private final BulkIngestionService bulkIngestionService;
+
+    @Operation(
+        summary = "Bulk upload call recordings",
+        description = "Upload a zip archive of recordings as the raw request body. An optional manifest.json " +
+                "as the first entry supplies per-file metadata (filename, callerId, agentId, channel, startTime, " +
+                "priority); " +
+                "the query parameters are defaults for files it does not list. Returns a per-file result report."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Archive processed; see the report for per-file results",
+                content = @Content(schema = @Schema(implementation = BulkIngestionReport.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid manifest"),
+        @ApiResponse(responseCode = "500", description = "Internal server error during ingestion")
+    })
+    @PostMapping(consumes = {"application/zip", "application/x-zip-compressed", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<BulkIngestionReport> bulkUpload(
+            HttpServletRequest request,
+            @Parameter(description = "Default caller ID for files not in the manifest", example = "555-0123")
+            @RequestParam(value = "callerId", required = false) String callerId,
+            @Parameter(description = "Default agent ID for files not in the manifest", example = "agent-001")
+            @RequestParam(value = "agentId", required = false) String agentId,
+            @Parameter(description = "Default call channel for files not in the manifest", example = "INBOUND")
+            @RequestParam(value = "channel", defaultValue = "INBOUND") CallChannel channel,
+            @Parameter(description = "Default processing lane for files not in the manifest; HIGH skips the normal backlog",
+                    example = "NORMAL")
+            @RequestParam(value = "priority", defaultValue = "NORMAL") CallPriority priority) {
+
+        try {
+            log.info("Received bulk upload request: contentLength={}, callerId={}, agentId={}, channel={}, priority={}",
+                     request.getContentLengthLong(), callerId, agentId, channel, priority);
+
+            BulkIngestionReport report = bulkIngestionService.ingestArchive(
+                request.getInputStream(), callerId, agentId, channel, priority);
+
+            return ResponseEntity.ok(report);
+
+        } catch (IllegalArgumentException e) {
+            log.error("Validation error during bulk upload", e);
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Error processing bulk upload", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
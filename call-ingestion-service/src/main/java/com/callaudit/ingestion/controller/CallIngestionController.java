@@ -1,8 +1,12 @@
 package com.callaudit.ingestion.controller;
 
+import com.callaudit.ingestion.audio.AudioFormat;
 import com.callaudit.ingestion.model.Call;
 import com.callaudit.ingestion.model.CallChannel;
+import com.callaudit.ingestion.model.CallPriority;
+import com.callaudit.ingestion.model.ChannelLayout;
 import com.callaudit.ingestion.service.CallIngestionService;
+import com.callaudit.ingestion.service.CallStatusService;
 import com.callaudit.ingestion.service.StorageService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -11,19 +15,29 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.io.InputStream;
+import java.io.IOException;
+import java.net.URI;
 import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @RestController
@@ -34,6 +48,7 @@ import java.util.UUID;
 public class CallIngestionController {
 
     private final CallIngestionService callIngestionService;
+    private final CallStatusService callStatusService;
     private final StorageService storageService;
 
     @Operation(
@@ -44,7 +59,10 @@ public class CallIngestionController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "201", description = "Call audio uploaded successfully",
                 content = @Content(schema = @Schema(implementation = CallUploadResponse.class))),
+        @ApiResponse(responseCode = "200", description = "Recording was already ingested; the existing call is returned",
+                content = @Content(schema = @Schema(implementation = CallUploadResponse.class))),
         @ApiResponse(responseCode = "400", description = "Invalid request or unsupported audio format"),
+        @ApiResponse(responseCode = "429", description = "Too many uploads in flight or a dependency is degraded; retry after Retry-After seconds"),
         @ApiResponse(responseCode = "500", description = "Internal server error during upload")
     })
     // CORS handled by API Gateway - do not add @CrossOrigin here to avoid duplicate headers
@@ -57,24 +75,24 @@ public class CallIngestionController {
             @Parameter(description = "Agent's unique identifier", required = true, example = "agent-001")
             @RequestParam("agentId") @NotBlank String agentId,
             @Parameter(description = "Call channel type", example = "INBOUND")
-            @RequestParam(value = "channel", defaultValue = "INBOUND") CallChannel channel) {
+            @RequestParam(value = "channel", defaultValue = "INBOUND") CallChannel channel,
+            @Parameter(description = "Speaker on each channel of a stereo recording; defaults to the service setting",
+                    example = "AGENT_LEFT")
+            @RequestParam(value = "channelLayout", required = false) ChannelLayout channelLayout,
+            @Parameter(description = "Processing lane; HIGH calls are transcribed and audited ahead of the normal backlog",
+                    example = "NORMAL")
+            @RequestParam(value = "priority", defaultValue = "NORMAL") CallPriority priority) {
 
         try {
-            log.info("Received upload request: callerId={}, agentId={}, channel={}, filename={}",
-                     callerId, agentId, channel, file.getOriginalFilename());
-
-            Call call = callIngestionService.processUpload(file, callerId, agentId, channel);
+            log.info("Received upload request: callerId={}, agentId={}, channel={}, channelLayout={}, priority={}, filename={}",
+                     callerId, agentId, channel, channelLayout, priority, file.getOriginalFilename());
 
-            CallUploadResponse response = CallUploadResponse.builder()
-                .callId(call.getId())
-                .status(call.getStatus().toString())
-                .audioFileUrl(call.getAudioFileUrl())
-                .uploadedAt(call.getCreatedAt())
-                .message("Call audio uploaded successfully and is being processed")
-                .build();
+            Call call = callIngestionService.processUpload(file, callerId, agentId, channel, channelLayout, priority);
 
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            return toUploadResponse(call);
 
+        } catch (CallIngestionService.DuplicateRecordingException e) {
+            return toUploadResponse(callIngestionService.findOriginal(e.getContentSha256()).orElseThrow(() -> e));
         } catch (IllegalArgumentException e) {
             log.error("Validation error during upload", e);
             return ResponseEntity.badRequest()
@@ -90,6 +108,77 @@ public class CallIngestionController {
         }
     }
 
+    @Operation(
+        summary = "Stream call audio file",
+        description = "Upload a call audio file as the raw request body instead of multipart/form-data. " +
+                "The body is validated (extension, magic bytes, 100MB cap) and piped straight into MinIO " +
+                "without being buffered on the server. Metadata is passed as query parameters."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Call audio uploaded successfully",
+                content = @Content(schema = @Schema(implementation = CallUploadResponse.class))),
+        @ApiResponse(responseCode = "200", description = "Recording was already ingested; the existing call is returned",
+                content = @Content(schema = @Schema(implementation = CallUploadResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid request, unsupported or mismatched audio format, or digest mismatch"),
+        @ApiResponse(responseCode = "429", description = "Too many uploads in flight or a dependency is degraded; retry after Retry-After seconds"),
+        @ApiResponse(responseCode = "500", description = "Internal server error during upload")
+    })
+    @PostMapping(value = "/upload/stream", consumes = {MediaType.APPLICATION_OCTET_STREAM_VALUE, "audio/*"})
+    public ResponseEntity<CallUploadResponse> streamCall(
+            HttpServletRequest request,
+            @Parameter(description = "Original filename including extension", required = true, example = "call.wav")
+            @RequestParam("filename") @NotBlank String filename,
+            @Parameter(description = "Caller's phone number or unique identifier", required = true, example = "555-0123")
+            @RequestParam("callerId") @NotBlank String callerId,
+            @Parameter(description = "Agent's unique identifier", required = true, example = "agent-001")
+            @RequestParam("agentId") @NotBlank String agentId,
+            @Parameter(description = "Call channel type", example = "INBOUND")
+            @RequestParam(value = "channel", defaultValue = "INBOUND") CallChannel channel,
+            @Parameter(description = "Speaker on each channel of a stereo recording; defaults to the service setting",
+                    example = "AGENT_LEFT")
+            @RequestParam(value = "channelLayout", required = false) ChannelLayout channelLayout,
+            @Parameter(description = "Processing lane; HIGH calls are transcribed and audited ahead of the normal backlog",
+                    example = "NORMAL")
+            @RequestParam(value = "priority", defaultValue = "NORMAL") CallPriority priority,
+            @Parameter(description = "Hex SHA-256 of the file; a known recording is matched without sending the body")
+            @RequestHeader(value = "X-Content-SHA256", required = false) String contentSha256) {
+
+        try {
+            log.info("Received streaming upload request: callerId={}, agentId={}, channel={}, priority={}, filename={}, contentLength={}",
+                     callerId, agentId, channel, priority, filename, request.getContentLengthLong());
+
+            Call call = callIngestionService.processStreamingUpload(
+                request.getInputStream(),
+                filename,
+                request.getContentType(),
+                request.getContentLengthLong(),
+                contentSha256,
+                callerId,
+                agentId,
+                channel,
+                channelLayout,
+                priority
+            );
+
+            return toUploadResponse(call);
+
+        } catch (CallIngestionService.DuplicateRecordingException e) {
+            return toUploadResponse(callIngestionService.findOriginal(e.getContentSha256()).orElseThrow(() -> e));
+        } catch (IllegalArgumentException e) {
+            log.error("Validation error during streaming upload", e);
+            return ResponseEntity.badRequest()
+                .body(CallUploadResponse.builder()
+                    .message("Validation error: " + e.getMessage())
+                    .build());
+        } catch (Exception e) {
+            log.error("Error processing streaming upload", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(CallUploadResponse.builder()
+                    .message("Failed to process upload: " + e.getMessage())
+                    .build());
+        }
+    }
+
     @Operation(
         summary = "Get call status",
         description = "Retrieve the current processing status and metadata for a specific call"
@@ -107,18 +196,19 @@ public class CallIngestionController {
         try {
             log.info("Fetching status for callId: {}", callId);
 
-            return callIngestionService.getCallStatus(callId)
-                .map(call -> {
+            return callStatusService.getStatus(callId)
+                .map(snapshot -> {
                     CallStatusResponse response = CallStatusResponse.builder()
-                        .callId(call.getId())
-                        .status(call.getStatus().toString())
-                        .callerId(call.getCallerId())
-                        .agentId(call.getAgentId())
-                        .channel(call.getChannel().toString())
-                        .startTime(call.getStartTime())
-                        .audioFileUrl(call.getAudioFileUrl())
-                        .createdAt(call.getCreatedAt())
-                        .updatedAt(call.getUpdatedAt())
+                        .callId(snapshot.callId())
+                        .status(snapshot.status().toString())
+                        .stage(snapshot.stage())
+                        .callerId(snapshot.callerId())
+                        .agentId(snapshot.agentId())
+                        .channel(snapshot.channel().toString())
+                        .startTime(snapshot.startTime())
+                        .audioFileUrl(snapshot.audioFileUrl())
+                        .createdAt(snapshot.createdAt())
+                        .updatedAt(snapshot.updatedAt())
                         .build();
                     return ResponseEntity.ok(response);
                 })
@@ -130,56 +220,146 @@ public class CallIngestionController {
         }
     }
 
+    @Operation(
+        summary = "Stream call status",
+        description = "Server-Sent Events stream of a call's status. The current status is sent first, then one " +
+                "'status' event per pipeline transition; the stream ends once the call is COMPLETED or FAILED."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Status stream opened"),
+        @ApiResponse(responseCode = "404", description = "Call not found"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping(value = "/{callId}/status/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamCallStatus(
+            @Parameter(description = "Unique identifier of the call", required = true)
+            @PathVariable UUID callId) {
+        try {
+            log.info("Opening status stream for callId: {}", callId);
+
+            return callStatusService.subscribe(callId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+
+        } catch (Exception e) {
+            log.error("Error opening status stream for callId: {}", callId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @Operation(
         summary = "Download call audio",
-        description = "Stream or download the audio file for a specific call"
+        description = "Stream or download the audio file for a specific call. Supports a single byte range " +
+                "(Range / If-Range) for seeking, and conditional requests (If-None-Match / If-Modified-Since) " +
+                "against the ETag and Last-Modified of the stored object. When presigned URLs are enabled, " +
+                "redirects to a short-lived MinIO URL instead of streaming the audio. WAV uploads stored as FLAC " +
+                "are decoded back to WAV with format=wav."
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Audio file retrieved successfully",
                 content = @Content(mediaType = "audio/*")),
+        @ApiResponse(responseCode = "206", description = "Requested byte range of the audio file",
+                content = @Content(mediaType = "audio/*")),
+        @ApiResponse(responseCode = "304", description = "Audio file not modified since the cached copy"),
+        @ApiResponse(responseCode = "307", description = "Presigned mode: redirect to a short-lived MinIO URL"),
+        @ApiResponse(responseCode = "400", description = "Unsupported audio format"),
         @ApiResponse(responseCode = "404", description = "Call or audio file not found"),
+        @ApiResponse(responseCode = "416", description = "Requested range is outside the audio file"),
         @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     @GetMapping("/{callId}/audio")
     public ResponseEntity<InputStreamResource> getCallAudio(
+            HttpServletRequest request,
             @Parameter(description = "Unique identifier of the call", required = true)
             @PathVariable UUID callId,
             @Parameter(description = "Audio format (optional, defaults to stored format)", example = "mp3")
             @RequestParam(value = "format", required = false) String format) {
 
         try {
-            // Verify call exists
-            Call call = callIngestionService.getCallStatus(callId)
-                .orElseThrow(() -> new RuntimeException("Call not found"));
-
-            // Extract format from stored audioFileUrl if not specified
-            if (format == null || format.isBlank()) {
-                String audioFileUrl = call.getAudioFileUrl();
-                int lastDot = audioFileUrl.lastIndexOf('.');
-                format = (lastDot > 0) ? audioFileUrl.substring(lastDot + 1) : "wav";
+            // Persisted object key and metadata, usually from the in-process cache
+            Optional<StorageService.StoredObject> stored = callIngestionService.getStoredAudio(callId);
+            if (stored.isEmpty()) {
+                return ResponseEntity.notFound().build();
             }
+            StorageService.StoredObject object = stored.get();
+            String objectName = object.objectName();
 
-            log.info("Fetching audio for callId: {}, format: {}", callId, format);
+            // Same object under another extension if a format was requested
+            if (format != null && !format.isBlank()) {
+                AudioFormat audioFormat = AudioFormat.fromExtension(format).orElse(null);
+                if (audioFormat == null) {
+                    return ResponseEntity.badRequest().build();
+                }
+                int lastDot = objectName.lastIndexOf('.');
+                String requested = (lastDot > 0 ? objectName.substring(0, lastDot) : objectName)
+                        + "." + audioFormat.getExtension();
+                if (!requested.equals(objectName)) {
+                    if (callIngestionService.isTranscodedFrom(callId, audioFormat)) {
+                        return getOriginalAudio(request, callId, object, audioFormat);
+                    }
+                    Optional<StorageService.StoredObject> alternate = storageService.statFile(requested);
+                    if (alternate.isEmpty()) {
+                        return ResponseEntity.notFound().build();
+                    }
+                    object = alternate.get();
+                    objectName = requested;
+                }
+            }
 
-            // Get audio stream from MinIO
-            InputStream audioStream = storageService.downloadFile(callId, format);
+            // Presigned mode: the client fetches (and seeks in) the object from MinIO directly
+            if (storageService.isPresignedEnabled()) {
+                StorageService.PresignedUrl presigned = storageService.presignDownload(objectName);
+                log.info("Redirecting audio request for callId: {} to MinIO, object: {}", callId, objectName);
+                return ResponseEntity.status(HttpStatus.TEMPORARY_REDIRECT)
+                    .location(URI.create(presigned.url()))
+                    .cacheControl(CacheControl.noStore())
+                    .build();
+            }
 
-            // Determine content type based on format
-            String contentType = getContentType(format);
+            log.info("Fetching audio for callId: {}, object: {}, range: {}",
+                     callId, objectName, request.getHeader(HttpHeaders.RANGE));
 
-            return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(contentType))
-                .header("Content-Disposition", "inline; filename=\"" + callId + "." + format + "\"")
-                .body(new InputStreamResource(audioStream));
+            String etag = "\"" + object.etag() + "\"";
+            long size = object.size();
 
-        } catch (RuntimeException e) {
-            log.error("Error fetching audio for callId: {}", callId, e);
-            if (e.getMessage().contains("Call not found")) {
-                return ResponseEntity.notFound().build();
+            HttpHeaders headers = new HttpHeaders();
+            headers.setETag(etag);
+            headers.setLastModified(object.lastModified());
+            headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+            if (isNotModified(request, etag, object.lastModified())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).build();
             }
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+
+            headers.setContentType(resolveContentType(object, objectName));
+            headers.setContentDisposition(ContentDisposition.inline()
+                .filename(callId + objectName.substring(Math.max(objectName.lastIndexOf('.'), 0)))
+                .build());
+
+            HttpRange range = resolveRange(request, etag, object.lastModified());
+            if (range == null) {
+                headers.setContentLength(size);
+                return ResponseEntity.ok()
+                    .headers(headers)
+                    .body(openBody(request, objectName, 0, null));
+            }
+
+            long start = range.getRangeStart(size);
+            if (start >= size) {
+                headers.set(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE).headers(headers).build();
+            }
+            long end = range.getRangeEnd(size);
+            long length = end - start + 1;
+
+            headers.setContentLength(length);
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+            return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                .headers(headers)
+                .body(openBody(request, objectName, start, length));
+
         } catch (Exception e) {
-            log.error("Unexpected error fetching audio for callId: {}", callId, e);
+            log.error("Error fetching audio for callId: {}", callId, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
@@ -197,17 +377,129 @@ public class CallIngestionController {
     }
 
     /**
-     * Get content type for audio format
+     * 201 for a newly ingested call, 200 when the upload matched an existing recording
+     */
+    private ResponseEntity<CallUploadResponse> toUploadResponse(Call call) {
+        CallUploadResponse response = CallUploadResponse.builder()
+            .callId(call.getId())
+            .status(call.getStatus().toString())
+            .audioFileUrl(call.getAudioFileUrl())
+            .uploadedAt(call.getCreatedAt())
+            .duplicate(call.isDuplicate())
+            .message(call.isDuplicate()
+                ? "Recording was already ingested; returning the existing call"
+                : "Call audio uploaded successfully and is being processed")
+            .build();
+
+        return ResponseEntity.status(call.isDuplicate() ? HttpStatus.OK : HttpStatus.CREATED).body(response);
+    }
+
+    /**
+     * If-None-Match takes precedence over If-Modified-Since (RFC 9110 13.2.2)
+     */
+    private boolean isNotModified(HttpServletRequest request, String etag, Instant lastModified) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            return matchesEtag(ifNoneMatch, etag);
+        }
+        long ifModifiedSince = parseDateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+        return ifModifiedSince >= 0 && lastModified.getEpochSecond() <= ifModifiedSince / 1000;
+    }
+
+    /**
+     * The single byte range to serve, or null to send the whole file.
+     * Multiple ranges, malformed headers and a stale If-Range are answered with the whole file.
+     */
+    private HttpRange resolveRange(HttpServletRequest request, String etag, Instant lastModified) {
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null) {
+            return null;
+        }
+
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null) {
+            boolean fresh = ifRange.startsWith("\"")
+                ? ifRange.equals(etag)
+                : parseDateHeader(request, HttpHeaders.IF_RANGE) / 1000 == lastModified.getEpochSecond();
+            if (!fresh) {
+                return null;
+            }
+        }
+
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            log.debug("Ignoring malformed Range header: {}", rangeHeader);
+            return null;
+        }
+    }
+
+    private boolean matchesEtag(String ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long parseDateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private MediaType resolveContentType(StorageService.StoredObject object, String objectName) {
+        String extension = objectName.substring(objectName.lastIndexOf('.') + 1);
+        return AudioFormat.fromExtension(extension)
+            .map(audioFormat -> MediaType.parseMediaType(audioFormat.getContentType()))
+            .orElseGet(() -> object.contentType() != null
+                ? MediaType.parseMediaType(object.contentType())
+                : MediaType.APPLICATION_OCTET_STREAM);
+    }
+
+    /**
+     * A WAV upload stored as FLAC, decoded back on the fly. The decoded length is not known up front,
+     * so the whole file is sent without ranges, and presigned mode cannot apply.
      */
-    private String getContentType(String format) {
-        return switch (format.toLowerCase()) {
-            case "wav" -> "audio/wav";
-            case "mp3" -> "audio/mpeg";
-            case "m4a" -> "audio/mp4";
-            case "flac" -> "audio/flac";
-            case "ogg" -> "audio/ogg";
-            default -> "application/octet-stream";
-        };
+    private ResponseEntity<InputStreamResource> getOriginalAudio(HttpServletRequest request, UUID callId,
+                                                                 StorageService.StoredObject object,
+                                                                 AudioFormat format) throws IOException {
+        String etag = "\"" + object.etag() + "-" + format.getExtension() + "\"";
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(etag);
+        headers.setLastModified(object.lastModified());
+        headers.set(HttpHeaders.ACCEPT_RANGES, "none");
+
+        if (isNotModified(request, etag, object.lastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).build();
+        }
+
+        headers.setContentType(MediaType.parseMediaType(format.getContentType()));
+        headers.setContentDisposition(ContentDisposition.inline()
+            .filename(callId + "." + format.getExtension())
+            .build());
+
+        log.info("Decoding stored audio of callId: {} back to {}", callId, format.getExtension());
+        InputStreamResource body = HttpMethod.HEAD.matches(request.getMethod())
+            ? null
+            : new InputStreamResource(callIngestionService.openOriginalAudio(object));
+        return ResponseEntity.ok().headers(headers).body(body);
+    }
+
+    /**
+     * HEAD requests get the headers only, without opening the object in MinIO
+     */
+    private InputStreamResource openBody(HttpServletRequest request, String objectName, long offset, Long length) {
+        if (HttpMethod.HEAD.matches(request.getMethod())) {
+            return null;
+        }
+        return new InputStreamResource(storageService.downloadFile(objectName, offset, length));
     }
 
     // Response DTOs
@@ -221,6 +513,7 @@ public class CallIngestionController {
         private String status;
         private String audioFileUrl;
         private Instant uploadedAt;
+        private boolean duplicate;
         private String message;
     }
 
@@ -231,6 +524,7 @@ public class CallIngestionController {
     public static class CallStatusResponse {
         private UUID callId;
         private String status;
+        private String stage; // last pipeline event applied, e.g. "SentimentAnalyzed"
         private String callerId;
         private String agentId;
         private String channel;
@@ -0,0 +1,323 @@
+package com.callaudit.ingestion.controller;
+
+import com.callaudit.ingestion.controller.CallIngestionController.CallUploadResponse;
+import com.callaudit.ingestion.model.Call;
+import com.callaudit.ingestion.model.CallChannel;
+import com.callaudit.ingestion.model.CallPriority;
+import com.callaudit.ingestion.model.UploadSession;
+import com.callaudit.ingestion.service.ChunkedUploadService;
+import com.callaudit.ingestion.service.StorageService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import lombok.*;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/calls/uploads")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Resumable Uploads", description = "API for uploading large call recordings in resumable parts")
+public class ChunkedUploadController {
+
+    private final ChunkedUploadService chunkedUploadService;
+
+    @Operation(
+        summary = "Start a resumable upload",
+        description = "Open an upload session. The file is then sent as numbered parts and assembled on completion."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Upload session created",
+                content = @Content(schema = @Schema(implementation = UploadSessionResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid request or unsupported audio format")
+    })
+    @PostMapping
+    public ResponseEntity<UploadSessionResponse> initiateUpload(@Valid @RequestBody InitiateUploadRequest request) {
+        try {
+            UploadSession session = chunkedUploadService.initiate(
+                request.getFilename(),
+                request.getContentType(),
+                request.getCallerId(),
+                request.getAgentId(),
+                request.getChannel() != null ? request.getChannel() : CallChannel.INBOUND,
+                request.getPriority()
+            );
+
+            return ResponseEntity.status(HttpStatus.CREATED).body(toResponse(session, List.of()));
+
+        } catch (IllegalArgumentException e) {
+            log.error("Validation error starting upload", e);
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Error starting upload", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @Operation(
+        summary = "Upload a part",
+        description = "Send one part of the file as the raw request body. Parts may be sent in parallel and " +
+                "re-sent after a failure. Every part except the last must be at least 5MB."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Part stored",
+                content = @Content(schema = @Schema(implementation = UploadPartResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid part number, empty part or mismatched audio format"),
+        @ApiResponse(responseCode = "404", description = "Upload session not found"),
+        @ApiResponse(responseCode = "409", description = "Upload session is no longer active"),
+        @ApiResponse(responseCode = "500", description = "Internal server error during upload")
+    })
+    @PutMapping(value = "/{uploadId}/parts/{partNumber}", consumes = {MediaType.APPLICATION_OCTET_STREAM_VALUE, "audio/*"})
+    public ResponseEntity<UploadPartResponse> uploadPart(
+            HttpServletRequest request,
+            @Parameter(description = "Upload session ID", required = true)
+            @PathVariable UUID uploadId,
+            @Parameter(description = "1-based part number", required = true, example = "1")
+            @PathVariable int partNumber) {
+
+        try {
+            StorageService.UploadPart part = chunkedUploadService.uploadPart(
+                uploadId, partNumber, request.getInputStream(), request.getContentLengthLong());
+
+            return ResponseEntity.ok(new UploadPartResponse(part.partNumber(), part.size()));
+
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            log.error("Validation error uploading part {} of upload {}", partNumber, uploadId, e);
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (Exception e) {
+            log.error("Error uploading part {} of upload {}", partNumber, uploadId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @Operation(
+        summary = "Get a presigned URL for a part",
+        description = "Return a short-lived URL the client can PUT the part to directly in MinIO, so the audio " +
+                "bytes never pass through this service. Complete the session as usual once all parts are stored. " +
+                "Only available when minio.presigned.enabled is set."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Presigned URL issued",
+                content = @Content(schema = @Schema(implementation = PresignedPartResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid part number"),
+        @ApiResponse(responseCode = "404", description = "Upload session not found or presigned uploads are disabled"),
+        @ApiResponse(responseCode = "409", description = "Upload session is no longer active")
+    })
+    @PostMapping("/{uploadId}/parts/{partNumber}/presigned")
+    public ResponseEntity<PresignedPartResponse> presignPart(
+            @Parameter(description = "Upload session ID", required = true)
+            @PathVariable UUID uploadId,
+            @Parameter(description = "1-based part number", required = true, example = "1")
+            @PathVariable int partNumber) {
+
+        try {
+            StorageService.PresignedUrl presigned = chunkedUploadService.presignPart(uploadId, partNumber);
+
+            return ResponseEntity.ok(new PresignedPartResponse(
+                partNumber, "PUT", presigned.url(), presigned.expiresAt()));
+
+        } catch (NoSuchElementException | StorageService.PresigningDisabledException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            log.error("Validation error presigning part {} of upload {}", partNumber, uploadId, e);
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (Exception e) {
+            log.error("Error presigning part {} of upload {}", partNumber, uploadId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @Operation(
+        summary = "Get upload progress",
+        description = "Return the session state and the parts received so far, so an interrupted client can resume"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Upload session retrieved",
+                content = @Content(schema = @Schema(implementation = UploadSessionResponse.class))),
+        @ApiResponse(responseCode = "404", description = "Upload session not found")
+    })
+    @GetMapping("/{uploadId}")
+    public ResponseEntity<UploadSessionResponse> getUpload(
+            @Parameter(description = "Upload session ID", required = true)
+            @PathVariable UUID uploadId) {
+        try {
+            UploadSession session = chunkedUploadService.getSession(uploadId);
+            return ResponseEntity.ok(toResponse(session, chunkedUploadService.listParts(uploadId)));
+
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            log.error("Error fetching upload {}", uploadId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @Operation(
+        summary = "Complete a resumable upload",
+        description = "Assemble the uploaded parts into the call recording and start processing. " +
+                "Safe to retry: completing a completed session returns the same call."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Call audio assembled and is being processed",
+                content = @Content(schema = @Schema(implementation = CallUploadResponse.class))),
+        @ApiResponse(responseCode = "200", description = "Recording was already ingested; the existing call is returned",
+                content = @Content(schema = @Schema(implementation = CallUploadResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Parts missing, too small, over the size limit or not the expected audio format"),
+        @ApiResponse(responseCode = "404", description = "Upload session not found"),
+        @ApiResponse(responseCode = "409", description = "Upload session was aborted"),
+        @ApiResponse(responseCode = "500", description = "Internal server error during assembly")
+    })
+    @PostMapping("/{uploadId}/complete")
+    public ResponseEntity<CallUploadResponse> completeUpload(
+            @Parameter(description = "Upload session ID", required = true)
+            @PathVariable UUID uploadId) {
+        try {
+            Call call = chunkedUploadService.complete(uploadId);
+
+            CallUploadResponse response = CallUploadResponse.builder()
+                .callId(call.getId())
+                .status(call.getStatus().toString())
+                .audioFileUrl(call.getAudioFileUrl())
+                .uploadedAt(call.getCreatedAt())
+                .duplicate(call.isDuplicate())
+                .message(call.isDuplicate()
+                    ? "Recording was already ingested; returning the existing call"
+                    : "Call audio uploaded successfully and is being processed")
+                .build();
+
+            return ResponseEntity.status(call.isDuplicate() ? HttpStatus.OK : HttpStatus.CREATED).body(response);
+
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            log.error("Validation error completing upload {}", uploadId, e);
+            return ResponseEntity.badRequest()
+                .body(CallUploadResponse.builder()
+                    .message("Validation error: " + e.getMessage())
+                    .build());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(CallUploadResponse.builder()
+                    .message(e.getMessage())
+                    .build());
+        } catch (Exception e) {
+            log.error("Error completing upload {}", uploadId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(CallUploadResponse.builder()
+                    .message("Failed to process upload: " + e.getMessage())
+                    .build());
+        }
+    }
+
+    @Operation(
+        summary = "Abort a resumable upload",
+        description = "Cancel the upload session and delete any parts received so far"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Upload aborted"),
+        @ApiResponse(responseCode = "404", description = "Upload session not found"),
+        @ApiResponse(responseCode = "409", description = "Upload session is already completed")
+    })
+    @DeleteMapping("/{uploadId}")
+    public ResponseEntity<Void> abortUpload(
+            @Parameter(description = "Upload session ID", required = true)
+            @PathVariable UUID uploadId) {
+        try {
+            chunkedUploadService.abort(uploadId);
+            return ResponseEntity.noContent().build();
+
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (Exception e) {
+            log.error("Error aborting upload {}", uploadId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    private UploadSessionResponse toResponse(UploadSession session, List<StorageService.UploadPart> parts) {
+        return UploadSessionResponse.builder()
+            .uploadId(session.getId())
+            .status(session.getStatus().toString())
+            .filename(session.getFilename())
+            .callId(session.getCallId())
+            .parts(parts.stream()
+                .map(part -> new UploadPartResponse(part.partNumber(), part.size()))
+                .toList())
+            .bytesReceived(parts.stream().mapToLong(StorageService.UploadPart::size).sum())
+            .createdAt(session.getCreatedAt())
+            .build();
+    }
+
+    // Request/Response DTOs
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class InitiateUploadRequest {
+        @NotBlank
+        private String filename;
+        private String contentType;
+        @NotBlank
+        private String callerId;
+        @NotBlank
+        private String agentId;
+        private CallChannel channel;
+        private CallPriority priority;
+    }
+
+    @Data
+    @Builder(builderClassName = "UploadSessionResponseBuilder")
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class UploadSessionResponse {
+        private UUID uploadId;
+        private String status;
+        private String filename;
+        private UUID callId;
+        private List<UploadPartResponse> parts;
+        private long bytesReceived;
+        private Instant createdAt;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class UploadPartResponse {
+        private int partNumber;
+        private long size;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PresignedPartResponse {
+        private int partNumber;
+        private String method;
+        private String url;
+        private Instant expiresAt;
+    }
+}
@@ -0,0 +1,73 @@
+package com.callaudit.ingestion.controller;
+
+import com.callaudit.ingestion.service.UploadAdmissionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Admission control for POST /api/calls/upload and /api/calls/upload/stream.
+ * Runs as a servlet filter so a rejected upload is answered with 429 before the
+ * multipart body is parsed or the stream is read.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UploadAdmissionFilter extends OncePerRequestFilter {
+
+    private static final Set<String> UPLOAD_PATHS = Set.of("/api/calls/upload", "/api/calls/upload/stream");
+
+    private final UploadAdmissionService uploadAdmissionService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${spring.servlet.multipart.max-request-size:100MB}")
+    private DataSize maxRequestSize;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !HttpMethod.POST.matches(request.getMethod()) || !UPLOAD_PATHS.contains(path);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        // Chunked bodies have no length; reserve the size cap since that is what they may grow to
+        long contentLength = request.getContentLengthLong();
+        long declaredBytes = contentLength >= 0 ? contentLength : maxRequestSize.toBytes();
+
+        try {
+            uploadAdmissionService.admit(declaredBytes);
+        } catch (UploadAdmissionService.UploadRejectedException e) {
+            log.warn("Rejected upload to {}: {}", request.getRequestURI(), e.getMessage());
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), CallIngestionController.CallUploadResponse.builder()
+                .message("Service is busy, retry in " + e.getRetryAfterSeconds() + " seconds")
+                .build());
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            uploadAdmissionService.release(declaredBytes);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.callaudit.ingestion.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * One chunk of a long recording that was split at ingest, ready to be transcribed on its own.
+ * Published alongside the call's CallReceived event, whose payload lists all chunks.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CallChunkReceivedEvent {
+
+    private UUID eventId;
+    private String eventType;
+    private UUID aggregateId; // callId
+    private String aggregateType;
+    private Instant timestamp;
+    private Integer version;
+    private UUID causationId; // the call's CallReceived event
+    private UUID correlationId;
+    private Map<String, Object> metadata;
+    private Payload payload;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Payload {
+        private UUID callId;
+        private Integer chunkIndex; // 0-based
+        private Integer chunkCount;
+        private Long offsetMillis; // chunk start within the call
+        private Long durationMillis;
+        private Long overlapMillis; // audio shared with each neighbouring chunk
+        private String audioFileUrl;
+        private String audioFormat;
+        private Long audioFileSize; // in bytes
+        private Integer sampleRate;
+        private Integer channelCount;
+    }
+}
@@ -7,6 +7,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -40,5 +41,55 @@ public class CallReceivedEvent {
         private String audioFileUrl;
         private String audioFormat;
         private Long audioFileSize; // in bytes
+        private Integer durationSeconds; // from the container header; null if it could not be read
+        private Integer sampleRate;
+        private Integer bitDepth; // PCM and lossless formats only
+        private Integer channelCount;
+        private List<Chunk> chunks; // null unless the recording was split for parallel transcription
+        private List<SpeechRegion> speechRegions; // null unless voice activity detection ran
+        private Long speechMillis; // total length of speechRegions
+        private String trimmedAudioFileUrl; // speechRegions back to back; null if not stored
+        private List<SpeakerAudio> speakerAudio; // null unless the channels were split by speaker
+    }
+
+    /**
+     * Mono recording of one speaker, split out of a dual-channel call
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SpeakerAudio {
+        private String speaker; // "agent" or "customer"
+        private Integer channelIndex; // 0-based channel in the original recording
+        private String audioFileUrl;
+        private String audioFormat;
+        private Long audioFileSize; // in bytes
+    }
+
+    /**
+     * Part of the recording that contains speech, in milliseconds from its start
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SpeechRegion {
+        private Long startMillis;
+        private Long endMillis;
+    }
+
+    /**
+     * Manifest entry for one chunk; each is also published as a CallChunkReceived event
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Chunk {
+        private Integer index;
+        private Long offsetMillis;
+        private Long durationMillis;
+        private String audioFileUrl;
     }
 }
@@ -0,0 +1,77 @@
+package com.callaudit.ingestion.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bucket notification published by MinIO (S3 event message format), as delivered by its Kafka target.
+ * Only the fields needed to register a call are mapped.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class MinioBucketEvent {
+
+    @JsonProperty("EventName")
+    private String eventName; // e.g. "s3:ObjectCreated:Put"
+
+    @JsonProperty("Key")
+    private String key; // bucket/object
+
+    @JsonProperty("Records")
+    private List<Record> records;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Record {
+        private String eventName;
+        private Instant eventTime;
+        private S3 s3;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class S3 {
+        private Bucket bucket;
+        private S3Object object;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Bucket {
+        private String name;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class S3Object {
+        private String key; // URL-encoded object key
+        private Long size;
+        @JsonProperty("eTag")
+        private String eTag;
+        private String contentType;
+        private Map<String, String> userMetadata; // includes X-Amz-Meta-* headers set by the writer
+    }
+}
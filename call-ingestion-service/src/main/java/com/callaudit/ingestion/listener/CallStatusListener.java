@@ -0,0 +1,96 @@
+package com.callaudit.ingestion.listener;
+
+import com.callaudit.events.EventEnvelope;
+import com.callaudit.events.codec.EventCodecException;
+import com.callaudit.events.codec.EventCodecs;
+import com.callaudit.ingestion.service.CallStatusService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Follows calls through the downstream pipeline to keep their status current.
+ *
+ * The same topics are consumed twice. The database update uses one group shared by all instances
+ * ({@code ingestion.status.group-id}), so each event is applied once. The status streams use a group
+ * per instance ({@code ingestion.status.stream-group-id}, by default derived from the host name),
+ * because every instance has to see every event to push it to the streams it holds; that group starts
+ * at the latest offset, so a new instance does not replay history nobody is watching.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CallStatusListener {
+
+    private final CallStatusService callStatusService;
+    private final EventCodecs eventCodecs;
+
+    @KafkaListener(
+        topics = {
+            "${kafka.topics.call-transcribed:calls.transcribed}",
+            "${kafka.topics.call-transcribed-priority:calls.transcribed.priority}",
+            "${kafka.topics.sentiment-analyzed:calls.sentiment-analyzed}",
+            "${kafka.topics.sentiment-analyzed-priority:calls.sentiment-analyzed.priority}",
+            "${kafka.topics.voc-analyzed:calls.voc-analyzed}",
+            "${kafka.topics.voc-analyzed-priority:calls.voc-analyzed.priority}",
+            "${kafka.topics.call-audited:calls.audited}"
+        },
+        groupId = "${ingestion.status.group-id:call-ingestion-status}",
+        containerFactory = "callStatusListenerContainerFactory",
+        autoStartup = "${ingestion.status.enabled:true}"
+    )
+    public void onPipelineEvent(ConsumerRecord<String, byte[]> record) {
+        EventEnvelope event = decode(record);
+        UUID callId = callIdOf(event);
+        if (callId != null) {
+            callStatusService.advanceStatus(callId, event.getEventType());
+        }
+    }
+
+    @KafkaListener(
+        topics = {
+            "${kafka.topics.call-transcribed:calls.transcribed}",
+            "${kafka.topics.call-transcribed-priority:calls.transcribed.priority}",
+            "${kafka.topics.sentiment-analyzed:calls.sentiment-analyzed}",
+            "${kafka.topics.sentiment-analyzed-priority:calls.sentiment-analyzed.priority}",
+            "${kafka.topics.voc-analyzed:calls.voc-analyzed}",
+            "${kafka.topics.voc-analyzed-priority:calls.voc-analyzed.priority}",
+            "${kafka.topics.call-audited:calls.audited}"
+        },
+        groupId = "${ingestion.status.stream-group-id:call-ingestion-status-stream-${HOSTNAME:local}}",
+        containerFactory = "callStatusStreamListenerContainerFactory",
+        autoStartup = "${ingestion.status.enabled:true}"
+    )
+    public void onPipelineEventForStreams(ConsumerRecord<String, byte[]> record) {
+        EventEnvelope event = decode(record);
+        UUID callId = callIdOf(event);
+        if (callId != null) {
+            callStatusService.onPipelineEvent(callId, event.getEventType());
+        }
+    }
+
+    private EventEnvelope decode(ConsumerRecord<String, byte[]> record) {
+        try {
+            return eventCodecs.decode(record, EventEnvelope.class);
+        } catch (EventCodecException e) {
+            log.warn("Skipping unreadable pipeline event on {}: {}", record.topic(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static UUID callIdOf(EventEnvelope event) {
+        if (event == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(event.getAggregateId());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            log.warn("Skipping {} event without a call id: {}", event.getEventType(), event.getAggregateId());
+            return null;
+        }
+    }
+}
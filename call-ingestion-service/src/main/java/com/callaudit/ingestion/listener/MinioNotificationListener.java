@@ -0,0 +1,45 @@
+package com.callaudit.ingestion.listener;
+
+import com.callaudit.ingestion.event.MinioBucketEvent;
+import com.callaudit.ingestion.service.MinioNotificationService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Consumes the bucket notifications MinIO publishes to Kafka for objects written directly to the
+ * calls bucket. Each poll is handed to {@link MinioNotificationService} as one batch; if
+ * registration fails the batch is redelivered, which is safe because known object keys are skipped.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MinioNotificationListener {
+
+    private final MinioNotificationService minioNotificationService;
+    private final ObjectMapper objectMapper;
+
+    @KafkaListener(
+        topics = "${minio.notifications.topic:minio.calls.events}",
+        groupId = "${minio.notifications.group-id:call-ingestion-minio-events}",
+        containerFactory = "minioNotificationListenerContainerFactory",
+        autoStartup = "${minio.notifications.enabled:false}"
+    )
+    public void onNotifications(List<String> messages) {
+        List<MinioBucketEvent> events = new ArrayList<>(messages.size());
+        for (String message : messages) {
+            try {
+                events.add(objectMapper.readValue(message, MinioBucketEvent.class));
+            } catch (JsonProcessingException e) {
+                log.warn("Skipping unreadable MinIO notification: {}", e.getOriginalMessage());
+            }
+        }
+        minioNotificationService.register(events);
+    }
+}
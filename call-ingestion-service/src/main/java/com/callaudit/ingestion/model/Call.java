@@ -41,17 +41,57 @@ public class Call {
     @Column
     private Integer duration; // in seconds
 
+    @Column
+    private Integer sampleRate; // Hz
+
+    @Column
+    private Integer bitDepth; // PCM and lossless formats only
+
+    @Column
+    private Integer channelCount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private ChannelLayout channelLayout; // speaker per channel; agent/customer tracks are split out at ingest
+
     @Column(nullable = false)
     private String audioFileUrl;
 
+    @Column
+    private String objectKey; // exact MinIO object key within the bucket
+
+    @Column
+    private Long fileSizeBytes;
+
+    @Column(length = 20)
+    private String fileFormat; // file extension, e.g. "wav"
+
+    @Column(length = 20)
+    private String originalFormat; // upload format when the audio was re-encoded at ingest, e.g. "wav"
+
+    @Column
+    private String contentType;
+
+    @Column(name = "content_sha256", length = 64)
+    private String contentSha256; // hex SHA-256 of the audio, for de-duplication
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     @Builder.Default
     private CallStatus status = CallStatus.PENDING;
 
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    @Builder.Default
+    private CallPriority priority = CallPriority.NORMAL;
+
     @Column(nullable = false)
     private UUID correlationId;
 
+    @Column(nullable = false)
+    @Builder.Default
+    private boolean preparationPending = false; // CallReceived waits for speech detection, speaker split or chunking
+
     @CreatedDate
     @Column(nullable = false, updatable = false)
     private Instant createdAt;
@@ -59,4 +99,7 @@ public class Call {
     @LastModifiedDate
     @Column(nullable = false)
     private Instant updatedAt;
+
+    @Transient
+    private boolean duplicate; // set when an upload was matched to this existing call
 }
@@ -0,0 +1,10 @@
+package com.callaudit.ingestion.model;
+
+/**
+ * Processing lane of a call. HIGH calls are published to the priority topics, which the
+ * pipeline drains before the normal ones, so they do not wait behind a backlog.
+ */
+public enum CallPriority {
+    NORMAL,
+    HIGH
+}
@@ -0,0 +1,10 @@
+package com.callaudit.ingestion.model;
+
+/**
+ * Which speaker is on which channel of a dual-channel (stereo) recording
+ */
+public enum ChannelLayout {
+    MIXED,       // speakers are not separated by channel
+    AGENT_LEFT,  // agent on the left channel, customer on the right
+    AGENT_RIGHT  // customer on the left channel, agent on the right
+}
@@ -0,0 +1,9 @@
+package com.callaudit.ingestion.model;
+
+public enum UploadSessionStatus {
+    ACTIVE,
+    COMPLETING, // claimed by a complete call that is assembling the parts
+    COMPLETED,
+    ABORTED,
+    EXPIRED     // abandoned; its parts were deleted by the sweeper
+}
@@ -0,0 +1,105 @@
+package com.callaudit.ingestion.repository;
+
+import com.callaudit.ingestion.model.Call;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Multi-row inserts into core.calls for bulk ingestion.
+ *
+ * Bypasses JPA on purpose: the IDs are assigned by the caller, so rows can be sent
+ * to PostgreSQL in JDBC batches instead of one persist + flush per call.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CallBatchRepository {
+
+    private static final String INSERT_SQL = """
+        INSERT INTO core.calls (id, caller_id, agent_id, channel, start_time, duration, sample_rate, bit_depth,
+                                channel_count, audio_file_url, object_key, file_size_bytes, file_format,
+                                content_type, content_sha256, status, priority, correlation_id, created_at,
+                                updated_at, channel_layout, preparation_pending)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    // Relies on the unique indexes on core.calls(object_key) and core.calls(content_sha256)
+    private static final String INSERT_NEW_SQL = INSERT_SQL.strip() + " ON CONFLICT DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insert calls in JDBC batches. Each call must already have its ID set.
+     * Audit timestamps are filled in on the passed entities.
+     *
+     * @param calls calls to insert
+     * @param batchSize rows per JDBC batch
+     */
+    @Transactional
+    public void insertAll(List<Call> calls, int batchSize) {
+        batchInsert(INSERT_SQL, calls, batchSize);
+    }
+
+    /**
+     * Insert calls in JDBC batches, skipping any whose object key or content digest is already registered.
+     * Safe against concurrent inserts of the same key: the database decides, not a prior lookup.
+     *
+     * @param calls calls to insert, each with its ID set
+     * @param batchSize rows per JDBC batch
+     * @return the calls actually inserted, in input order
+     */
+    @Transactional
+    public List<Call> insertNew(List<Call> calls, int batchSize) {
+        int[][] counts = batchInsert(INSERT_NEW_SQL, calls, batchSize);
+        List<Call> inserted = new ArrayList<>(calls.size());
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count != 0) { // 1, or SUCCESS_NO_INFO when the driver does not report it
+                    inserted.add(calls.get(index));
+                }
+                index++;
+            }
+        }
+        return inserted;
+    }
+
+    private int[][] batchInsert(String sql, List<Call> calls, int batchSize) {
+        Instant now = Instant.now();
+        Timestamp timestamp = Timestamp.from(now);
+
+        return jdbcTemplate.batchUpdate(sql, calls, batchSize, (ps, call) -> {
+            call.setCreatedAt(now);
+            call.setUpdatedAt(now);
+            ps.setObject(1, call.getId());
+            ps.setString(2, call.getCallerId());
+            ps.setString(3, call.getAgentId());
+            ps.setString(4, call.getChannel().name());
+            ps.setTimestamp(5, Timestamp.from(call.getStartTime()));
+            ps.setObject(6, call.getDuration(), Types.INTEGER);
+            ps.setObject(7, call.getSampleRate(), Types.INTEGER);
+            ps.setObject(8, call.getBitDepth(), Types.INTEGER);
+            ps.setObject(9, call.getChannelCount(), Types.INTEGER);
+            ps.setString(10, call.getAudioFileUrl());
+            ps.setString(11, call.getObjectKey());
+            ps.setObject(12, call.getFileSizeBytes(), Types.BIGINT);
+            ps.setString(13, call.getFileFormat());
+            ps.setString(14, call.getContentType());
+            ps.setString(15, call.getContentSha256());
+            ps.setString(16, call.getStatus().name());
+            ps.setString(17, call.getPriority().name());
+            ps.setObject(18, call.getCorrelationId());
+            ps.setTimestamp(19, timestamp);
+            ps.setTimestamp(20, timestamp);
+            ps.setString(21, call.getChannelLayout() != null ? call.getChannelLayout().name() : null);
+            ps.setBoolean(22, call.isPreparationPending());
+        });
+    }
+}
@@ -1,11 +1,56 @@
 package com.callaudit.ingestion.repository;
 
 import com.callaudit.ingestion.model.Call;
+import com.callaudit.ingestion.model.CallStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
 public interface CallRepository extends JpaRepository<Call, UUID> {
+
+    /**
+     * Find the original call for a recording by its content digest
+     */
+    Optional<Call> findFirstByContentSha256OrderByCreatedAtAsc(String contentSha256);
+
+    /**
+     * Which of these MinIO object keys already belong to a call
+     */
+    @Query("SELECT c.objectKey FROM Call c WHERE c.objectKey IN :objectKeys")
+    Set<String> findExistingObjectKeys(@Param("objectKeys") Collection<String> objectKeys);
+
+    /**
+     * Move a call to a later status; a no-op if it is already there or further along
+     *
+     * @param from statuses that precede {@code status}
+     * @return 1 if the status changed, 0 otherwise
+     */
+    @Modifying
+    @Query("UPDATE Call c SET c.status = :status, c.updatedAt = :updatedAt WHERE c.id = :id AND c.status IN :from")
+    int advanceStatus(@Param("id") UUID id, @Param("status") CallStatus status,
+                      @Param("from") Collection<CallStatus> from, @Param("updatedAt") Instant updatedAt);
+
+    /**
+     * Clear a call's preparation flag
+     *
+     * @return 1 if this caller cleared it and should publish CallReceived, 0 if it was already clear
+     */
+    @Modifying
+    @Query("UPDATE Call c SET c.preparationPending = false WHERE c.id = :id AND c.preparationPending = true")
+    int finishPreparation(@Param("id") UUID id);
+
+    /**
+     * Calls still waiting for preparation that have not changed since the cutoff
+     */
+    List<Call> findTop100ByPreparationPendingTrueAndUpdatedAtBefore(Instant cutoff);
 }
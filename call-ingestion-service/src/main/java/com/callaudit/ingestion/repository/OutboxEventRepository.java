@@ -0,0 +1,31 @@
+package com.callaudit.ingestion.repository;
+
+import com.callaudit.ingestion.model.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID> {
+
+    /**
+     * Claim the oldest pending events. Rows locked by another relay instance are skipped,
+     * so several instances can drain the outbox in parallel without blocking each other.
+     * The locks are held until the surrounding transaction ends.
+     */
+    @Query(value = "SELECT * FROM {h-schema}outbox_events ORDER BY created_at LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("limit") int limit);
+
+    /**
+     * Creation time of the oldest event not yet relayed; empty when the outbox is drained
+     */
+    @Query("SELECT MIN(e.createdAt) FROM OutboxEvent e")
+    Optional<Instant> findOldestCreatedAt();
+}
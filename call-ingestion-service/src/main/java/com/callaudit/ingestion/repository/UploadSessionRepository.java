@@ -0,0 +1,33 @@
+package com.callaudit.ingestion.repository;
+
+import com.callaudit.ingestion.model.UploadSession;
+import com.callaudit.ingestion.model.UploadSessionStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface UploadSessionRepository extends JpaRepository<UploadSession, UUID> {
+
+    /**
+     * Load a session with a row lock so concurrent complete/abort calls serialize
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM UploadSession s WHERE s.id = :id")
+    Optional<UploadSession> findByIdForUpdate(@Param("id") UUID id);
+
+    /**
+     * Sessions in one of these states that have not changed since the cutoff, for the expiry sweep
+     */
+    List<UploadSession> findTop100ByStatusInAndUpdatedAtBefore(Collection<UploadSessionStatus> statuses,
+                                                               Instant cutoff);
+}
@@ -0,0 +1,49 @@
+package com.callaudit.ingestion.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Bounded in-process LRU of stored audio metadata, keyed by callId.
+ *
+ * Recordings are immutable once stored, so entries never go stale and need no expiry;
+ * a hit serves an audio request without touching PostgreSQL or MinIO before the read.
+ */
+@Component
+@Slf4j
+public class AudioMetadataCache {
+
+    @Value("${ingestion.audio-metadata-cache.max-entries:10000}")
+    private int maxEntries;
+
+    private final Map<UUID, StorageService.StoredObject> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, StorageService.StoredObject> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    /**
+     * @return cached metadata, or null on a miss
+     */
+    public synchronized StorageService.StoredObject get(UUID callId) {
+        return entries.get(callId);
+    }
+
+    public synchronized void put(UUID callId, StorageService.StoredObject object) {
+        entries.put(callId, object);
+    }
+
+    public synchronized void evict(UUID callId) {
+        entries.remove(callId);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,59 @@
+package com.callaudit.ingestion.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Per-item outcome of a bulk ingestion request
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkIngestionReport {
+
+    private int total;
+    private int accepted;
+    private int rejected;
+    private int failed;
+    private int duplicates;
+    private List<ItemResult> items;
+
+    public enum ItemStatus {
+        ACCEPTED,  // stored, call row written and CallReceived queued
+        REJECTED,  // failed validation, nothing stored
+        DUPLICATE, // same content as an existing call (callId points to it), nothing stored
+        FAILED     // storage or database error
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemResult {
+        private String filename;
+        private ItemStatus status;
+        private UUID callId;
+        private String message;
+    }
+
+    static BulkIngestionReport of(List<ItemResult> items) {
+        return BulkIngestionReport.builder()
+            .total(items.size())
+            .accepted(count(items, ItemStatus.ACCEPTED))
+            .rejected(count(items, ItemStatus.REJECTED))
+            .failed(count(items, ItemStatus.FAILED))
+            .duplicates(count(items, ItemStatus.DUPLICATE))
+            .items(items)
+            .build();
+    }
+
+    private static int count(List<ItemResult> items, ItemStatus status) {
+        return (int) items.stream().filter(item -> item.getStatus() == status).count();
+    }
+}
@@ -0,0 +1,453 @@
+package com.callaudit.ingestion.service;
+
+import com.callaudit.ingestion.audio.AudioFormat;
+import com.callaudit.ingestion.audio.AudioProperties;
+import com.callaudit.ingestion.audio.AudioUploadStream;
+import com.callaudit.ingestion.event.CallReceivedEvent;
+import com.callaudit.ingestion.model.Call;
+import com.callaudit.ingestion.model.CallChannel;
+import com.callaudit.ingestion.model.CallPriority;
+import com.callaudit.ingestion.model.CallStatus;
+import com.callaudit.ingestion.model.ChannelLayout;
+import com.callaudit.ingestion.repository.CallBatchRepository;
+import com.callaudit.ingestion.repository.CallRepository;
+import com.callaudit.ingestion.service.BulkIngestionReport.ItemResult;
+import com.callaudit.ingestion.service.BulkIngestionReport.ItemStatus;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Bulk ingestion of many recordings from a single zip archive, for backfills.
+ *
+ * Unlike the per-file endpoints, work is batched at every stage:
+ * 1. Entries are read sequentially, validated and spooled to temp files
+ * 2. MinIO uploads fan out over a bounded worker pool (the reader blocks when it is saturated)
+ * 3. core.calls rows are written with JDBC batch inserts, and the CallReceived events are
+ *    queued in the outbox in the same transaction (the relay publishes them in producer batches)
+ *
+ * An optional manifest.json as the first entry supplies per-file metadata.
+ * Recordings whose SHA-256 matches an existing call (or an earlier entry) are reported as duplicates.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkIngestionService {
+
+    static final String MANIFEST_ENTRY = "manifest.json";
+
+    private static final int MAX_MANIFEST_BYTES = 16 * 1024 * 1024;
+
+    private final StorageService storageService;
+    private final CallBatchRepository callBatchRepository;
+    private final CallRepository callRepository;
+    private final OutboxService outboxService;
+    private final CallPreparationService callPreparationService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${kafka.topics.call-received}")
+    private String callReceivedTopic;
+
+    @Value("${kafka.topics.call-received-priority:calls.received.priority}")
+    private String callReceivedPriorityTopic;
+
+    @Value("${ingestion.bulk.upload-concurrency:8}")
+    private int uploadConcurrency;
+
+    @Value("${ingestion.bulk.batch-size:500}")
+    private int batchSize;
+
+    @Value("${ingestion.bulk.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${ingestion.speaker-split.default-layout:MIXED}")
+    private ChannelLayout defaultChannelLayout;
+
+    private ThreadPoolExecutor uploadExecutor;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        // Bounded queue + caller-runs: when all workers are busy the archive reader uploads
+        // the next file itself, which caps the number of spooled temp files in flight
+        uploadExecutor = new ThreadPoolExecutor(
+            uploadConcurrency, uploadConcurrency, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(uploadConcurrency),
+            runnable -> {
+                Thread thread = new Thread(runnable, "bulk-upload-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+    }
+
+    @PreDestroy
+    void shutdown() {
+        uploadExecutor.shutdown();
+    }
+
+    /**
+     * Ingest every recording in a zip archive
+     *
+     * @param archive zip stream, read exactly once
+     * @param defaultCallerId caller ID for entries not listed in the manifest (optional)
+     * @param defaultAgentId agent ID for entries not listed in the manifest (optional)
+     * @param defaultChannel channel for entries not listed in the manifest
+     * @return per-item result report, in archive order
+     */
+    public BulkIngestionReport ingestArchive(InputStream archive, String defaultCallerId, String defaultAgentId,
+                                             CallChannel defaultChannel) {
+        return ingestArchive(archive, defaultCallerId, defaultAgentId, defaultChannel, CallPriority.NORMAL);
+    }
+
+    /**
+     * Ingest every recording in a zip archive into the given processing lane
+     *
+     * @param defaultPriority lane for entries whose manifest row does not set one
+     * @see #ingestArchive(InputStream, String, String, CallChannel)
+     */
+    public BulkIngestionReport ingestArchive(InputStream archive, String defaultCallerId, String defaultAgentId,
+                                             CallChannel defaultChannel, CallPriority defaultPriority) {
+        List<ItemResult> results = new ArrayList<>();
+        List<PendingItem> pending = new ArrayList<>();
+        Map<String, ManifestEntry> manifest = Map.of();
+        Map<String, UUID> seenDigests = new HashMap<>();
+
+        try (ZipInputStream zip = new ZipInputStream(archive)) {
+            ZipEntry entry;
+            boolean firstEntry = true;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (entry.isDirectory() || isIgnored(entry.getName())) {
+                    continue;
+                }
+                String filename = baseName(entry.getName());
+
+                if (firstEntry && filename.equals(MANIFEST_ENTRY)) {
+                    manifest = readManifest(zip);
+                    firstEntry = false;
+                    continue;
+                }
+                firstEntry = false;
+
+                if (results.size() >= maxEntries) {
+                    results.add(rejected(filename, "Archive exceeds the limit of " + maxEntries + " recordings"));
+                    break;
+                }
+
+                ItemResult result = ItemResult.builder().filename(filename).build();
+                results.add(result);
+
+                ManifestEntry metadata = manifest.getOrDefault(filename, new ManifestEntry());
+                PendingItem item = prepare(zip, filename, metadata, defaultCallerId, defaultAgentId, defaultChannel,
+                                           defaultPriority, seenDigests, result);
+                if (item != null) {
+                    pending.add(item);
+                }
+            }
+        } catch (IOException e) {
+            // Keep what was read before the archive broke off
+            log.error("Bulk archive could not be read completely", e);
+            String message = "Archive truncated or corrupt: " + e.getMessage();
+            ItemResult last = results.isEmpty() ? null : results.get(results.size() - 1);
+            if (last != null && last.getStatus() == null && last.getCallId() == null) {
+                reject(last, message);
+            } else {
+                results.add(rejected("(archive)", message));
+            }
+        }
+
+        List<PendingItem> stored = awaitUploads(pending);
+        saveCalls(stored);
+
+        BulkIngestionReport report = BulkIngestionReport.of(results);
+        log.info("Bulk ingestion finished: total={}, accepted={}, duplicates={}, rejected={}, failed={}",
+                 report.getTotal(), report.getAccepted(), report.getDuplicates(), report.getRejected(),
+                 report.getFailed());
+        return report;
+    }
+
+    /**
+     * Validate one entry, spool it to disk and schedule its MinIO upload
+     *
+     * @return the scheduled item, or null if the entry was rejected
+     */
+    private PendingItem prepare(ZipInputStream zip, String filename, ManifestEntry metadata,
+                                String defaultCallerId, String defaultAgentId, CallChannel defaultChannel,
+                                CallPriority defaultPriority, Map<String, UUID> seenDigests,
+                                ItemResult result) throws IOException {
+        String callerId = firstNonBlank(metadata.getCallerId(), defaultCallerId);
+        String agentId = firstNonBlank(metadata.getAgentId(), defaultAgentId);
+        if (callerId == null || agentId == null) {
+            reject(result, "callerId and agentId are required (manifest entry or request default)");
+            return null;
+        }
+
+        AudioFormat format;
+        try {
+            format = AudioFormat.fromFilename(filename);
+        } catch (IllegalArgumentException e) {
+            reject(result, e.getMessage());
+            return null;
+        }
+
+        Path spoolFile = Files.createTempFile("bulk-ingest-", "." + format.getExtension());
+        AudioUploadStream entryStream = new AudioUploadStream(zip, CallIngestionService.MAX_FILE_SIZE_BYTES);
+        try {
+            entryStream.verifySignature(format);
+            entryStream.probeHeader(format);
+            Files.copy(entryStream, spoolFile, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IllegalArgumentException e) {
+            Files.deleteIfExists(spoolFile);
+            reject(result, e.getMessage());
+            return null;
+        } catch (IOException e) {
+            Files.deleteIfExists(spoolFile);
+            if (entryStream.isLimitExceeded()) {
+                reject(result, "File size exceeds maximum allowed size of 100MB");
+                return null;
+            }
+            throw e;
+        }
+
+        // Re-delivered recordings (earlier in this archive or already stored) are linked, not re-ingested
+        String contentSha256 = entryStream.getSha256();
+        UUID existingCallId = seenDigests.get(contentSha256);
+        if (existingCallId == null) {
+            existingCallId = callRepository.findFirstByContentSha256OrderByCreatedAtAsc(contentSha256)
+                .map(Call::getId)
+                .orElse(null);
+        }
+        if (existingCallId != null) {
+            Files.deleteIfExists(spoolFile);
+            result.setStatus(ItemStatus.DUPLICATE);
+            result.setCallId(existingCallId);
+            result.setMessage("Recording was already ingested");
+            return null;
+        }
+
+        AudioProperties properties = entryStream.getAudioProperties();
+        Call call = Call.builder()
+            .id(UUID.randomUUID())
+            .callerId(callerId)
+            .agentId(agentId)
+            .channel(metadata.getChannel() != null ? metadata.getChannel() : defaultChannel)
+            .startTime(metadata.getStartTime() != null ? metadata.getStartTime() : Instant.now())
+            .status(CallStatus.PENDING)
+            .priority(metadata.getPriority() != null ? metadata.getPriority()
+                : defaultPriority != null ? defaultPriority : CallPriority.NORMAL)
+            .correlationId(UUID.randomUUID())
+            .channelLayout(metadata.getChannelLayout() != null ? metadata.getChannelLayout() : defaultChannelLayout)
+            .contentSha256(contentSha256)
+            .duration(properties.durationSeconds())
+            .sampleRate(properties.sampleRate())
+            .bitDepth(properties.bitDepth())
+            .channelCount(properties.channels())
+            .fileSizeBytes(entryStream.getBytesRead())
+            .fileFormat(format.getExtension())
+            .contentType(format.getContentType())
+            .build();
+        result.setCallId(call.getId());
+        seenDigests.put(contentSha256, call.getId());
+
+        long size = entryStream.getBytesRead();
+        CompletableFuture<String> upload = CompletableFuture.supplyAsync(() -> {
+            try (InputStream in = Files.newInputStream(spoolFile)) {
+                return storageService.uploadFile(call.getId(), in, format.getContentType(), size,
+                                                 format.getExtension());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                deleteQuietly(spoolFile);
+            }
+        }, uploadExecutor);
+
+        return new PendingItem(call, format, size, result, upload);
+    }
+
+    private List<PendingItem> awaitUploads(List<PendingItem> pending) {
+        List<PendingItem> stored = new ArrayList<>();
+        for (PendingItem item : pending) {
+            try {
+                String audioFileUrl = item.upload().join();
+                item.call().setAudioFileUrl(audioFileUrl);
+                item.call().setObjectKey(storageService.objectNameFromUrl(audioFileUrl));
+                stored.add(item);
+            } catch (Exception e) {
+                log.error("Bulk upload failed for {}", item.result().getFilename(), e);
+                fail(item.result(), "Failed to upload file to storage");
+            }
+        }
+        return stored;
+    }
+
+    /**
+     * Insert call rows and queue their events, one transaction per batch. Calls that need speech detection,
+     * a speaker split or chunking are inserted flagged instead, and CallPreparationService queues their
+     * event once the batch has committed, as for single uploads.
+     * A recording ingested concurrently by another request holds its digest already; its row is skipped
+     * by the insert and the item is reported as a duplicate of that call.
+     */
+    private void saveCalls(List<PendingItem> stored) {
+        for (int from = 0; from < stored.size(); from += batchSize) {
+            List<PendingItem> chunk = stored.subList(from, Math.min(from + batchSize, stored.size()));
+            for (PendingItem item : chunk) {
+                item.call().setPreparationPending(callPreparationService.needsPreparation(item.call()));
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    Set<UUID> inserted = callBatchRepository
+                        .insertNew(chunk.stream().map(PendingItem::call).toList(), batchSize).stream()
+                        .map(Call::getId)
+                        .collect(Collectors.toSet());
+                    for (PendingItem item : chunk) {
+                        if (!inserted.contains(item.call().getId())) {
+                            continue;
+                        }
+                        item.result().setStatus(ItemStatus.ACCEPTED);
+                        if (item.call().isPreparationPending()) {
+                            callPreparationService.prepareAfterCommit(item.call().getId());
+                            continue;
+                        }
+                        CallReceivedEvent event = CallIngestionService.buildCallReceivedEvent(
+                            item.call(), item.format().getExtension(), item.size());
+                        String topic = item.call().getPriority() == CallPriority.HIGH
+                            ? callReceivedPriorityTopic : callReceivedTopic;
+                        outboxService.enqueue(topic, item.call().getId().toString(),
+                                              item.call().getId(), event.getEventType(), event);
+                    }
+                });
+                chunk.stream().filter(item -> item.result().getStatus() == null).forEach(this::linkToOriginal);
+            } catch (Exception e) {
+                log.error("Batch insert of {} calls failed", chunk.size(), e);
+                chunk.forEach(item -> fail(item.result(), "Failed to save call metadata"));
+            }
+        }
+    }
+
+    /**
+     * Report an item whose digest was claimed concurrently as a duplicate, and drop the copy it stored
+     */
+    private void linkToOriginal(PendingItem item) {
+        Call call = item.call();
+        item.result().setStatus(ItemStatus.DUPLICATE);
+        item.result().setCallId(callRepository.findFirstByContentSha256OrderByCreatedAtAsc(call.getContentSha256())
+            .map(Call::getId)
+            .orElse(null));
+        item.result().setMessage("Recording was already ingested");
+        storageService.deleteFile(call.getAudioFileUrl());
+    }
+
+    private Map<String, ManifestEntry> readManifest(ZipInputStream zip) throws IOException {
+        byte[] content = zip.readNBytes(MAX_MANIFEST_BYTES + 1);
+        if (content.length > MAX_MANIFEST_BYTES) {
+            throw new IllegalArgumentException("Manifest exceeds maximum size of 16MB");
+        }
+        List<ManifestEntry> entries;
+        try {
+            entries = objectMapper.readValue(content, new TypeReference<>() {});
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid manifest.json: " + e.getOriginalMessage(), e);
+        }
+
+        Map<String, ManifestEntry> manifest = new HashMap<>();
+        for (ManifestEntry entry : entries) {
+            if (entry.getFilename() != null) {
+                manifest.put(baseName(entry.getFilename()), entry);
+            }
+        }
+        log.info("Read bulk manifest with {} entries", manifest.size());
+        return manifest;
+    }
+
+    private static boolean isIgnored(String entryName) {
+        String name = baseName(entryName);
+        return entryName.startsWith("__MACOSX/") || name.startsWith(".");
+    }
+
+    private static String baseName(String entryName) {
+        return entryName.substring(entryName.lastIndexOf('/') + 1);
+    }
+
+    private static String firstNonBlank(String value, String fallback) {
+        if (value != null && !value.isBlank()) {
+            return value;
+        }
+        return fallback != null && !fallback.isBlank() ? fallback : null;
+    }
+
+    private static ItemResult rejected(String filename, String message) {
+        return ItemResult.builder().filename(filename).status(ItemStatus.REJECTED).message(message).build();
+    }
+
+    private static void reject(ItemResult result, String message) {
+        result.setStatus(ItemStatus.REJECTED);
+        result.setMessage(message);
+    }
+
+    private static void fail(ItemResult result, String message) {
+        result.setStatus(ItemStatus.FAILED);
+        result.setMessage(message);
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete spool file {}", path, e);
+        }
+    }
+
+    /**
+     * A recording that has been spooled and scheduled for upload
+     */
+    private record PendingItem(Call call, AudioFormat format, long size, ItemResult result,
+                               CompletableFuture<String> upload) {
+    }
+
+    /**
+     * One row of manifest.json: a JSON array of these objects
+     */
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class ManifestEntry {
+        private String filename;
+        private String callerId;
+        private String agentId;
+        private CallChannel channel;
+        private Instant startTime;
+        private CallPriority priority;
+        private ChannelLayout channelLayout;
+    }
+}
@@ -0,0 +1,181 @@
+package com.callaudit.ingestion.service;
+
+import com.callaudit.ingestion.audio.AudioFormat;
+import com.callaudit.ingestion.audio.WavChunker;
+import com.callaudit.ingestion.event.CallChunkReceivedEvent;
+import com.callaudit.ingestion.event.CallReceivedEvent;
+import com.callaudit.ingestion.model.Call;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Splits long WAV recordings into overlapping chunks at ingest, so transcription can fan out
+ * across workers instead of one worker processing a whole call.
+ * <p>
+ * Chunks are stored next to the recording ({@code 2025/01/{callId}/chunk-000.wav}) and each one
+ * is announced with a CallChunkReceived event; the CallReceived event carries the manifest.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CallChunkingService {
+
+    private final StorageService storageService;
+    private final OutboxService outboxService;
+
+    @Value("${kafka.topics.call-chunk-received:calls.chunks}")
+    private String callChunkReceivedTopic;
+
+    @Value("${ingestion.chunking.enabled:false}")
+    private boolean enabled;
+
+    @Value("${ingestion.chunking.chunk-seconds:300}")
+    private int chunkSeconds;
+
+    @Value("${ingestion.chunking.overlap-seconds:2}")
+    private int overlapSeconds;
+
+    @Value("${ingestion.chunking.silence-search-seconds:10}")
+    private int silenceSearchSeconds;
+
+    /**
+     * A recording that was split, with where each chunk was stored
+     */
+    public record ChunkedRecording(WavChunker.Plan plan, List<StoredChunk> chunks) {
+
+        /**
+         * Manifest for the CallReceived payload
+         */
+        public List<CallReceivedEvent.Chunk> manifest() {
+            return chunks.stream()
+                .map(stored -> CallReceivedEvent.Chunk.builder()
+                    .index(stored.chunk().index())
+                    .offsetMillis(plan.toMillis(stored.chunk().startSample()))
+                    .durationMillis(plan.toMillis(stored.chunk().sampleCount()))
+                    .audioFileUrl(stored.audioFileUrl())
+                    .build())
+                .toList();
+        }
+    }
+
+    public record StoredChunk(WavChunker.Chunk chunk, String audioFileUrl, long size) {
+    }
+
+    /**
+     * Whether {@link #split} would run for a stored call: chunking is enabled and the recording is long PCM WAV
+     */
+    public boolean applies(Call call) {
+        return enabled && call.getObjectKey() != null && StoredAudio.isWav(call)
+            // too short to be worth splitting; skip the read-back
+            && (call.getDuration() == null || call.getDuration() > chunkSeconds * 3 / 2);
+    }
+
+    /**
+     * Split a stored call if chunking is enabled and the recording is long PCM WAV.
+     * The recording is read back from storage twice: once to find pauses, once to cut it.
+     * Best effort: on any failure the chunks stored so far are removed and the call is processed whole.
+     *
+     * @param call stored call with its object key, format and duration recorded
+     * @return the stored chunks, or empty if the call is not split
+     */
+    public Optional<ChunkedRecording> split(Call call) {
+        return split(call, StoredAudio.remote(storageService, call));
+    }
+
+    /**
+     * {@link #split(Call)} reading the recording from the given source
+     */
+    Optional<ChunkedRecording> split(Call call, StoredAudio.Source audio) {
+        if (!applies(call)) {
+            return Optional.empty();
+        }
+
+        WavChunker chunker = new WavChunker(Duration.ofSeconds(chunkSeconds), Duration.ofSeconds(overlapSeconds),
+            Duration.ofSeconds(silenceSearchSeconds));
+        List<StoredChunk> stored = new ArrayList<>();
+        try {
+            Optional<WavChunker.Plan> plan;
+            try (InputStream wav = audio.open()) {
+                plan = chunker.plan(wav);
+            }
+            if (plan.isEmpty() || plan.get().chunks().isEmpty()) {
+                return Optional.empty();
+            }
+
+            try (InputStream wav = audio.open()) {
+                chunker.split(wav, plan.get(), (chunk, in, size) -> {
+                    String url = storageService.uploadDerivative(call.getObjectKey(),
+                        String.format("chunk-%03d.wav", chunk.index()), in, size, AudioFormat.WAV.getContentType());
+                    stored.add(new StoredChunk(chunk, url, size));
+                });
+            }
+
+            log.info("Split callId: {} into {} chunks of ~{}s", call.getId(), stored.size(), chunkSeconds);
+            return Optional.of(new ChunkedRecording(plan.get(), stored));
+
+        } catch (Exception e) {
+            log.warn("Could not split callId: {}, it will be transcribed whole", call.getId(), e);
+            stored.forEach(chunk -> storageService.deleteFile(chunk.audioFileUrl()));
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Queue one CallChunkReceived event per chunk in the outbox.
+     * Chunks are keyed individually so they spread over partitions, and so over consumers.
+     *
+     * @param causationId eventId of the call's CallReceived event
+     */
+    public void publishChunkEvents(Call call, ChunkedRecording recording, UUID causationId) {
+        WavChunker.Plan plan = recording.plan();
+        for (StoredChunk stored : recording.chunks()) {
+            WavChunker.Chunk chunk = stored.chunk();
+            CallChunkReceivedEvent.Payload payload = CallChunkReceivedEvent.Payload.builder()
+                .callId(call.getId())
+                .chunkIndex(chunk.index())
+                .chunkCount(recording.chunks().size())
+                .offsetMillis(plan.toMillis(chunk.startSample()))
+                .durationMillis(plan.toMillis(chunk.sampleCount()))
+                .overlapMillis(overlapSeconds * 1000L)
+                .audioFileUrl(stored.audioFileUrl())
+                .audioFormat(AudioFormat.WAV.getExtension())
+                .audioFileSize(stored.size())
+                .sampleRate(plan.sampleRate())
+                .channelCount(plan.channels())
+                .build();
+
+            Map<String, Object> metadata = new HashMap<>();
+            metadata.put("userId", "system");
+            metadata.put("service", "call-ingestion-service");
+            metadata.put("priority", call.getPriority().name());
+
+            CallChunkReceivedEvent event = CallChunkReceivedEvent.builder()
+                .eventId(UUID.randomUUID())
+                .eventType("CallChunkReceived")
+                .aggregateId(call.getId())
+                .aggregateType("Call")
+                .timestamp(Instant.now())
+                .version(1)
+                .causationId(causationId)
+                .correlationId(call.getCorrelationId())
+                .metadata(metadata)
+                .payload(payload)
+                .build();
+
+            outboxService.enqueue(callChunkReceivedTopic, call.getId() + "-" + chunk.index(), call.getId(),
+                event.getEventType(), event);
+        }
+    }
+}
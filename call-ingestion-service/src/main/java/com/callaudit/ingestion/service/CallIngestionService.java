@@ -1,21 +1,36 @@
 package com.callaudit.ingestion.service;
 
+import com.callaudit.ingestion.audio.AudioFormat;
+import com.callaudit.ingestion.audio.AudioHeaderProbe;
+import com.callaudit.ingestion.audio.AudioProperties;
+import com.callaudit.ingestion.audio.AudioUploadStream;
+import com.callaudit.ingestion.audio.FlacToWavStream;
+import com.callaudit.ingestion.audio.WavToFlacStream;
 import com.callaudit.ingestion.event.CallReceivedEvent;
 import com.callaudit.ingestion.model.Call;
 import com.callaudit.ingestion.model.CallChannel;
+import com.callaudit.ingestion.model.CallPriority;
 import com.callaudit.ingestion.model.CallStatus;
+import com.callaudit.ingestion.model.ChannelLayout;
+import com.callaudit.ingestion.model.UploadSession;
 import com.callaudit.ingestion.repository.CallRepository;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
@@ -27,16 +42,34 @@ public class CallIngestionService {
 
     private final CallRepository callRepository;
     private final StorageService storageService;
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final OutboxService outboxService;
+    private final AudioMetadataCache audioMetadataCache;
+    private final CallPreparationService callPreparationService;
+
+    public static final long MAX_FILE_SIZE_BYTES = 100L * 1024 * 1024; // 100MB
+
+    /**
+     * Unique index that lets only one call hold a given content digest
+     */
+    static final String CONTENT_SHA256_INDEX = "idx_calls_content_sha256_unique";
 
     @Value("${kafka.topics.call-received}")
     private String callReceivedTopic;
 
+    @Value("${kafka.topics.call-received-priority:calls.received.priority}")
+    private String callReceivedPriorityTopic;
+
+    @Value("${ingestion.flac-transcoding.enabled:false}")
+    private boolean flacTranscodingEnabled;
+
+    @Value("${ingestion.speaker-split.default-layout:MIXED}")
+    private ChannelLayout defaultChannelLayout;
+
     /**
      * Process uploaded audio file:
      * 1. Store file in MinIO
      * 2. Create Call entity in database
-     * 3. Publish CallReceived event to Kafka
+     * 3. Queue CallReceived event for Kafka via the outbox
      *
      * @param file uploaded audio file
      * @param callerId caller's phone number or ID
@@ -46,10 +79,31 @@ public class CallIngestionService {
      */
     @Transactional
     public Call processUpload(MultipartFile file, String callerId, String agentId, CallChannel channel) {
+        return processUpload(file, callerId, agentId, channel, null, null);
+    }
+
+    /**
+     * Process an uploaded audio file with an explicit channel layout and processing lane
+     *
+     * @param channelLayout speaker per channel, or null for the configured default
+     * @param priority processing lane, or null for NORMAL
+     * @see #processUpload(MultipartFile, String, String, CallChannel)
+     */
+    @Transactional
+    public Call processUpload(MultipartFile file, String callerId, String agentId, CallChannel channel,
+                              ChannelLayout channelLayout, CallPriority priority) {
         try {
             // Validate file
             validateFile(file);
 
+            // Short-circuit re-deliveries of a recording we already have
+            AudioHeaderProbe probe = new AudioHeaderProbe(AudioFormat.fromFilename(file.getOriginalFilename()));
+            String contentSha256 = computeSha256(file, probe);
+            Optional<Call> duplicate = findDuplicate(contentSha256);
+            if (duplicate.isPresent()) {
+                return duplicate.get();
+            }
+
             // Generate correlation ID and start time
             UUID correlationId = UUID.randomUUID();
             Instant startTime = Instant.now();
@@ -67,31 +121,45 @@ public class CallIngestionService {
                 .audioFileUrl("pending") // Temporary placeholder
                 .status(CallStatus.PENDING)
                 .correlationId(correlationId)
+                .contentSha256(contentSha256)
+                .channelLayout(resolveChannelLayout(channelLayout))
+                .priority(priority != null ? priority : CallPriority.NORMAL)
                 .build();
+            applyAudioProperties(call, probe.finish());
 
             // Save to database to get the auto-generated ID
             call = callRepository.save(call);
+            claimContent(call);
             UUID callId = call.getId();
 
             log.info("Processing upload for callId: {}, callerId: {}, agentId: {}, channel: {}",
                      callId, callerId, agentId, channel);
 
-            // Upload file to MinIO with the generated callId
-            String audioFileUrl = storageService.uploadFile(
-                callId,
-                file.getInputStream(),
-                contentType,
-                file.getSize(),
-                fileExtension
-            );
+            // Upload file to MinIO with the generated callId, as FLAC if it is PCM WAV and transcoding is on
+            WavToFlacStream flac = openFlacTranscoder(fileExtension, file.getInputStream());
+            if (flac != null && flac.isTranscoding()) {
+                String audioFileUrl = storeAsFlac(callId, flac);
+                recordTranscodedAudio(call, audioFileUrl, flac, fileExtension);
+            } else {
+                if (flac != null) {
+                    flac.close(); // not PCM; the spooled file is simply re-read
+                }
+                String audioFileUrl = storageService.uploadFile(
+                    callId,
+                    file.getInputStream(),
+                    contentType,
+                    file.getSize(),
+                    fileExtension
+                );
 
-            // Update the Call entity with the actual MinIO URL
-            call.setAudioFileUrl(audioFileUrl);
+                // Update the Call entity with the actual MinIO URL
+                recordStoredAudio(call, audioFileUrl, file.getSize(), fileExtension, contentType);
+            }
             call = callRepository.save(call);
             log.info("Saved call entity to database with MinIO URL: {}", callId);
 
-            // Publish CallReceived event to Kafka
-            publishCallReceivedEvent(call, fileExtension, file.getSize());
+            // Queue CallReceived event (published to Kafka after commit)
+            publishCallReceivedEvent(call, call.getFileFormat(), call.getFileSizeBytes());
 
             return call;
 
@@ -101,6 +169,189 @@ public class CallIngestionService {
         }
     }
 
+    /**
+     * Process an audio upload delivered as a raw request body stream.
+     * Unlike {@link #processUpload}, nothing is spooled: the bytes are validated
+     * (extension, magic bytes, size cap) while they are piped into MinIO.
+     *
+     * @param body raw audio stream, read exactly once
+     * @param filename original filename, used for the extension
+     * @param contentType MIME type sent by the client (may be null or generic)
+     * @param contentLength declared body length, or -1 if unknown (chunked transfer)
+     * @param callerId caller's phone number or ID
+     * @param agentId agent's ID
+     * @param channel call channel (INBOUND, OUTBOUND, INTERNAL)
+     * @return created Call entity with UUID
+     */
+    @Transactional
+    public Call processStreamingUpload(InputStream body, String filename, String contentType, long contentLength,
+                                       String callerId, String agentId, CallChannel channel) {
+        return processStreamingUpload(body, filename, contentType, contentLength, null, callerId, agentId, channel);
+    }
+
+    /**
+     * Process a raw-body upload whose SHA-256 the client already knows.
+     * If a call with that digest exists, it is returned without reading the body at all;
+     * otherwise the digest is verified against the streamed content.
+     *
+     * @param expectedSha256 hex SHA-256 announced by the client, or null
+     * @see #processStreamingUpload(InputStream, String, String, long, String, String, CallChannel)
+     */
+    @Transactional
+    public Call processStreamingUpload(InputStream body, String filename, String contentType, long contentLength,
+                                       String expectedSha256, String callerId, String agentId,
+                                       CallChannel channel) {
+        return processStreamingUpload(body, filename, contentType, contentLength, expectedSha256, callerId, agentId,
+            channel, null, null);
+    }
+
+    /**
+     * Process a raw-body upload with an explicit channel layout and processing lane
+     *
+     * @param channelLayout speaker per channel, or null for the configured default
+     * @param priority processing lane, or null for NORMAL
+     * @see #processStreamingUpload(InputStream, String, String, long, String, String, String, CallChannel)
+     */
+    @Transactional
+    public Call processStreamingUpload(InputStream body, String filename, String contentType, long contentLength,
+                                       String expectedSha256, String callerId, String agentId,
+                                       CallChannel channel, ChannelLayout channelLayout, CallPriority priority) {
+        try {
+            AudioFormat format = AudioFormat.fromFilename(filename);
+            String fileExtension = extractFileExtension(filename);
+
+            if (expectedSha256 != null) {
+                expectedSha256 = expectedSha256.toLowerCase();
+                if (!expectedSha256.matches("[0-9a-f]{64}")) {
+                    throw new IllegalArgumentException("Invalid SHA-256 digest: expected 64 hex characters");
+                }
+                Optional<Call> duplicate = findDuplicate(expectedSha256);
+                if (duplicate.isPresent()) {
+                    return duplicate.get();
+                }
+            }
+
+            if (contentLength == 0) {
+                throw new IllegalArgumentException("File cannot be null or empty");
+            }
+            if (contentLength > MAX_FILE_SIZE_BYTES) {
+                throw new IllegalArgumentException("File size exceeds maximum allowed size of 100MB");
+            }
+
+            // Sniff the magic bytes before anything is persisted
+            AudioUploadStream uploadStream = new AudioUploadStream(body, MAX_FILE_SIZE_BYTES);
+            uploadStream.verifySignature(format);
+            uploadStream.probeHeader(format);
+
+            if (contentType == null || contentType.isBlank()
+                    || contentType.startsWith("application/octet-stream")) {
+                contentType = format.getContentType();
+            }
+
+            Call call = createPendingCall(callerId, agentId, channel, resolveChannelLayout(channelLayout),
+                priority != null ? priority : CallPriority.NORMAL);
+            UUID callId = call.getId();
+
+            log.info("Processing streaming upload for callId: {}, callerId: {}, agentId: {}, channel: {}",
+                     callId, callerId, agentId, channel);
+
+            String audioFileUrl;
+            WavToFlacStream flac = null;
+            try {
+                flac = openFlacTranscoder(fileExtension, uploadStream);
+                if (flac != null && flac.isTranscoding()) {
+                    audioFileUrl = storeAsFlac(callId, flac);
+                } else {
+                    audioFileUrl = storageService.uploadStream(
+                        callId, flac != null ? flac : uploadStream, contentType, contentLength, fileExtension);
+                }
+            } catch (RuntimeException e) {
+                if (uploadStream.isLimitExceeded()) {
+                    throw new IllegalArgumentException("File size exceeds maximum allowed size of 100MB");
+                }
+                throw e;
+            }
+
+            String contentSha256 = uploadStream.getSha256();
+            if (expectedSha256 != null && !expectedSha256.equals(contentSha256)) {
+                storageService.deleteFile(audioFileUrl);
+                throw new IllegalArgumentException("Content does not match the declared SHA-256 digest");
+            }
+
+            // The digest is only known once the bytes have gone by; drop the copy we just stored
+            Optional<Call> duplicate = findDuplicate(contentSha256);
+            if (duplicate.isPresent()) {
+                storageService.deleteFile(audioFileUrl);
+                callRepository.delete(call);
+                return duplicate.get();
+            }
+
+            if (flac != null && flac.isTranscoding()) {
+                recordTranscodedAudio(call, audioFileUrl, flac, fileExtension);
+            } else {
+                recordStoredAudio(call, audioFileUrl, uploadStream.getBytesRead(), fileExtension, contentType);
+            }
+            call.setContentSha256(contentSha256);
+            applyAudioProperties(call, uploadStream.getAudioProperties());
+            call = callRepository.save(call);
+            try {
+                claimContent(call);
+            } catch (DuplicateRecordingException e) {
+                storageService.deleteFile(audioFileUrl);
+                throw e;
+            }
+            log.info("Streamed {} bytes for callId: {}", uploadStream.getBytesRead(), callId);
+
+            publishCallReceivedEvent(call, call.getFileFormat(), call.getFileSizeBytes());
+
+            return call;
+
+        } catch (IOException e) {
+            log.error("Error reading streaming upload", e);
+            throw new RuntimeException("Failed to process file upload", e);
+        }
+    }
+
+    /**
+     * Turn the staged parts of a resumable upload into a call.
+     * The parts are stitched together inside MinIO, so the audio is never re-read here.
+     *
+     * @param session upload session holding the call metadata and processing lane
+     * @param parts staged parts, already validated and in order
+     * @param totalSize sum of the part sizes
+     * @param contentSha256 hex SHA-256 of the assembled file, computed while the parts were staged
+     * @return created Call entity with UUID, or the existing call if the recording was already ingested
+     */
+    @Transactional
+    public Call processChunkedUpload(UploadSession session, List<StorageService.UploadPart> parts, long totalSize,
+                                     String contentSha256) {
+        Optional<Call> duplicate = findDuplicate(contentSha256);
+        if (duplicate.isPresent()) {
+            return duplicate.get();
+        }
+
+        String fileExtension = extractFileExtension(session.getFilename());
+
+        Call call = createPendingCall(session.getCallerId(), session.getAgentId(), session.getChannel(),
+            resolveChannelLayout(null), session.getPriority() != null ? session.getPriority() : CallPriority.NORMAL);
+        call.setContentSha256(contentSha256);
+        call = callRepository.save(call);
+        claimContent(call);
+        UUID callId = call.getId();
+
+        log.info("Assembling {} parts of upload {} for callId: {}", parts.size(), session.getId(), callId);
+
+        String audioFileUrl = storageService.composeFile(callId, parts, session.getContentType(), fileExtension);
+
+        recordStoredAudio(call, audioFileUrl, totalSize, fileExtension, session.getContentType());
+        applyAudioProperties(call, probeStoredAudio(call.getObjectKey(), fileExtension, totalSize));
+        call = callRepository.save(call);
+
+        publishCallReceivedEvent(call, fileExtension, totalSize);
+
+        return call;
+    }
+
     /**
      * Get call status by call ID
      *
@@ -112,9 +363,242 @@ public class CallIngestionService {
     }
 
     /**
-     * Publish CallReceived event to Kafka
+     * Locate the stored audio of a call. Served from {@link AudioMetadataCache} when possible,
+     * otherwise from the object key persisted on the call, so no MinIO round trip is needed.
+     * Calls stored before keys were persisted fall back to the upload URL and a statObject.
+     *
+     * @param callId UUID of the call
+     * @return object metadata, or empty if the call or its audio does not exist
+     */
+    public Optional<StorageService.StoredObject> getStoredAudio(UUID callId) {
+        StorageService.StoredObject cached = audioMetadataCache.get(callId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        Optional<StorageService.StoredObject> stored = callRepository.findById(callId).flatMap(call -> {
+            if (call.getObjectKey() != null) {
+                // Audio is immutable per call: the content digest (or the callId) is a strong validator
+                String etag = call.getContentSha256() != null ? call.getContentSha256() : call.getId().toString();
+                return Optional.of(new StorageService.StoredObject(call.getObjectKey(), call.getFileSizeBytes(),
+                    etag, call.getCreatedAt(), call.getContentType()));
+            }
+            String objectName = storageService.objectNameFromUrl(call.getAudioFileUrl());
+            return objectName != null ? storageService.statFile(objectName) : Optional.empty();
+        });
+
+        stored.ifPresent(object -> audioMetadataCache.put(callId, object));
+        return stored;
+    }
+
+    /**
+     * Whether the recording of a call was uploaded as {@code format} and stored re-encoded
+     * (PCM WAV kept as FLAC), so it has to be decoded to be served in that format
+     */
+    public boolean isTranscodedFrom(UUID callId, AudioFormat format) {
+        return callRepository.findById(callId)
+            .map(Call::getOriginalFormat)
+            .filter(format.getExtension()::equalsIgnoreCase)
+            .isPresent();
+    }
+
+    /**
+     * Open a transcoded recording in its upload format; the stored FLAC is decoded back to WAV as it is read
+     *
+     * @param object stored FLAC object of the call
+     */
+    public InputStream openOriginalAudio(StorageService.StoredObject object) throws IOException {
+        return new FlacToWavStream(storageService.downloadFile(object.objectName(), 0, null));
+    }
+
+    /**
+     * Wrap an upload in a WAV to FLAC transcoder when transcoding is enabled and the upload is WAV.
+     * The transcoder reads the WAV header; recordings that are not integer PCM pass through it unchanged.
+     *
+     * @return the transcoder, or null if the upload is stored as-is
+     */
+    private WavToFlacStream openFlacTranscoder(String fileExtension, InputStream content) throws IOException {
+        if (!flacTranscodingEnabled || !AudioFormat.WAV.getExtension().equalsIgnoreCase(fileExtension)) {
+            return null;
+        }
+        return WavToFlacStream.open(content);
+    }
+
+    private String storeAsFlac(UUID callId, WavToFlacStream flac) {
+        // The encoded size is only known at the end, so MinIO gets a multipart upload of unknown length
+        return storageService.uploadStream(
+            callId, flac, AudioFormat.FLAC.getContentType(), -1, AudioFormat.FLAC.getExtension());
+    }
+
+    private void recordTranscodedAudio(Call call, String audioFileUrl, WavToFlacStream flac, String originalFormat) {
+        recordStoredAudio(call, audioFileUrl, flac.getBytesWritten(), AudioFormat.FLAC.getExtension(),
+            AudioFormat.FLAC.getContentType());
+        call.setOriginalFormat(originalFormat.toLowerCase());
+    }
+
+    /**
+     * Record where and what was stored, so reads never have to re-derive the object key
+     */
+    private void recordStoredAudio(Call call, String audioFileUrl, long size, String fileExtension,
+                                   String contentType) {
+        call.setAudioFileUrl(audioFileUrl);
+        call.setObjectKey(storageService.objectNameFromUrl(audioFileUrl));
+        call.setFileSizeBytes(size);
+        call.setFileFormat(fileExtension);
+        call.setContentType(contentType);
+    }
+
+    /**
+     * Probe an object that never streamed through this service (assembled from parts in MinIO)
+     * from ranged reads of its head and tail. Best effort: failures leave the properties unknown.
+     */
+    private AudioProperties probeStoredAudio(String objectKey, String fileExtension, long size) {
+        Optional<AudioFormat> format = AudioFormat.fromExtension(fileExtension);
+        if (objectKey == null || format.isEmpty()) {
+            return AudioProperties.UNKNOWN;
+        }
+        AudioHeaderProbe probe = new AudioHeaderProbe(format.get());
+        long headLength = Math.min(size, AudioHeaderProbe.HEAD_BYTES);
+        long tailLength = Math.min(size - headLength, AudioHeaderProbe.TAIL_BYTES);
+
+        try {
+            try (InputStream head = storageService.downloadFile(objectKey, 0, headLength)) {
+                byte[] bytes = head.readAllBytes();
+                probe.update(bytes, 0, bytes.length);
+            }
+            probe.skip(size - headLength - tailLength);
+            if (tailLength > 0) {
+                try (InputStream tail = storageService.downloadFile(objectKey, size - tailLength, tailLength)) {
+                    byte[] bytes = tail.readAllBytes();
+                    probe.update(bytes, 0, bytes.length);
+                }
+            }
+            return probe.finish();
+        } catch (Exception e) {
+            log.warn("Could not probe audio header of {}", objectKey, e);
+            return AudioProperties.UNKNOWN;
+        }
+    }
+
+    private void applyAudioProperties(Call call, AudioProperties properties) {
+        call.setDuration(properties.durationSeconds());
+        call.setSampleRate(properties.sampleRate());
+        call.setBitDepth(properties.bitDepth());
+        call.setChannelCount(properties.channels());
+    }
+
+    /**
+     * The original call for a recording, flagged as a duplicate. Used to answer an upload that lost the
+     * race for its digest with {@link DuplicateRecordingException}, once its own transaction has rolled back.
+     *
+     * @param contentSha256 hex SHA-256 of the recording
+     * @return the call that holds the digest, if any
+     */
+    public Optional<Call> findOriginal(String contentSha256) {
+        return findDuplicate(contentSha256);
+    }
+
+    /**
+     * Flush a call that now carries its content digest. The lookup in {@link #findDuplicate} cannot see an
+     * identical upload still in flight; the unique index can, and flushing here surfaces the conflict as a
+     * {@link DuplicateRecordingException} instead of a failed commit.
+     */
+    private void claimContent(Call call) {
+        try {
+            callRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            if (!String.valueOf(e.getMostSpecificCause().getMessage()).contains(CONTENT_SHA256_INDEX)) {
+                throw e;
+            }
+            log.info("Recording was ingested concurrently (sha256={}), dropping this copy", call.getContentSha256());
+            throw new DuplicateRecordingException(call.getContentSha256(), e);
+        }
+    }
+
+    /**
+     * Look up an existing call with the same audio content.
+     * A hit is flagged as a duplicate and no event is published for it, so the
+     * downstream pipeline (transcription, sentiment, VoC, audit) is not re-run.
+     */
+    private Optional<Call> findDuplicate(String contentSha256) {
+        Optional<Call> existing = callRepository.findFirstByContentSha256OrderByCreatedAtAsc(contentSha256);
+        existing.ifPresent(call -> {
+            call.setDuplicate(true);
+            log.info("Recording already ingested as callId: {} (sha256={}), skipping", call.getId(), contentSha256);
+        });
+        return existing;
+    }
+
+    /**
+     * SHA-256 of an uploaded file. Multipart uploads are already spooled locally,
+     * so hashing before storing lets duplicates skip the MinIO write entirely.
+     * The same pass feeds the header probe.
+     */
+    private String computeSha256(MultipartFile file, AudioHeaderProbe probe) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+                probe.update(buffer, 0, read);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private ChannelLayout resolveChannelLayout(ChannelLayout requested) {
+        if (requested != null) {
+            return requested;
+        }
+        return defaultChannelLayout != null ? defaultChannelLayout : ChannelLayout.MIXED;
+    }
+
+    /**
+     * Save a new call with a placeholder URL so the generated ID can name the audio object
+     */
+    private Call createPendingCall(String callerId, String agentId, CallChannel channel, ChannelLayout channelLayout,
+                                   CallPriority priority) {
+        return callRepository.save(Call.builder()
+            .callerId(callerId)
+            .agentId(agentId)
+            .channel(channel)
+            .channelLayout(channelLayout)
+            .priority(priority)
+            .startTime(Instant.now())
+            .audioFileUrl("pending") // Temporary placeholder
+            .status(CallStatus.PENDING)
+            .correlationId(UUID.randomUUID())
+            .build());
+    }
+
+    /**
+     * Queue CallReceived event in the outbox; it is published to Kafka once the transaction commits.
+     * Calls that need speech detection, a speaker split or chunking are only flagged here; their event
+     * is queued by {@link CallPreparationService} after the commit, with the results attached.
      */
     private void publishCallReceivedEvent(Call call, String audioFormat, long audioFileSize) {
+        if (callPreparationService.needsPreparation(call)) {
+            call.setPreparationPending(true);
+            callRepository.save(call);
+            callPreparationService.prepareAfterCommit(call.getId());
+            log.info("Deferring CallReceived event for callId: {} until its audio is prepared", call.getId());
+            return;
+        }
+
+        CallReceivedEvent event = buildCallReceivedEvent(call, audioFormat, audioFileSize);
+        String topic = call.getPriority() == CallPriority.HIGH ? callReceivedPriorityTopic : callReceivedTopic;
+        log.info("Queueing CallReceived event: eventId={}, callId={}, topic={}", event.getEventId(), call.getId(), topic);
+
+        outboxService.enqueue(topic, call.getId().toString(), call.getId(), event.getEventType(), event);
+    }
+
+    /**
+     * Build the CallReceived event for a stored call
+     */
+    static CallReceivedEvent buildCallReceivedEvent(Call call, String audioFormat, long audioFileSize) {
         UUID eventId = UUID.randomUUID();
 
         CallReceivedEvent.Payload payload = CallReceivedEvent.Payload.builder()
@@ -126,13 +610,18 @@ public class CallIngestionService {
             .audioFileUrl(call.getAudioFileUrl())
             .audioFormat(audioFormat)
             .audioFileSize(audioFileSize)
+            .durationSeconds(call.getDuration())
+            .sampleRate(call.getSampleRate())
+            .bitDepth(call.getBitDepth())
+            .channelCount(call.getChannelCount())
             .build();
 
         Map<String, Object> metadata = new HashMap<>();
         metadata.put("userId", "system");
         metadata.put("service", "call-ingestion-service");
+        metadata.put("priority", call.getPriority().name()); // carried forward on every downstream event
 
-        CallReceivedEvent event = CallReceivedEvent.builder()
+        return CallReceivedEvent.builder()
             .eventId(eventId)
             .eventType("CallReceived")
             .aggregateId(call.getId())
@@ -144,17 +633,6 @@ public class CallIngestionService {
             .metadata(metadata)
             .payload(payload)
             .build();
-
-        log.info("Publishing CallReceived event to Kafka: eventId={}, callId={}", eventId, call.getId());
-
-        kafkaTemplate.send(callReceivedTopic, call.getId().toString(), event)
-            .whenComplete((result, ex) -> {
-                if (ex != null) {
-                    log.error("Failed to publish CallReceived event for callId: {}", call.getId(), ex);
-                } else {
-                    log.info("Successfully published CallReceived event for callId: {}", call.getId());
-                }
-            });
     }
 
     /**
@@ -179,8 +657,7 @@ public class CallIngestionService {
         }
 
         // Validate file size (max 100MB as configured in application.yml)
-        long maxSize = 100 * 1024 * 1024; // 100MB
-        if (file.getSize() > maxSize) {
+        if (file.getSize() > MAX_FILE_SIZE_BYTES) {
             throw new IllegalArgumentException(
                 "File size exceeds maximum allowed size of 100MB"
             );
@@ -203,4 +680,18 @@ public class CallIngestionService {
     private boolean isValidAudioExtension(String extension) {
         return extension.matches("(?i)(wav|mp3|m4a|flac|ogg)");
     }
+
+    /**
+     * Thrown when a concurrent upload of the same recording committed first. The transaction is rolled back;
+     * callers answer with {@link #findOriginal(String)} as for any other duplicate.
+     */
+    @Getter
+    public static class DuplicateRecordingException extends RuntimeException {
+        private final String contentSha256;
+
+        public DuplicateRecordingException(String contentSha256, Throwable cause) {
+            super("Recording already ingested (sha256=" + contentSha256 + ")", cause);
+            this.contentSha256 = contentSha256;
+        }
+    }
 }
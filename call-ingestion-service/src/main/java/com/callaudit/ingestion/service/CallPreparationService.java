@@ -0,0 +1,189 @@
+package com.callaudit.ingestion.service;
+
+import com.callaudit.ingestion.event.CallReceivedEvent;
+import com.callaudit.ingestion.model.Call;
+import com.callaudit.ingestion.model.CallPriority;
+import com.callaudit.ingestion.repository.CallRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Prepares stored recordings after their upload has committed: speech detection, speaker split and
+ * chunking all read the audio back from MinIO and store derivatives next to it.
+ * <p>
+ * An upload that needs any of them only flags the call ({@code core.calls.preparation_pending}) and
+ * returns, so the request does not hold a database connection while the audio is re-read, and a rolled
+ * back upload leaves no derivatives behind. Once the transaction commits, a worker downloads the
+ * recording once, runs the steps against that local copy and queues CallReceived, carrying their
+ * results, in the outbox. Calls whose preparation never finished (the instance stopped) are picked up
+ * again by a periodic sweep.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CallPreparationService {
+
+    private final CallRepository callRepository;
+    private final OutboxService outboxService;
+    private final SpeechDetectionService speechDetectionService;
+    private final SpeakerSplitService speakerSplitService;
+    private final CallChunkingService callChunkingService;
+    private final StorageService storageService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${kafka.topics.call-received}")
+    private String callReceivedTopic;
+
+    @Value("${kafka.topics.call-received-priority:calls.received.priority}")
+    private String callReceivedPriorityTopic;
+
+    @Value("${ingestion.preparation.concurrency:2}")
+    private int concurrency;
+
+    @Value("${ingestion.preparation.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${ingestion.preparation.stalled-after-ms:300000}")
+    private long stalledAfterMs;
+
+    private ThreadPoolExecutor workers;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        workers = new ThreadPoolExecutor(
+            concurrency, concurrency, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "call-preparation-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            (runnable, executor) -> log.warn("Call preparation queue full; the sweep will pick the call up"));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (workers != null) {
+            workers.shutdown();
+        }
+    }
+
+    /**
+     * Whether any preparation step applies to a stored call. Cheap: looks at the call only.
+     */
+    public boolean needsPreparation(Call call) {
+        return speechDetectionService.applies(call)
+            || speakerSplitService.applies(call)
+            || callChunkingService.applies(call);
+    }
+
+    /**
+     * Hand a flagged call to a worker once the current transaction commits (right away if there is none)
+     */
+    public void prepareAfterCommit(UUID callId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            submit(callId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                submit(callId);
+            }
+        });
+    }
+
+    /**
+     * Run the preparation steps for a call and queue its CallReceived event.
+     * A no-op if the call is gone or already prepared; if two workers race, only one publishes.
+     *
+     * @param callId UUID of a call flagged for preparation
+     */
+    public void prepare(UUID callId) {
+        Optional<Call> found = callRepository.findById(callId);
+        if (found.isEmpty() || !found.get().isPreparationPending()) {
+            return;
+        }
+        Call call = found.get();
+
+        CallReceivedEvent event = CallIngestionService.buildCallReceivedEvent(
+            call, call.getFileFormat(), call.getFileSizeBytes() != null ? call.getFileSizeBytes() : 0);
+        Optional<CallChunkingService.ChunkedRecording> chunked = Optional.empty();
+        if (needsPreparation(call)) {
+            // Best effort, outside any transaction: each step logs and skips itself on failure.
+            // The recording is downloaded once and every step re-reads the local copy.
+            try (StoredAudio.LocalCopy audio = StoredAudio.download(storageService, call)) {
+                speechDetectionService.detect(call, audio).ifPresent(detected -> {
+                    event.getPayload().setSpeechRegions(detected.regions());
+                    event.getPayload().setSpeechMillis(detected.speechMillis());
+                    event.getPayload().setTrimmedAudioFileUrl(detected.trimmedAudioFileUrl());
+                });
+                speakerSplitService.split(call, audio).ifPresent(tracks -> event.getPayload().setSpeakerAudio(tracks));
+                chunked = callChunkingService.split(call, audio);
+                chunked.ifPresent(recording -> event.getPayload().setChunks(recording.manifest()));
+            } catch (IOException | RuntimeException e) {
+                log.warn("Could not read back callId: {}, publishing it unprepared", call.getId(), e);
+            }
+        }
+        Optional<CallChunkingService.ChunkedRecording> chunks = chunked;
+
+        String topic = call.getPriority() == CallPriority.HIGH ? callReceivedPriorityTopic : callReceivedTopic;
+        Boolean published = transactionTemplate.execute(tx -> {
+            if (callRepository.finishPreparation(callId) == 0) {
+                return false;
+            }
+            outboxService.enqueue(topic, callId.toString(), callId, event.getEventType(), event);
+            chunks.ifPresent(recording -> callChunkingService.publishChunkEvents(call, recording, event.getEventId()));
+            return true;
+        });
+
+        if (Boolean.TRUE.equals(published)) {
+            log.info("Prepared callId: {}, queued CallReceived event: eventId={}, topic={}",
+                     callId, event.getEventId(), topic);
+        } else {
+            log.debug("CallId: {} was prepared by another worker", callId);
+        }
+    }
+
+    private void submit(UUID callId) {
+        workers.execute(() -> {
+            try {
+                prepare(callId);
+            } catch (Exception e) {
+                log.warn("Could not prepare callId: {}, the sweep will retry", callId, e);
+            }
+        });
+    }
+
+    /**
+     * Re-run preparation for calls flagged longer than {@code stalled-after-ms} ago
+     */
+    @Scheduled(fixedDelayString = "${ingestion.preparation.sweep-interval-ms:60000}")
+    public void prepareStalled() {
+        Instant cutoff = Instant.now().minusMillis(stalledAfterMs);
+        for (Call call : callRepository.findTop100ByPreparationPendingTrueAndUpdatedAtBefore(cutoff)) {
+            try {
+                prepare(call.getId());
+            } catch (Exception e) {
+                log.warn("Could not prepare callId: {}, will retry", call.getId(), e);
+            }
+        }
+    }
+}
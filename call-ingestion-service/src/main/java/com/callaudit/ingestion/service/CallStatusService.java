@@ -0,0 +1,263 @@
+package com.callaudit.ingestion.service;
+
+import com.callaudit.ingestion.model.Call;
+import com.callaudit.ingestion.model.CallChannel;
+import com.callaudit.ingestion.model.CallStatus;
+import com.callaudit.ingestion.repository.CallRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Status projection of calls, advanced by the events downstream services publish.
+ *
+ * Status reads are served from a bounded in-process LRU, falling back to PostgreSQL on a miss.
+ * Pipeline events are applied twice, by separate consumers: {@link #advanceStatus} moves
+ * {@code core.calls.status} forward with a conditional update (once per event, from a group shared by
+ * all instances), so replayed or out-of-order events never move a call back; {@link #onPipelineEvent}
+ * updates this instance's projection and pushes to its Server-Sent Events subscribers.
+ *
+ * Event to status:
+ * - CallTranscribed, SentimentAnalyzed, VocAnalyzed: ANALYZING
+ * - CallAudited: COMPLETED
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CallStatusService {
+
+    public static final String SSE_EVENT_NAME = "status";
+
+    private final CallIngestionService callIngestionService;
+    private final CallRepository callRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ingestion.status.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${ingestion.status.sse-timeout-ms:1800000}")
+    private long sseTimeoutMs;
+
+    private final Map<UUID, Snapshot> snapshots = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, Snapshot> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    private final Map<UUID, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("ingestion.status.subscribers", subscribers,
+                s -> s.values().stream().mapToInt(List::size).sum())
+            .description("Open call status streams")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Current status of a call, from the projection or, on a miss, from the database
+     *
+     * @param callId UUID of the call
+     * @return status, or empty if the call does not exist
+     */
+    public Optional<Snapshot> getStatus(UUID callId) {
+        Snapshot cached = cached(callId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<Snapshot> loaded = callIngestionService.getCallStatus(callId).map(Snapshot::from);
+        loaded.ifPresent(snapshot -> cache(snapshot, false));
+        return loaded;
+    }
+
+    /**
+     * Open a stream of status transitions for a call. The current status is sent first; the stream
+     * completes after COMPLETED or FAILED.
+     *
+     * @param callId UUID of the call
+     * @return the emitter, or empty if the call does not exist
+     */
+    public Optional<SseEmitter> subscribe(UUID callId) {
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        // Registered before reading the status, so a transition in between is not lost
+        subscribers.computeIfAbsent(callId, id -> new CopyOnWriteArrayList<>()).add(emitter);
+        emitter.onCompletion(() -> unsubscribe(callId, emitter));
+        emitter.onTimeout(() -> unsubscribe(callId, emitter));
+        emitter.onError(e -> unsubscribe(callId, emitter));
+
+        Optional<Snapshot> current = getStatus(callId);
+        if (current.isEmpty()) {
+            unsubscribe(callId, emitter);
+            return Optional.empty();
+        }
+        send(callId, emitter, current.get());
+        return Optional.of(emitter);
+    }
+
+    /**
+     * Apply a pipeline event to the call's status in the database
+     *
+     * @param callId    aggregateId of the event
+     * @param eventType e.g. "CallTranscribed"; types that do not affect status are ignored
+     */
+    public void advanceStatus(UUID callId, String eventType) {
+        CallStatus status = statusFor(eventType);
+        if (status == null) {
+            return;
+        }
+
+        Instant now = Instant.now();
+        List<CallStatus> preceding = Arrays.stream(CallStatus.values())
+            .filter(s -> s != CallStatus.FAILED && s.ordinal() < status.ordinal())
+            .toList();
+        Integer updated = transactionTemplate.execute(tx ->
+            callRepository.advanceStatus(callId, status, preceding, now));
+        if (updated != null && updated > 0) {
+            log.debug("Call {} advanced to {} by {}", callId, status, eventType);
+        }
+    }
+
+    /**
+     * Apply a pipeline event to this instance's projection and notify the call's subscribers
+     *
+     * @param callId    aggregateId of the event
+     * @param eventType e.g. "CallTranscribed"; types that do not affect status are ignored
+     */
+    public void onPipelineEvent(UUID callId, String eventType) {
+        CallStatus status = statusFor(eventType);
+        if (status == null) {
+            return;
+        }
+
+        Instant now = Instant.now();
+        Snapshot previous = cached(callId);
+        if (previous == null) {
+            if (!subscribers.containsKey(callId)) {
+                return; // nobody is watching; the next read loads the new status from the database
+            }
+            previous = callIngestionService.getCallStatus(callId).map(Snapshot::from).orElse(null);
+            if (previous == null) {
+                return;
+            }
+        }
+        Snapshot next = previous.advance(status, eventType, now);
+        if (next == previous) {
+            return;
+        }
+        cache(next, true);
+        publish(next);
+    }
+
+    /**
+     * Status a pipeline event moves a call to, or null if it does not affect status
+     */
+    static CallStatus statusFor(String eventType) {
+        if (eventType == null) {
+            return null;
+        }
+        return switch (eventType) {
+            case "CallTranscribed", "SentimentAnalyzed", "VocAnalyzed" -> CallStatus.ANALYZING;
+            case "CallAudited" -> CallStatus.COMPLETED;
+            default -> null;
+        };
+    }
+
+    private void publish(Snapshot snapshot) {
+        List<SseEmitter> emitters = subscribers.get(snapshot.callId());
+        if (emitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : emitters) {
+            send(snapshot.callId(), emitter, snapshot);
+        }
+    }
+
+    private void send(UUID callId, SseEmitter emitter, Snapshot snapshot) {
+        try {
+            emitter.send(SseEmitter.event()
+                .name(SSE_EVENT_NAME)
+                .data(snapshot, MediaType.APPLICATION_JSON));
+            if (snapshot.isTerminal()) {
+                emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away, or the emitter already completed
+            log.debug("Dropping status subscriber for call {}: {}", callId, e.getMessage());
+            unsubscribe(callId, emitter);
+        }
+    }
+
+    private void unsubscribe(UUID callId, SseEmitter emitter) {
+        subscribers.computeIfPresent(callId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    private synchronized Snapshot cached(UUID callId) {
+        return snapshots.get(callId);
+    }
+
+    /**
+     * @param replace false to keep an entry a concurrent event already advanced
+     */
+    private synchronized void cache(Snapshot snapshot, boolean replace) {
+        if (replace) {
+            snapshots.put(snapshot.callId(), snapshot);
+        } else {
+            snapshots.putIfAbsent(snapshot.callId(), snapshot);
+        }
+    }
+
+    /**
+     * Point-in-time status of a call
+     *
+     * @param stage last pipeline event applied, e.g. "SentimentAnalyzed"; null until the first one
+     */
+    public record Snapshot(UUID callId, CallStatus status, String stage, String callerId, String agentId,
+                           CallChannel channel, Instant startTime, String audioFileUrl,
+                           Instant createdAt, Instant updatedAt) {
+
+        static Snapshot from(Call call) {
+            return new Snapshot(call.getId(), call.getStatus(), null, call.getCallerId(), call.getAgentId(),
+                call.getChannel(), call.getStartTime(), call.getAudioFileUrl(), call.getCreatedAt(),
+                call.getUpdatedAt());
+        }
+
+        public boolean isTerminal() {
+            return status == CallStatus.COMPLETED || status == CallStatus.FAILED;
+        }
+
+        /**
+         * This snapshot after an event; unchanged (the same instance) if the event is stale
+         */
+        Snapshot advance(CallStatus next, String eventType, Instant at) {
+            if (isTerminal() || next.ordinal() < status.ordinal()
+                    || (next == status && eventType.equals(stage))) {
+                return this;
+            }
+            return new Snapshot(callId, next, eventType, callerId, agentId, channel, startTime, audioFileUrl,
+                createdAt, at);
+        }
+    }
+}
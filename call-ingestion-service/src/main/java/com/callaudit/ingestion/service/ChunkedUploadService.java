@@ -0,0 +1,542 @@
+package com.callaudit.ingestion.service;
+
+import com.callaudit.ingestion.audio.AudioFormat;
+import com.callaudit.ingestion.audio.AudioUploadStream;
+import com.callaudit.ingestion.model.Call;
+import com.callaudit.ingestion.model.CallChannel;
+import com.callaudit.ingestion.model.CallPriority;
+import com.callaudit.ingestion.model.UploadSession;
+import com.callaudit.ingestion.model.UploadSessionStatus;
+import com.callaudit.ingestion.repository.UploadSessionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Resumable uploads for large recordings or flaky links.
+ *
+ * A client opens a session, PUTs the file in numbered parts (in any order, in parallel,
+ * re-sending any part that failed) and then completes the session. Parts are staged in
+ * MinIO and stitched together server-side on completion, so a dropped connection only
+ * costs the part that was in flight.
+ *
+ * The content SHA-256 used for de-duplication is computed as the parts go by: while parts
+ * arrive here in order, each one extends a running digest of the session. Sessions whose
+ * parts came out of order, were re-sent, went through presigned URLs or were received by
+ * another instance are hashed by reading the staged parts back once on completion.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChunkedUploadService {
+
+    /**
+     * S3 multipart limit: every part except the last must be at least 5MB
+     */
+    public static final long MIN_PART_SIZE_BYTES = 5L * 1024 * 1024;
+
+    /**
+     * S3 multipart limit on the number of parts
+     */
+    public static final int MAX_PART_NUMBER = 10_000;
+
+    private final UploadSessionRepository uploadSessionRepository;
+    private final StorageService storageService;
+    private final CallIngestionService callIngestionService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${ingestion.chunked-upload.session-ttl-hours:24}")
+    private long sessionTtlHours;
+
+    @Value("${ingestion.chunked-upload.completion-timeout-ms:600000}")
+    private long completionTimeoutMs;
+
+    /**
+     * Running digest of the parts received in order so far, per upload session
+     */
+    private final Map<UUID, StagedDigest> stagedDigests = new ConcurrentHashMap<>();
+
+    /**
+     * Open a new upload session
+     *
+     * @param filename original filename, used for the extension
+     * @param contentType MIME type sent by the client (may be null or generic)
+     * @param callerId caller's phone number or ID
+     * @param agentId agent's ID
+     * @param channel call channel (INBOUND, OUTBOUND, INTERNAL)
+     * @return the created session
+     */
+    @Transactional
+    public UploadSession initiate(String filename, String contentType, String callerId, String agentId,
+                                  CallChannel channel) {
+        return initiate(filename, contentType, callerId, agentId, channel, null);
+    }
+
+    /**
+     * Open a new upload session
+     *
+     * @param filename original filename, used for the extension
+     * @param contentType MIME type sent by the client (may be null or generic)
+     * @param callerId caller's phone number or ID
+     * @param agentId agent's ID
+     * @param channel call channel (INBOUND, OUTBOUND, INTERNAL)
+     * @param priority processing lane of the resulting call (null means NORMAL)
+     * @return the created session
+     */
+    @Transactional
+    public UploadSession initiate(String filename, String contentType, String callerId, String agentId,
+                                  CallChannel channel, CallPriority priority) {
+        AudioFormat format = AudioFormat.fromFilename(filename);
+
+        if (contentType == null || contentType.isBlank()
+                || contentType.startsWith("application/octet-stream")) {
+            contentType = format.getContentType();
+        }
+
+        UploadSession session = uploadSessionRepository.save(UploadSession.builder()
+            .filename(filename)
+            .contentType(contentType)
+            .callerId(callerId)
+            .agentId(agentId)
+            .channel(channel)
+            .priority(priority != null ? priority : CallPriority.NORMAL)
+            .build());
+
+        log.info("Opened upload session {} for callerId: {}, agentId: {}, filename: {}",
+                 session.getId(), callerId, agentId, filename);
+
+        return session;
+    }
+
+    /**
+     * Stage one part of an upload. Part 1 must start with the audio signature
+     * implied by the filename. Re-sending a part replaces it.
+     *
+     * @param uploadId upload session ID
+     * @param partNumber 1-based part number
+     * @param body raw part stream, read exactly once
+     * @param contentLength declared part length, or -1 if unknown
+     * @return the staged part with its size
+     */
+    public StorageService.UploadPart uploadPart(UUID uploadId, int partNumber, InputStream body, long contentLength) {
+        UploadSession session = getActiveSession(uploadId);
+
+        if (partNumber < 1 || partNumber > MAX_PART_NUMBER) {
+            throw new IllegalArgumentException("Part number must be between 1 and " + MAX_PART_NUMBER);
+        }
+        if (contentLength == 0) {
+            throw new IllegalArgumentException("Part cannot be empty");
+        }
+        if (contentLength > CallIngestionService.MAX_FILE_SIZE_BYTES) {
+            throw new IllegalArgumentException("File size exceeds maximum allowed size of 100MB");
+        }
+
+        StagedDigest running = stagedDigests.computeIfAbsent(uploadId, id -> new StagedDigest());
+        MessageDigest extended = running.extend(partNumber);
+        InputStream source = extended != null ? new DigestInputStream(body, extended) : body;
+
+        try {
+            AudioUploadStream partStream = new AudioUploadStream(source, CallIngestionService.MAX_FILE_SIZE_BYTES);
+            if (partNumber == 1) {
+                partStream.verifySignature(AudioFormat.fromFilename(session.getFilename()));
+            }
+
+            StorageService.UploadPart staged;
+            try {
+                staged = storageService.uploadPart(uploadId, partNumber, partStream, contentLength);
+            } catch (RuntimeException e) {
+                if (partStream.isLimitExceeded()) {
+                    throw new IllegalArgumentException("File size exceeds maximum allowed size of 100MB");
+                }
+                throw e;
+            }
+
+            if (partStream.getBytesRead() == 0) {
+                throw new IllegalArgumentException("Part cannot be empty");
+            }
+
+            if (extended != null) {
+                running.advance(partNumber, extended, partStream.getBytesRead());
+            }
+
+            log.debug("Received part {} ({} bytes) of upload {}", partNumber, partStream.getBytesRead(), uploadId);
+
+            return new StorageService.UploadPart(
+                partNumber, staged.objectName(), partStream.getBytesRead(), staged.etag());
+
+        } catch (IOException e) {
+            log.error("Error reading part {} of upload {}", partNumber, uploadId, e);
+            throw new RuntimeException("Failed to upload part", e);
+        }
+    }
+
+    /**
+     * Hand out a presigned URL so the client can PUT a part straight to MinIO instead of
+     * through this service. The session is then completed with {@link #complete(UUID)} as usual.
+     *
+     * @param uploadId upload session ID
+     * @param partNumber 1-based part number
+     * @return presigned PUT URL for the part
+     * @throws StorageService.PresigningDisabledException if presigned URLs are disabled
+     */
+    public StorageService.PresignedUrl presignPart(UUID uploadId, int partNumber) {
+        getActiveSession(uploadId);
+
+        if (partNumber < 1 || partNumber > MAX_PART_NUMBER) {
+            throw new IllegalArgumentException("Part number must be between 1 and " + MAX_PART_NUMBER);
+        }
+
+        return storageService.presignPartUpload(uploadId, partNumber);
+    }
+
+    /**
+     * Look up a session
+     *
+     * @throws NoSuchElementException if the session does not exist
+     */
+    public UploadSession getSession(UUID uploadId) {
+        return uploadSessionRepository.findById(uploadId)
+            .orElseThrow(() -> new NoSuchElementException("Upload session not found: " + uploadId));
+    }
+
+    /**
+     * List the parts received so far, so a client can resume after a failure
+     */
+    public List<StorageService.UploadPart> listParts(UUID uploadId) {
+        getSession(uploadId);
+        return storageService.listParts(uploadId);
+    }
+
+    /**
+     * Assemble the staged parts into a call and publish CallReceived.
+     * Completing an already completed session returns the same call, so clients may retry safely.
+     *
+     * The session is claimed (ACTIVE to COMPLETING) in a short transaction of its own, so its row lock is
+     * not held while the parts are checked and composed in MinIO. If completion fails the session goes back
+     * to ACTIVE with its parts untouched; the parts are only deleted once the call has been committed.
+     *
+     * @param uploadId upload session ID
+     * @return created Call entity
+     */
+    public Call complete(UUID uploadId) {
+        UploadSession session = transactionTemplate.execute(tx -> claim(uploadId));
+
+        if (session.getStatus() == UploadSessionStatus.COMPLETED) {
+            log.info("Upload session {} already completed as callId: {}", uploadId, session.getCallId());
+            return callIngestionService.getCallStatus(session.getCallId())
+                .orElseThrow(() -> new IllegalStateException("Call for completed upload no longer exists"));
+        }
+
+        List<StorageService.UploadPart> parts;
+        long totalSize;
+        Call call;
+        try {
+            parts = storageService.listParts(uploadId);
+            totalSize = validateParts(parts);
+            verifyStagedSignature(session, parts.get(0));
+            String contentSha256 = contentSha256(uploadId, parts, totalSize);
+
+            call = completeAs(session, contentSha256, () ->
+                callIngestionService.processChunkedUpload(session, parts, totalSize, contentSha256));
+        } catch (RuntimeException e) {
+            transactionTemplate.executeWithoutResult(tx -> release(uploadId));
+            throw e;
+        }
+
+        stagedDigests.remove(uploadId);
+        storageService.removeParts(parts);
+
+        log.info("Completed upload session {} ({} parts, {} bytes) as callId: {}",
+                 uploadId, parts.size(), totalSize, call.getId());
+
+        return call;
+    }
+
+    /**
+     * Create the call and mark the session COMPLETED in one transaction. If an identical recording was
+     * committed concurrently, that transaction rolls back and the session completes as the original call.
+     */
+    private Call completeAs(UploadSession session, String contentSha256, Supplier<Call> createCall) {
+        try {
+            return transactionTemplate.execute(tx -> {
+                Call created = createCall.get();
+                markCompleted(session, created.getId());
+                return created;
+            });
+        } catch (CallIngestionService.DuplicateRecordingException e) {
+            Call original = callIngestionService.findOriginal(contentSha256).orElseThrow(() -> e);
+            transactionTemplate.executeWithoutResult(tx -> markCompleted(session, original.getId()));
+            return original;
+        }
+    }
+
+    private void markCompleted(UploadSession session, UUID callId) {
+        session.setStatus(UploadSessionStatus.COMPLETED);
+        session.setCallId(callId);
+        uploadSessionRepository.save(session);
+    }
+
+    /**
+     * Abandon an upload and delete its staged parts
+     *
+     * @param uploadId upload session ID
+     */
+    public void abort(UUID uploadId) {
+        transactionTemplate.executeWithoutResult(tx -> {
+            UploadSession session = uploadSessionRepository.findByIdForUpdate(uploadId)
+                .orElseThrow(() -> new NoSuchElementException("Upload session not found: " + uploadId));
+
+            if (session.getStatus() == UploadSessionStatus.COMPLETED
+                    || session.getStatus() == UploadSessionStatus.COMPLETING) {
+                throw new IllegalStateException("Upload session is already " + session.getStatus());
+            }
+
+            session.setStatus(UploadSessionStatus.ABORTED);
+            uploadSessionRepository.save(session);
+        });
+
+        stagedDigests.remove(uploadId);
+        storageService.removeParts(storageService.listParts(uploadId));
+
+        log.info("Aborted upload session {}", uploadId);
+    }
+
+    /**
+     * Expire sessions that were opened (or left mid-completion) more than {@code session-ttl-hours} ago
+     * and delete their staged parts, so abandoned uploads do not hold storage forever.
+     */
+    @Scheduled(fixedDelayString = "${ingestion.chunked-upload.sweep-interval-ms:900000}")
+    public void expireAbandonedSessions() {
+        Instant cutoff = Instant.now().minus(Duration.ofHours(sessionTtlHours));
+        List<UploadSession> stale = uploadSessionRepository.findTop100ByStatusInAndUpdatedAtBefore(
+            List.of(UploadSessionStatus.ACTIVE, UploadSessionStatus.COMPLETING), cutoff);
+
+        for (UploadSession candidate : stale) {
+            try {
+                Boolean expired = transactionTemplate.execute(tx -> expire(candidate.getId(), cutoff));
+                if (Boolean.TRUE.equals(expired)) {
+                    stagedDigests.remove(candidate.getId());
+                    storageService.removeParts(storageService.listParts(candidate.getId()));
+                    log.info("Expired abandoned upload session {}", candidate.getId());
+                }
+            } catch (Exception e) {
+                log.warn("Could not expire upload session {}", candidate.getId(), e);
+            }
+        }
+    }
+
+    /**
+     * Lock the session and move it to COMPLETING, or return it as is if it is already completed.
+     * A session stuck in COMPLETING for longer than {@code completion-timeout-ms} (its completer died)
+     * may be claimed again.
+     */
+    private UploadSession claim(UUID uploadId) {
+        UploadSession session = uploadSessionRepository.findByIdForUpdate(uploadId)
+            .orElseThrow(() -> new NoSuchElementException("Upload session not found: " + uploadId));
+
+        if (session.getStatus() == UploadSessionStatus.COMPLETED) {
+            return session;
+        }
+        boolean staleCompletion = session.getStatus() == UploadSessionStatus.COMPLETING
+            && session.getUpdatedAt() != null
+            && session.getUpdatedAt().isBefore(Instant.now().minusMillis(completionTimeoutMs));
+        if (session.getStatus() != UploadSessionStatus.ACTIVE && !staleCompletion) {
+            throw new IllegalStateException("Upload session is " + session.getStatus());
+        }
+
+        session.setStatus(UploadSessionStatus.COMPLETING);
+        uploadSessionRepository.save(session);
+        return session;
+    }
+
+    /**
+     * Put a session whose completion failed back to ACTIVE, so the client can fix its parts and retry
+     */
+    private void release(UUID uploadId) {
+        uploadSessionRepository.findByIdForUpdate(uploadId)
+            .filter(session -> session.getStatus() == UploadSessionStatus.COMPLETING)
+            .ifPresent(session -> {
+                session.setStatus(UploadSessionStatus.ACTIVE);
+                uploadSessionRepository.save(session);
+            });
+    }
+
+    /**
+     * @return true if the session was still unfinished and untouched since the cutoff, and is now EXPIRED
+     */
+    private boolean expire(UUID uploadId, Instant cutoff) {
+        return uploadSessionRepository.findByIdForUpdate(uploadId)
+            .filter(session -> session.getStatus() == UploadSessionStatus.ACTIVE
+                || session.getStatus() == UploadSessionStatus.COMPLETING)
+            .filter(session -> session.getUpdatedAt().isBefore(cutoff))
+            .map(session -> {
+                session.setStatus(UploadSessionStatus.EXPIRED);
+                uploadSessionRepository.save(session);
+                return true;
+            })
+            .orElse(false);
+    }
+
+    private UploadSession getActiveSession(UUID uploadId) {
+        UploadSession session = getSession(uploadId);
+        if (session.getStatus() != UploadSessionStatus.ACTIVE) {
+            throw new IllegalStateException("Upload session is " + session.getStatus());
+        }
+        return session;
+    }
+
+    /**
+     * Check part 1 starts with the expected audio signature. Parts sent through uploadPart
+     * were already checked, but presigned PUTs go straight to MinIO, so read the first bytes back.
+     */
+    private void verifyStagedSignature(UploadSession session, StorageService.UploadPart firstPart) {
+        AudioFormat format = AudioFormat.fromFilename(session.getFilename());
+        long headerLength = Math.min(AudioFormat.SIGNATURE_LENGTH, firstPart.size());
+
+        try (AudioUploadStream header = new AudioUploadStream(
+                storageService.downloadFile(firstPart.objectName(), 0, headerLength), headerLength)) {
+            header.verifySignature(format);
+        } catch (IOException e) {
+            log.error("Error reading first part of upload {}", session.getId(), e);
+            throw new RuntimeException("Failed to read uploaded parts", e);
+        }
+    }
+
+    /**
+     * SHA-256 of the assembled file. Taken from the running digest when it covers exactly the staged
+     * parts, otherwise computed by reading the staged parts back in order.
+     */
+    private String contentSha256(UUID uploadId, List<StorageService.UploadPart> parts, long totalSize) {
+        StagedDigest running = stagedDigests.get(uploadId);
+        String sha256 = running != null ? running.sha256(parts.size(), totalSize) : null;
+        if (sha256 != null) {
+            return sha256;
+        }
+
+        log.debug("Hashing the staged parts of upload {}", uploadId);
+        MessageDigest digest = newSha256();
+        for (StorageService.UploadPart part : parts) {
+            try (InputStream in = new DigestInputStream(
+                    storageService.downloadFile(part.objectName(), 0, null), digest)) {
+                in.transferTo(OutputStream.nullOutputStream());
+            } catch (IOException e) {
+                log.error("Error reading part {} of upload {}", part.partNumber(), uploadId, e);
+                throw new RuntimeException("Failed to read uploaded parts", e);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Digest of parts 1..N of a session, extended one part at a time. A part that arrives out of order
+     * or replaces one already digested breaks it for good, and completion falls back to reading the parts.
+     */
+    private static final class StagedDigest {
+        private MessageDigest digest = newSha256();
+        private int parts;
+        private long bytes;
+        private boolean broken;
+
+        /**
+         * @return a copy of the digest to feed the given part into, or null if it cannot extend this digest
+         */
+        synchronized MessageDigest extend(int partNumber) {
+            if (broken || partNumber != parts + 1) {
+                broken = true;
+                return null;
+            }
+            try {
+                return (MessageDigest) digest.clone();
+            } catch (CloneNotSupportedException e) {
+                broken = true;
+                return null;
+            }
+        }
+
+        /**
+         * Adopt the copy from {@link #extend(int)} once its part has been staged
+         */
+        synchronized void advance(int partNumber, MessageDigest extended, long size) {
+            if (broken || partNumber != parts + 1) {
+                broken = true;
+                return;
+            }
+            digest = extended;
+            parts = partNumber;
+            bytes += size;
+        }
+
+        synchronized String sha256(int partCount, long totalSize) {
+            if (broken || parts != partCount || bytes != totalSize) {
+                return null;
+            }
+            try {
+                return HexFormat.of().formatHex(((MessageDigest) digest.clone()).digest());
+            } catch (CloneNotSupportedException e) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Check the staged parts form a complete file: numbered 1..N without gaps,
+     * every part but the last at least 5MB, and the total within the size cap
+     *
+     * @return total size in bytes
+     */
+    private long validateParts(List<StorageService.UploadPart> parts) {
+        if (parts.isEmpty()) {
+            throw new IllegalArgumentException("No parts have been uploaded");
+        }
+
+        long totalSize = 0;
+        for (int i = 0; i < parts.size(); i++) {
+            StorageService.UploadPart part = parts.get(i);
+            if (part.partNumber() != i + 1) {
+                throw new IllegalArgumentException("Missing part " + (i + 1));
+            }
+            if (part.size() == 0) {
+                throw new IllegalArgumentException("Part " + part.partNumber() + " is empty");
+            }
+            boolean last = i == parts.size() - 1;
+            if (!last && part.size() < MIN_PART_SIZE_BYTES) {
+                throw new IllegalArgumentException(
+                    "Part " + part.partNumber() + " is smaller than the 5MB minimum (only the last part may be smaller)");
+            }
+            totalSize += part.size();
+        }
+
+        if (totalSize > CallIngestionService.MAX_FILE_SIZE_BYTES) {
+            throw new IllegalArgumentException("File size exceeds maximum allowed size of 100MB");
+        }
+        return totalSize;
+    }
+}
@@ -0,0 +1,454 @@
+package com.callaudit.ingestion.service;
+
+import com.callaudit.ingestion.audio.AudioFormat;
+import com.callaudit.ingestion.model.Call;
+import com.callaudit.ingestion.model.CallChannel;
+import com.callaudit.ingestion.model.CallPriority;
+import com.callaudit.ingestion.model.ChannelLayout;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Drop-folder ingestion: recordings written into watched directories are ingested automatically,
+ * through the same storage and event path as POST /api/calls/upload/stream.
+ *
+ * 1. A WatchService reports new and modified files; a periodic reconciliation lists the directories
+ *    as well, which catches events lost to overflow, restarts and NFS mounts that raise none
+ * 2. A file is ingested once its size and modification time stop changing for {@code settle-millis}
+ * 3. Up to {@code concurrency} files are ingested at a time
+ * 4. Metadata comes from a sidecar {@code <name>.json} next to the file, or from the file name
+ *    ({@code filename-pattern}, named groups callerId, agentId and optionally channel)
+ *
+ * Moving a file into {@code processed/} is the checkpoint; whatever is still in the directory is
+ * picked up again after a restart. Files are hashed before upload, so a file that was ingested but
+ * not yet moved when the service stopped is matched as a duplicate instead of being stored twice.
+ * Files that can never be ingested go to {@code failed/} with a {@code .error} note; storage or
+ * database errors leave the file in place for the next reconciliation, up to {@code max-attempts}
+ * tries, after which it goes to {@code failed/} as well. Attempts are counted in memory, so a restart
+ * gives every remaining file a fresh allowance.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DropFolderIngestionService {
+
+    static final String PROCESSED_DIR = "processed";
+    static final String FAILED_DIR = "failed";
+
+    // 20250101_120530_555-0123_agent-001_inbound.wav
+    static final String DEFAULT_FILENAME_PATTERN =
+        "^\\d{8}_\\d{6}_(?<callerId>[^_]+)_(?<agentId>[^_]+)_(?<channel>[A-Za-z]+)\\.\\w+$";
+
+    private final CallIngestionService callIngestionService;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ingestion.drop-folder.enabled:false}")
+    private boolean enabled;
+
+    @Value("${ingestion.drop-folder.directories:}")
+    private String[] directories;
+
+    @Value("${ingestion.drop-folder.concurrency:4}")
+    private int concurrency;
+
+    @Value("${ingestion.drop-folder.settle-millis:2000}")
+    private long settleMillis;
+
+    @Value("${ingestion.drop-folder.reconcile-interval-ms:30000}")
+    private long reconcileIntervalMs;
+
+    @Value("${ingestion.drop-folder.filename-pattern:}")
+    private String filenamePattern;
+
+    @Value("${ingestion.drop-folder.max-attempts:5}")
+    private int maxAttempts;
+
+    // Files seen but still settling, with their last observed size and modification time
+    private final Map<Path, Observation> pending = new ConcurrentHashMap<>();
+    private final Set<Path> inProgress = ConcurrentHashMap.newKeySet();
+    // Failed ingest attempts per file that is still in the directory
+    private final Map<Path, Integer> attempts = new ConcurrentHashMap<>();
+
+    private Pattern compiledFilenamePattern;
+    private List<Path> roots = List.of();
+    private ThreadPoolExecutor ingestExecutor;
+    private ScheduledExecutorService scheduler;
+    private Thread watcher;
+
+    @PostConstruct
+    void init() {
+        if (isBlank(filenamePattern)) {
+            filenamePattern = DEFAULT_FILENAME_PATTERN;
+        }
+        compiledFilenamePattern = Pattern.compile(filenamePattern);
+        Gauge.builder("ingestion.drop_folder.pending", pending, Map::size)
+            .description("Dropped files waiting for their writes to settle")
+            .register(meterRegistry);
+        Gauge.builder("ingestion.drop_folder.in_progress", inProgress, Set::size)
+            .description("Dropped files queued or being ingested")
+            .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            log.info("Drop-folder ingestion disabled");
+            return;
+        }
+
+        List<Path> watched = new ArrayList<>();
+        for (String directory : directories) {
+            if (directory.isBlank()) {
+                continue;
+            }
+            Path root = Path.of(directory.trim()).toAbsolutePath().normalize();
+            if (!Files.isDirectory(root)) {
+                log.error("Drop-folder directory does not exist, skipping: {}", root);
+                continue;
+            }
+            watched.add(root);
+        }
+        if (watched.isEmpty()) {
+            log.warn("Drop-folder ingestion enabled but no directory to watch (ingestion.drop-folder.directories)");
+            return;
+        }
+        roots = List.copyOf(watched);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ingestExecutor = new ThreadPoolExecutor(
+            concurrency, concurrency, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+            runnable -> daemon(runnable, "drop-folder-ingest-" + threadCount.incrementAndGet()));
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> daemon(runnable, "drop-folder-scan"));
+        scheduler.scheduleWithFixedDelay(this::reconcile, 0, reconcileIntervalMs, TimeUnit.MILLISECONDS);
+        long settleCheck = Math.max(settleMillis / 2, 100);
+        scheduler.scheduleWithFixedDelay(this::submitSettled, settleCheck, settleCheck, TimeUnit.MILLISECONDS);
+
+        watcher = daemon(this::watch, "drop-folder-watcher");
+        watcher.start();
+
+        log.info("Drop-folder ingestion watching {} with concurrency {}", roots, concurrency);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (watcher != null) {
+            watcher.interrupt();
+        }
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        if (ingestExecutor != null) {
+            ingestExecutor.shutdown();
+        }
+    }
+
+    /**
+     * Turn file system events into candidates; the scan thread decides when they are ready
+     */
+    private void watch() {
+        try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+            for (Path root : roots) {
+                root.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            }
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watchService.take();
+                Path directory = (Path) key.watchable();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        scheduler.execute(this::reconcile);
+                    } else {
+                        offer(directory.resolve((Path) event.context()));
+                    }
+                }
+                key.reset();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.error("Drop-folder watcher stopped, falling back to periodic reconciliation", e);
+        }
+    }
+
+    /**
+     * List every watched directory and offer what is there
+     */
+    void reconcile() {
+        for (Path root : roots) {
+            try (Stream<Path> files = Files.list(root)) {
+                files.forEach(this::offer);
+            } catch (IOException e) {
+                log.warn("Could not list drop-folder directory {}: {}", root, e.getMessage());
+            }
+        }
+    }
+
+    private void offer(Path file) {
+        if (!isCandidate(file) || inProgress.contains(file)) {
+            return;
+        }
+        try {
+            pending.putIfAbsent(file, Observation.of(file, System.nanoTime()));
+        } catch (IOException e) {
+            // Deleted or renamed before we looked at it
+        }
+    }
+
+    /**
+     * Hand over files whose size and modification time have not changed for settle-millis
+     */
+    void submitSettled() {
+        long now = System.nanoTime();
+        for (Map.Entry<Path, Observation> entry : pending.entrySet()) {
+            Path file = entry.getKey();
+            Observation current;
+            try {
+                current = Observation.of(file, now);
+            } catch (IOException e) {
+                pending.remove(file);
+                continue;
+            }
+            Observation previous = entry.getValue();
+            if (!current.sameContent(previous)) {
+                pending.put(file, current);
+            } else if (now - previous.sinceNanos() >= TimeUnit.MILLISECONDS.toNanos(settleMillis)) {
+                pending.remove(file);
+                if (inProgress.add(file)) {
+                    ingestExecutor.execute(() -> ingest(file));
+                }
+            }
+        }
+    }
+
+    /**
+     * Ingest one settled file and checkpoint it by moving it out of the watched directory
+     */
+    void ingest(Path file) {
+        try {
+            DropFileMetadata metadata = resolveMetadata(file);
+            String sha256 = sha256(file);
+
+            Call call;
+            try (InputStream body = Files.newInputStream(file)) {
+                call = callIngestionService.processStreamingUpload(
+                    body,
+                    file.getFileName().toString(),
+                    null,
+                    Files.size(file),
+                    sha256,
+                    metadata.callerId(),
+                    metadata.agentId(),
+                    metadata.channel(),
+                    metadata.channelLayout(),
+                    metadata.priority()
+                );
+            } catch (CallIngestionService.DuplicateRecordingException e) {
+                // An identical recording was ingested concurrently; link to it like any other duplicate
+                call = callIngestionService.findOriginal(e.getContentSha256()).orElseThrow(() -> e);
+            }
+
+            moveWithSidecar(file, PROCESSED_DIR);
+            attempts.remove(file);
+            count(call.isDuplicate() ? "duplicate" : "ingested");
+            log.info("Ingested dropped file {} as callId: {}{}", file, call.getId(),
+                     call.isDuplicate() ? " (duplicate)" : "");
+
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected dropped file {}: {}", file, e.getMessage());
+            moveToFailed(file, e.getMessage());
+        } catch (Exception e) {
+            int attempt = attempts.merge(file, 1, Integer::sum);
+            if (attempt >= maxAttempts) {
+                log.error("Error ingesting dropped file {}, giving up after {} attempts", file, attempt, e);
+                moveToFailed(file, "Gave up after " + attempt + " attempts: " + e.getMessage());
+            } else {
+                log.error("Error ingesting dropped file {} (attempt {} of {}), retrying on the next reconciliation",
+                          file, attempt, maxAttempts, e);
+                count("retry");
+            }
+        } finally {
+            inProgress.remove(file);
+        }
+    }
+
+    /**
+     * Move a file that will not be ingested into failed/ with a {@code .error} note
+     */
+    private void moveToFailed(Path file, String reason) {
+        attempts.remove(file);
+        count("failed");
+        try {
+            Path failed = moveWithSidecar(file, FAILED_DIR);
+            Files.writeString(failed.resolveSibling(failed.getFileName() + ".error"), String.valueOf(reason));
+        } catch (IOException ex) {
+            log.error("Could not move file {} to {}/", file, FAILED_DIR, ex);
+        }
+    }
+
+    /**
+     * Metadata from the sidecar JSON if there is one, otherwise from the file name
+     *
+     * @throws IllegalArgumentException if neither yields a caller and an agent
+     */
+    DropFileMetadata resolveMetadata(Path file) throws IOException {
+        Path sidecar = sidecarOf(file);
+        if (Files.isRegularFile(sidecar)) {
+            Sidecar values;
+            try {
+                values = objectMapper.readValue(sidecar.toFile(), Sidecar.class);
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Invalid sidecar " + sidecar.getFileName() + ": "
+                    + e.getOriginalMessage());
+            }
+            if (isBlank(values.getCallerId()) || isBlank(values.getAgentId())) {
+                throw new IllegalArgumentException("Sidecar " + sidecar.getFileName() + " needs callerId and agentId");
+            }
+            return new DropFileMetadata(values.getCallerId(), values.getAgentId(),
+                values.getChannel() != null ? values.getChannel() : CallChannel.INBOUND,
+                values.getChannelLayout(), values.getPriority());
+        }
+
+        Matcher matcher = compiledFilenamePattern.matcher(file.getFileName().toString());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("No sidecar JSON and the file name does not match "
+                + "ingestion.drop-folder.filename-pattern");
+        }
+        String channel = filenamePattern.contains("(?<channel>") ? matcher.group("channel") : null;
+        return new DropFileMetadata(matcher.group("callerId"), matcher.group("agentId"),
+            channel != null ? CallChannel.valueOf(channel.toUpperCase(Locale.ROOT)) : CallChannel.INBOUND,
+            null, null);
+    }
+
+    /**
+     * Audio files directly inside a watched directory; sidecars, hidden files and subdirectories are skipped
+     */
+    private static boolean isCandidate(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return !name.startsWith(".")
+            && dot > 0
+            && AudioFormat.fromExtension(name.substring(dot + 1)).isPresent()
+            && Files.isRegularFile(file);
+    }
+
+    private static Path sidecarOf(Path file) {
+        String name = file.getFileName().toString();
+        return file.resolveSibling(name.substring(0, name.lastIndexOf('.')) + ".json");
+    }
+
+    /**
+     * Move the file (and its sidecar) into a subdirectory of its folder
+     *
+     * @return the new location of the file
+     */
+    private static Path moveWithSidecar(Path file, String subdirectory) throws IOException {
+        Path target = file.resolveSibling(subdirectory);
+        Files.createDirectories(target);
+        Path moved = Files.move(file, target.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+        Path sidecar = sidecarOf(file);
+        if (Files.exists(sidecar)) {
+            Files.move(sidecar, target.resolve(sidecar.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+        }
+        return moved;
+    }
+
+    private static String sha256(Path file) throws IOException {
+        try (DigestInputStream in = new DigestInputStream(Files.newInputStream(file),
+                MessageDigest.getInstance("SHA-256"))) {
+            in.transferTo(OutputStream.nullOutputStream());
+            return HexFormat.of().formatHex(in.getMessageDigest().digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("ingestion.drop_folder.files", "result", result).increment();
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * Caller, agent and routing for one dropped file
+     */
+    record DropFileMetadata(String callerId, String agentId, CallChannel channel,
+                            ChannelLayout channelLayout, CallPriority priority) {
+    }
+
+    private record Observation(long size, FileTime lastModified, long sinceNanos) {
+
+        static Observation of(Path file, long nowNanos) throws IOException {
+            return new Observation(Files.size(file), Files.getLastModifiedTime(file), nowNanos);
+        }
+
+        boolean sameContent(Observation other) {
+            return size == other.size && lastModified.equals(other.lastModified);
+        }
+    }
+
+    /**
+     * {@code <name>.json} next to a dropped recording
+     */
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Sidecar {
+        private String callerId;
+        private String agentId;
+        private CallChannel channel;
+        private ChannelLayout channelLayout;
+        private CallPriority priority;
+    }
+}
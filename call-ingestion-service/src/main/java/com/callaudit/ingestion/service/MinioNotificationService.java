@@ -0,0 +1,224 @@
+package com.callaudit.ingestion.service;
+
+import com.callaudit.ingestion.audio.AudioFormat;
+import com.callaudit.ingestion.event.CallReceivedEvent;
+import com.callaudit.ingestion.event.MinioBucketEvent;
+import com.callaudit.ingestion.model.Call;
+import com.callaudit.ingestion.model.CallChannel;
+import com.callaudit.ingestion.model.CallPriority;
+import com.callaudit.ingestion.model.CallStatus;
+import com.callaudit.ingestion.model.ChannelLayout;
+import com.callaudit.ingestion.repository.CallBatchRepository;
+import com.callaudit.ingestion.repository.CallRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Registers recordings that were written straight into MinIO, from its bucket notifications.
+ *
+ * The object is not read: the call row points at the existing key and CallReceived is published,
+ * so the audio never passes through this service. A batch of notifications becomes one multi-row
+ * insert plus its outbox events in a single transaction.
+ *
+ * Only keys under {@code minio.notifications.prefix} are registered, which keeps the recordings and
+ * derived files this service writes itself out. Caller and agent come from the object's user
+ * metadata ({@code X-Amz-Meta-Caller-Id}, {@code -Agent-Id}, {@code -Channel}, {@code -Priority},
+ * {@code -Channel-Layout}) or from its file name ({@code minio.notifications.key-pattern}, same
+ * convention as the drop folder). Notifications for keys that already belong to a call are ignored,
+ * so redelivery is harmless. Recordings that need speech detection, a speaker split or chunking are
+ * registered flagged, and CallPreparationService queues their CallReceived after the commit.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MinioNotificationService {
+
+    private static final String OBJECT_CREATED = "s3:ObjectCreated:";
+    private static final String USER_METADATA_PREFIX = "x-amz-meta-";
+
+    private final StorageService storageService;
+    private final CallRepository callRepository;
+    private final CallBatchRepository callBatchRepository;
+    private final OutboxService outboxService;
+    private final CallPreparationService callPreparationService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${kafka.topics.call-received}")
+    private String callReceivedTopic;
+
+    @Value("${kafka.topics.call-received-priority:calls.received.priority}")
+    private String callReceivedPriorityTopic;
+
+    @Value("${minio.notifications.prefix:incoming/}")
+    private String prefix;
+
+    @Value("${minio.notifications.key-pattern:}")
+    private String keyPattern;
+
+    @Value("${ingestion.speaker-split.default-layout:MIXED}")
+    private ChannelLayout defaultChannelLayout;
+
+    @Value("${minio.notifications.batch-size:500}")
+    private int batchSize;
+
+    private Pattern compiledKeyPattern;
+
+    @PostConstruct
+    void init() {
+        compiledKeyPattern = Pattern.compile(keyPattern == null || keyPattern.isBlank()
+            ? DropFolderIngestionService.DEFAULT_FILENAME_PATTERN : keyPattern);
+    }
+
+    /**
+     * Register the objects created in a batch of notifications as calls
+     *
+     * @param events notifications, in delivery order
+     * @return calls registered; skipped and already registered objects are not counted
+     */
+    public List<Call> register(List<MinioBucketEvent> events) {
+        // Keyed by object key, so repeated notifications within a batch collapse
+        Map<String, Call> calls = new LinkedHashMap<>();
+        for (MinioBucketEvent event : events) {
+            if (event.getRecords() == null) {
+                continue;
+            }
+            for (MinioBucketEvent.Record record : event.getRecords()) {
+                try {
+                    Call call = toCall(record);
+                    if (call != null) {
+                        calls.putIfAbsent(call.getObjectKey(), call);
+                    }
+                } catch (IllegalArgumentException e) {
+                    log.warn("Skipping MinIO notification: {}", e.getMessage());
+                }
+            }
+        }
+        if (calls.isEmpty()) {
+            return List.of();
+        }
+
+        // Cheap pre-filter for redeliveries; the insert itself skips keys registered concurrently
+        calls.keySet().removeAll(callRepository.findExistingObjectKeys(List.copyOf(calls.keySet())));
+        if (calls.isEmpty()) {
+            return List.of();
+        }
+
+        calls.values().forEach(call -> call.setPreparationPending(callPreparationService.needsPreparation(call)));
+
+        List<Call> fresh = transactionTemplate.execute(status -> {
+            List<Call> inserted = callBatchRepository.insertNew(List.copyOf(calls.values()), batchSize);
+            for (Call call : inserted) {
+                if (call.isPreparationPending()) {
+                    callPreparationService.prepareAfterCommit(call.getId());
+                    continue;
+                }
+                CallReceivedEvent event = CallIngestionService.buildCallReceivedEvent(
+                    call, call.getFileFormat(), call.getFileSizeBytes() != null ? call.getFileSizeBytes() : -1);
+                String topic = call.getPriority() == CallPriority.HIGH ? callReceivedPriorityTopic : callReceivedTopic;
+                outboxService.enqueue(topic, call.getId().toString(), call.getId(), event.getEventType(), event);
+            }
+            return inserted;
+        });
+
+        log.info("Registered {} calls from MinIO notifications", fresh.size());
+        return fresh;
+    }
+
+    /**
+     * The call for a created object, or null if the notification is not about a new recording
+     *
+     * @throws IllegalArgumentException if it is a recording but cannot be registered
+     */
+    private Call toCall(MinioBucketEvent.Record record) {
+        if (record.getEventName() == null || !record.getEventName().startsWith(OBJECT_CREATED)
+                || record.getS3() == null || record.getS3().getObject() == null
+                || record.getS3().getObject().getKey() == null) {
+            return null;
+        }
+        MinioBucketEvent.S3Object object = record.getS3().getObject();
+        String objectKey = URLDecoder.decode(object.getKey(), StandardCharsets.UTF_8);
+        if (!objectKey.startsWith(prefix)) {
+            return null;
+        }
+
+        String bucket = record.getS3().getBucket() != null ? record.getS3().getBucket().getName() : null;
+        if (!storageService.getBucketName().equals(bucket)) {
+            throw new IllegalArgumentException(objectKey + " is in bucket " + bucket
+                + ", not " + storageService.getBucketName());
+        }
+
+        String filename = objectKey.substring(objectKey.lastIndexOf('/') + 1);
+        AudioFormat format = AudioFormat.fromFilename(filename);
+
+        Map<String, String> metadata = userMetadata(object.getUserMetadata());
+        String callerId = metadata.get("caller-id");
+        String agentId = metadata.get("agent-id");
+        String channel = metadata.get("channel");
+        if (callerId == null || agentId == null) {
+            Matcher matcher = compiledKeyPattern.matcher(filename);
+            if (!matcher.matches()) {
+                throw new IllegalArgumentException(objectKey + " has no caller/agent metadata and does not match "
+                    + "minio.notifications.key-pattern");
+            }
+            callerId = callerId != null ? callerId : matcher.group("callerId");
+            agentId = agentId != null ? agentId : matcher.group("agentId");
+            if (channel == null && compiledKeyPattern.pattern().contains("(?<channel>")) {
+                channel = matcher.group("channel");
+            }
+        }
+        String priority = metadata.get("priority");
+        String channelLayout = metadata.get("channel-layout");
+
+        return Call.builder()
+            .id(UUID.randomUUID())
+            .callerId(callerId)
+            .agentId(agentId)
+            .channel(channel != null ? CallChannel.valueOf(channel.toUpperCase(Locale.ROOT)) : CallChannel.INBOUND)
+            .startTime(record.getEventTime() != null ? record.getEventTime() : Instant.now())
+            .status(CallStatus.PENDING)
+            .priority(priority != null ? CallPriority.valueOf(priority.toUpperCase(Locale.ROOT)) : CallPriority.NORMAL)
+            .correlationId(UUID.randomUUID())
+            .channelLayout(channelLayout != null
+                ? ChannelLayout.valueOf(channelLayout.toUpperCase(Locale.ROOT)) : defaultChannelLayout)
+            .audioFileUrl(storageService.objectUrl(objectKey))
+            .objectKey(objectKey)
+            .fileSizeBytes(object.getSize())
+            .fileFormat(format.getExtension())
+            .contentType(object.getContentType() != null && !object.getContentType().isBlank()
+                ? object.getContentType() : format.getContentType())
+            .build();
+    }
+
+    /**
+     * User metadata keyed by lower-case name without the X-Amz-Meta- prefix, e.g. "caller-id"
+     */
+    private static Map<String, String> userMetadata(Map<String, String> raw) {
+        Map<String, String> metadata = new HashMap<>();
+        if (raw == null) {
+            return metadata;
+        }
+        raw.forEach((name, value) -> {
+            String key = name.toLowerCase(Locale.ROOT);
+            if (key.startsWith(USER_METADATA_PREFIX) && value != null && !value.isBlank()) {
+                metadata.put(key.substring(USER_METADATA_PREFIX.length()), value.trim());
+            }
+        });
+        return metadata;
+    }
+}
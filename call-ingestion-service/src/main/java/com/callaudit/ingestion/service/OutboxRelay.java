@@ -0,0 +1,148 @@
+package com.callaudit.ingestion.service;
+
+import com.callaudit.ingestion.model.OutboxEvent;
+import com.callaudit.ingestion.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.kafka.support.mapping.AbstractJavaTypeMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the outbox table into Kafka.
+ *
+ * Each pass claims up to batch-size rows with FOR UPDATE SKIP LOCKED, sends them
+ * back to back on the idempotent producer, flushes once, and deletes the rows the
+ * broker acknowledged - all in one transaction. Rows that failed stay in the table
+ * and are retried on the next pass, so delivery is at-least-once.
+ *
+ * A batch waits at most send-timeout-ms for its acknowledgements in total. After a batch
+ * with failed sends the relay pauses for {@code outbox.relay.retry-backoff-ms}, doubling
+ * after each further failure up to {@code max-retry-backoff-ms}, so an unreachable broker
+ * does not keep rows locked and a connection busy on every poll.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, String> outboxKafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${outbox.relay.batch-size:500}")
+    private int batchSize;
+
+    @Value("${outbox.relay.send-timeout-ms:30000}")
+    private long sendTimeoutMs;
+
+    @Value("${outbox.relay.retry-backoff-ms:1000}")
+    private long retryBackoffMs;
+
+    @Value("${outbox.relay.max-retry-backoff-ms:60000}")
+    private long maxRetryBackoffMs;
+
+    private int failedBatches;
+    private long retryAt;
+
+    /**
+     * Publish pending events, looping while full batches are found
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.poll-interval-ms:200}")
+    public void relay() {
+        if (System.currentTimeMillis() < retryAt) {
+            return;
+        }
+        try {
+            int published;
+            do {
+                published = relayBatch();
+            } while (published == batchSize);
+        } catch (RuntimeException e) {
+            log.error("Outbox relay pass failed", e);
+            backOff();
+        }
+    }
+
+    /**
+     * Publish one batch of pending events
+     *
+     * @return number of events published and removed from the outbox
+     */
+    int relayBatch() {
+        Integer published = transactionTemplate.execute(status -> {
+            List<OutboxEvent> batch = outboxEventRepository.lockNextBatch(batchSize);
+            if (batch.isEmpty()) {
+                return 0;
+            }
+
+            List<CompletableFuture<SendResult<String, String>>> sends = new ArrayList<>(batch.size());
+            for (OutboxEvent event : batch) {
+                sends.add(send(event));
+            }
+            outboxKafkaTemplate.flush();
+
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+            List<UUID> delivered = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                OutboxEvent event = batch.get(i);
+                try {
+                    sends.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    delivered.add(event.getId());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (Exception e) {
+                    log.error("Failed to publish {} event for aggregate {}, will retry",
+                              event.getEventType(), event.getAggregateId(), e);
+                }
+            }
+
+            outboxEventRepository.deleteAllByIdInBatch(delivered);
+
+            log.debug("Outbox relay published {}/{} events", delivered.size(), batch.size());
+            if (delivered.size() < batch.size()) {
+                backOff();
+            } else {
+                failedBatches = 0;
+            }
+            return delivered.size();
+        });
+        return published != null ? published : 0;
+    }
+
+    /**
+     * Pause the relay after a failed batch, doubling the pause on each consecutive failure
+     */
+    private void backOff() {
+        long backoff = Math.min(maxRetryBackoffMs, retryBackoffMs << Math.min(failedBatches, 16));
+        failedBatches++;
+        retryAt = System.currentTimeMillis() + backoff;
+        log.warn("Outbox relay backing off for {} ms", backoff);
+    }
+
+    private CompletableFuture<SendResult<String, String>> send(OutboxEvent event) {
+        ProducerRecord<String, String> record =
+            new ProducerRecord<>(event.getTopic(), event.getMessageKey(), event.getPayload());
+        // Same type header JsonSerializer would have added, so consumers see no difference
+        record.headers().add(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME,
+                             event.getPayloadType().getBytes(StandardCharsets.UTF_8));
+        try {
+            return outboxKafkaTemplate.send(record);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.callaudit.ingestion.service;
+
+import com.callaudit.ingestion.model.OutboxEvent;
+import com.callaudit.ingestion.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+/**
+ * Transactional outbox: events are stored alongside the data they describe
+ * and published later by {@link OutboxRelay}. An event is therefore sent if and
+ * only if its transaction commits, and request latency does not include Kafka.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Queue an event for publication. Must run inside the transaction that
+     * writes the state change, so both commit or roll back together.
+     *
+     * @param topic Kafka topic
+     * @param key message key
+     * @param aggregateId ID of the aggregate the event belongs to
+     * @param eventType event type name (e.g. CallReceived)
+     * @param event event object, serialized to JSON now
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String topic, String key, UUID aggregateId, String eventType, Object event) {
+        try {
+            outboxEventRepository.save(OutboxEvent.builder()
+                .aggregateId(aggregateId)
+                .eventType(eventType)
+                .topic(topic)
+                .messageKey(key)
+                .payloadType(event.getClass().getName())
+                .payload(objectMapper.writeValueAsString(event))
+                .build());
+
+            log.debug("Queued {} event for aggregate {} on topic {}", eventType, aggregateId, topic);
+
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize " + eventType + " event", e);
+        }
+    }
+}
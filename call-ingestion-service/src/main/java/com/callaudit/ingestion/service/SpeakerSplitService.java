@@ -0,0 +1,93 @@
+package com.callaudit.ingestion.service;
+
+import com.callaudit.ingestion.audio.AudioFormat;
+import com.callaudit.ingestion.audio.MonoChannelStream;
+import com.callaudit.ingestion.event.CallReceivedEvent;
+import com.callaudit.ingestion.model.Call;
+import com.callaudit.ingestion.model.ChannelLayout;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Splits dual-channel recordings into one mono recording per speaker, so transcripts can be
+ * labelled by channel instead of by diarization. The tracks are stored next to the recording
+ * ({@code 2025/01/{callId}/agent.wav} and {@code customer.wav}) and listed on the CallReceived event.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SpeakerSplitService {
+
+    public static final String AGENT = "agent";
+    public static final String CUSTOMER = "customer";
+
+    private final StorageService storageService;
+
+    /**
+     * Whether {@link #split} would run for a stored call: its layout names the speakers and it is stereo PCM
+     */
+    public boolean applies(Call call) {
+        ChannelLayout layout = call.getChannelLayout();
+        return layout != null && layout != ChannelLayout.MIXED && call.getObjectKey() != null
+            && StoredAudio.isPcm(call) && (call.getChannelCount() == null || call.getChannelCount() == 2);
+    }
+
+    /**
+     * Split a stored call whose channel layout names the speakers.
+     * The recording is read back from storage once per speaker; stereo WAV and FLAC are supported.
+     * Best effort: on any failure the tracks stored so far are removed and the call stays mixed.
+     *
+     * @param call stored call with its object key, format, channel count and layout recorded
+     * @return the agent and customer tracks, or empty if the call is not split
+     */
+    public Optional<List<CallReceivedEvent.SpeakerAudio>> split(Call call) {
+        return split(call, StoredAudio.remote(storageService, call));
+    }
+
+    /**
+     * {@link #split(Call)} reading the recording from the given source
+     */
+    Optional<List<CallReceivedEvent.SpeakerAudio>> split(Call call, StoredAudio.Source audio) {
+        if (!applies(call)) {
+            return Optional.empty();
+        }
+        ChannelLayout layout = call.getChannelLayout();
+
+        int agentChannel = layout == ChannelLayout.AGENT_LEFT ? 0 : 1;
+        List<CallReceivedEvent.SpeakerAudio> tracks = new ArrayList<>();
+        try {
+            tracks.add(storeTrack(call, audio, AGENT, agentChannel));
+            tracks.add(storeTrack(call, audio, CUSTOMER, 1 - agentChannel));
+            log.info("Split callId: {} into agent and customer tracks", call.getId());
+            return Optional.of(tracks);
+
+        } catch (Exception e) {
+            log.warn("Could not split callId: {} by speaker, it stays mixed", call.getId(), e);
+            tracks.forEach(track -> storageService.deleteFile(track.getAudioFileUrl()));
+            return Optional.empty();
+        }
+    }
+
+    private CallReceivedEvent.SpeakerAudio storeTrack(Call call, StoredAudio.Source audio, String speaker, int channel)
+            throws IOException {
+        try (InputStream wav = audio.open();
+             MonoChannelStream track = MonoChannelStream.open(wav, channel)) {
+            String url = storageService.uploadDerivative(call.getObjectKey(), speaker + ".wav", track, track.size(),
+                AudioFormat.WAV.getContentType());
+            return CallReceivedEvent.SpeakerAudio.builder()
+                .speaker(speaker)
+                .channelIndex(channel)
+                .audioFileUrl(url)
+                .audioFormat(AudioFormat.WAV.getExtension())
+                .audioFileSize(track.size() >= 0 ? track.size() : null)
+                .build();
+        }
+    }
+}
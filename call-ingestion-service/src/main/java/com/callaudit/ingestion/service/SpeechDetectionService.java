@@ -0,0 +1,126 @@
+package com.callaudit.ingestion.service;
+
+import com.callaudit.ingestion.audio.AudioFormat;
+import com.callaudit.ingestion.audio.FrameEnergy;
+import com.callaudit.ingestion.audio.VoiceActivityDetector;
+import com.callaudit.ingestion.event.CallReceivedEvent;
+import com.callaudit.ingestion.model.Call;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Finds the speech in stored WAV recordings, so transcription can skip dead air.
+ * The regions go out on the CallReceived event; optionally a copy holding only the speech
+ * is stored next to the recording ({@code 2025/01/{callId}/speech.wav}).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SpeechDetectionService {
+
+    private final StorageService storageService;
+
+    @Value("${ingestion.vad.enabled:false}")
+    private boolean enabled;
+
+    @Value("${ingestion.vad.store-trimmed:false}")
+    private boolean storeTrimmed;
+
+    @Value("${ingestion.vad.margin-db:9}")
+    private double marginDb;
+
+    @Value("${ingestion.vad.min-silence-millis:500}")
+    private long minSilenceMillis;
+
+    @Value("${ingestion.vad.padding-millis:200}")
+    private long paddingMillis;
+
+    /**
+     * Speech found in a recording
+     *
+     * @param speech regions, in samples
+     * @param trimmedAudioFileUrl URL of the speech-only copy, or null if none was stored
+     */
+    public record DetectedSpeech(VoiceActivityDetector.SpeechMap speech, String trimmedAudioFileUrl) {
+
+        /**
+         * Regions for the CallReceived payload
+         */
+        public List<CallReceivedEvent.SpeechRegion> regions() {
+            return speech.regions().stream()
+                .map(region -> CallReceivedEvent.SpeechRegion.builder()
+                    .startMillis(speech.toMillis(region.startSample()))
+                    .endMillis(speech.toMillis(region.endSample()))
+                    .build())
+                .toList();
+        }
+
+        public long speechMillis() {
+            return speech.toMillis(speech.speechSamples());
+        }
+    }
+
+    /**
+     * Whether {@link #detect} would run for a stored call: detection is enabled and the recording is PCM WAV
+     */
+    public boolean applies(Call call) {
+        return enabled && call.getObjectKey() != null && StoredAudio.isWav(call);
+    }
+
+    /**
+     * Detect speech in a stored call if detection is enabled and the recording is PCM WAV.
+     * The recording is read back from storage once, and once more to store the trimmed copy.
+     * Best effort: failures leave the call without a speech map.
+     *
+     * @param call stored call with its object key and format recorded
+     * @return the speech found, or empty if detection did not run
+     */
+    public Optional<DetectedSpeech> detect(Call call) {
+        return detect(call, StoredAudio.remote(storageService, call));
+    }
+
+    /**
+     * {@link #detect(Call)} reading the recording from the given source
+     */
+    Optional<DetectedSpeech> detect(Call call, StoredAudio.Source audio) {
+        if (!applies(call)) {
+            return Optional.empty();
+        }
+
+        VoiceActivityDetector detector = new VoiceActivityDetector(marginDb, Duration.ofMillis(minSilenceMillis),
+            Duration.ofMillis(paddingMillis));
+        VoiceActivityDetector.SpeechMap speech;
+        try (InputStream wav = audio.open()) {
+            Optional<FrameEnergy> energy = FrameEnergy.measure(wav);
+            if (energy.isEmpty()) {
+                return Optional.empty();
+            }
+            speech = detector.detect(energy.get());
+        } catch (Exception e) {
+            log.warn("Could not detect speech in callId: {}", call.getId(), e);
+            return Optional.empty();
+        }
+
+        log.info("Found {}ms of speech in {} regions for callId: {} ({}ms recorded)", speech.toMillis(
+            speech.speechSamples()), speech.regions().size(), call.getId(), speech.toMillis(speech.totalSamples()));
+
+        String trimmedAudioFileUrl = null;
+        if (storeTrimmed && speech.speechSamples() < speech.totalSamples()) {
+            try (InputStream wav = audio.open();
+                 InputStream trimmed = VoiceActivityDetector.trim(wav, speech)) {
+                trimmedAudioFileUrl = storageService.uploadDerivative(call.getObjectKey(), "speech.wav", trimmed,
+                    speech.trimmedFileSize(), AudioFormat.WAV.getContentType());
+            } catch (Exception e) {
+                log.warn("Could not store speech-only audio for callId: {}", call.getId(), e);
+            }
+        }
+        return Optional.of(new DetectedSpeech(speech, trimmedAudioFileUrl));
+    }
+}
@@ -2,8 +2,13 @@ package com.callaudit.ingestion.service;
 
 import io.minio.*;
 import io.minio.errors.*;
+import io.minio.http.Method;
+import io.minio.messages.DeleteError;
+import io.minio.messages.DeleteObject;
+import io.minio.messages.Item;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -13,7 +18,12 @@ import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @RequiredArgsConstructor
@@ -21,6 +31,8 @@ import java.util.UUID;
 public class StorageService {
 
     private final MinioClient minioClient;
+    @Qualifier("presignMinioClient")
+    private final MinioClient presignMinioClient;
 
     @Value("${minio.bucket-name}")
     private String bucketName;
@@ -28,6 +40,17 @@ public class StorageService {
     @Value("${minio.endpoint}")
     private String minioEndpoint;
 
+    @Value("${minio.stream-part-size:5242880}")
+    private long streamPartSize;
+
+    @Value("${minio.presigned.enabled:false}")
+    private boolean presignedEnabled;
+
+    @Value("${minio.presigned.expiry-seconds:900}")
+    private int presignedExpirySeconds;
+
+    private static final String UPLOAD_PART_PREFIX = "uploads/";
+
     /**
      * Upload a file to MinIO storage
      * Files are stored as: {year}/{month}/{callId}.{ext}
@@ -71,13 +94,226 @@ public class StorageService {
         }
     }
 
+    /**
+     * Stream a file of unknown or untrusted length into MinIO storage.
+     * MinIO buffers at most one part ({@code minio.stream-part-size}) at a time,
+     * so memory per upload stays bounded regardless of file size.
+     *
+     * @param callId UUID of the call
+     * @param inputStream upload stream, read exactly once
+     * @param contentType MIME type of the file
+     * @param declaredSize size announced by the client, or -1 if unknown
+     * @param fileExtension file extension (e.g., "wav", "mp3")
+     * @return URL to access the file
+     */
+    public String uploadStream(UUID callId, InputStream inputStream, String contentType,
+                               long declaredSize, String fileExtension) {
+        try {
+            ensureBucketExists();
+
+            String objectName = generateObjectName(callId, fileExtension);
+
+            log.info("Streaming file to MinIO: bucket={}, object={}, declaredSize={}",
+                     bucketName, objectName, declaredSize);
+
+            minioClient.putObject(
+                PutObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(objectName)
+                    .stream(inputStream, declaredSize > 0 ? declaredSize : -1, streamPartSize)
+                    .contentType(contentType)
+                    .build()
+            );
+
+            log.info("Successfully streamed file to MinIO: {}", objectName);
+
+            return String.format("%s/%s/%s", minioEndpoint, bucketName, objectName);
+
+        } catch (Exception e) {
+            log.error("Error streaming file to MinIO for callId: {}", callId, e);
+            throw new RuntimeException("Failed to upload file to storage", e);
+        }
+    }
+
+    /**
+     * Store a file derived from a call's recording (e.g. a chunk) next to it.
+     * Derived files are stored as: {recording object name without extension}/{name}
+     *
+     * @param parentObjectName object name of the recording
+     * @param name file name below the recording, e.g. "chunk-000.wav"
+     * @param inputStream file input stream, read exactly once
+     * @param fileSize size of the file in bytes, or -1 if unknown
+     * @param contentType MIME type of the file
+     * @return URL to access the file
+     */
+    public String uploadDerivative(String parentObjectName, String name, InputStream inputStream,
+                                   long fileSize, String contentType) {
+        try {
+            int extension = parentObjectName.lastIndexOf('.');
+            String objectName = (extension > parentObjectName.lastIndexOf('/')
+                ? parentObjectName.substring(0, extension) : parentObjectName) + "/" + name;
+
+            minioClient.putObject(
+                PutObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(objectName)
+                    .stream(inputStream, fileSize, fileSize >= 0 ? -1 : streamPartSize)
+                    .contentType(contentType)
+                    .build()
+            );
+
+            log.debug("Stored derived file in MinIO: {}", objectName);
+
+            return String.format("%s/%s/%s", minioEndpoint, bucketName, objectName);
+
+        } catch (Exception e) {
+            log.error("Error storing {} derived from {}", name, parentObjectName, e);
+            throw new RuntimeException("Failed to upload file to storage", e);
+        }
+    }
+
+    /**
+     * Stage one chunk of a resumable upload.
+     * Parts are stored as: uploads/{uploadId}/part-{partNumber}; re-sending a part overwrites it.
+     *
+     * @param uploadId upload session ID
+     * @param partNumber 1-based part number
+     * @param inputStream chunk stream, read exactly once
+     * @param declaredSize size announced by the client, or -1 if unknown
+     * @return the staged part
+     */
+    public UploadPart uploadPart(UUID uploadId, int partNumber, InputStream inputStream, long declaredSize) {
+        try {
+            ensureBucketExists();
+
+            String objectName = partObjectName(uploadId, partNumber);
+
+            ObjectWriteResponse response = minioClient.putObject(
+                PutObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(objectName)
+                    .stream(inputStream, declaredSize > 0 ? declaredSize : -1, streamPartSize)
+                    .contentType("application/octet-stream")
+                    .build()
+            );
+
+            log.debug("Staged part {} of upload {}: {}", partNumber, uploadId, objectName);
+
+            return new UploadPart(partNumber, objectName, -1, response.etag());
+
+        } catch (Exception e) {
+            log.error("Error staging part {} of upload {}", partNumber, uploadId, e);
+            throw new RuntimeException("Failed to upload part to storage", e);
+        }
+    }
+
+    /**
+     * List the parts staged so far for a resumable upload, ordered by part number
+     *
+     * @param uploadId upload session ID
+     * @return staged parts with their sizes
+     */
+    public List<UploadPart> listParts(UUID uploadId) {
+        try {
+            List<UploadPart> parts = new ArrayList<>();
+            Iterable<Result<Item>> results = minioClient.listObjects(
+                ListObjectsArgs.builder()
+                    .bucket(bucketName)
+                    .prefix(UPLOAD_PART_PREFIX + uploadId + "/")
+                    .recursive(true)
+                    .build()
+            );
+            for (Result<Item> result : results) {
+                Item item = result.get();
+                String name = item.objectName();
+                int partNumber = Integer.parseInt(name.substring(name.lastIndexOf("part-") + 5));
+                parts.add(new UploadPart(partNumber, name, item.size(), item.etag()));
+            }
+            parts.sort((a, b) -> Integer.compare(a.partNumber(), b.partNumber()));
+            return parts;
+
+        } catch (Exception e) {
+            log.error("Error listing parts of upload {}", uploadId, e);
+            throw new RuntimeException("Failed to list upload parts", e);
+        }
+    }
+
+    /**
+     * Stitch staged parts into the final call object.
+     * MinIO performs the copy server-side (one multipart part per source),
+     * so no audio bytes pass through this service.
+     *
+     * @param callId UUID of the call
+     * @param parts staged parts in order
+     * @param contentType MIME type of the file
+     * @param fileExtension file extension
+     * @return URL to access the file
+     */
+    public String composeFile(UUID callId, List<UploadPart> parts, String contentType, String fileExtension) {
+        try {
+            String objectName = generateObjectName(callId, fileExtension);
+
+            List<ComposeSource> sources = parts.stream()
+                .map(part -> ComposeSource.builder()
+                    .bucket(bucketName)
+                    .object(part.objectName())
+                    .build())
+                .toList();
+
+            log.info("Composing {} parts into MinIO object: bucket={}, object={}", parts.size(), bucketName, objectName);
+
+            minioClient.composeObject(
+                ComposeObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(objectName)
+                    .sources(sources)
+                    .headers(Map.of("Content-Type", contentType))
+                    .build()
+            );
+
+            return String.format("%s/%s/%s", minioEndpoint, bucketName, objectName);
+
+        } catch (Exception e) {
+            log.error("Error composing upload parts for callId: {}", callId, e);
+            throw new RuntimeException("Failed to assemble file in storage", e);
+        }
+    }
+
+    /**
+     * Delete staged parts. Best effort: failures are logged, not thrown,
+     * because leftover parts only cost storage.
+     *
+     * @param parts staged parts to delete
+     */
+    public void removeParts(List<UploadPart> parts) {
+        if (parts.isEmpty()) {
+            return;
+        }
+        try {
+            List<DeleteObject> objects = parts.stream()
+                .map(part -> new DeleteObject(part.objectName()))
+                .toList();
+            // removeObjects is lazy - the deletes run while the results are iterated
+            for (Result<DeleteError> result : minioClient.removeObjects(
+                    RemoveObjectsArgs.builder().bucket(bucketName).objects(objects).build())) {
+                DeleteError error = result.get();
+                log.warn("Failed to delete staged part {}: {}", error.objectName(), error.message());
+            }
+        } catch (Exception e) {
+            log.warn("Error deleting staged upload parts", e);
+        }
+    }
+
     /**
      * Download a file from MinIO storage
      *
      * @param callId UUID of the call
      * @param fileExtension file extension
      * @return InputStream of the file
+     * @deprecated derives the key from the current month, so it misses files uploaded earlier;
+     *             use {@link #downloadFile(String, long, Long)} with the key persisted on the call
      */
+    @Deprecated
     public InputStream downloadFile(UUID callId, String fileExtension) {
         try {
             String objectName = generateObjectName(callId, fileExtension);
@@ -97,13 +333,154 @@ public class StorageService {
         }
     }
 
+    /**
+     * Download a byte range of a stored object
+     *
+     * @param objectName object name within the bucket
+     * @param offset first byte to return
+     * @param length number of bytes to return, or null to read to the end
+     * @return InputStream of the requested bytes
+     */
+    public InputStream downloadFile(String objectName, long offset, Long length) {
+        try {
+            log.debug("Downloading from MinIO: bucket={}, object={}, offset={}, length={}",
+                      bucketName, objectName, offset, length);
+
+            return minioClient.getObject(
+                GetObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(objectName)
+                    .offset(offset)
+                    .length(length)
+                    .build()
+            );
+
+        } catch (Exception e) {
+            log.error("Error downloading object {} from MinIO", objectName, e);
+            throw new RuntimeException("Failed to download file from storage", e);
+        }
+    }
+
+    /**
+     * Read size, ETag and modification time of a stored object
+     *
+     * @param objectName object name within the bucket
+     * @return object metadata, or empty if the object does not exist
+     */
+    public Optional<StoredObject> statFile(String objectName) {
+        try {
+            StatObjectResponse stat = minioClient.statObject(
+                StatObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(objectName)
+                    .build()
+            );
+            return Optional.of(new StoredObject(
+                objectName, stat.size(), stat.etag(), stat.lastModified().toInstant(), stat.contentType()));
+
+        } catch (ErrorResponseException e) {
+            if ("NoSuchKey".equals(e.errorResponse().code())) {
+                return Optional.empty();
+            }
+            log.error("Error reading metadata of object {} from MinIO", objectName, e);
+            throw new RuntimeException("Failed to read file metadata from storage", e);
+        } catch (Exception e) {
+            log.error("Error reading metadata of object {} from MinIO", objectName, e);
+            throw new RuntimeException("Failed to read file metadata from storage", e);
+        }
+    }
+
+    /**
+     * Whether clients should be handed presigned URLs instead of streaming audio through this service
+     */
+    public boolean isPresignedEnabled() {
+        return presignedEnabled;
+    }
+
+    /**
+     * Short-lived URL for reading a stored object directly from MinIO
+     *
+     * @param objectName object name within the bucket
+     * @return presigned GET URL
+     * @throws PresigningDisabledException if presigned URLs are disabled
+     */
+    public PresignedUrl presignDownload(String objectName) {
+        return presign(Method.GET, objectName);
+    }
+
+    /**
+     * Short-lived URL for PUTting one part of a resumable upload directly to MinIO.
+     * The part lands where uploadPart would have staged it, so the session is completed as usual.
+     *
+     * @param uploadId upload session ID
+     * @param partNumber 1-based part number
+     * @return presigned PUT URL
+     * @throws PresigningDisabledException if presigned URLs are disabled
+     */
+    public PresignedUrl presignPartUpload(UUID uploadId, int partNumber) {
+        return presign(Method.PUT, partObjectName(uploadId, partNumber));
+    }
+
+    private PresignedUrl presign(Method method, String objectName) {
+        if (!presignedEnabled) {
+            throw new PresigningDisabledException();
+        }
+        try {
+            Instant expiresAt = Instant.now().plusSeconds(presignedExpirySeconds);
+            String url = presignMinioClient.getPresignedObjectUrl(
+                GetPresignedObjectUrlArgs.builder()
+                    .method(method)
+                    .bucket(bucketName)
+                    .object(objectName)
+                    .expiry(presignedExpirySeconds, TimeUnit.SECONDS)
+                    .build()
+            );
+            log.debug("Presigned {} for object {} until {}", method, objectName, expiresAt);
+            return new PresignedUrl(url, expiresAt);
+
+        } catch (Exception e) {
+            log.error("Error presigning {} for object {}", method, objectName, e);
+            throw new RuntimeException("Failed to presign storage URL", e);
+        }
+    }
+
+    /**
+     * URL of an object already in the bucket, in the form uploadFile/uploadStream return
+     *
+     * @param objectName object name within the bucket
+     * @return URL to access the file
+     */
+    public String objectUrl(String objectName) {
+        return String.format("%s/%s/%s", minioEndpoint, bucketName, objectName);
+    }
+
+    public String getBucketName() {
+        return bucketName;
+    }
+
+    /**
+     * Resolve the object name from a URL returned by uploadFile/uploadStream
+     *
+     * @param audioFileUrl stored file URL
+     * @return object name within the bucket, or null if the URL does not point into the bucket
+     */
+    public String objectNameFromUrl(String audioFileUrl) {
+        String prefix = String.format("%s/%s/", minioEndpoint, bucketName);
+        if (audioFileUrl == null || !audioFileUrl.startsWith(prefix)) {
+            return null;
+        }
+        return audioFileUrl.substring(prefix.length());
+    }
+
     /**
      * Check if a file exists in MinIO
      *
      * @param callId UUID of the call
      * @param fileExtension file extension
      * @return true if file exists, false otherwise
+     * @deprecated derives the key from the current month; use the object key persisted on the call
      */
+    @Deprecated
     public boolean fileExists(UUID callId, String fileExtension) {
         try {
             String objectName = generateObjectName(callId, fileExtension);
@@ -119,6 +496,31 @@ public class StorageService {
         }
     }
 
+    /**
+     * Delete a stored file by the URL returned from an upload.
+     * Best effort: failures are logged, not thrown.
+     *
+     * @param audioFileUrl URL returned by uploadFile/uploadStream
+     */
+    public void deleteFile(String audioFileUrl) {
+        String objectName = objectNameFromUrl(audioFileUrl);
+        if (objectName == null) {
+            log.warn("Not deleting {}: not an object in bucket {}", audioFileUrl, bucketName);
+            return;
+        }
+        try {
+            minioClient.removeObject(
+                RemoveObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(objectName)
+                    .build()
+            );
+            log.info("Deleted object from MinIO: bucket={}, object={}", bucketName, objectName);
+        } catch (Exception e) {
+            log.warn("Failed to delete object {} from MinIO", objectName, e);
+        }
+    }
+
     /**
      * Ensure the bucket exists, create it if it doesn't
      */
@@ -145,6 +547,10 @@ public class StorageService {
         }
     }
 
+    private String partObjectName(UUID uploadId, int partNumber) {
+        return String.format("%s%s/part-%05d", UPLOAD_PART_PREFIX, uploadId, partNumber);
+    }
+
     /**
      * Generate object name with year/month prefix
      * Format: {year}/{month}/{callId}.{ext}
@@ -156,4 +562,45 @@ public class StorageService {
 
         return String.format("%d/%02d/%s.%s", year, month, callId.toString(), fileExtension);
     }
+
+    /**
+     * A staged chunk of a resumable upload
+     *
+     * @param partNumber 1-based part number
+     * @param objectName MinIO object holding the chunk
+     * @param size chunk size in bytes (-1 if not yet known)
+     * @param etag MinIO ETag of the chunk
+     */
+    public record UploadPart(int partNumber, String objectName, long size, String etag) {
+    }
+
+    /**
+     * Metadata of a stored object
+     *
+     * @param objectName object name within the bucket
+     * @param size object size in bytes
+     * @param etag MinIO ETag (unquoted)
+     * @param lastModified last modification time
+     * @param contentType stored Content-Type
+     */
+    public record StoredObject(String objectName, long size, String etag, Instant lastModified, String contentType) {
+    }
+
+    /**
+     * A presigned MinIO URL
+     *
+     * @param url URL including the signature
+     * @param expiresAt when the signature stops being accepted
+     */
+    public record PresignedUrl(String url, Instant expiresAt) {
+    }
+
+    /**
+     * Thrown when a presigned URL is requested but {@code minio.presigned.enabled} is off
+     */
+    public static class PresigningDisabledException extends IllegalStateException {
+        public PresigningDisabledException() {
+            super("Presigned URLs are disabled");
+        }
+    }
 }
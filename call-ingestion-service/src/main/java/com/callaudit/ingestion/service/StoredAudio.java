@@ -0,0 +1,86 @@
+package com.callaudit.ingestion.service;
+
+import com.callaudit.ingestion.audio.AudioFormat;
+import com.callaudit.ingestion.audio.FlacToWavStream;
+import com.callaudit.ingestion.model.Call;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Reading a call's stored recording back for post-processing (chunking, speech detection, speaker split)
+ */
+final class StoredAudio {
+
+    private StoredAudio() {
+    }
+
+    /**
+     * Whether the recording was uploaded as WAV, including WAV kept as FLAC
+     */
+    static boolean isWav(Call call) {
+        return AudioFormat.WAV.getExtension().equalsIgnoreCase(call.getFileFormat())
+            || AudioFormat.WAV.getExtension().equalsIgnoreCase(call.getOriginalFormat());
+    }
+
+    /**
+     * Whether the recording can be read back as PCM: WAV, or FLAC (uploaded or transcoded at ingest)
+     */
+    static boolean isPcm(Call call) {
+        return isWav(call) || AudioFormat.FLAC.getExtension().equalsIgnoreCase(call.getFileFormat());
+    }
+
+    /**
+     * Read a stored recording as WAV, decoding it if it is stored as FLAC
+     */
+    static InputStream openAsWav(StorageService storageService, Call call) throws IOException {
+        InputStream stored = storageService.downloadFile(call.getObjectKey(), 0, null);
+        return AudioFormat.FLAC.getExtension().equalsIgnoreCase(call.getFileFormat())
+            ? new FlacToWavStream(stored) : stored;
+    }
+
+    /**
+     * Where a post-processing step reads the recording from; each {@link #open()} starts at the beginning
+     */
+    interface Source {
+        InputStream open() throws IOException;
+    }
+
+    /**
+     * Read the recording straight from storage on every open
+     */
+    static Source remote(StorageService storageService, Call call) {
+        return () -> openAsWav(storageService, call);
+    }
+
+    /**
+     * Download a stored recording once, as WAV, into a temporary file that every step can re-read.
+     * The caller closes it to delete the file.
+     */
+    static LocalCopy download(StorageService storageService, Call call) throws IOException {
+        Path file = Files.createTempFile("call-" + call.getId() + "-", ".wav");
+        try (InputStream wav = openAsWav(storageService, call)) {
+            Files.copy(wav, file, StandardCopyOption.REPLACE_EXISTING);
+            return new LocalCopy(file);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    record LocalCopy(Path file) implements Source, AutoCloseable {
+
+        @Override
+        public InputStream open() throws IOException {
+            return Files.newInputStream(file);
+        }
+
+        @Override
+        public void close() throws IOException {
+            Files.deleteIfExists(file);
+        }
+    }
+}
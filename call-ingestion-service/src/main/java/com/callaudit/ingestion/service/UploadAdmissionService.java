@@ -0,0 +1,282 @@
+package com.callaudit.ingestion.service;
+
+import com.callaudit.ingestion.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.minio.BucketExistsArgs;
+import io.minio.MinioClient;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admission control for single-call uploads.
+ *
+ * Each upload holds a request thread and up to 100MB of body until MinIO has stored it, so a slow
+ * dependency would otherwise pile up uploads until the JVM runs out of memory or file descriptors.
+ * An upload is admitted only while:
+ * 1. Fewer than {@code max-in-flight} uploads, declaring at most {@code max-in-flight-bytes}, are running
+ * 2. The last MinIO probe (a bucket lookup every {@code probe-interval-ms}) succeeded within
+ *    {@code max-storage-latency-ms}; a probe that is still waiting counts with its elapsed time
+ * 3. The oldest event waiting in the outbox is younger than {@code max-outbox-age-ms}. Events pile up
+ *    there whenever Kafka is slow or unreachable, because the relay backs off instead of buffering them
+ *    in the producer, so the producer's record buffer (still exported as a gauge) stays nearly empty
+ *
+ * Rejected uploads fail fast with {@link UploadRejectedException}, which UploadAdmissionFilter turns
+ * into 429 with Retry-After before the request body is read. The limiter state is exported as gauges.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UploadAdmissionService {
+
+    /**
+     * Why an upload was turned away
+     */
+    public enum Reason {
+        IN_FLIGHT,
+        IN_FLIGHT_BYTES,
+        STORAGE,
+        OUTBOX_BACKLOG
+    }
+
+    private final MinioClient minioClient;
+    private final KafkaTemplate<String, String> outboxKafkaTemplate;
+    private final OutboxEventRepository outboxEventRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${minio.bucket-name}")
+    private String bucketName;
+
+    @Value("${ingestion.admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ingestion.admission.max-in-flight:32}")
+    private int maxInFlight;
+
+    @Value("${ingestion.admission.max-in-flight-bytes:1073741824}")
+    private long maxInFlightBytes;
+
+    @Value("${ingestion.admission.max-storage-latency-ms:2000}")
+    private long maxStorageLatencyMs;
+
+    @Value("${ingestion.admission.max-outbox-age-ms:30000}")
+    private long maxOutboxAgeMs;
+
+    @Value("${ingestion.admission.retry-after-seconds:5}")
+    private int retryAfterSeconds;
+
+    @Value("${ingestion.admission.probe-interval-ms:1000}")
+    private long probeIntervalMs;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong inFlightBytes = new AtomicLong();
+
+    private volatile long storageLatencyMillis;
+    private volatile boolean storageAvailable = true;
+    private volatile long probeStartedNanos;
+    private volatile boolean probing;
+    private volatile double producerBufferFill;
+    private volatile Instant oldestOutboxEvent;
+
+    private ScheduledExecutorService prober;
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("ingestion.admission.in_flight", inFlight, AtomicInteger::get)
+            .description("Uploads currently admitted")
+            .register(meterRegistry);
+        Gauge.builder("ingestion.admission.in_flight_bytes", inFlightBytes, AtomicLong::get)
+            .description("Declared request bytes of the uploads currently admitted")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        Gauge.builder("ingestion.admission.storage_latency", this, UploadAdmissionService::getStorageLatencyMillis)
+            .description("Latency of the last MinIO probe, or the elapsed time of a probe still waiting")
+            .baseUnit("milliseconds")
+            .register(meterRegistry);
+        Gauge.builder("ingestion.admission.storage_available", this, service -> service.storageAvailable ? 1 : 0)
+            .description("1 while the last MinIO probe succeeded")
+            .register(meterRegistry);
+        Gauge.builder("ingestion.admission.producer_buffer_fill", this, service -> service.producerBufferFill)
+            .description("Used fraction of the outbox producer's record buffer")
+            .register(meterRegistry);
+        Gauge.builder("ingestion.admission.outbox_age", this, UploadAdmissionService::getOutboxAgeMillis)
+            .description("Age of the oldest event waiting in the outbox")
+            .baseUnit("milliseconds")
+            .register(meterRegistry);
+
+        if (enabled && probeIntervalMs > 0) {
+            prober = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "upload-admission-probe");
+                thread.setDaemon(true);
+                return thread;
+            });
+            // Own thread: a hanging MinIO call must not stall the shared scheduler (outbox relay)
+            prober.scheduleWithFixedDelay(this::probe, 0, probeIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (prober != null) {
+            prober.shutdownNow();
+        }
+    }
+
+    /**
+     * Reserve capacity for one upload. Every successful call must be paired with {@link #release(long)}.
+     *
+     * @param declaredBytes request Content-Length, or the request size cap when the length is unknown
+     * @throws UploadRejectedException if the upload should be retried later
+     */
+    public void admit(long declaredBytes) {
+        if (!enabled) {
+            return;
+        }
+
+        Reason reason = null;
+        if (!storageAvailable || getStorageLatencyMillis() > maxStorageLatencyMs) {
+            reason = Reason.STORAGE;
+        } else if (getOutboxAgeMillis() > maxOutboxAgeMs) {
+            reason = Reason.OUTBOX_BACKLOG;
+        } else {
+            int uploads = inFlight.incrementAndGet();
+            long bytes = inFlightBytes.addAndGet(declaredBytes);
+            if (uploads <= maxInFlight && bytes <= maxInFlightBytes) {
+                return;
+            }
+            inFlight.decrementAndGet();
+            inFlightBytes.addAndGet(-declaredBytes);
+            reason = uploads > maxInFlight ? Reason.IN_FLIGHT : Reason.IN_FLIGHT_BYTES;
+        }
+
+        meterRegistry.counter("ingestion.admission.rejected", "reason", reason.name().toLowerCase(Locale.ROOT))
+            .increment();
+        throw new UploadRejectedException(reason, retryAfterSeconds);
+    }
+
+    /**
+     * Return the capacity reserved by {@link #admit(long)}
+     */
+    public void release(long declaredBytes) {
+        if (!enabled) {
+            return;
+        }
+        inFlight.decrementAndGet();
+        inFlightBytes.addAndGet(-declaredBytes);
+    }
+
+    /**
+     * Last MinIO probe latency, or the elapsed time of the probe in progress if that is longer
+     */
+    long getStorageLatencyMillis() {
+        long latency = storageLatencyMillis;
+        if (probing) {
+            latency = Math.max(latency, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - probeStartedNanos));
+        }
+        return latency;
+    }
+
+    /**
+     * Age of the oldest outbox event at the last probe, measured now so a stuck relay keeps ageing it
+     */
+    long getOutboxAgeMillis() {
+        Instant oldest = oldestOutboxEvent;
+        return oldest == null ? 0 : Math.max(0, Duration.between(oldest, Instant.now()).toMillis());
+    }
+
+    /**
+     * Sample MinIO and the outbox. Probing keeps running while uploads are rejected, so admission
+     * resumes on its own once MinIO recovers or the relay has caught up.
+     */
+    void probe() {
+        probeStartedNanos = System.nanoTime();
+        probing = true;
+        try {
+            minioClient.bucketExists(BucketExistsArgs.builder().bucket(bucketName).build());
+            storageLatencyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - probeStartedNanos);
+            if (!storageAvailable) {
+                log.info("MinIO is reachable again, admitting uploads");
+            }
+            storageAvailable = true;
+        } catch (Exception e) {
+            if (storageAvailable) {
+                log.warn("MinIO probe failed, rejecting uploads until it recovers: {}", e.getMessage());
+            }
+            storageAvailable = false;
+        } finally {
+            probing = false;
+        }
+
+        producerBufferFill = readProducerBufferFill();
+        readOutboxBacklog();
+    }
+
+    /**
+     * Oldest pending outbox event; on a database error the last reading is kept
+     */
+    private void readOutboxBacklog() {
+        try {
+            oldestOutboxEvent = outboxEventRepository.findOldestCreatedAt().orElse(null);
+        } catch (Exception e) {
+            log.debug("Could not read outbox backlog: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Used fraction of the producer's buffer.memory, from the Kafka client metrics; exported only
+     */
+    private double readProducerBufferFill() {
+        try {
+            double total = 0;
+            double available = 0;
+            for (Map.Entry<MetricName, ? extends Metric> entry : outboxKafkaTemplate.metrics().entrySet()) {
+                if (!"producer-metrics".equals(entry.getKey().group())
+                        || !(entry.getValue().metricValue() instanceof Number value)) {
+                    continue;
+                }
+                switch (entry.getKey().name()) {
+                    case "buffer-total-bytes" -> total += value.doubleValue();
+                    case "buffer-available-bytes" -> available += value.doubleValue();
+                    default -> { }
+                }
+            }
+            return total > 0 ? 1 - available / total : 0;
+        } catch (Exception e) {
+            log.debug("Could not read producer buffer metrics: {}", e.getMessage());
+            return producerBufferFill;
+        }
+    }
+
+    /**
+     * Thrown when an upload is turned away to protect the service; the client should retry later
+     */
+    @Getter
+    public static class UploadRejectedException extends RuntimeException {
+        private final Reason reason;
+        private final int retryAfterSeconds;
+
+        public UploadRejectedException(Reason reason, int retryAfterSeconds) {
+            super("Upload rejected (" + reason + "), retry in " + retryAfterSeconds + "s");
+            this.reason = reason;
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+    }
+}
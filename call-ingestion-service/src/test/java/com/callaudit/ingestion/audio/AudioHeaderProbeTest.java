@@ -0,0 +1,191 @@
+package com.callaudit.ingestion.audio;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for AudioHeaderProbe
+ */
+@Tag("unit")
+class AudioHeaderProbeTest {
+
+    @Test
+    void wav_ReadsFmtAndDataChunks() {
+        byte[] wav = wav(8000, 1, 16, 48_000, false);
+
+        AudioProperties properties = probe(AudioFormat.WAV, wav, 4096);
+
+        assertThat(properties).isEqualTo(new AudioProperties(3000L, 8000, 16, 1));
+        assertThat(properties.durationSeconds()).isEqualTo(3);
+    }
+
+    @Test
+    void wav_UnsetDataSize_FallsBackToStreamLength() {
+        byte[] wav = wav(16000, 2, 16, 64_000 * 2, true);
+
+        AudioProperties properties = probe(AudioFormat.WAV, wav, 4096);
+
+        assertThat(properties.durationMillis()).isEqualTo(2000L);
+        assertThat(properties.channels()).isEqualTo(2);
+    }
+
+    @Test
+    void flac_ReadsStreamInfo() {
+        ByteBuffer flac = ByteBuffer.allocate(4 + 4 + 34 + 100);
+        flac.put(ascii("fLaC"));
+        flac.put((byte) 0x80).put((byte) 0).put((byte) 0).put((byte) 34); // last block, STREAMINFO, 34 bytes
+        flac.putShort((short) 4096).putShort((short) 4096);
+        flac.put(new byte[6]); // min/max frame size
+        long samples = 16000L * 5;
+        flac.putLong(16000L << 44 | (2L - 1) << 41 | (16L - 1) << 36 | samples);
+
+        AudioProperties properties = probe(AudioFormat.FLAC, flac.array(), 4096);
+
+        assertThat(properties).isEqualTo(new AudioProperties(5000L, 16000, 16, 2));
+    }
+
+    @Test
+    void mp3_ConstantBitrate_DerivesDurationFromSize() {
+        byte[] mp3 = new byte[160_000];
+        System.arraycopy(mp3FrameHeader(), 0, mp3, 0, 4);
+
+        AudioProperties properties = probe(AudioFormat.MP3, mp3, 8192);
+
+        assertThat(properties).isEqualTo(new AudioProperties(10_000L, 44100, null, 2));
+    }
+
+    @Test
+    void mp3_XingHeader_UsesFrameCount() {
+        byte[] id3 = {'I', 'D', '3', 4, 0, 0, 0, 0, 0, 10};
+        ByteBuffer frame = ByteBuffer.allocate(417);
+        frame.put(mp3FrameHeader());
+        frame.position(4 + 32);
+        frame.put(ascii("Xing")).putInt(0x1).putInt(100);
+        byte[] mp3 = concat(id3, new byte[10], frame.array(), new byte[50_000]);
+
+        AudioProperties properties = probe(AudioFormat.MP3, mp3, 8192);
+
+        assertThat(properties.durationMillis()).isEqualTo(100L * 1152 * 1000 / 44100);
+        assertThat(properties.sampleRate()).isEqualTo(44100);
+    }
+
+    @Test
+    void ogg_Opus_UsesLastGranuleMinusPreSkip() {
+        byte[] ogg = opus(48000L * 7, 200_000);
+
+        AudioProperties properties = probe(AudioFormat.OGG, ogg, 8192);
+
+        assertThat(properties).isEqualTo(new AudioProperties(7000L, 16000, null, 1));
+    }
+
+    @Test
+    void ogg_HeadAndTailRangesWithGap_StillFindsLastGranule() {
+        byte[] ogg = opus(48000L * 7, 200_000);
+        int head = AudioHeaderProbe.HEAD_BYTES;
+        int tail = AudioHeaderProbe.TAIL_BYTES;
+
+        AudioHeaderProbe probe = new AudioHeaderProbe(AudioFormat.OGG);
+        probe.update(ogg, 0, head);
+        probe.skip(ogg.length - head - tail);
+        probe.update(ogg, ogg.length - tail, tail);
+
+        assertThat(probe.finish().durationMillis()).isEqualTo(7000L);
+    }
+
+    @Test
+    void m4a_MoovAfterMdat_ReadsSoundTrack() {
+        byte[] moov = box("moov",
+            box("trak",
+                box("mdia",
+                    box("mdhd", ByteBuffer.allocate(24).putInt(0).putInt(0).putInt(0)
+                        .putInt(44100).putInt(44100 * 4).array()),
+                    box("hdlr", ByteBuffer.allocate(24).putInt(0).putInt(0).put(ascii("soun")).array()),
+                    box("minf",
+                        box("stbl",
+                            box("stsd", ByteBuffer.allocate(8 + 36).putInt(0).putInt(1)
+                                .putInt(36).put(ascii("mp4a")).put(new byte[6]).putShort((short) 1)
+                                .put(new byte[8]).putShort((short) 2).putShort((short) 16)
+                                .putShort((short) 0).putShort((short) 0).putInt(44100 << 16).array()))))));
+        byte[] m4a = concat(box("ftyp", ascii("M4A isom")), box("mdat", new byte[300_000]), moov);
+
+        AudioProperties properties = probe(AudioFormat.M4A, m4a, 1000);
+
+        assertThat(properties).isEqualTo(new AudioProperties(4000L, 44100, null, 2));
+    }
+
+    @Test
+    void unreadableHeader_ReturnsUnknown() {
+        byte[] garbage = "definitely not a riff header".getBytes(StandardCharsets.ISO_8859_1);
+
+        for (AudioFormat format : AudioFormat.values()) {
+            assertThat(probe(format, garbage, 7).durationMillis()).isNull();
+        }
+    }
+
+    private static AudioProperties probe(AudioFormat format, byte[] content, int chunkSize) {
+        AudioHeaderProbe probe = new AudioHeaderProbe(format);
+        for (int offset = 0; offset < content.length; offset += chunkSize) {
+            probe.update(content, offset, Math.min(chunkSize, content.length - offset));
+        }
+        return probe.finish();
+    }
+
+    private static byte[] wav(int sampleRate, int channels, int bitDepth, int dataSize, boolean unsetSize) {
+        int blockAlign = channels * bitDepth / 8;
+        ByteBuffer wav = ByteBuffer.allocate(44 + dataSize).order(ByteOrder.LITTLE_ENDIAN);
+        wav.put(ascii("RIFF")).putInt(unsetSize ? -1 : 36 + dataSize).put(ascii("WAVE"));
+        wav.put(ascii("fmt ")).putInt(16).putShort((short) 1).putShort((short) channels)
+            .putInt(sampleRate).putInt(sampleRate * blockAlign).putShort((short) blockAlign).putShort((short) bitDepth);
+        wav.put(ascii("data")).putInt(unsetSize ? -1 : dataSize);
+        return wav.array();
+    }
+
+    // MPEG-1 layer III, 128 kbit/s, 44.1 kHz, stereo
+    private static byte[] mp3FrameHeader() {
+        return new byte[] {(byte) 0xFF, (byte) 0xFB, (byte) 0x90, 0x00};
+    }
+
+    private static byte[] opus(long lastGranule, int length) {
+        int preSkip = 312;
+        ByteBuffer opusHead = ByteBuffer.allocate(19).order(ByteOrder.LITTLE_ENDIAN);
+        opusHead.put(ascii("OpusHead")).put((byte) 1).put((byte) 1).putShort((short) preSkip).putInt(16000);
+        byte[] first = concat(oggPage(0x02, 0), new byte[] {19}, opusHead.array());
+        byte[] last = concat(oggPage(0x04, lastGranule + preSkip), new byte[] {10}, new byte[10]);
+
+        byte[] ogg = Arrays.copyOf(first, length);
+        System.arraycopy(last, 0, ogg, length - last.length, last.length);
+        return ogg;
+    }
+
+    private static byte[] oggPage(int headerType, long granule) {
+        ByteBuffer page = ByteBuffer.allocate(27).order(ByteOrder.LITTLE_ENDIAN);
+        page.put(ascii("OggS")).put((byte) 0).put((byte) headerType).putLong(granule)
+            .putInt(1).putInt(0).putInt(0).put((byte) 1);
+        return page.array();
+    }
+
+    private static byte[] box(String type, byte[]... children) {
+        byte[] body = concat(children);
+        return ByteBuffer.allocate(8 + body.length).putInt(8 + body.length).put(ascii(type)).put(body).array();
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            out.writeBytes(part);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.ISO_8859_1);
+    }
+}
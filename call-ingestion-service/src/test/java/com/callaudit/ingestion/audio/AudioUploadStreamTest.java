@@ -0,0 +1,121 @@
+package com.callaudit.ingestion.audio;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for AudioUploadStream and AudioFormat signature sniffing
+ */
+@Tag("unit")
+class AudioUploadStreamTest {
+
+    private static final byte[] WAV_HEADER = "RIFF$\u0000\u0000\u0000WAVEfmt ".getBytes(StandardCharsets.ISO_8859_1);
+
+    @Test
+    void verifySignature_MatchingWav_PassesAndReplaysHeader() throws IOException {
+        AudioUploadStream stream = new AudioUploadStream(new ByteArrayInputStream(WAV_HEADER), 1024);
+
+        stream.verifySignature(AudioFormat.WAV);
+        byte[] content = stream.readAllBytes();
+
+        assertThat(content).isEqualTo(WAV_HEADER);
+        assertThat(stream.getBytesRead()).isEqualTo(WAV_HEADER.length);
+    }
+
+    @Test
+    void verifySignature_MismatchedFormat_ThrowsException() {
+        AudioUploadStream stream = new AudioUploadStream(
+            new ByteArrayInputStream("not an audio file".getBytes()), 1024);
+
+        assertThatThrownBy(() -> stream.verifySignature(AudioFormat.WAV))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("does not match the WAV format");
+    }
+
+    @Test
+    void verifySignature_EmptyStream_ThrowsException() {
+        AudioUploadStream stream = new AudioUploadStream(new ByteArrayInputStream(new byte[0]), 1024);
+
+        assertThatThrownBy(() -> stream.verifySignature(AudioFormat.MP3))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("File cannot be null or empty");
+    }
+
+    @Test
+    void getSha256_CoversSniffedAndSkippedBytes() throws IOException, NoSuchAlgorithmException {
+        AudioUploadStream stream = new AudioUploadStream(new ByteArrayInputStream(WAV_HEADER), 1024);
+
+        stream.verifySignature(AudioFormat.WAV);
+        stream.skip(4);
+        stream.readAllBytes();
+
+        assertThat(stream.getSha256()).isEqualTo(
+            HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(WAV_HEADER)));
+    }
+
+    @Test
+    void read_ExceedsLimit_FailsAndFlagsStream() throws IOException {
+        AudioUploadStream stream = new AudioUploadStream(new ByteArrayInputStream(new byte[64]), 32);
+
+        assertThatThrownBy(stream::readAllBytes)
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("exceeds maximum allowed size");
+        assertThat(stream.isLimitExceeded()).isTrue();
+    }
+
+    @Test
+    void probeHeader_ReadsPropertiesAsBytesPass() throws IOException {
+        byte[] wav = new byte[44 + 16000];
+        ByteBuffer.wrap(wav).order(ByteOrder.LITTLE_ENDIAN)
+            .put("RIFF".getBytes(StandardCharsets.ISO_8859_1)).putInt(36 + 16000)
+            .put("WAVEfmt ".getBytes(StandardCharsets.ISO_8859_1)).putInt(16)
+            .putShort((short) 1).putShort((short) 1).putInt(8000).putInt(16000).putShort((short) 2).putShort((short) 16)
+            .put("data".getBytes(StandardCharsets.ISO_8859_1)).putInt(16000);
+        AudioUploadStream stream = new AudioUploadStream(new ByteArrayInputStream(wav), wav.length);
+
+        stream.verifySignature(AudioFormat.WAV);
+        stream.probeHeader(AudioFormat.WAV);
+        stream.transferTo(OutputStream.nullOutputStream());
+
+        assertThat(stream.getAudioProperties()).isEqualTo(new AudioProperties(1000L, 8000, 16, 1));
+    }
+
+    @Test
+    void getAudioProperties_WithoutProbe_ReturnsUnknown() throws IOException {
+        AudioUploadStream stream = new AudioUploadStream(new ByteArrayInputStream(WAV_HEADER), 1024);
+
+        stream.readAllBytes();
+
+        assertThat(stream.getAudioProperties()).isEqualTo(AudioProperties.UNKNOWN);
+    }
+
+    @Test
+    void matchesSignature_RecognisesEachFormat() {
+        assertThat(AudioFormat.FLAC.matchesSignature("fLaC\u0000\u0000".getBytes(StandardCharsets.ISO_8859_1), 6)).isTrue();
+        assertThat(AudioFormat.OGG.matchesSignature("OggS\u0000\u0002".getBytes(StandardCharsets.ISO_8859_1), 6)).isTrue();
+        assertThat(AudioFormat.M4A.matchesSignature("\u0000\u0000\u0000 ftypM4A ".getBytes(StandardCharsets.ISO_8859_1), 12)).isTrue();
+        assertThat(AudioFormat.MP3.matchesSignature(new byte[]{(byte) 0xFF, (byte) 0xFB, (byte) 0x90, 0x00}, 4)).isTrue();
+        assertThat(AudioFormat.MP3.matchesSignature("ID3\u0004".getBytes(StandardCharsets.ISO_8859_1), 4)).isTrue();
+        assertThat(AudioFormat.OGG.matchesSignature(WAV_HEADER, WAV_HEADER.length)).isFalse();
+    }
+
+    @Test
+    void fromExtension_IsCaseInsensitive() {
+        assertThat(AudioFormat.fromExtension("WAV")).contains(AudioFormat.WAV);
+        assertThat(AudioFormat.fromExtension("txt")).isEmpty();
+        assertThat(AudioFormat.fromExtension(null)).isEmpty();
+    }
+}
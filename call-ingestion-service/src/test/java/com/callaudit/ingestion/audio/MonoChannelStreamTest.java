@@ -0,0 +1,83 @@
+package com.callaudit.ingestion.audio;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for MonoChannelStream
+ */
+@Tag("unit")
+class MonoChannelStreamTest {
+
+    @Test
+    void stereo16Bit_SplitsIntoLeftAndRight() throws IOException {
+        byte[] stereo = wav(2, 16, 10_000, (channel, i) -> channel == 0 ? i : -i);
+
+        assertThat(extract(stereo, 0)).isEqualTo(wav(1, 16, 10_000, (channel, i) -> i));
+        assertThat(extract(stereo, 1)).isEqualTo(wav(1, 16, 10_000, (channel, i) -> -i));
+    }
+
+    @Test
+    void stereo24Bit_KeepsSampleWidth() throws IOException {
+        byte[] stereo = wav(2, 24, 5_000, (channel, i) -> channel == 0 ? i * 300 : 7);
+
+        assertThat(extract(stereo, 0)).isEqualTo(wav(1, 24, 5_000, (channel, i) -> i * 300));
+    }
+
+    @Test
+    void size_MatchesExtractedLength() throws IOException {
+        byte[] stereo = wav(2, 16, 1_234, (channel, i) -> i);
+
+        MonoChannelStream stream = MonoChannelStream.open(new ByteArrayInputStream(stereo), 1);
+
+        assertThat(stream.size()).isEqualTo((long) stream.readAllBytes().length);
+    }
+
+    @Test
+    void missingChannel_IsRejected() {
+        byte[] mono = wav(1, 16, 100, (channel, i) -> i);
+
+        assertThatThrownBy(() -> MonoChannelStream.open(new ByteArrayInputStream(mono), 1))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("1 channels");
+    }
+
+    private interface SampleSource {
+        int sample(int channel, int index);
+    }
+
+    private static byte[] extract(byte[] wav, int channel) throws IOException {
+        try (MonoChannelStream stream = MonoChannelStream.open(new ByteArrayInputStream(wav), channel)) {
+            return stream.readAllBytes();
+        }
+    }
+
+    private static byte[] wav(int channels, int bitsPerSample, int frames, SampleSource source) {
+        int bytesPerSample = bitsPerSample / 8;
+        int dataSize = frames * channels * bytesPerSample;
+        ByteBuffer data = ByteBuffer.allocate(dataSize).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < frames; i++) {
+            for (int c = 0; c < channels; c++) {
+                int sample = source.sample(c, i);
+                if (bytesPerSample == 2) {
+                    data.putShort((short) sample);
+                } else {
+                    data.put((byte) sample).put((byte) (sample >> 8)).put((byte) (sample >> 16));
+                }
+            }
+        }
+        byte[] header = WavHeader.canonical(channels, 8000, bitsPerSample, dataSize);
+        byte[] wav = new byte[header.length + dataSize];
+        System.arraycopy(header, 0, wav, 0, header.length);
+        System.arraycopy(data.array(), 0, wav, header.length, dataSize);
+        return wav;
+    }
+}
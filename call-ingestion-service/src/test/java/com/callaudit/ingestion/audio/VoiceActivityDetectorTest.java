@@ -0,0 +1,109 @@
+package com.callaudit.ingestion.audio;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for VoiceActivityDetector
+ */
+@Tag("unit")
+class VoiceActivityDetectorTest {
+
+    private static final int RATE = 8000;
+
+    private final VoiceActivityDetector detector =
+        new VoiceActivityDetector(9, Duration.ofMillis(500), Duration.ofMillis(200));
+
+    @Test
+    void speechBetweenDeadAir_IsFoundWithPadding() throws IOException {
+        // 0-3s hiss, 3-5s speech, 5-9s hiss, 9-10s speech
+        byte[] wav = wav(10, t -> t >= 3 && t < 5 || t >= 9);
+
+        VoiceActivityDetector.SpeechMap speech = detect(wav);
+
+        List<VoiceActivityDetector.Region> regions = speech.regions();
+        assertThat(regions).hasSize(2);
+        assertThat(speech.toMillis(regions.get(0).startSample())).isEqualTo(2_800L);
+        assertThat(speech.toMillis(regions.get(0).endSample())).isEqualTo(5_200L);
+        assertThat(speech.toMillis(regions.get(1).startSample())).isEqualTo(8_800L);
+        assertThat(regions.get(1).endSample()).isEqualTo(10L * RATE);
+    }
+
+    @Test
+    void shortPauses_AreBridged() throws IOException {
+        // speech with a 300ms pause at 2s
+        byte[] wav = wav(6, t -> t >= 1 && t < 5 && !(t >= 2 && t < 2.3));
+
+        VoiceActivityDetector.SpeechMap speech = detect(wav);
+
+        assertThat(speech.regions()).hasSize(1);
+    }
+
+    @Test
+    void silentRecording_HasNoSpeech() throws IOException {
+        byte[] wav = wav(5, t -> false);
+
+        VoiceActivityDetector.SpeechMap speech = detect(wav);
+
+        assertThat(speech.regions()).isEmpty();
+        assertThat(speech.trimmedFileSize()).isEqualTo(44L);
+    }
+
+    @Test
+    void trim_KeepsOnlySpeechSamples() throws IOException {
+        byte[] wav = wav(10, t -> t >= 3 && t < 5 || t >= 9);
+        VoiceActivityDetector.SpeechMap speech = detect(wav);
+
+        byte[] trimmed;
+        try (InputStream in = VoiceActivityDetector.trim(new ByteArrayInputStream(wav), speech)) {
+            trimmed = in.readAllBytes();
+        }
+
+        assertThat((long) trimmed.length).isEqualTo(speech.trimmedFileSize());
+        WavHeader header = WavHeader.read(new ByteArrayInputStream(trimmed));
+        assertThat(header.dataSize()).isEqualTo(speech.speechSamples() * 2);
+        VoiceActivityDetector.Region second = speech.regions().get(1);
+        int firstLength = (int) speech.regions().get(0).sampleCount();
+        int original = 44 + (int) second.startSample() * 2;
+        int copied = 44 + firstLength * 2;
+        assertThat(trimmed[copied]).isEqualTo(wav[original]);
+        assertThat(trimmed[trimmed.length - 1]).isEqualTo(wav[wav.length - 1]);
+    }
+
+    private interface Speaking {
+        boolean at(double seconds);
+    }
+
+    private VoiceActivityDetector.SpeechMap detect(byte[] wav) throws IOException {
+        return detector.detect(FrameEnergy.measure(new ByteArrayInputStream(wav)).orElseThrow());
+    }
+
+    /**
+     * 16-bit mono: a loud tone while speaking, faint noise otherwise
+     */
+    private static byte[] wav(int seconds, Speaking speaking) {
+        Random random = new Random(7);
+        int samples = seconds * RATE;
+        ByteBuffer data = ByteBuffer.allocate(samples * 2).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < samples; i++) {
+            boolean speech = speaking.at((double) i / RATE);
+            data.putShort((short) (speech ? 6000 * Math.sin(i * 0.2) : random.nextInt(21) - 10));
+        }
+        byte[] header = WavHeader.canonical(1, RATE, 16, samples * 2L);
+        byte[] wav = new byte[header.length + samples * 2];
+        System.arraycopy(header, 0, wav, 0, header.length);
+        System.arraycopy(data.array(), 0, wav, header.length, samples * 2);
+        return wav;
+    }
+}
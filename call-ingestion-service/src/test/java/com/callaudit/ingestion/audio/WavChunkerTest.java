@@ -0,0 +1,117 @@
+package com.callaudit.ingestion.audio;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for WavChunker
+ */
+@Tag("unit")
+class WavChunkerTest {
+
+    private static final int RATE = 8000;
+
+    private final WavChunker chunker = new WavChunker(Duration.ofSeconds(10), Duration.ofSeconds(1), Duration.ofSeconds(3));
+
+    @Test
+    void shortRecording_IsNotSplit() throws IOException {
+        byte[] wav = wav(15, List.of());
+
+        Optional<WavChunker.Plan> plan = chunker.plan(new ByteArrayInputStream(wav));
+
+        assertThat(plan).isPresent();
+        assertThat(plan.get().totalSamples()).isEqualTo(15L * RATE);
+        assertThat(plan.get().chunks()).isEmpty();
+    }
+
+    @Test
+    void longRecording_IsCutInsidePauses() throws IOException {
+        // pauses at 8.5-9.5s and 17.5-18.5s, both within 3s before the nominal boundaries
+        byte[] wav = wav(27, List.of(8.5, 17.5));
+
+        WavChunker.Plan plan = chunker.plan(new ByteArrayInputStream(wav)).orElseThrow();
+
+        List<WavChunker.Chunk> chunks = plan.chunks();
+        assertThat(chunks).hasSize(3);
+        assertThat(chunks.get(0).startSample()).isZero();
+        assertThat(plan.toMillis(chunks.get(0).endSample())).isBetween(9_000L + 400, 9_000L + 600);
+        assertThat(plan.toMillis(chunks.get(1).startSample())).isBetween(9_000L - 600, 9_000L - 400);
+        assertThat(plan.toMillis(chunks.get(1).endSample())).isBetween(18_000L + 400, 18_000L + 600);
+        assertThat(chunks.get(2).endSample()).isEqualTo(27L * RATE);
+    }
+
+    @Test
+    void shortRemainder_JoinsLastChunk() throws IOException {
+        byte[] wav = wav(21, List.of());
+
+        WavChunker.Plan plan = chunker.plan(new ByteArrayInputStream(wav)).orElseThrow();
+
+        assertThat(plan.chunks()).hasSize(2);
+        assertThat(plan.chunks().get(1).endSample()).isEqualTo(21L * RATE);
+    }
+
+    @Test
+    void split_WritesOverlappingWavFiles() throws IOException {
+        byte[] wav = wav(27, List.of(8.5, 17.5));
+        WavChunker.Plan plan = chunker.plan(new ByteArrayInputStream(wav)).orElseThrow();
+        List<byte[]> files = new ArrayList<>();
+
+        chunker.split(new ByteArrayInputStream(wav), plan, (chunk, in, size) -> {
+            byte[] file = in.readAllBytes();
+            assertThat((long) file.length).isEqualTo(size);
+            files.add(file);
+        });
+
+        assertThat(files).hasSize(plan.chunks().size());
+        for (int i = 0; i < files.size(); i++) {
+            WavChunker.Chunk chunk = plan.chunks().get(i);
+            byte[] file = files.get(i);
+            WavHeader header = WavHeader.read(new ByteArrayInputStream(file));
+            assertThat(header.isPcm()).isTrue();
+            assertThat(header.dataSize()).isEqualTo(chunk.sampleCount() * 2);
+            for (long s = 0; s < chunk.sampleCount(); s += 997) {
+                int offset = 44 + (int) s * 2;
+                int original = 44 + (int) (chunk.startSample() + s) * 2;
+                assertThat(file[offset]).isEqualTo(wav[original]);
+                assertThat(file[offset + 1]).isEqualTo(wav[original + 1]);
+            }
+        }
+    }
+
+    @Test
+    void nonPcm_IsNotPlanned() throws IOException {
+        byte[] wav = wav(1, List.of());
+        wav[20] = 3; // IEEE float
+
+        assertThat(chunker.plan(new ByteArrayInputStream(wav))).isEmpty();
+    }
+
+    /**
+     * 16-bit mono tone with a 1-second pause starting at each of the given offsets
+     */
+    private static byte[] wav(int seconds, List<Double> pauses) {
+        int samples = seconds * RATE;
+        ByteBuffer data = ByteBuffer.allocate(samples * 2).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < samples; i++) {
+            double t = (double) i / RATE;
+            boolean paused = pauses.stream().anyMatch(p -> t >= p && t < p + 1);
+            data.putShort((short) (paused ? 0 : 8000 * Math.sin(i * 0.3) + (i % 7)));
+        }
+        byte[] header = WavHeader.canonical(1, RATE, 16, samples * 2L);
+        byte[] wav = new byte[header.length + samples * 2];
+        System.arraycopy(header, 0, wav, 0, header.length);
+        System.arraycopy(data.array(), 0, wav, header.length, samples * 2);
+        return wav;
+    }
+}
@@ -0,0 +1,201 @@
+package com.callaudit.ingestion.audio;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for WavToFlacStream and FlacToWavStream
+ */
+@Tag("unit")
+class WavToFlacStreamTest {
+
+    @Test
+    void speechLikeStereo_RoundTripsAndShrinks() throws IOException {
+        byte[] wav = wav(8000, 2, 16, 8000 * 10, (channel, i) ->
+            (int) (6000 * Math.sin(i * (channel == 0 ? 0.05 : 0.031)) + 1500 * Math.sin(i * 0.4)));
+
+        byte[] flac = encode(wav);
+
+        assertThat(new String(flac, 0, 4, StandardCharsets.ISO_8859_1)).isEqualTo("fLaC");
+        assertThat(flac.length).isLessThan(wav.length / 2);
+        assertThat(decode(flac)).isEqualTo(wav);
+    }
+
+    @Test
+    void noiseAndPartialLastBlock_RoundTrip() throws IOException {
+        Random random = new Random(42);
+        byte[] wav = wav(44100, 2, 24, 4096 * 3 + 123, (channel, i) -> random.nextInt(1 << 24) - (1 << 23));
+
+        assertThat(decode(encode(wav))).isEqualTo(wav);
+    }
+
+    @Test
+    void monoEightBitWithSilence_RoundTrips() throws IOException {
+        byte[] wav = wav(11025, 1, 8, 20_000, (channel, i) -> i < 5000 ? 0 : (i % 50) - 25);
+
+        assertThat(decode(encode(wav))).isEqualTo(wav);
+    }
+
+    @Test
+    void extraChunksBeforeData_AreRestored() throws IOException {
+        byte[] plain = wav(16000, 1, 16, 1000, (channel, i) -> i * 7);
+        byte[] list = chunk("LIST", "INFOISFT\u0006\u0000\u0000\u0000agent\u0000".getBytes(StandardCharsets.ISO_8859_1));
+        byte[] wav = new byte[plain.length + list.length];
+        System.arraycopy(plain, 0, wav, 0, 36);
+        System.arraycopy(list, 0, wav, 36, list.length);
+        System.arraycopy(plain, 36, wav, 36 + list.length, plain.length - 36);
+
+        assertThat(decode(encode(wav))).isEqualTo(wav);
+    }
+
+    @Test
+    void trailingChunks_AreReadButNotKept() throws IOException {
+        byte[] plain = wav(8000, 1, 16, 800, (channel, i) -> i);
+        byte[] trailer = chunk("LIST", new byte[20]);
+        byte[] wav = new byte[plain.length + trailer.length];
+        System.arraycopy(plain, 0, wav, 0, plain.length);
+        System.arraycopy(trailer, 0, wav, plain.length, trailer.length);
+        ByteArrayInputStream source = new ByteArrayInputStream(wav);
+
+        WavToFlacStream flac = WavToFlacStream.open(source);
+        byte[] encoded = flac.readAllBytes();
+
+        assertThat(source.available()).isZero();
+        assertThat(decode(encoded)).isEqualTo(plain);
+    }
+
+    @Test
+    void nonPcmWav_PassesThroughUnchanged() throws IOException {
+        byte[] wav = wav(8000, 1, 8, 400, (channel, i) -> i % 100);
+        wav[20] = 7; // WAVE_FORMAT_MULAW
+
+        WavToFlacStream stream = WavToFlacStream.open(new ByteArrayInputStream(wav));
+
+        assertThat(stream.isTranscoding()).isFalse();
+        assertThat(stream.readAllBytes()).isEqualTo(wav);
+        assertThat(stream.getBytesWritten()).isEqualTo(wav.length);
+    }
+
+    @Test
+    void decodedFlac_WithoutRiffBlock_GetsCanonicalHeader() throws IOException {
+        byte[] wav = wav(8000, 1, 16, 100, (channel, i) -> i);
+        byte[] streamInfo = FlacFrameEncoder.streamHeader(1, 8000, 16, 100, true);
+        byte[] flac = encode(wav);
+        int firstFrame = streamInfo.length + 4 + 4 + 44; // STREAMINFO, APPLICATION header, "riff", WAV header
+        byte[] withoutRiff = new byte[streamInfo.length + flac.length - firstFrame];
+        System.arraycopy(streamInfo, 0, withoutRiff, 0, streamInfo.length);
+        System.arraycopy(flac, firstFrame, withoutRiff, streamInfo.length, flac.length - firstFrame);
+
+        assertThat(decode(withoutRiff)).isEqualTo(wav);
+    }
+
+    @Test
+    void foreignFlac_LpcAndWastedBitsSubframes_AreDecoded() throws IOException {
+        FlacFrameEncoder.BitWriter out = new FlacFrameEncoder.BitWriter(256);
+        byte[] streamInfo = FlacFrameEncoder.streamHeader(1, 8000, 16, 48, true);
+        for (byte b : streamInfo) {
+            out.writeBits(b & 0xFF, 8);
+        }
+
+        // Frame 0: 32 samples of 3i^2 as order-2 LPC (2, -1), residual 6 Rice-coded with k=3
+        frameHeader(out, 0, 32);
+        out.writeBits(0, 1);
+        out.writeBits(0x20 | 1, 6);
+        out.writeBits(0, 1);
+        out.writeBits(0, 16);
+        out.writeBits(3, 16);
+        out.writeBits(3 - 1, 4);  // coefficient precision
+        out.writeBits(0, 5);      // shift
+        out.writeBits(2, 3);
+        out.writeBits(-1, 3);
+        out.writeBits(0, 2);      // Rice, 4-bit parameters
+        out.writeBits(0, 4);      // one partition
+        out.writeBits(3, 4);
+        for (int i = 2; i < 32; i++) {
+            out.writeUnary(12 >> 3);
+            out.writeBits(12 & 7, 3);
+        }
+        frameFooter(out);
+
+        // Frame 1: 16 samples of 400 as CONSTANT 100 with two wasted bits
+        frameHeader(out, 1, 16);
+        out.writeBits(0, 1);
+        out.writeBits(0, 6);
+        out.writeBits(1, 1);
+        out.writeUnary(1);
+        out.writeBits(100, 14);
+        frameFooter(out);
+
+        byte[] expected = wav(8000, 1, 16, 48, (channel, i) -> i < 32 ? 3 * i * i : 400);
+        assertThat(decode(out.toByteArray())).isEqualTo(expected);
+    }
+
+    private static void frameHeader(FlacFrameEncoder.BitWriter out, int frameNumber, int blockSize) {
+        out.writeBits(0xFFF8, 16);
+        out.writeBits(7, 4);      // 16-bit block size follows
+        out.writeBits(0, 4);      // sample rate from STREAMINFO
+        out.writeBits(0, 4);      // mono
+        out.writeBits(0, 4);      // sample size from STREAMINFO
+        out.writeBits(frameNumber, 8);
+        out.writeBits(blockSize - 1, 16);
+        out.writeBits(0, 8);      // CRC-8, not checked
+    }
+
+    private static void frameFooter(FlacFrameEncoder.BitWriter out) {
+        out.alignToByte();
+        out.writeBits(0, 16);     // CRC-16, not checked
+    }
+
+    private interface SampleSource {
+        int sample(int channel, int index);
+    }
+
+    private static byte[] encode(byte[] wav) throws IOException {
+        WavToFlacStream stream = WavToFlacStream.open(new ByteArrayInputStream(wav));
+        assertThat(stream.isTranscoding()).isTrue();
+        byte[] flac = stream.readAllBytes();
+        assertThat(stream.getBytesWritten()).isEqualTo(flac.length);
+        return flac;
+    }
+
+    private static byte[] decode(byte[] flac) throws IOException {
+        try (FlacToWavStream stream = new FlacToWavStream(new ByteArrayInputStream(flac))) {
+            return stream.readAllBytes();
+        }
+    }
+
+    private static byte[] wav(int sampleRate, int channels, int bitsPerSample, int frames, SampleSource source) {
+        int bytesPerSample = bitsPerSample / 8;
+        int dataSize = frames * channels * bytesPerSample;
+        ByteBuffer data = ByteBuffer.allocate(dataSize).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < frames; i++) {
+            for (int c = 0; c < channels; c++) {
+                int sample = source.sample(c, i);
+                switch (bytesPerSample) {
+                    case 1 -> data.put((byte) (sample + 128));
+                    case 2 -> data.putShort((short) sample);
+                    default -> data.put((byte) sample).put((byte) (sample >> 8)).put((byte) (sample >> 16));
+                }
+            }
+        }
+        byte[] header = WavHeader.canonical(channels, sampleRate, bitsPerSample, dataSize);
+        byte[] wav = new byte[header.length + dataSize];
+        System.arraycopy(header, 0, wav, 0, header.length);
+        System.arraycopy(data.array(), 0, wav, header.length, dataSize);
+        return wav;
+    }
+
+    private static byte[] chunk(String id, byte[] body) {
+        return ByteBuffer.allocate(8 + body.length).order(ByteOrder.LITTLE_ENDIAN)
+            .put(id.getBytes(StandardCharsets.ISO_8859_1)).putInt(body.length).put(body).array();
+    }
+}
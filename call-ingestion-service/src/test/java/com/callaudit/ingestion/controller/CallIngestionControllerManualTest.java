@@ -1,5 +1,6 @@
 package com.callaudit.ingestion.controller;
 
+import com.callaudit.ingestion.audio.AudioFormat;
 import com.callaudit.ingestion.model.Call;
 import com.callaudit.ingestion.model.CallChannel;
 import com.callaudit.ingestion.model.CallStatus;
@@ -69,6 +70,8 @@ class CallIngestionControllerManualTest {
     private static final String TEST_CALLER_ID = "555-0123";
     private static final String TEST_AGENT_ID = "agent-001";
     private static final String TEST_AUDIO_URL = "http://localhost:9000/calls/2025/01/test-id.wav";
+    private static final String TEST_OBJECT_NAME = "2025/01/test-id.wav";
+    private static final byte[] TEST_AUDIO_BYTES = "test audio content".getBytes();
 
     @BeforeEach
     void setUp() {
@@ -88,7 +91,7 @@ class CallIngestionControllerManualTest {
 
         Call mockCall = createMockCall(callId, TEST_CALLER_ID, TEST_AGENT_ID, CallChannel.INBOUND);
 
-        when(callIngestionService.processUpload(any(), anyString(), anyString(), any(CallChannel.class)))
+        when(callIngestionService.processUpload(any(), anyString(), anyString(), any(CallChannel.class), any(), any()))
             .thenReturn(mockCall);
 
         mockMvc.perform(multipart("/api/calls/upload")
@@ -114,6 +117,115 @@ class CallIngestionControllerManualTest {
             .andExpect(jsonPath("$.callerId").value(TEST_CALLER_ID));
     }
 
+    @Test
+    void getCallAudio_NoRange_Returns200WithValidators() throws Exception {
+        UUID callId = stubStoredAudio();
+        when(storageService.downloadFile(TEST_OBJECT_NAME, 0, null))
+            .thenReturn(new ByteArrayInputStream(TEST_AUDIO_BYTES));
+
+        mockMvc.perform(get("/api/calls/{callId}/audio", callId))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", "\"abc123\""))
+            .andExpect(header().string("Accept-Ranges", "bytes"))
+            .andExpect(header().exists("Last-Modified"))
+            .andExpect(header().longValue("Content-Length", TEST_AUDIO_BYTES.length))
+            .andExpect(content().contentType("audio/wav"));
+
+        verify(storageService, never()).statFile(anyString());
+    }
+
+    @Test
+    void getCallAudio_SingleRange_Returns206FromRangedGet() throws Exception {
+        UUID callId = stubStoredAudio();
+        when(storageService.downloadFile(TEST_OBJECT_NAME, 2, 4L))
+            .thenReturn(new ByteArrayInputStream(TEST_AUDIO_BYTES, 2, 4));
+
+        mockMvc.perform(get("/api/calls/{callId}/audio", callId).header("Range", "bytes=2-5"))
+            .andExpect(status().isPartialContent())
+            .andExpect(header().string("Content-Range", "bytes 2-5/" + TEST_AUDIO_BYTES.length))
+            .andExpect(header().longValue("Content-Length", 4))
+            .andExpect(content().bytes("dio ".getBytes()));
+    }
+
+    @Test
+    void getCallAudio_RangePastEnd_Returns416() throws Exception {
+        UUID callId = stubStoredAudio();
+
+        mockMvc.perform(get("/api/calls/{callId}/audio", callId).header("Range", "bytes=500-"))
+            .andExpect(status().isRequestedRangeNotSatisfiable())
+            .andExpect(header().string("Content-Range", "bytes */" + TEST_AUDIO_BYTES.length));
+
+        verify(storageService, never()).downloadFile(anyString(), anyLong(), any());
+    }
+
+    @Test
+    void getCallAudio_StaleIfRange_Returns200WholeFile() throws Exception {
+        UUID callId = stubStoredAudio();
+        when(storageService.downloadFile(TEST_OBJECT_NAME, 0, null))
+            .thenReturn(new ByteArrayInputStream(TEST_AUDIO_BYTES));
+
+        mockMvc.perform(get("/api/calls/{callId}/audio", callId)
+                .header("Range", "bytes=2-5")
+                .header("If-Range", "\"older\""))
+            .andExpect(status().isOk())
+            .andExpect(content().bytes(TEST_AUDIO_BYTES));
+    }
+
+    @Test
+    void getCallAudio_MatchingIfNoneMatch_Returns304WithoutDownload() throws Exception {
+        UUID callId = stubStoredAudio();
+
+        mockMvc.perform(get("/api/calls/{callId}/audio", callId).header("If-None-Match", "W/\"abc123\""))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string("ETag", "\"abc123\""));
+
+        verify(storageService, never()).downloadFile(anyString(), anyLong(), any());
+    }
+
+    @Test
+    void getCallAudio_PresignedMode_RedirectsToMinio() throws Exception {
+        UUID callId = stubStoredAudio();
+        String signedUrl = "http://localhost:9000/calls/" + TEST_OBJECT_NAME + "?X-Amz-Signature=abc";
+        when(storageService.isPresignedEnabled()).thenReturn(true);
+        when(storageService.presignDownload(TEST_OBJECT_NAME))
+            .thenReturn(new StorageService.PresignedUrl(signedUrl, Instant.now().plusSeconds(900)));
+
+        mockMvc.perform(get("/api/calls/{callId}/audio", callId))
+            .andExpect(status().isTemporaryRedirect())
+            .andExpect(header().string("Location", signedUrl))
+            .andExpect(header().string("Cache-Control", "no-store"));
+
+        verify(storageService, never()).statFile(anyString());
+    }
+
+    @Test
+    void getCallAudio_TranscodedWavRequestedAsWav_DecodesStoredFlac() throws Exception {
+        UUID callId = UUID.randomUUID();
+        StorageService.StoredObject flac = new StorageService.StoredObject(
+            "2025/01/" + callId + ".flac", 10, "abc123", Instant.parse("2025-01-15T10:00:00Z"), "audio/flac");
+        when(callIngestionService.getStoredAudio(callId)).thenReturn(Optional.of(flac));
+        when(callIngestionService.isTranscodedFrom(callId, AudioFormat.WAV)).thenReturn(true);
+        when(callIngestionService.openOriginalAudio(flac)).thenReturn(new ByteArrayInputStream(TEST_AUDIO_BYTES));
+
+        mockMvc.perform(get("/api/calls/{callId}/audio", callId).param("format", "wav"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", "\"abc123-wav\""))
+            .andExpect(header().string("Accept-Ranges", "none"))
+            .andExpect(content().contentType("audio/wav"))
+            .andExpect(content().bytes(TEST_AUDIO_BYTES));
+
+        verify(storageService, never()).statFile(anyString());
+    }
+
+    @Test
+    void getCallAudio_UnknownCall_Returns404() throws Exception {
+        UUID callId = UUID.randomUUID();
+        when(callIngestionService.getStoredAudio(callId)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/calls/{callId}/audio", callId))
+            .andExpect(status().isNotFound());
+    }
+
     @Test
     void health_ReturnsHealthy() throws Exception {
         mockMvc.perform(get("/api/calls/health"))
@@ -121,6 +233,13 @@ class CallIngestionControllerManualTest {
             .andExpect(content().string("Call Ingestion Service is healthy"));
     }
 
+    private UUID stubStoredAudio() {
+        UUID callId = UUID.randomUUID();
+        when(callIngestionService.getStoredAudio(callId)).thenReturn(Optional.of(new StorageService.StoredObject(
+            TEST_OBJECT_NAME, TEST_AUDIO_BYTES.length, "abc123", Instant.parse("2025-01-15T10:00:00Z"), "audio/wav")));
+        return callId;
+    }
+
     private Call createMockCall(UUID id, String callerId, String agentId, CallChannel channel) {
         return Call.builder()
             .id(id)
@@ -0,0 +1,58 @@
+package com.callaudit.ingestion.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for AudioMetadataCache
+ */
+@Tag("unit")
+class AudioMetadataCacheTest {
+
+    private AudioMetadataCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new AudioMetadataCache();
+        ReflectionTestUtils.setField(cache, "maxEntries", 2);
+    }
+
+    @Test
+    void put_OverCapacity_EvictsLeastRecentlyUsed() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+
+        cache.put(first, stored(first));
+        cache.put(second, stored(second));
+        cache.get(first); // first is now more recent than second
+        cache.put(third, stored(third));
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get(first)).isNotNull();
+        assertThat(cache.get(second)).isNull();
+        assertThat(cache.get(third)).isNotNull();
+    }
+
+    @Test
+    void evict_RemovesEntry() {
+        UUID callId = UUID.randomUUID();
+        cache.put(callId, stored(callId));
+
+        cache.evict(callId);
+
+        assertThat(cache.get(callId)).isNull();
+    }
+
+    private static StorageService.StoredObject stored(UUID callId) {
+        return new StorageService.StoredObject("2025/01/" + callId + ".wav", 1024L, callId.toString(),
+            Instant.now(), "audio/wav");
+    }
+}
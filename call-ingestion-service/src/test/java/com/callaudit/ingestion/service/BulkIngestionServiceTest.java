@@ -0,0 +1,274 @@
+package com.callaudit.ingestion.service;
+
+import com.callaudit.ingestion.model.Call;
+import com.callaudit.ingestion.model.CallChannel;
+import com.callaudit.ingestion.model.CallPriority;
+import com.callaudit.ingestion.model.ChannelLayout;
+import com.callaudit.ingestion.repository.CallBatchRepository;
+import com.callaudit.ingestion.repository.CallRepository;
+import com.callaudit.ingestion.service.BulkIngestionReport.ItemResult;
+import com.callaudit.ingestion.service.BulkIngestionReport.ItemStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for BulkIngestionService
+ */
+@ExtendWith(MockitoExtension.class)
+@Tag("unit")
+class BulkIngestionServiceTest {
+
+    @Mock
+    private StorageService storageService;
+
+    @Mock
+    private CallBatchRepository callBatchRepository;
+
+    @Mock
+    private CallRepository callRepository;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private CallPreparationService callPreparationService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @InjectMocks
+    private BulkIngestionService bulkIngestionService;
+
+    private static final byte[] WAV_BYTES = "RIFF$\u0000\u0000\u0000WAVEfmt data".getBytes(StandardCharsets.ISO_8859_1);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(bulkIngestionService, "callReceivedTopic", "calls.received");
+        ReflectionTestUtils.setField(bulkIngestionService, "callReceivedPriorityTopic", "calls.received.priority");
+        ReflectionTestUtils.setField(bulkIngestionService, "uploadConcurrency", 2);
+        ReflectionTestUtils.setField(bulkIngestionService, "batchSize", 2);
+        ReflectionTestUtils.setField(bulkIngestionService, "maxEntries", 100);
+        ReflectionTestUtils.setField(bulkIngestionService, "defaultChannelLayout", ChannelLayout.MIXED);
+        bulkIngestionService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bulkIngestionService.shutdown();
+    }
+
+    @Test
+    void ingestArchive_UsesManifestAndDefaults() throws IOException {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("manifest.json", """
+            [{"filename": "a.wav", "callerId": "555-0001", "agentId": "agent-007", "channel": "OUTBOUND"}]
+            """.getBytes(StandardCharsets.UTF_8));
+        entries.put("calls/a.wav", WAV_BYTES);
+        entries.put("calls/b.wav", "RIFF$\u0000\u0000\u0000WAVEfmt b".getBytes(StandardCharsets.ISO_8859_1));
+        entries.put("calls/c.wav", "RIFF$\u0000\u0000\u0000WAVEfmt c".getBytes(StandardCharsets.ISO_8859_1));
+        stubStorageAndTransactions();
+
+        BulkIngestionReport report = bulkIngestionService.ingestArchive(
+            zip(entries), "555-9999", "agent-001", CallChannel.INBOUND);
+
+        assertThat(report.getTotal()).isEqualTo(3);
+        assertThat(report.getAccepted()).isEqualTo(3);
+        assertThat(report.getItems()).extracting(ItemResult::getFilename).containsExactly("a.wav", "b.wav", "c.wav");
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Call>> batchCaptor = ArgumentCaptor.forClass(List.class);
+        verify(callBatchRepository, times(2)).insertNew(batchCaptor.capture(), eq(2));
+        List<Call> firstBatch = batchCaptor.getAllValues().get(0);
+        assertThat(firstBatch.get(0).getCallerId()).isEqualTo("555-0001");
+        assertThat(firstBatch.get(0).getChannel()).isEqualTo(CallChannel.OUTBOUND);
+        assertThat(firstBatch.get(1).getAgentId()).isEqualTo("agent-001");
+
+        verify(outboxService, times(3)).enqueue(eq("calls.received"), anyString(), any(UUID.class),
+            eq("CallReceived"), any());
+    }
+
+    @Test
+    void ingestArchive_HighPriority_UsesPriorityTopic() throws IOException {
+        byte[] otherWav = "RIFF$\u0000\u0000\u0000WAVEfmt other".getBytes(StandardCharsets.ISO_8859_1);
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("manifest.json", """
+            [{"filename": "vip.wav", "priority": "HIGH"}]
+            """.getBytes(StandardCharsets.UTF_8));
+        entries.put("vip.wav", WAV_BYTES);
+        entries.put("backfill.wav", otherWav);
+        stubStorageAndTransactions();
+
+        BulkIngestionReport report = bulkIngestionService.ingestArchive(
+            zip(entries), "555-9999", "agent-001", CallChannel.INBOUND, CallPriority.NORMAL);
+
+        assertThat(report.getAccepted()).isEqualTo(2);
+        verify(outboxService).enqueue(eq("calls.received.priority"), eq(report.getItems().get(0).getCallId().toString()),
+            any(UUID.class), eq("CallReceived"), any());
+        verify(outboxService).enqueue(eq("calls.received"), eq(report.getItems().get(1).getCallId().toString()),
+            any(UUID.class), eq("CallReceived"), any());
+    }
+
+    @Test
+    void ingestArchive_RejectsInvalidEntriesAndKeepsGoing() throws IOException {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("notes.txt", "hello".getBytes());
+        entries.put("fake.wav", "not really audio".getBytes());
+        entries.put("real.wav", WAV_BYTES);
+        stubStorageAndTransactions();
+
+        BulkIngestionReport report = bulkIngestionService.ingestArchive(
+            zip(entries), "555-9999", "agent-001", CallChannel.INBOUND);
+
+        assertThat(report.getItems()).extracting(ItemResult::getStatus)
+            .containsExactly(ItemStatus.REJECTED, ItemStatus.REJECTED, ItemStatus.ACCEPTED);
+        assertThat(report.getItems().get(1).getMessage()).contains("does not match the WAV format");
+        verify(storageService, times(1)).uploadFile(any(UUID.class), any(InputStream.class), anyString(), anyLong(), anyString());
+    }
+
+    @Test
+    void ingestArchive_RepeatedContent_LinksToFirstCopy() throws IOException {
+        UUID existingCallId = UUID.randomUUID();
+        byte[] otherWav = "RIFF$\u0000\u0000\u0000WAVEfmt other".getBytes(StandardCharsets.ISO_8859_1);
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("first.wav", WAV_BYTES);
+        entries.put("again.wav", WAV_BYTES);
+        entries.put("old.wav", otherWav);
+        stubStorageAndTransactions();
+        when(callRepository.findFirstByContentSha256OrderByCreatedAtAsc(anyString()))
+            .thenReturn(Optional.empty())
+            .thenReturn(Optional.of(Call.builder().id(existingCallId).build()));
+
+        BulkIngestionReport report = bulkIngestionService.ingestArchive(
+            zip(entries), "555-9999", "agent-001", CallChannel.INBOUND);
+
+        assertThat(report.getItems()).extracting(ItemResult::getStatus)
+            .containsExactly(ItemStatus.ACCEPTED, ItemStatus.DUPLICATE, ItemStatus.DUPLICATE);
+        assertThat(report.getItems().get(1).getCallId()).isEqualTo(report.getItems().get(0).getCallId());
+        assertThat(report.getItems().get(2).getCallId()).isEqualTo(existingCallId);
+        assertThat(report.getDuplicates()).isEqualTo(2);
+        verify(storageService, times(1)).uploadFile(any(UUID.class), any(InputStream.class), anyString(), anyLong(), anyString());
+        verify(outboxService, times(1)).enqueue(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void ingestArchive_DigestClaimedConcurrently_ReportsDuplicateAndDropsCopy() throws IOException {
+        UUID originalCallId = UUID.randomUUID();
+        stubStorageAndTransactions();
+        when(callRepository.findFirstByContentSha256OrderByCreatedAtAsc(anyString()))
+            .thenReturn(Optional.empty())
+            .thenReturn(Optional.of(Call.builder().id(originalCallId).build()));
+        // Another request committed the same recording between the lookup and the insert
+        when(callBatchRepository.insertNew(anyList(), anyInt())).thenReturn(List.of());
+
+        BulkIngestionReport report = bulkIngestionService.ingestArchive(
+            zip(Map.of("a.wav", WAV_BYTES)), "555-9999", "agent-001", CallChannel.INBOUND);
+
+        assertThat(report.getDuplicates()).isEqualTo(1);
+        assertThat(report.getItems().get(0).getCallId()).isEqualTo(originalCallId);
+        verify(storageService).deleteFile(startsWith("http://localhost:9000/calls/2025/01/"));
+        verifyNoInteractions(outboxService);
+    }
+
+    @Test
+    void ingestArchive_NeedsPreparation_InsertsFlaggedAndPreparesAfterCommit() throws IOException {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("manifest.json", """
+            [{"filename": "stereo.wav", "channelLayout": "AGENT_LEFT"}]
+            """.getBytes(StandardCharsets.UTF_8));
+        entries.put("stereo.wav", WAV_BYTES);
+        stubStorageAndTransactions();
+        when(callPreparationService.needsPreparation(any(Call.class))).thenReturn(true);
+
+        BulkIngestionReport report = bulkIngestionService.ingestArchive(
+            zip(entries), "555-9999", "agent-001", CallChannel.INBOUND);
+
+        assertThat(report.getAccepted()).isEqualTo(1);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Call>> batchCaptor = ArgumentCaptor.forClass(List.class);
+        verify(callBatchRepository).insertNew(batchCaptor.capture(), eq(2));
+        Call call = batchCaptor.getValue().get(0);
+        assertThat(call.getChannelLayout()).isEqualTo(ChannelLayout.AGENT_LEFT);
+        assertThat(call.isPreparationPending()).isTrue();
+        verify(callPreparationService).prepareAfterCommit(call.getId());
+        verifyNoInteractions(outboxService);
+    }
+
+    @Test
+    void ingestArchive_MissingMetadata_RejectsEntry() throws IOException {
+        BulkIngestionReport report = bulkIngestionService.ingestArchive(
+            zip(Map.of("a.wav", WAV_BYTES)), null, null, CallChannel.INBOUND);
+
+        assertThat(report.getRejected()).isEqualTo(1);
+        verifyNoInteractions(storageService, callBatchRepository);
+    }
+
+    @Test
+    void ingestArchive_StorageFailure_ReportsFailedWithoutInsert() throws IOException {
+        when(storageService.uploadFile(any(UUID.class), any(InputStream.class), anyString(), anyLong(), anyString()))
+            .thenThrow(new RuntimeException("Failed to upload file to storage"));
+
+        BulkIngestionReport report = bulkIngestionService.ingestArchive(
+            zip(Map.of("a.wav", WAV_BYTES)), "555-9999", "agent-001", CallChannel.INBOUND);
+
+        assertThat(report.getFailed()).isEqualTo(1);
+        verify(callBatchRepository, never()).insertNew(any(), anyInt());
+        verify(outboxService, never()).enqueue(any(), any(), any(), any(), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubStorageAndTransactions() {
+        when(storageService.uploadFile(any(UUID.class), any(InputStream.class), anyString(), anyLong(), anyString()))
+            .thenAnswer(inv -> "http://localhost:9000/calls/2025/01/" + inv.getArgument(0) + ".wav");
+        lenient().when(callBatchRepository.insertNew(anyList(), anyInt())).thenAnswer(inv -> inv.getArgument(0));
+        doAnswer(inv -> {
+            ((Consumer<TransactionStatus>) inv.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    private static InputStream zip(Map<String, byte[]> entries) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                zip.putNextEntry(new ZipEntry(entry.getKey()));
+                zip.write(entry.getValue());
+                zip.closeEntry();
+            }
+        }
+        return new ByteArrayInputStream(bytes.toByteArray());
+    }
+}
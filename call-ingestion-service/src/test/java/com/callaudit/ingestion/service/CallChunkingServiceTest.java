@@ -0,0 +1,178 @@
+package com.callaudit.ingestion.service;
+
+import com.callaudit.ingestion.event.CallChunkReceivedEvent;
+import com.callaudit.ingestion.event.CallReceivedEvent;
+import com.callaudit.ingestion.model.Call;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CallChunkingService
+ */
+@ExtendWith(MockitoExtension.class)
+@Tag("unit")
+class CallChunkingServiceTest {
+
+    @Mock
+    private StorageService storageService;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @InjectMocks
+    private CallChunkingService callChunkingService;
+
+    private static final String OBJECT_KEY = "2025/01/test-id.wav";
+    private static final int RATE = 8000;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(callChunkingService, "callChunkReceivedTopic", "calls.chunks");
+        ReflectionTestUtils.setField(callChunkingService, "enabled", true);
+        ReflectionTestUtils.setField(callChunkingService, "chunkSeconds", 10);
+        ReflectionTestUtils.setField(callChunkingService, "overlapSeconds", 1);
+        ReflectionTestUtils.setField(callChunkingService, "silenceSearchSeconds", 3);
+    }
+
+    @Test
+    void split_LongWav_StoresChunksNextToRecording() {
+        Call call = storedCall("wav", 27);
+        byte[] wav = wav(27);
+        when(storageService.downloadFile(OBJECT_KEY, 0, null))
+            .thenAnswer(inv -> new ByteArrayInputStream(wav));
+        when(storageService.uploadDerivative(eq(OBJECT_KEY), anyString(), any(InputStream.class), anyLong(), eq("audio/wav")))
+            .thenAnswer(inv -> {
+                InputStream in = inv.getArgument(2);
+                assertThat((long) in.readAllBytes().length).isEqualTo((long) inv.getArgument(3));
+                return "http://localhost:9000/calls/2025/01/test-id/" + inv.getArgument(1);
+            });
+
+        Optional<CallChunkingService.ChunkedRecording> recording = callChunkingService.split(call);
+
+        assertThat(recording).isPresent();
+        List<CallReceivedEvent.Chunk> manifest = recording.get().manifest();
+        assertThat(manifest).hasSize(3);
+        assertThat(manifest.get(0).getOffsetMillis()).isZero();
+        assertThat(manifest.get(1).getOffsetMillis()).isBetween(6_500L, 10_000L);
+        assertThat(manifest.get(2).getAudioFileUrl()).endsWith("/test-id/chunk-002.wav");
+        long lastEnd = manifest.get(2).getOffsetMillis() + manifest.get(2).getDurationMillis();
+        assertThat(lastEnd).isEqualTo(27_000L);
+        verify(storageService, times(2)).downloadFile(OBJECT_KEY, 0, null);
+    }
+
+    @Test
+    void split_ShortCall_IsNotReadBack() {
+        Call call = storedCall("wav", 15);
+
+        assertThat(callChunkingService.split(call)).isEmpty();
+
+        verifyNoInteractions(storageService);
+    }
+
+    @Test
+    void split_NotWav_IsSkipped() {
+        Call call = storedCall("mp3", 3600);
+
+        assertThat(callChunkingService.split(call)).isEmpty();
+
+        verifyNoInteractions(storageService);
+    }
+
+    @Test
+    void split_Disabled_IsSkipped() {
+        ReflectionTestUtils.setField(callChunkingService, "enabled", false);
+
+        assertThat(callChunkingService.split(storedCall("wav", 3600))).isEmpty();
+
+        verifyNoInteractions(storageService);
+    }
+
+    @Test
+    void split_StorageFails_RemovesStoredChunks() {
+        Call call = storedCall("wav", 27);
+        byte[] wav = wav(27);
+        when(storageService.downloadFile(OBJECT_KEY, 0, null))
+            .thenAnswer(inv -> new ByteArrayInputStream(wav));
+        when(storageService.uploadDerivative(eq(OBJECT_KEY), anyString(), any(InputStream.class), anyLong(), anyString()))
+            .thenReturn("http://localhost:9000/calls/2025/01/test-id/chunk-000.wav")
+            .thenThrow(new RuntimeException("Failed to upload file to storage"));
+
+        assertThat(callChunkingService.split(call)).isEmpty();
+
+        verify(storageService).deleteFile("http://localhost:9000/calls/2025/01/test-id/chunk-000.wav");
+    }
+
+    @Test
+    void publishChunkEvents_QueuesOneEventPerChunkWithItsOwnKey() {
+        Call call = storedCall("wav", 27);
+        byte[] wav = wav(27);
+        when(storageService.downloadFile(OBJECT_KEY, 0, null))
+            .thenAnswer(inv -> new ByteArrayInputStream(wav));
+        when(storageService.uploadDerivative(anyString(), anyString(), any(InputStream.class), anyLong(), anyString()))
+            .thenReturn("http://localhost:9000/calls/2025/01/test-id/chunk.wav");
+        CallChunkingService.ChunkedRecording recording = callChunkingService.split(call).orElseThrow();
+        UUID causationId = UUID.randomUUID();
+
+        callChunkingService.publishChunkEvents(call, recording, causationId);
+
+        ArgumentCaptor<String> keys = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+        verify(outboxService, times(3)).enqueue(eq("calls.chunks"), keys.capture(), eq(call.getId()),
+            eq("CallChunkReceived"), events.capture());
+        assertThat(keys.getAllValues()).doesNotHaveDuplicates();
+        CallChunkReceivedEvent last = (CallChunkReceivedEvent) events.getAllValues().get(2);
+        assertThat(last.getCausationId()).isEqualTo(causationId);
+        assertThat(last.getCorrelationId()).isEqualTo(call.getCorrelationId());
+        assertThat(last.getPayload().getChunkIndex()).isEqualTo(2);
+        assertThat(last.getPayload().getChunkCount()).isEqualTo(3);
+        assertThat(last.getPayload().getOverlapMillis()).isEqualTo(1_000L);
+        assertThat(last.getPayload().getSampleRate()).isEqualTo(RATE);
+    }
+
+    private static Call storedCall(String format, int durationSeconds) {
+        return Call.builder()
+            .id(UUID.randomUUID())
+            .correlationId(UUID.randomUUID())
+            .objectKey(format.equals("wav") ? OBJECT_KEY : "2025/01/test-id." + format)
+            .fileFormat(format)
+            .duration(durationSeconds)
+            .build();
+    }
+
+    /**
+     * 16-bit mono 8kHz tone, as a canonical 44-byte-header WAV
+     */
+    private static byte[] wav(int seconds) {
+        int dataSize = seconds * RATE * 2;
+        ByteBuffer buffer = ByteBuffer.allocate(44 + dataSize).order(ByteOrder.LITTLE_ENDIAN)
+            .put("RIFF".getBytes(StandardCharsets.ISO_8859_1)).putInt(36 + dataSize)
+            .put("WAVEfmt ".getBytes(StandardCharsets.ISO_8859_1)).putInt(16)
+            .putShort((short) 1).putShort((short) 1).putInt(RATE).putInt(RATE * 2)
+            .putShort((short) 2).putShort((short) 16)
+            .put("data".getBytes(StandardCharsets.ISO_8859_1)).putInt(dataSize);
+        for (int i = 0; i < seconds * RATE; i++) {
+            buffer.putShort((short) (8000 * Math.sin(i * 0.3)));
+        }
+        return buffer.array();
+    }
+}
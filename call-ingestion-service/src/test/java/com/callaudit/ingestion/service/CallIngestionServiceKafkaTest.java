@@ -52,6 +52,9 @@ import static org.mockito.Mockito.when;
  * - MockBean for StorageService: Avoids needing MinIO during tests
  * - H2 in-memory database: Replaces PostgreSQL for tests
  * - Kafka consumer: Listens for published messages to verify they were sent
+ *
+ * Events go through the transactional outbox, so each message is delivered by the
+ * scheduled OutboxRelay shortly after processUpload commits.
  */
 @SpringBootTest
 @EmbeddedKafka(
@@ -1,8 +1,12 @@
 package com.callaudit.ingestion.service;
 
+import com.callaudit.ingestion.event.CallReceivedEvent;
 import com.callaudit.ingestion.model.Call;
 import com.callaudit.ingestion.model.CallChannel;
+import com.callaudit.ingestion.model.CallPriority;
 import com.callaudit.ingestion.model.CallStatus;
+import com.callaudit.ingestion.model.ChannelLayout;
+import com.callaudit.ingestion.model.UploadSession;
 import com.callaudit.ingestion.repository.CallRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
@@ -13,19 +17,25 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -49,7 +59,13 @@ class CallIngestionServiceTest {
     private StorageService storageService;
 
     @Mock
-    private KafkaTemplate<String, Object> kafkaTemplate;
+    private OutboxService outboxService;
+
+    @Mock
+    private AudioMetadataCache audioMetadataCache;
+
+    @Mock
+    private CallPreparationService callPreparationService;
 
     @InjectMocks
     private CallIngestionService callIngestionService;
@@ -88,9 +104,6 @@ class CallIngestionServiceTest {
         when(storageService.uploadFile(any(UUID.class), any(InputStream.class), anyString(), anyLong(), anyString()))
             .thenReturn(TEST_AUDIO_URL);
 
-        when(kafkaTemplate.send(anyString(), anyString(), any()))
-            .thenReturn(CompletableFuture.completedFuture(null));
-
         // Act
         Call result = callIngestionService.processUpload(file, TEST_CALLER_ID, TEST_AGENT_ID, channel);
 
@@ -109,8 +122,9 @@ class CallIngestionServiceTest {
         // Verify storage service was called
         verify(storageService).uploadFile(eq(generatedCallId), any(InputStream.class), eq("audio/wav"), eq(file.getSize()), eq("wav"));
 
-        // Verify Kafka message was sent
-        verify(kafkaTemplate).send(eq(CALL_RECEIVED_TOPIC), eq(generatedCallId.toString()), any());
+        // Verify CallReceived event was queued in the outbox
+        verify(outboxService).enqueue(eq(CALL_RECEIVED_TOPIC), eq(generatedCallId.toString()),
+            eq(generatedCallId), eq("CallReceived"), any());
     }
 
     @Test
@@ -133,9 +147,6 @@ class CallIngestionServiceTest {
         when(storageService.uploadFile(any(UUID.class), any(InputStream.class), anyString(), anyLong(), anyString()))
             .thenReturn(TEST_AUDIO_URL);
 
-        when(kafkaTemplate.send(anyString(), anyString(), any()))
-            .thenReturn(CompletableFuture.completedFuture(null));
-
         // Act
         Call result = callIngestionService.processUpload(file, TEST_CALLER_ID, TEST_AGENT_ID, channel);
 
@@ -156,7 +167,7 @@ class CallIngestionServiceTest {
 
         verify(callRepository, never()).save(any(Call.class));
         verify(storageService, never()).uploadFile(any(), any(), any(), anyLong(), any());
-        verify(kafkaTemplate, never()).send(any(), any(), any());
+        verify(outboxService, never()).enqueue(any(), any(), any(), any(), any());
     }
 
     @Test
@@ -251,9 +262,6 @@ class CallIngestionServiceTest {
         when(storageService.uploadFile(any(UUID.class), any(InputStream.class), anyString(), anyLong(), anyString()))
             .thenReturn(TEST_AUDIO_URL);
 
-        when(kafkaTemplate.send(anyString(), anyString(), any()))
-            .thenReturn(CompletableFuture.completedFuture(null));
-
         // Act
         Call result = callIngestionService.processUpload(file, TEST_CALLER_ID, TEST_AGENT_ID, CallChannel.INBOUND);
 
@@ -281,9 +289,6 @@ class CallIngestionServiceTest {
         when(storageService.uploadFile(any(UUID.class), any(InputStream.class), anyString(), anyLong(), anyString()))
             .thenReturn(TEST_AUDIO_URL);
 
-        when(kafkaTemplate.send(anyString(), anyString(), any()))
-            .thenReturn(CompletableFuture.completedFuture(null));
-
         // Act
         Call result = callIngestionService.processUpload(file, TEST_CALLER_ID, TEST_AGENT_ID, CallChannel.INTERNAL);
 
@@ -312,9 +317,6 @@ class CallIngestionServiceTest {
         when(storageService.uploadFile(any(UUID.class), any(InputStream.class), anyString(), anyLong(), anyString()))
             .thenReturn(TEST_AUDIO_URL);
 
-        when(kafkaTemplate.send(anyString(), anyString(), any()))
-            .thenReturn(CompletableFuture.completedFuture(null));
-
         // Act
         Call result = callIngestionService.processUpload(file, TEST_CALLER_ID, TEST_AGENT_ID, CallChannel.INBOUND);
 
@@ -345,8 +347,8 @@ class CallIngestionServiceTest {
             .isInstanceOf(RuntimeException.class)
             .hasMessageContaining("MinIO connection failed");
 
-        // Verify Kafka was not called since upload failed
-        verify(kafkaTemplate, never()).send(any(), any(), any());
+        // Verify no event was queued since upload failed
+        verify(outboxService, never()).enqueue(any(), any(), any(), any(), any());
     }
 
     @Test
@@ -378,9 +380,6 @@ class CallIngestionServiceTest {
         when(storageService.uploadFile(any(UUID.class), any(InputStream.class), anyString(), anyLong(), anyString()))
             .thenReturn(TEST_AUDIO_URL);
 
-        when(kafkaTemplate.send(anyString(), anyString(), any()))
-            .thenReturn(CompletableFuture.completedFuture(null));
-
         // Act
         Call result1 = callIngestionService.processUpload(file1, TEST_CALLER_ID, TEST_AGENT_ID, CallChannel.INBOUND);
         Call result2 = callIngestionService.processUpload(file2, TEST_CALLER_ID, TEST_AGENT_ID, CallChannel.INBOUND);
@@ -423,6 +422,152 @@ class CallIngestionServiceTest {
         verify(callRepository).findById(callId);
     }
 
+    @Test
+    void processUpload_PersistsObjectKeyAndMetadata() throws IOException {
+        // Arrange
+        MockMultipartFile file = createMockAudioFile("test-audio.wav", "audio/wav");
+        UUID generatedCallId = UUID.randomUUID();
+
+        when(callRepository.save(any(Call.class))).thenAnswer(invocation -> {
+            Call call = invocation.getArgument(0);
+            call.setId(generatedCallId);
+            return call;
+        });
+        when(storageService.uploadFile(any(UUID.class), any(InputStream.class), anyString(), anyLong(), anyString()))
+            .thenReturn(TEST_AUDIO_URL);
+        when(storageService.objectNameFromUrl(TEST_AUDIO_URL)).thenReturn("2025/01/test-id.wav");
+
+        // Act
+        Call result = callIngestionService.processUpload(file, TEST_CALLER_ID, TEST_AGENT_ID, CallChannel.INBOUND);
+
+        // Assert
+        assertEquals("2025/01/test-id.wav", result.getObjectKey());
+        assertEquals(file.getSize(), result.getFileSizeBytes());
+        assertEquals("wav", result.getFileFormat());
+        assertEquals("audio/wav", result.getContentType());
+        assertNotNull(result.getContentSha256());
+    }
+
+    @Test
+    void processUpload_NeedsPreparation_FlagsCallAndDefersEvent() throws IOException {
+        // Arrange
+        MockMultipartFile file = createMockAudioFile("test-audio.wav", "audio/wav");
+        when(callRepository.save(any(Call.class))).thenAnswer(invocation -> {
+            Call call = invocation.getArgument(0);
+            call.setId(UUID.randomUUID());
+            return call;
+        });
+        when(storageService.uploadFile(any(UUID.class), any(InputStream.class), anyString(), anyLong(), anyString()))
+            .thenReturn(TEST_AUDIO_URL);
+        when(callPreparationService.needsPreparation(any(Call.class))).thenReturn(true);
+
+        // Act
+        Call result = callIngestionService.processUpload(file, TEST_CALLER_ID, TEST_AGENT_ID, CallChannel.INBOUND,
+            ChannelLayout.AGENT_LEFT, null);
+
+        // Assert
+        assertEquals(ChannelLayout.AGENT_LEFT, result.getChannelLayout());
+        assertTrue(result.isPreparationPending());
+        verify(callPreparationService).prepareAfterCommit(result.getId());
+        verifyNoInteractions(outboxService);
+    }
+
+    @Test
+    void processUpload_HighPriority_QueuedOnPriorityTopic() throws IOException {
+        // Arrange
+        ReflectionTestUtils.setField(callIngestionService, "callReceivedPriorityTopic", "calls.received.priority");
+        MockMultipartFile file = createMockAudioFile("test-audio.wav", "audio/wav");
+        when(callRepository.save(any(Call.class))).thenAnswer(invocation -> {
+            Call call = invocation.getArgument(0);
+            call.setId(UUID.randomUUID());
+            return call;
+        });
+        when(storageService.uploadFile(any(UUID.class), any(InputStream.class), anyString(), anyLong(), anyString()))
+            .thenReturn(TEST_AUDIO_URL);
+
+        // Act
+        Call result = callIngestionService.processUpload(file, TEST_CALLER_ID, TEST_AGENT_ID, CallChannel.INBOUND,
+            null, CallPriority.HIGH);
+
+        // Assert
+        assertEquals(CallPriority.HIGH, result.getPriority());
+        ArgumentCaptor<CallReceivedEvent> eventCaptor = ArgumentCaptor.forClass(CallReceivedEvent.class);
+        verify(outboxService).enqueue(eq("calls.received.priority"), anyString(), any(UUID.class),
+            eq("CallReceived"), eventCaptor.capture());
+        assertEquals("HIGH", eventCaptor.getValue().getMetadata().get("priority"));
+    }
+
+    @Test
+    void processUpload_NoChannelLayout_FallsBackToDefault() throws IOException {
+        // Arrange
+        ReflectionTestUtils.setField(callIngestionService, "defaultChannelLayout", ChannelLayout.AGENT_RIGHT);
+        MockMultipartFile file = createMockAudioFile("test-audio.wav", "audio/wav");
+        when(callRepository.save(any(Call.class))).thenAnswer(invocation -> {
+            Call call = invocation.getArgument(0);
+            call.setId(UUID.randomUUID());
+            return call;
+        });
+        when(storageService.uploadFile(any(UUID.class), any(InputStream.class), anyString(), anyLong(), anyString()))
+            .thenReturn(TEST_AUDIO_URL);
+
+        // Act
+        Call result = callIngestionService.processUpload(file, TEST_CALLER_ID, TEST_AGENT_ID, CallChannel.INBOUND);
+
+        // Assert
+        assertEquals(ChannelLayout.AGENT_RIGHT, result.getChannelLayout());
+    }
+
+    @Test
+    void getStoredAudio_PersistedKey_NoStorageRoundTrip() {
+        // Arrange
+        UUID callId = UUID.randomUUID();
+        Call call = createMockCall(callId, TEST_CALLER_ID, TEST_AGENT_ID, CallChannel.INBOUND);
+        call.setObjectKey("2024/11/" + callId + ".wav");
+        call.setFileSizeBytes(4096L);
+        call.setContentType("audio/wav");
+        call.setContentSha256("ab".repeat(32));
+        when(callRepository.findById(callId)).thenReturn(Optional.of(call));
+
+        // Act
+        Optional<StorageService.StoredObject> result = callIngestionService.getStoredAudio(callId);
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals("2024/11/" + callId + ".wav", result.get().objectName());
+        assertEquals(4096L, result.get().size());
+        assertEquals("ab".repeat(32), result.get().etag());
+        verifyNoInteractions(storageService);
+        verify(audioMetadataCache).put(callId, result.get());
+    }
+
+    @Test
+    void getStoredAudio_CacheHit_SkipsDatabase() {
+        // Arrange
+        UUID callId = UUID.randomUUID();
+        StorageService.StoredObject cached = new StorageService.StoredObject(
+            "2024/11/" + callId + ".wav", 4096L, "etag", Instant.now(), "audio/wav");
+        when(audioMetadataCache.get(callId)).thenReturn(cached);
+
+        // Act & Assert
+        assertThat(callIngestionService.getStoredAudio(callId)).contains(cached);
+        verifyNoInteractions(callRepository, storageService);
+    }
+
+    @Test
+    void getStoredAudio_LegacyCallWithoutKey_FallsBackToUrlAndStat() {
+        // Arrange
+        UUID callId = UUID.randomUUID();
+        Call call = createMockCall(callId, TEST_CALLER_ID, TEST_AGENT_ID, CallChannel.INBOUND);
+        StorageService.StoredObject stat = new StorageService.StoredObject(
+            "2025/01/test-id.wav", 2048L, "etag", Instant.now(), "audio/wav");
+        when(callRepository.findById(callId)).thenReturn(Optional.of(call));
+        when(storageService.objectNameFromUrl(TEST_AUDIO_URL)).thenReturn("2025/01/test-id.wav");
+        when(storageService.statFile("2025/01/test-id.wav")).thenReturn(Optional.of(stat));
+
+        // Act & Assert
+        assertThat(callIngestionService.getStoredAudio(callId)).contains(stat);
+    }
+
     @Test
     void processUpload_CallSavedTwice_FirstWithPendingUrl_ThenWithActualUrl() throws IOException {
         // Arrange
@@ -447,9 +592,6 @@ class CallIngestionServiceTest {
         when(storageService.uploadFile(any(UUID.class), any(InputStream.class), anyString(), anyLong(), anyString()))
             .thenReturn(TEST_AUDIO_URL);
 
-        when(kafkaTemplate.send(anyString(), anyString(), any()))
-            .thenReturn(CompletableFuture.completedFuture(null));
-
         // Act
         callIngestionService.processUpload(file, TEST_CALLER_ID, TEST_AGENT_ID, CallChannel.INBOUND);
 
@@ -462,8 +604,292 @@ class CallIngestionServiceTest {
         assertEquals(TEST_AUDIO_URL, capturedUrls.get(1));
     }
 
+    @Test
+    void processStreamingUpload_ValidWavStream_UploadsWithoutBuffering() {
+        // Arrange
+        byte[] wavBytes = "RIFF\u0024\u0000\u0000\u0000WAVEfmt data".getBytes(StandardCharsets.ISO_8859_1);
+        UUID generatedCallId = UUID.randomUUID();
+
+        when(callRepository.save(any(Call.class)))
+            .thenAnswer(invocation -> {
+                Call call = invocation.getArgument(0);
+                call.setId(generatedCallId);
+                return call;
+            });
+
+        when(storageService.uploadStream(any(UUID.class), any(InputStream.class), anyString(), anyLong(), anyString()))
+            .thenAnswer(invocation -> {
+                // Drain the stream the way MinIO would
+                invocation.getArgument(1, InputStream.class).readAllBytes();
+                return TEST_AUDIO_URL;
+            });
+
+        // Act
+        Call result = callIngestionService.processStreamingUpload(
+            new ByteArrayInputStream(wavBytes), "call.wav", "application/octet-stream", -1,
+            TEST_CALLER_ID, TEST_AGENT_ID, CallChannel.INBOUND);
+
+        // Assert
+        assertEquals(TEST_AUDIO_URL, result.getAudioFileUrl());
+        verify(storageService).uploadStream(eq(generatedCallId), any(InputStream.class), eq("audio/wav"), eq(-1L), eq("wav"));
+        verify(storageService, never()).uploadFile(any(), any(), any(), anyLong(), any());
+        verify(outboxService).enqueue(eq(CALL_RECEIVED_TOPIC), eq(generatedCallId.toString()),
+            eq(generatedCallId), eq("CallReceived"), any());
+    }
+
+    @Test
+    void processStreamingUpload_TranscodingEnabled_StoresPcmWavAsFlac() throws IOException {
+        // Arrange: one second of 8kHz 16-bit mono silence
+        ReflectionTestUtils.setField(callIngestionService, "flacTranscodingEnabled", true);
+        byte[] wavBytes = new byte[44 + 16000];
+        ByteBuffer.wrap(wavBytes).order(ByteOrder.LITTLE_ENDIAN)
+            .put("RIFF".getBytes(StandardCharsets.ISO_8859_1)).putInt(36 + 16000)
+            .put("WAVEfmt ".getBytes(StandardCharsets.ISO_8859_1)).putInt(16)
+            .putShort((short) 1).putShort((short) 1).putInt(8000).putInt(16000).putShort((short) 2).putShort((short) 16)
+            .put("data".getBytes(StandardCharsets.ISO_8859_1)).putInt(16000);
+        UUID generatedCallId = UUID.randomUUID();
+        String flacUrl = "http://localhost:9000/calls/2025/01/test-id.flac";
+        byte[][] stored = new byte[1][];
+
+        when(callRepository.save(any(Call.class)))
+            .thenAnswer(invocation -> {
+                Call call = invocation.getArgument(0);
+                call.setId(generatedCallId);
+                return call;
+            });
+        when(storageService.uploadStream(any(UUID.class), any(InputStream.class), anyString(), anyLong(), anyString()))
+            .thenAnswer(invocation -> {
+                stored[0] = invocation.getArgument(1, InputStream.class).readAllBytes();
+                return flacUrl;
+            });
+
+        // Act
+        Call result = callIngestionService.processStreamingUpload(
+            new ByteArrayInputStream(wavBytes), "call.wav", "audio/wav", wavBytes.length,
+            TEST_CALLER_ID, TEST_AGENT_ID, CallChannel.INBOUND);
+
+        // Assert: stored as FLAC of unknown length, digest and duration still describe the WAV
+        verify(storageService).uploadStream(eq(generatedCallId), any(InputStream.class), eq("audio/flac"), eq(-1L), eq("flac"));
+        assertThat(new String(stored[0], 0, 4, StandardCharsets.ISO_8859_1)).isEqualTo("fLaC");
+        assertThat(result.getFileFormat()).isEqualTo("flac");
+        assertThat(result.getOriginalFormat()).isEqualTo("wav");
+        assertThat(result.getFileSizeBytes()).isEqualTo(stored[0].length).isLessThan(wavBytes.length);
+        assertThat(result.getContentSha256()).isEqualTo(sha256(wavBytes));
+        assertThat(result.getDuration()).isEqualTo(1);
+    }
+
+    @Test
+    void processUpload_TranscodingEnabledButNotPcm_StoresAsUploaded() throws IOException {
+        ReflectionTestUtils.setField(callIngestionService, "flacTranscodingEnabled", true);
+        MockMultipartFile file = createMockAudioFile("test-audio.wav", "audio/wav");
+        UUID generatedCallId = UUID.randomUUID();
+
+        when(callRepository.save(any(Call.class)))
+            .thenAnswer(invocation -> {
+                Call call = invocation.getArgument(0);
+                call.setId(generatedCallId);
+                return call;
+            });
+        when(storageService.uploadFile(any(UUID.class), any(InputStream.class), anyString(), anyLong(), anyString()))
+            .thenReturn(TEST_AUDIO_URL);
+
+        Call result = callIngestionService.processUpload(file, TEST_CALLER_ID, TEST_AGENT_ID, CallChannel.INBOUND);
+
+        verify(storageService).uploadFile(eq(generatedCallId), any(InputStream.class), eq("audio/wav"), eq(file.getSize()), eq("wav"));
+        verify(storageService, never()).uploadStream(any(), any(), any(), anyLong(), any());
+        assertThat(result.getFileFormat()).isEqualTo("wav");
+        assertThat(result.getOriginalFormat()).isNull();
+    }
+
+    @Test
+    void processStreamingUpload_MagicBytesMismatch_RejectsBeforePersisting() {
+        // Act & Assert
+        assertThatThrownBy(() -> callIngestionService.processStreamingUpload(
+                new ByteArrayInputStream("mock audio content".getBytes()), "call.flac", "audio/flac", 18,
+                TEST_CALLER_ID, TEST_AGENT_ID, CallChannel.INBOUND))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("does not match the FLAC format");
+
+        verify(callRepository, never()).save(any(Call.class));
+        verify(storageService, never()).uploadStream(any(), any(), any(), anyLong(), any());
+    }
+
+    @Test
+    void processStreamingUpload_DeclaredSizeTooLarge_RejectsWithoutReading() {
+        // Arrange
+        InputStream body = mock(InputStream.class);
+
+        // Act & Assert
+        assertThatThrownBy(() -> callIngestionService.processStreamingUpload(
+                body, "call.wav", "audio/wav", 101L * 1024 * 1024,
+                TEST_CALLER_ID, TEST_AGENT_ID, CallChannel.INBOUND))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("File size exceeds maximum allowed size");
+
+        verifyNoInteractions(body);
+        verify(callRepository, never()).save(any(Call.class));
+    }
+
+    @Test
+    void processUpload_KnownRecording_ReturnsExistingCallWithoutStoring() {
+        // Arrange
+        MockMultipartFile file = createMockAudioFile("test-audio.wav", "audio/wav");
+        Call existing = createMockCall(UUID.randomUUID(), TEST_CALLER_ID, TEST_AGENT_ID, CallChannel.INBOUND);
+        when(callRepository.findFirstByContentSha256OrderByCreatedAtAsc(sha256("mock audio content")))
+            .thenReturn(Optional.of(existing));
+
+        // Act
+        Call result = callIngestionService.processUpload(file, TEST_CALLER_ID, TEST_AGENT_ID, CallChannel.INBOUND);
+
+        // Assert
+        assertThat(result).isSameAs(existing);
+        assertTrue(result.isDuplicate());
+        verify(callRepository, never()).save(any(Call.class));
+        verifyNoInteractions(storageService, outboxService);
+    }
+
+    @Test
+    void processChunkedUpload_KnownRecording_ReturnsExistingCallWithoutComposing() {
+        // Arrange
+        String digest = sha256("already stored");
+        Call existing = createMockCall(UUID.randomUUID(), TEST_CALLER_ID, TEST_AGENT_ID, CallChannel.INBOUND);
+        when(callRepository.findFirstByContentSha256OrderByCreatedAtAsc(digest)).thenReturn(Optional.of(existing));
+        UploadSession session = UploadSession.builder()
+            .id(UUID.randomUUID()).filename("call.wav").callerId(TEST_CALLER_ID).agentId(TEST_AGENT_ID)
+            .channel(CallChannel.INBOUND).priority(CallPriority.HIGH).build();
+        List<StorageService.UploadPart> parts = List.of(new StorageService.UploadPart(1, "p1", 2048, "e1"));
+
+        // Act
+        Call result = callIngestionService.processChunkedUpload(session, parts, 2048, digest);
+
+        // Assert
+        assertThat(result).isSameAs(existing);
+        assertTrue(result.isDuplicate());
+        verify(callRepository, never()).save(any(Call.class));
+        verifyNoInteractions(storageService, outboxService);
+    }
+
+    @Test
+    void processStreamingUpload_DeclaredDigestOfKnownRecording_SkipsBody() {
+        // Arrange
+        String digest = sha256("already stored");
+        Call existing = createMockCall(UUID.randomUUID(), TEST_CALLER_ID, TEST_AGENT_ID, CallChannel.INBOUND);
+        when(callRepository.findFirstByContentSha256OrderByCreatedAtAsc(digest)).thenReturn(Optional.of(existing));
+        InputStream body = mock(InputStream.class);
+
+        // Act
+        Call result = callIngestionService.processStreamingUpload(
+            body, "call.wav", "audio/wav", 1024, digest.toUpperCase(), TEST_CALLER_ID, TEST_AGENT_ID, CallChannel.INBOUND);
+
+        // Assert
+        assertThat(result).isSameAs(existing);
+        verifyNoInteractions(body, storageService, outboxService);
+    }
+
+    @Test
+    void processStreamingUpload_DuplicateContent_DropsNewCopy() {
+        // Arrange
+        byte[] wavBytes = "RIFF$\u0000\u0000\u0000WAVEfmt ".getBytes(StandardCharsets.ISO_8859_1);
+        UUID generatedCallId = UUID.randomUUID();
+        Call existing = createMockCall(UUID.randomUUID(), TEST_CALLER_ID, TEST_AGENT_ID, CallChannel.INBOUND);
+
+        when(callRepository.save(any(Call.class)))
+            .thenAnswer(invocation -> {
+                Call call = invocation.getArgument(0);
+                call.setId(generatedCallId);
+                return call;
+            });
+        when(storageService.uploadStream(any(UUID.class), any(InputStream.class), anyString(), anyLong(), anyString()))
+            .thenAnswer(invocation -> {
+                invocation.getArgument(1, InputStream.class).readAllBytes();
+                return TEST_AUDIO_URL;
+            });
+        when(callRepository.findFirstByContentSha256OrderByCreatedAtAsc(sha256(wavBytes)))
+            .thenReturn(Optional.of(existing));
+
+        // Act
+        Call result = callIngestionService.processStreamingUpload(
+            new ByteArrayInputStream(wavBytes), "call.wav", "audio/wav", wavBytes.length,
+            TEST_CALLER_ID, TEST_AGENT_ID, CallChannel.INBOUND);
+
+        // Assert
+        assertThat(result).isSameAs(existing);
+        verify(storageService).deleteFile(TEST_AUDIO_URL);
+        verify(callRepository).delete(argThat(call -> generatedCallId.equals(call.getId())));
+        verifyNoInteractions(outboxService);
+    }
+
+    @Test
+    void processStreamingUpload_DigestClaimedConcurrently_DropsCopyAndReportsDuplicate() {
+        // Arrange
+        byte[] wavBytes = "RIFF$\u0000\u0000\u0000WAVEfmt ".getBytes(StandardCharsets.ISO_8859_1);
+        when(callRepository.save(any(Call.class)))
+            .thenAnswer(invocation -> {
+                Call call = invocation.getArgument(0);
+                call.setId(UUID.randomUUID());
+                return call;
+            });
+        when(storageService.uploadStream(any(UUID.class), any(InputStream.class), anyString(), anyLong(), anyString()))
+            .thenAnswer(invocation -> {
+                invocation.getArgument(1, InputStream.class).readAllBytes();
+                return TEST_AUDIO_URL;
+            });
+        when(callRepository.findFirstByContentSha256OrderByCreatedAtAsc(sha256(wavBytes))).thenReturn(Optional.empty());
+        doThrow(new DataIntegrityViolationException("duplicate key value violates unique constraint \""
+                + CallIngestionService.CONTENT_SHA256_INDEX + "\""))
+            .when(callRepository).flush();
+
+        // Act & Assert
+        assertThatThrownBy(() -> callIngestionService.processStreamingUpload(
+                new ByteArrayInputStream(wavBytes), "call.wav", "audio/wav", wavBytes.length,
+                TEST_CALLER_ID, TEST_AGENT_ID, CallChannel.INBOUND))
+            .isInstanceOf(CallIngestionService.DuplicateRecordingException.class)
+            .extracting("contentSha256").isEqualTo(sha256(wavBytes));
+        verify(storageService).deleteFile(TEST_AUDIO_URL);
+        verifyNoInteractions(outboxService);
+    }
+
+    @Test
+    void processStreamingUpload_DigestMismatch_ThrowsException() {
+        // Arrange
+        byte[] wavBytes = "RIFF$\u0000\u0000\u0000WAVEfmt ".getBytes(StandardCharsets.ISO_8859_1);
+        when(callRepository.save(any(Call.class)))
+            .thenAnswer(invocation -> {
+                Call call = invocation.getArgument(0);
+                call.setId(UUID.randomUUID());
+                return call;
+            });
+        when(storageService.uploadStream(any(UUID.class), any(InputStream.class), anyString(), anyLong(), anyString()))
+            .thenAnswer(invocation -> {
+                invocation.getArgument(1, InputStream.class).readAllBytes();
+                return TEST_AUDIO_URL;
+            });
+
+        // Act & Assert
+        assertThatThrownBy(() -> callIngestionService.processStreamingUpload(
+                new ByteArrayInputStream(wavBytes), "call.wav", "audio/wav", wavBytes.length,
+                sha256("something else"), TEST_CALLER_ID, TEST_AGENT_ID, CallChannel.INBOUND))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("does not match the declared SHA-256");
+
+        verify(storageService).deleteFile(TEST_AUDIO_URL);
+        verifyNoInteractions(outboxService);
+    }
+
     // Helper methods
 
+    private static String sha256(String content) {
+        return sha256(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     private MockMultipartFile createMockAudioFile(String filename, String contentType) {
         return new MockMultipartFile(
             "file",
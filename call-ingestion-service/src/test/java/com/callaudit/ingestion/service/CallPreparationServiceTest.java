@@ -0,0 +1,271 @@
+package com.callaudit.ingestion.service;
+
+import com.callaudit.ingestion.event.CallReceivedEvent;
+import com.callaudit.ingestion.model.Call;
+import com.callaudit.ingestion.model.CallChannel;
+import com.callaudit.ingestion.model.CallPriority;
+import com.callaudit.ingestion.model.CallStatus;
+import com.callaudit.ingestion.model.ChannelLayout;
+import com.callaudit.ingestion.repository.CallRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CallPreparationService
+ */
+@ExtendWith(MockitoExtension.class)
+@Tag("unit")
+class CallPreparationServiceTest {
+
+    @Mock
+    private CallRepository callRepository;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private SpeechDetectionService speechDetectionService;
+
+    @Mock
+    private SpeakerSplitService speakerSplitService;
+
+    @Mock
+    private CallChunkingService callChunkingService;
+
+    @Mock
+    private StorageService storageService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private CallPreparationService callPreparationService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(callPreparationService, "callReceivedTopic", "calls.received");
+        ReflectionTestUtils.setField(callPreparationService, "callReceivedPriorityTopic", "calls.received.priority");
+        ReflectionTestUtils.setField(callPreparationService, "stalledAfterMs", 300000L);
+    }
+
+    private void stubStoredAudio(Call call) {
+        when(speakerSplitService.applies(call)).thenReturn(true);
+        when(storageService.downloadFile(call.getObjectKey(), 0, null))
+            .thenAnswer(inv -> new ByteArrayInputStream(new byte[]{1, 2, 3, 4}));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubTransactions() {
+        when(transactionTemplate.execute(any()))
+            .thenAnswer(inv -> ((TransactionCallback<Object>) inv.getArgument(0)).doInTransaction(null));
+    }
+
+    @Test
+    void prepare_PendingCall_QueuesEventWithTracksAndChunks() {
+        // Arrange
+        stubTransactions();
+        Call call = pendingCall();
+        when(callRepository.findById(call.getId())).thenReturn(Optional.of(call));
+        stubStoredAudio(call);
+        when(speechDetectionService.detect(eq(call), any())).thenReturn(Optional.empty());
+        List<CallReceivedEvent.SpeakerAudio> tracks = List.of(
+            CallReceivedEvent.SpeakerAudio.builder().speaker(SpeakerSplitService.AGENT).channelIndex(0).build(),
+            CallReceivedEvent.SpeakerAudio.builder().speaker(SpeakerSplitService.CUSTOMER).channelIndex(1).build());
+        when(speakerSplitService.split(eq(call), any())).thenReturn(Optional.of(tracks));
+        CallChunkingService.ChunkedRecording recording = new CallChunkingService.ChunkedRecording(null, List.of());
+        when(callChunkingService.split(eq(call), any())).thenReturn(Optional.of(recording));
+        when(callRepository.finishPreparation(call.getId())).thenReturn(1);
+
+        // Act
+        callPreparationService.prepare(call.getId());
+
+        // Assert
+        ArgumentCaptor<CallReceivedEvent> eventCaptor = ArgumentCaptor.forClass(CallReceivedEvent.class);
+        verify(outboxService).enqueue(eq("calls.received"), eq(call.getId().toString()), eq(call.getId()),
+            eq("CallReceived"), eventCaptor.capture());
+        CallReceivedEvent event = eventCaptor.getValue();
+        assertThat(event.getPayload().getSpeakerAudio()).isEqualTo(tracks);
+        assertThat(event.getPayload().getChunks()).isEmpty();
+        verify(callChunkingService).publishChunkEvents(call, recording, event.getEventId());
+        verify(storageService, times(1)).downloadFile(call.getObjectKey(), 0, null);
+    }
+
+    @Test
+    void prepare_StepsShareOneDownload() {
+        // Arrange
+        stubTransactions();
+        Call call = pendingCall();
+        when(callRepository.findById(call.getId())).thenReturn(Optional.of(call));
+        stubStoredAudio(call);
+        when(speechDetectionService.detect(eq(call), any())).thenAnswer(inv -> {
+            assertThat(readAll(inv.getArgument(1))).containsExactly(1, 2, 3, 4);
+            return Optional.empty();
+        });
+        when(speakerSplitService.split(eq(call), any())).thenAnswer(inv -> {
+            assertThat(readAll(inv.getArgument(1))).containsExactly(1, 2, 3, 4);
+            return Optional.empty();
+        });
+        when(callChunkingService.split(eq(call), any())).thenReturn(Optional.empty());
+        when(callRepository.finishPreparation(call.getId())).thenReturn(1);
+
+        // Act
+        callPreparationService.prepare(call.getId());
+
+        // Assert
+        verify(storageService, times(1)).downloadFile(call.getObjectKey(), 0, null);
+        verify(outboxService).enqueue(eq("calls.received"), anyString(), eq(call.getId()), eq("CallReceived"),
+            any());
+    }
+
+    @Test
+    void prepare_DownloadFails_QueuesEventUnprepared() {
+        // Arrange
+        stubTransactions();
+        Call call = pendingCall();
+        when(callRepository.findById(call.getId())).thenReturn(Optional.of(call));
+        when(speakerSplitService.applies(call)).thenReturn(true);
+        when(storageService.downloadFile(call.getObjectKey(), 0, null))
+            .thenThrow(new UncheckedIOException(new IOException("connection refused")));
+        when(callRepository.finishPreparation(call.getId())).thenReturn(1);
+
+        // Act
+        callPreparationService.prepare(call.getId());
+
+        // Assert
+        verify(speakerSplitService, never()).split(any(), any());
+        verify(outboxService).enqueue(eq("calls.received"), anyString(), eq(call.getId()), eq("CallReceived"),
+            any());
+    }
+
+    @Test
+    void prepare_HighPriority_QueuesOnPriorityTopic() {
+        // Arrange
+        stubTransactions();
+        Call call = pendingCall();
+        call.setPriority(CallPriority.HIGH);
+        when(callRepository.findById(call.getId())).thenReturn(Optional.of(call));
+        stubStoredAudio(call);
+        when(speechDetectionService.detect(eq(call), any())).thenReturn(Optional.empty());
+        when(speakerSplitService.split(eq(call), any())).thenReturn(Optional.empty());
+        when(callChunkingService.split(eq(call), any())).thenReturn(Optional.empty());
+        when(callRepository.finishPreparation(call.getId())).thenReturn(1);
+
+        // Act
+        callPreparationService.prepare(call.getId());
+
+        // Assert
+        verify(outboxService).enqueue(eq("calls.received.priority"), anyString(), eq(call.getId()),
+            eq("CallReceived"), any());
+        verify(callChunkingService, never()).publishChunkEvents(any(), any(), any());
+    }
+
+    @Test
+    void prepare_AlreadyPrepared_DoesNothing() {
+        // Arrange
+        Call call = pendingCall();
+        call.setPreparationPending(false);
+        when(callRepository.findById(call.getId())).thenReturn(Optional.of(call));
+
+        // Act
+        callPreparationService.prepare(call.getId());
+
+        // Assert
+        verifyNoInteractions(speechDetectionService, speakerSplitService, callChunkingService, outboxService);
+        verify(callRepository, never()).finishPreparation(any());
+    }
+
+    @Test
+    void prepare_AnotherWorkerFinishedFirst_DoesNotQueueEvent() {
+        // Arrange
+        stubTransactions();
+        Call call = pendingCall();
+        when(callRepository.findById(call.getId())).thenReturn(Optional.of(call));
+        stubStoredAudio(call);
+        when(speechDetectionService.detect(eq(call), any())).thenReturn(Optional.empty());
+        when(speakerSplitService.split(eq(call), any())).thenReturn(Optional.empty());
+        when(callChunkingService.split(eq(call), any())).thenReturn(Optional.empty());
+        when(callRepository.finishPreparation(call.getId())).thenReturn(0);
+
+        // Act
+        callPreparationService.prepare(call.getId());
+
+        // Assert
+        verifyNoInteractions(outboxService);
+    }
+
+    @Test
+    void prepareStalled_PreparesEachStalledCall() {
+        // Arrange
+        stubTransactions();
+        Call first = pendingCall();
+        Call second = pendingCall();
+        when(callRepository.findTop100ByPreparationPendingTrueAndUpdatedAtBefore(any(Instant.class)))
+            .thenReturn(List.of(first, second));
+        when(callRepository.findById(first.getId())).thenThrow(new IllegalStateException("connection reset"));
+        when(callRepository.findById(second.getId())).thenReturn(Optional.of(second));
+        stubStoredAudio(second);
+        when(callRepository.finishPreparation(second.getId())).thenReturn(1);
+
+        // Act
+        callPreparationService.prepareStalled();
+
+        // Assert
+        verify(outboxService).enqueue(eq("calls.received"), anyString(), eq(second.getId()), eq("CallReceived"),
+            any());
+    }
+
+    @Test
+    void needsPreparation_AnyStepApplies_ReturnsTrue() {
+        Call call = pendingCall();
+        when(speakerSplitService.applies(call)).thenReturn(true);
+
+        assertThat(callPreparationService.needsPreparation(call)).isTrue();
+    }
+
+    private static byte[] readAll(StoredAudio.Source audio) throws IOException {
+        try (InputStream in = audio.open()) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static Call pendingCall() {
+        return Call.builder()
+            .id(UUID.randomUUID())
+            .callerId("555-0123")
+            .agentId("agent-001")
+            .channel(CallChannel.INBOUND)
+            .channelLayout(ChannelLayout.AGENT_LEFT)
+            .priority(CallPriority.NORMAL)
+            .startTime(Instant.now())
+            .audioFileUrl("http://minio:9000/calls/2025/01/test.wav")
+            .objectKey("2025/01/test.wav")
+            .fileFormat("wav")
+            .fileSizeBytes(1024L)
+            .status(CallStatus.PENDING)
+            .correlationId(UUID.randomUUID())
+            .preparationPending(true)
+            .build();
+    }
+}
@@ -0,0 +1,160 @@
+package com.callaudit.ingestion.service;
+
+import com.callaudit.ingestion.model.Call;
+import com.callaudit.ingestion.model.CallChannel;
+import com.callaudit.ingestion.model.CallStatus;
+import com.callaudit.ingestion.repository.CallRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CallStatusService
+ */
+@ExtendWith(MockitoExtension.class)
+@Tag("unit")
+class CallStatusServiceTest {
+
+    @Mock
+    private CallIngestionService callIngestionService;
+
+    @Mock
+    private CallRepository callRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private CallStatusService callStatusService;
+
+    private final UUID callId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        callStatusService = new CallStatusService(callIngestionService, callRepository, transactionTemplate, meterRegistry);
+        ReflectionTestUtils.setField(callStatusService, "maxEntries", 100);
+        ReflectionTestUtils.setField(callStatusService, "sseTimeoutMs", 60000L);
+        callStatusService.init();
+    }
+
+    @Test
+    void getStatus_ServedFromProjectionAfterFirstRead() {
+        when(callIngestionService.getCallStatus(callId)).thenReturn(Optional.of(call(CallStatus.PENDING)));
+
+        assertThat(callStatusService.getStatus(callId)).get()
+            .extracting(CallStatusService.Snapshot::status).isEqualTo(CallStatus.PENDING);
+        assertThat(callStatusService.getStatus(callId)).isPresent();
+
+        verify(callIngestionService, times(1)).getCallStatus(callId);
+    }
+
+    @Test
+    void advanceStatus_UpdatesDatabaseOnly() {
+        stubTransactions();
+
+        callStatusService.advanceStatus(callId, "CallTranscribed");
+        callStatusService.advanceStatus(callId, "CallAudited");
+
+        verify(callRepository).advanceStatus(eq(callId), eq(CallStatus.ANALYZING),
+            eq(List.of(CallStatus.PENDING, CallStatus.TRANSCRIBING)), any(Instant.class));
+        verify(callRepository).advanceStatus(eq(callId), eq(CallStatus.COMPLETED),
+            eq(List.of(CallStatus.PENDING, CallStatus.TRANSCRIBING, CallStatus.ANALYZING)), any(Instant.class));
+        verifyNoInteractions(callIngestionService);
+    }
+
+    @Test
+    void advanceStatus_UnrelatedEvent_Ignored() {
+        callStatusService.advanceStatus(callId, "CallChunkReceived");
+
+        verifyNoInteractions(callRepository, transactionTemplate, callIngestionService);
+    }
+
+    @Test
+    void onPipelineEvent_AdvancesProjectionWithoutWritingDatabase() {
+        when(callIngestionService.getCallStatus(callId)).thenReturn(Optional.of(call(CallStatus.PENDING)));
+        callStatusService.getStatus(callId);
+
+        callStatusService.onPipelineEvent(callId, "CallTranscribed");
+
+        CallStatusService.Snapshot snapshot = callStatusService.getStatus(callId).orElseThrow();
+        assertThat(snapshot.status()).isEqualTo(CallStatus.ANALYZING);
+        assertThat(snapshot.stage()).isEqualTo("CallTranscribed");
+
+        callStatusService.onPipelineEvent(callId, "CallAudited");
+
+        assertThat(callStatusService.getStatus(callId)).get()
+            .extracting(CallStatusService.Snapshot::status).isEqualTo(CallStatus.COMPLETED);
+        verifyNoInteractions(callRepository, transactionTemplate);
+    }
+
+    @Test
+    void onPipelineEvent_LateEventDoesNotMoveCallBack() {
+        when(callIngestionService.getCallStatus(callId)).thenReturn(Optional.of(call(CallStatus.PENDING)));
+        callStatusService.getStatus(callId);
+
+        callStatusService.onPipelineEvent(callId, "CallAudited");
+        callStatusService.onPipelineEvent(callId, "SentimentAnalyzed");
+
+        CallStatusService.Snapshot snapshot = callStatusService.getStatus(callId).orElseThrow();
+        assertThat(snapshot.status()).isEqualTo(CallStatus.COMPLETED);
+        assertThat(snapshot.stage()).isEqualTo("CallAudited");
+    }
+
+    @Test
+    void onPipelineEvent_UnwatchedCall_DoesNothing() {
+        callStatusService.onPipelineEvent(callId, "VocAnalyzed");
+
+        verifyNoInteractions(callRepository, transactionTemplate, callIngestionService);
+    }
+
+    @Test
+    void subscribe_ExistingCall_OpensStream() {
+        when(callIngestionService.getCallStatus(callId)).thenReturn(Optional.of(call(CallStatus.PENDING)));
+
+        assertThat(callStatusService.subscribe(callId)).isPresent();
+        assertThat(meterRegistry.get("ingestion.status.subscribers").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void subscribe_UnknownCall_ReturnsEmpty() {
+        when(callIngestionService.getCallStatus(callId)).thenReturn(Optional.empty());
+
+        assertThat(callStatusService.subscribe(callId)).isEmpty();
+        assertThat(meterRegistry.get("ingestion.status.subscribers").gauge().value()).isZero();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubTransactions() {
+        when(transactionTemplate.execute(any())).thenAnswer(inv ->
+            ((TransactionCallback<Object>) inv.getArgument(0)).doInTransaction(null));
+    }
+
+    private Call call(CallStatus status) {
+        return Call.builder()
+            .id(callId)
+            .callerId("555-0123")
+            .agentId("agent-001")
+            .channel(CallChannel.INBOUND)
+            .status(status)
+            .startTime(Instant.now())
+            .build();
+    }
+}
@@ -0,0 +1,438 @@
+package com.callaudit.ingestion.service;
+
+import com.callaudit.ingestion.audio.AudioFormat;
+import com.callaudit.ingestion.model.Call;
+import com.callaudit.ingestion.model.CallChannel;
+import com.callaudit.ingestion.model.CallPriority;
+import com.callaudit.ingestion.model.CallStatus;
+import com.callaudit.ingestion.model.UploadSession;
+import com.callaudit.ingestion.model.UploadSessionStatus;
+import com.callaudit.ingestion.repository.UploadSessionRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ChunkedUploadService
+ */
+@ExtendWith(MockitoExtension.class)
+@Tag("unit")
+class ChunkedUploadServiceTest {
+
+    @Mock
+    private UploadSessionRepository uploadSessionRepository;
+
+    @Mock
+    private StorageService storageService;
+
+    @Mock
+    private CallIngestionService callIngestionService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private ChunkedUploadService chunkedUploadService;
+
+    private static final byte[] WAV_HEADER = "RIFF$\u0000\u0000\u0000WAVEfmt ".getBytes(StandardCharsets.ISO_8859_1);
+
+    @Test
+    void initiate_DefaultsContentTypeFromExtension() {
+        when(uploadSessionRepository.save(any(UploadSession.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        UploadSession session = chunkedUploadService.initiate(
+            "long-call.flac", null, "555-0123", "agent-001", CallChannel.INBOUND);
+
+        assertThat(session.getContentType()).isEqualTo("audio/flac");
+        assertThat(session.getStatus()).isEqualTo(UploadSessionStatus.ACTIVE);
+    }
+
+    @Test
+    void initiate_KeepsRequestedPriority() {
+        when(uploadSessionRepository.save(any(UploadSession.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        UploadSession session = chunkedUploadService.initiate(
+            "long-call.wav", null, "555-0123", "agent-001", CallChannel.INBOUND, CallPriority.HIGH);
+
+        assertThat(session.getPriority()).isEqualTo(CallPriority.HIGH);
+        assertThat(chunkedUploadService.initiate(
+            "long-call.wav", null, "555-0123", "agent-001", CallChannel.INBOUND).getPriority())
+            .isEqualTo(CallPriority.NORMAL);
+    }
+
+    @Test
+    void initiate_UnsupportedExtension_ThrowsException() {
+        assertThatThrownBy(() -> chunkedUploadService.initiate(
+                "notes.txt", null, "555-0123", "agent-001", CallChannel.INBOUND))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Invalid file format");
+
+        verify(uploadSessionRepository, never()).save(any());
+    }
+
+    @Test
+    void uploadPart_FirstPartChecksSignatureAndReportsSize() {
+        UploadSession session = activeSession();
+        when(uploadSessionRepository.findById(session.getId())).thenReturn(Optional.of(session));
+        when(storageService.uploadPart(eq(session.getId()), eq(1), any(InputStream.class), anyLong()))
+            .thenAnswer(inv -> {
+                ((InputStream) inv.getArgument(2)).readAllBytes();
+                return new StorageService.UploadPart(1, "uploads/x/part-00001", -1, "etag");
+            });
+
+        StorageService.UploadPart part = chunkedUploadService.uploadPart(
+            session.getId(), 1, new ByteArrayInputStream(WAV_HEADER), WAV_HEADER.length);
+
+        assertThat(part.size()).isEqualTo(WAV_HEADER.length);
+    }
+
+    @Test
+    void uploadPart_FirstPartWrongFormat_ThrowsBeforeStoring() {
+        UploadSession session = activeSession();
+        when(uploadSessionRepository.findById(session.getId())).thenReturn(Optional.of(session));
+
+        assertThatThrownBy(() -> chunkedUploadService.uploadPart(
+                session.getId(), 1, new ByteArrayInputStream("plain text body".getBytes()), 15))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("does not match the WAV format");
+
+        verify(storageService, never()).uploadPart(any(), anyInt(), any(), anyLong());
+    }
+
+    @Test
+    void uploadPart_AbortedSession_ThrowsIllegalState() {
+        UploadSession session = activeSession();
+        session.setStatus(UploadSessionStatus.ABORTED);
+        when(uploadSessionRepository.findById(session.getId())).thenReturn(Optional.of(session));
+
+        assertThatThrownBy(() -> chunkedUploadService.uploadPart(
+                session.getId(), 2, new ByteArrayInputStream(new byte[10]), 10))
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void complete_ValidParts_CreatesCallAndCleansUp() {
+        UploadSession session = activeSession();
+        List<StorageService.UploadPart> parts = List.of(
+            new StorageService.UploadPart(1, "p1", ChunkedUploadService.MIN_PART_SIZE_BYTES, "e1"),
+            new StorageService.UploadPart(2, "p2", 1024, "e2"));
+        Call call = Call.builder().id(UUID.randomUUID()).status(CallStatus.PENDING).build();
+
+        stubTransactions();
+        when(uploadSessionRepository.findByIdForUpdate(session.getId())).thenReturn(Optional.of(session));
+        when(storageService.listParts(session.getId())).thenReturn(parts);
+        when(storageService.downloadFile("p1", 0, (long) AudioFormat.SIGNATURE_LENGTH))
+            .thenReturn(new ByteArrayInputStream(WAV_HEADER));
+        byte[] tail = {1, 2, 3};
+        stubStagedContent("p1", WAV_HEADER);
+        stubStagedContent("p2", tail);
+        when(callIngestionService.processChunkedUpload(
+                session, parts, ChunkedUploadService.MIN_PART_SIZE_BYTES + 1024, sha256(WAV_HEADER, tail)))
+            .thenReturn(call);
+
+        Call result = chunkedUploadService.complete(session.getId());
+
+        assertThat(result).isSameAs(call);
+        assertThat(session.getStatus()).isEqualTo(UploadSessionStatus.COMPLETED);
+        assertThat(session.getCallId()).isEqualTo(call.getId());
+        // Parts are only deleted once the call has been committed
+        InOrder inOrder = inOrder(transactionTemplate, storageService);
+        inOrder.verify(transactionTemplate, times(2)).execute(any());
+        inOrder.verify(storageService).removeParts(parts);
+    }
+
+    @Test
+    void complete_AssemblyFails_ReleasesSessionAndKeepsParts() {
+        UploadSession session = activeSession();
+        List<StorageService.UploadPart> parts = List.of(new StorageService.UploadPart(1, "p1", 2048, "e1"));
+
+        stubTransactions();
+        when(uploadSessionRepository.findByIdForUpdate(session.getId())).thenReturn(Optional.of(session));
+        when(storageService.listParts(session.getId())).thenReturn(parts);
+        when(storageService.downloadFile("p1", 0, (long) AudioFormat.SIGNATURE_LENGTH))
+            .thenReturn(new ByteArrayInputStream(WAV_HEADER));
+        stubStagedContent("p1", WAV_HEADER);
+        when(callIngestionService.processChunkedUpload(session, parts, 2048, sha256(WAV_HEADER)))
+            .thenThrow(new RuntimeException("Failed to assemble file in storage"));
+
+        assertThatThrownBy(() -> chunkedUploadService.complete(session.getId()))
+            .hasMessageContaining("Failed to assemble");
+
+        // Back to ACTIVE with its parts, so the client can simply retry
+        assertThat(session.getStatus()).isEqualTo(UploadSessionStatus.ACTIVE);
+        verify(storageService, never()).removeParts(any());
+    }
+
+    @Test
+    void complete_PartReceivedHere_HashedWhileStagedWithoutReadingBack() {
+        UploadSession session = activeSession();
+        when(uploadSessionRepository.findById(session.getId())).thenReturn(Optional.of(session));
+        when(storageService.uploadPart(eq(session.getId()), eq(1), any(InputStream.class), anyLong()))
+            .thenAnswer(inv -> {
+                ((InputStream) inv.getArgument(2)).readAllBytes();
+                return new StorageService.UploadPart(1, "p1", -1, "etag");
+            });
+        chunkedUploadService.uploadPart(session.getId(), 1, new ByteArrayInputStream(WAV_HEADER), WAV_HEADER.length);
+
+        List<StorageService.UploadPart> parts =
+            List.of(new StorageService.UploadPart(1, "p1", WAV_HEADER.length, "e1"));
+        Call call = Call.builder().id(UUID.randomUUID()).build();
+        stubTransactions();
+        when(uploadSessionRepository.findByIdForUpdate(session.getId())).thenReturn(Optional.of(session));
+        when(storageService.listParts(session.getId())).thenReturn(parts);
+        when(storageService.downloadFile("p1", 0, (long) AudioFormat.SIGNATURE_LENGTH))
+            .thenReturn(new ByteArrayInputStream(WAV_HEADER));
+        when(callIngestionService.processChunkedUpload(session, parts, WAV_HEADER.length, sha256(WAV_HEADER)))
+            .thenReturn(call);
+
+        assertThat(chunkedUploadService.complete(session.getId())).isSameAs(call);
+        // Only the signature is read back, not the whole part
+        verify(storageService, never()).downloadFile(anyString(), anyLong(), isNull());
+    }
+
+    @Test
+    void complete_PartReplacedAfterHashing_HashesStagedParts() {
+        UploadSession session = activeSession();
+        byte[] replacement = "RIFF$\u0000\u0000\u0000WAVEfmt data".getBytes(StandardCharsets.ISO_8859_1);
+        when(uploadSessionRepository.findById(session.getId())).thenReturn(Optional.of(session));
+        when(storageService.uploadPart(eq(session.getId()), eq(1), any(InputStream.class), anyLong()))
+            .thenAnswer(inv -> {
+                ((InputStream) inv.getArgument(2)).readAllBytes();
+                return new StorageService.UploadPart(1, "p1", -1, "etag");
+            });
+        chunkedUploadService.uploadPart(session.getId(), 1, new ByteArrayInputStream(WAV_HEADER), WAV_HEADER.length);
+        chunkedUploadService.uploadPart(session.getId(), 1, new ByteArrayInputStream(replacement), replacement.length);
+
+        List<StorageService.UploadPart> parts =
+            List.of(new StorageService.UploadPart(1, "p1", replacement.length, "e1"));
+        Call call = Call.builder().id(UUID.randomUUID()).build();
+        stubTransactions();
+        when(uploadSessionRepository.findByIdForUpdate(session.getId())).thenReturn(Optional.of(session));
+        when(storageService.listParts(session.getId())).thenReturn(parts);
+        when(storageService.downloadFile("p1", 0, (long) AudioFormat.SIGNATURE_LENGTH))
+            .thenReturn(new ByteArrayInputStream(replacement));
+        stubStagedContent("p1", replacement);
+        when(callIngestionService.processChunkedUpload(session, parts, replacement.length, sha256(replacement)))
+            .thenReturn(call);
+
+        assertThat(chunkedUploadService.complete(session.getId())).isSameAs(call);
+    }
+
+    @Test
+    void complete_RecordingIngestedConcurrently_CompletesAsOriginalCall() {
+        UploadSession session = activeSession();
+        List<StorageService.UploadPart> parts = List.of(new StorageService.UploadPart(1, "p1", 2048, "e1"));
+        String digest = sha256(WAV_HEADER);
+        Call original = Call.builder().id(UUID.randomUUID()).status(CallStatus.PENDING).duplicate(true).build();
+
+        stubTransactions();
+        when(uploadSessionRepository.findByIdForUpdate(session.getId())).thenReturn(Optional.of(session));
+        when(storageService.listParts(session.getId())).thenReturn(parts);
+        when(storageService.downloadFile("p1", 0, (long) AudioFormat.SIGNATURE_LENGTH))
+            .thenReturn(new ByteArrayInputStream(WAV_HEADER));
+        stubStagedContent("p1", WAV_HEADER);
+        when(callIngestionService.processChunkedUpload(session, parts, 2048, digest))
+            .thenThrow(new CallIngestionService.DuplicateRecordingException(digest, null));
+        when(callIngestionService.findOriginal(digest)).thenReturn(Optional.of(original));
+
+        assertThat(chunkedUploadService.complete(session.getId())).isSameAs(original);
+        assertThat(session.getStatus()).isEqualTo(UploadSessionStatus.COMPLETED);
+        assertThat(session.getCallId()).isEqualTo(original.getId());
+        verify(storageService).removeParts(parts);
+    }
+
+    @Test
+    void complete_CompletionInProgress_ThrowsIllegalState() {
+        UploadSession session = activeSession();
+        session.setStatus(UploadSessionStatus.COMPLETING);
+        session.setUpdatedAt(Instant.now());
+        ReflectionTestUtils.setField(chunkedUploadService, "completionTimeoutMs", 600_000L);
+
+        stubTransactions();
+        when(uploadSessionRepository.findByIdForUpdate(session.getId())).thenReturn(Optional.of(session));
+
+        assertThatThrownBy(() -> chunkedUploadService.complete(session.getId()))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("COMPLETING");
+        verify(storageService, never()).listParts(any());
+    }
+
+    @Test
+    void expireAbandonedSessions_ExpiresStaleSessionsAndRemovesTheirParts() {
+        UploadSession session = activeSession();
+        session.setUpdatedAt(Instant.now().minus(Duration.ofDays(2)));
+        List<StorageService.UploadPart> parts = List.of(new StorageService.UploadPart(1, "p1", 10, "e1"));
+        ReflectionTestUtils.setField(chunkedUploadService, "sessionTtlHours", 24L);
+
+        stubTransactions();
+        when(uploadSessionRepository.findTop100ByStatusInAndUpdatedAtBefore(anyCollection(), any(Instant.class)))
+            .thenReturn(List.of(session));
+        when(uploadSessionRepository.findByIdForUpdate(session.getId())).thenReturn(Optional.of(session));
+        when(storageService.listParts(session.getId())).thenReturn(parts);
+
+        chunkedUploadService.expireAbandonedSessions();
+
+        assertThat(session.getStatus()).isEqualTo(UploadSessionStatus.EXPIRED);
+        verify(storageService).removeParts(parts);
+    }
+
+    @Test
+    void complete_PresignedPartNotAudio_ThrowsWithoutCreatingCall() {
+        UploadSession session = activeSession();
+        List<StorageService.UploadPart> parts = List.of(new StorageService.UploadPart(1, "p1", 2048, "e1"));
+        stubTransactions();
+        when(uploadSessionRepository.findByIdForUpdate(session.getId())).thenReturn(Optional.of(session));
+        when(storageService.listParts(session.getId())).thenReturn(parts);
+        when(storageService.downloadFile("p1", 0, (long) AudioFormat.SIGNATURE_LENGTH))
+            .thenReturn(new ByteArrayInputStream("<html>oops</html>".getBytes()));
+
+        assertThatThrownBy(() -> chunkedUploadService.complete(session.getId()))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("does not match the WAV format");
+        verifyNoInteractions(callIngestionService);
+    }
+
+    @Test
+    void presignPart_ActiveSession_ReturnsUrl() {
+        UploadSession session = activeSession();
+        StorageService.PresignedUrl presigned = new StorageService.PresignedUrl(
+            "http://minio:9000/calls/uploads/x/part-00001?X-Amz-Signature=abc", Instant.now().plusSeconds(900));
+        when(uploadSessionRepository.findById(session.getId())).thenReturn(Optional.of(session));
+        when(storageService.presignPartUpload(session.getId(), 1)).thenReturn(presigned);
+
+        assertThat(chunkedUploadService.presignPart(session.getId(), 1)).isSameAs(presigned);
+    }
+
+    @Test
+    void presignPart_InvalidPartNumber_ThrowsException() {
+        UploadSession session = activeSession();
+        when(uploadSessionRepository.findById(session.getId())).thenReturn(Optional.of(session));
+
+        assertThatThrownBy(() -> chunkedUploadService.presignPart(session.getId(), 0))
+            .isInstanceOf(IllegalArgumentException.class);
+        verify(storageService, never()).presignPartUpload(any(), anyInt());
+    }
+
+    @Test
+    void complete_MissingPart_ThrowsException() {
+        UploadSession session = activeSession();
+        stubTransactions();
+        when(uploadSessionRepository.findByIdForUpdate(session.getId())).thenReturn(Optional.of(session));
+        when(storageService.listParts(session.getId())).thenReturn(List.of(
+            new StorageService.UploadPart(1, "p1", ChunkedUploadService.MIN_PART_SIZE_BYTES, "e1"),
+            new StorageService.UploadPart(3, "p3", 1024, "e3")));
+
+        assertThatThrownBy(() -> chunkedUploadService.complete(session.getId()))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Missing part 2");
+
+        verify(callIngestionService, never()).processChunkedUpload(any(), any(), anyLong(), any());
+    }
+
+    @Test
+    void complete_UndersizedMiddlePart_ThrowsException() {
+        UploadSession session = activeSession();
+        stubTransactions();
+        when(uploadSessionRepository.findByIdForUpdate(session.getId())).thenReturn(Optional.of(session));
+        when(storageService.listParts(session.getId())).thenReturn(List.of(
+            new StorageService.UploadPart(1, "p1", 1024, "e1"),
+            new StorageService.UploadPart(2, "p2", 1024, "e2")));
+
+        assertThatThrownBy(() -> chunkedUploadService.complete(session.getId()))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("smaller than the 5MB minimum");
+    }
+
+    @Test
+    void complete_AlreadyCompleted_ReturnsExistingCall() {
+        UploadSession session = activeSession();
+        UUID callId = UUID.randomUUID();
+        session.setStatus(UploadSessionStatus.COMPLETED);
+        session.setCallId(callId);
+        Call call = Call.builder().id(callId).build();
+
+        stubTransactions();
+        when(uploadSessionRepository.findByIdForUpdate(session.getId())).thenReturn(Optional.of(session));
+        when(callIngestionService.getCallStatus(callId)).thenReturn(Optional.of(call));
+
+        assertThat(chunkedUploadService.complete(session.getId())).isSameAs(call);
+        verify(storageService, never()).listParts(any());
+    }
+
+    @Test
+    void abort_RemovesStagedParts() {
+        UploadSession session = activeSession();
+        List<StorageService.UploadPart> parts = List.of(new StorageService.UploadPart(1, "p1", 10, "e1"));
+        stubTransactions();
+        when(uploadSessionRepository.findByIdForUpdate(session.getId())).thenReturn(Optional.of(session));
+        when(storageService.listParts(session.getId())).thenReturn(parts);
+
+        chunkedUploadService.abort(session.getId());
+
+        assertThat(session.getStatus()).isEqualTo(UploadSessionStatus.ABORTED);
+        verify(storageService).removeParts(parts);
+    }
+
+    private void stubStagedContent(String objectName, byte[] content) {
+        when(storageService.downloadFile(objectName, 0, null)).thenReturn(new ByteArrayInputStream(content));
+    }
+
+    private static String sha256(byte[]... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (byte[] part : parts) {
+                digest.update(part);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubTransactions() {
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(inv ->
+            ((TransactionCallback<Object>) inv.getArgument(0)).doInTransaction(null));
+        lenient().doAnswer(inv -> {
+            ((Consumer<TransactionStatus>) inv.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    private UploadSession activeSession() {
+        return UploadSession.builder()
+            .id(UUID.randomUUID())
+            .filename("long-call.wav")
+            .contentType("audio/wav")
+            .callerId("555-0123")
+            .agentId("agent-001")
+            .channel(CallChannel.INBOUND)
+            .build();
+    }
+}
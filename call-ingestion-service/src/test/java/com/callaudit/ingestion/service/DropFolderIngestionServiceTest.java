@@ -0,0 +1,163 @@
+package com.callaudit.ingestion.service;
+
+import com.callaudit.ingestion.model.Call;
+import com.callaudit.ingestion.model.CallChannel;
+import com.callaudit.ingestion.model.CallPriority;
+import com.callaudit.ingestion.model.CallStatus;
+import com.callaudit.ingestion.model.ChannelLayout;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DropFolderIngestionService
+ */
+@ExtendWith(MockitoExtension.class)
+@Tag("unit")
+class DropFolderIngestionServiceTest {
+
+    @Mock
+    private CallIngestionService callIngestionService;
+
+    @TempDir
+    Path dropFolder;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private DropFolderIngestionService dropFolderIngestionService;
+
+    private static final byte[] AUDIO = "RIFF....WAVEfmt test audio".getBytes();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        dropFolderIngestionService =
+            new DropFolderIngestionService(callIngestionService, new ObjectMapper(), meterRegistry);
+        ReflectionTestUtils.setField(dropFolderIngestionService, "filenamePattern", "");
+        ReflectionTestUtils.setField(dropFolderIngestionService, "maxAttempts", 3);
+        dropFolderIngestionService.init();
+    }
+
+    @Test
+    void ingest_FilenameMetadata_StreamsFileAndMovesItToProcessed() throws Exception {
+        Path file = Files.write(dropFolder.resolve("20250101_120530_555-0123_agent-001_outbound.wav"), AUDIO);
+        when(callIngestionService.processStreamingUpload(any(InputStream.class), anyString(), isNull(),
+                anyLong(), anyString(), anyString(), anyString(), any(CallChannel.class), any(), any()))
+            .thenReturn(call(false));
+
+        dropFolderIngestionService.ingest(file);
+
+        verify(callIngestionService).processStreamingUpload(any(InputStream.class),
+            eq("20250101_120530_555-0123_agent-001_outbound.wav"), isNull(), eq((long) AUDIO.length),
+            matches("[0-9a-f]{64}"), eq("555-0123"), eq("agent-001"), eq(CallChannel.OUTBOUND), isNull(), isNull());
+        assertThat(file).doesNotExist();
+        assertThat(dropFolder.resolve("processed").resolve(file.getFileName())).exists();
+        assertThat(meterRegistry.get("ingestion.drop_folder.files").tag("result", "ingested").counter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void ingest_Sidecar_TakesPrecedenceAndMovesWithTheFile() throws Exception {
+        Path file = Files.write(dropFolder.resolve("rec-42.wav"), AUDIO);
+        Path sidecar = Files.writeString(dropFolder.resolve("rec-42.json"),
+            "{\"callerId\":\"555-0199\",\"agentId\":\"agent-007\",\"channel\":\"INBOUND\","
+                + "\"channelLayout\":\"AGENT_LEFT\",\"priority\":\"HIGH\",\"site\":\"ignored\"}");
+        when(callIngestionService.processStreamingUpload(any(InputStream.class), anyString(), isNull(),
+                anyLong(), anyString(), anyString(), anyString(), any(CallChannel.class), any(), any()))
+            .thenReturn(call(true));
+
+        dropFolderIngestionService.ingest(file);
+
+        verify(callIngestionService).processStreamingUpload(any(InputStream.class), eq("rec-42.wav"), isNull(),
+            anyLong(), anyString(), eq("555-0199"), eq("agent-007"), eq(CallChannel.INBOUND),
+            eq(ChannelLayout.AGENT_LEFT), eq(CallPriority.HIGH));
+        assertThat(sidecar).doesNotExist();
+        assertThat(dropFolder.resolve("processed").resolve("rec-42.json")).exists();
+        assertThat(meterRegistry.get("ingestion.drop_folder.files").tag("result", "duplicate").counter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void ingest_NoMetadata_MovesToFailedWithReason() throws Exception {
+        Path file = Files.write(dropFolder.resolve("recording.wav"), AUDIO);
+
+        dropFolderIngestionService.ingest(file);
+
+        verifyNoInteractions(callIngestionService);
+        assertThat(dropFolder.resolve("failed").resolve("recording.wav")).exists();
+        assertThat(Files.readString(dropFolder.resolve("failed").resolve("recording.wav.error")))
+            .contains("filename-pattern");
+    }
+
+    @Test
+    void ingest_StorageError_LeavesFileForNextReconciliation() throws Exception {
+        Path file = Files.write(dropFolder.resolve("20250101_120530_555-0123_agent-001_inbound.wav"), AUDIO);
+        when(callIngestionService.processStreamingUpload(any(InputStream.class), anyString(), isNull(),
+                anyLong(), anyString(), anyString(), anyString(), any(CallChannel.class), any(), any()))
+            .thenThrow(new RuntimeException("Failed to upload file to storage"));
+
+        dropFolderIngestionService.ingest(file);
+
+        assertThat(file).exists();
+        assertThat(dropFolder.resolve("failed")).doesNotExist();
+        assertThat(meterRegistry.get("ingestion.drop_folder.files").tag("result", "retry").counter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void ingest_StorageErrorOnEveryAttempt_MovesToFailedAfterMaxAttempts() throws Exception {
+        Path file = Files.write(dropFolder.resolve("20250101_120530_555-0123_agent-001_inbound.wav"), AUDIO);
+        when(callIngestionService.processStreamingUpload(any(InputStream.class), anyString(), isNull(),
+                anyLong(), anyString(), anyString(), anyString(), any(CallChannel.class), any(), any()))
+            .thenThrow(new RuntimeException("Failed to upload file to storage"));
+
+        dropFolderIngestionService.ingest(file);
+        dropFolderIngestionService.ingest(file);
+        assertThat(file).exists();
+        dropFolderIngestionService.ingest(file);
+
+        assertThat(file).doesNotExist();
+        assertThat(Files.readString(dropFolder.resolve("failed").resolve(file.getFileName() + ".error")))
+            .contains("Gave up after 3 attempts");
+        assertThat(meterRegistry.get("ingestion.drop_folder.files").tag("result", "retry").counter().count())
+            .isEqualTo(2);
+        assertThat(meterRegistry.get("ingestion.drop_folder.files").tag("result", "failed").counter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void resolveMetadata_SidecarWithoutAgent_Rejected() throws Exception {
+        Path file = Files.write(dropFolder.resolve("rec-43.wav"), AUDIO);
+        Files.writeString(dropFolder.resolve("rec-43.json"), "{\"callerId\":\"555-0199\"}");
+
+        assertThatThrownBy(() -> dropFolderIngestionService.resolveMetadata(file))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("agentId");
+    }
+
+    private static Call call(boolean duplicate) {
+        Call call = Call.builder()
+            .id(UUID.randomUUID())
+            .status(CallStatus.PENDING)
+            .build();
+        call.setDuplicate(duplicate);
+        return call;
+    }
+}
@@ -0,0 +1,240 @@
+package com.callaudit.ingestion.service;
+
+import com.callaudit.ingestion.event.CallReceivedEvent;
+import com.callaudit.ingestion.event.MinioBucketEvent;
+import com.callaudit.ingestion.model.Call;
+import com.callaudit.ingestion.model.CallChannel;
+import com.callaudit.ingestion.model.CallPriority;
+import com.callaudit.ingestion.model.CallStatus;
+import com.callaudit.ingestion.model.ChannelLayout;
+import com.callaudit.ingestion.repository.CallBatchRepository;
+import com.callaudit.ingestion.repository.CallRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for MinioNotificationService
+ */
+@ExtendWith(MockitoExtension.class)
+@Tag("unit")
+class MinioNotificationServiceTest {
+
+    @Mock
+    private StorageService storageService;
+
+    @Mock
+    private CallRepository callRepository;
+
+    @Mock
+    private CallBatchRepository callBatchRepository;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private CallPreparationService callPreparationService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private MinioNotificationService minioNotificationService;
+
+    private static final Instant EVENT_TIME = Instant.parse("2025-01-01T12:05:30Z");
+
+    @BeforeEach
+    void setUp() {
+        minioNotificationService = new MinioNotificationService(
+            storageService, callRepository, callBatchRepository, outboxService, callPreparationService,
+            transactionTemplate);
+        ReflectionTestUtils.setField(minioNotificationService, "callReceivedTopic", "calls.received");
+        ReflectionTestUtils.setField(minioNotificationService, "callReceivedPriorityTopic", "calls.received.priority");
+        ReflectionTestUtils.setField(minioNotificationService, "prefix", "incoming/");
+        ReflectionTestUtils.setField(minioNotificationService, "keyPattern", "");
+        ReflectionTestUtils.setField(minioNotificationService, "batchSize", 500);
+        ReflectionTestUtils.setField(minioNotificationService, "defaultChannelLayout", ChannelLayout.MIXED);
+        minioNotificationService.init();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void register_UserMetadata_InsertsCallsInPlaceAndEnqueuesCallReceived() {
+        stubStorageAndTransactions();
+        when(callRepository.findExistingObjectKeys(anyCollection())).thenReturn(Set.of());
+
+        List<Call> calls = minioNotificationService.register(List.of(
+            event(record("incoming/site-a/rec%201.wav", Map.of(
+                "X-Amz-Meta-Caller-Id", "555-0123",
+                "X-Amz-Meta-Agent-Id", "agent-001",
+                "X-Amz-Meta-Channel", "outbound"))),
+            event(record("incoming/site-a/rec2.mp3", Map.of(
+                "X-Amz-Meta-Caller-Id", "555-0124",
+                "X-Amz-Meta-Agent-Id", "agent-002")))));
+
+        assertThat(calls).hasSize(2);
+        Call call = calls.get(0);
+        assertThat(call.getObjectKey()).isEqualTo("incoming/site-a/rec 1.wav");
+        assertThat(call.getAudioFileUrl()).isEqualTo("http://localhost:9000/calls/incoming/site-a/rec 1.wav");
+        assertThat(call.getCallerId()).isEqualTo("555-0123");
+        assertThat(call.getAgentId()).isEqualTo("agent-001");
+        assertThat(call.getChannel()).isEqualTo(CallChannel.OUTBOUND);
+        assertThat(call.getPriority()).isEqualTo(CallPriority.NORMAL);
+        assertThat(call.getStatus()).isEqualTo(CallStatus.PENDING);
+        assertThat(call.getStartTime()).isEqualTo(EVENT_TIME);
+        assertThat(call.getFileSizeBytes()).isEqualTo(1024L);
+        assertThat(call.getFileFormat()).isEqualTo("wav");
+        assertThat(calls.get(1).getFileFormat()).isEqualTo("mp3");
+
+        ArgumentCaptor<List<Call>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(callBatchRepository).insertNew(inserted.capture(), eq(500));
+        assertThat(inserted.getValue()).containsExactlyElementsOf(calls);
+        verify(outboxService).enqueue(eq("calls.received"), eq(call.getId().toString()), eq(call.getId()),
+            eq("CallReceived"), any(CallReceivedEvent.class));
+        verify(outboxService, times(2)).enqueue(eq("calls.received"), anyString(), any(), anyString(), any());
+    }
+
+    @Test
+    void register_NoMetadata_FallsBackToKeyPattern() {
+        stubStorageAndTransactions();
+        when(callRepository.findExistingObjectKeys(anyCollection())).thenReturn(Set.of());
+
+        List<Call> calls = minioNotificationService.register(List.of(
+            event(record("incoming/20250101_120530_555-0123_agent-001_inbound.wav", Map.of()))));
+
+        assertThat(calls).singleElement().satisfies(call -> {
+            assertThat(call.getCallerId()).isEqualTo("555-0123");
+            assertThat(call.getAgentId()).isEqualTo("agent-001");
+            assertThat(call.getChannel()).isEqualTo(CallChannel.INBOUND);
+        });
+    }
+
+    @Test
+    void register_KnownAndForeignKeys_Skipped() {
+        when(storageService.getBucketName()).thenReturn("calls");
+        when(callRepository.findExistingObjectKeys(anyCollection())).thenReturn(Set.of("incoming/known.wav"));
+
+        List<Call> calls = minioNotificationService.register(List.of(
+            event(record("incoming/known.wav", Map.of(
+                "X-Amz-Meta-Caller-Id", "555-0123", "X-Amz-Meta-Agent-Id", "agent-001"))),
+            // written by this service itself
+            event(record("2025/01/01/9b1f.wav", Map.of(
+                "X-Amz-Meta-Caller-Id", "555-0123", "X-Amz-Meta-Agent-Id", "agent-001"))),
+            // no metadata and no match
+            event(record("incoming/recording.wav", Map.of()))));
+
+        assertThat(calls).isEmpty();
+        verify(callRepository).findExistingObjectKeys(List.of("incoming/known.wav"));
+        verifyNoInteractions(callBatchRepository, outboxService, transactionTemplate);
+    }
+
+    @Test
+    void register_HighPriority_PublishesOnPriorityTopic() {
+        stubStorageAndTransactions();
+        when(callRepository.findExistingObjectKeys(anyCollection())).thenReturn(Set.of());
+        MinioBucketEvent.Record record = record("incoming/urgent.wav", Map.of(
+            "X-Amz-Meta-Caller-Id", "555-0123", "X-Amz-Meta-Agent-Id", "agent-001",
+            "X-Amz-Meta-Priority", "high"));
+
+        // The same object notified twice in one batch is registered once
+        List<Call> calls = minioNotificationService.register(List.of(event(record), event(record)));
+
+        assertThat(calls).singleElement()
+            .extracting(Call::getPriority).isEqualTo(CallPriority.HIGH);
+        verify(outboxService).enqueue(eq("calls.received.priority"), anyString(), any(), anyString(), any());
+        verify(outboxService, never()).enqueue(eq("calls.received"), anyString(), any(), anyString(), any());
+    }
+
+    @Test
+    void register_KeyRegisteredConcurrently_NotPublished() {
+        stubStorageAndTransactions();
+        when(callRepository.findExistingObjectKeys(anyCollection())).thenReturn(Set.of());
+        // Another instance inserted incoming/raced.wav between the lookup and the insert
+        when(callBatchRepository.insertNew(anyList(), anyInt())).thenAnswer(inv -> {
+            List<Call> candidates = inv.getArgument(0);
+            return candidates.stream().filter(call -> !call.getObjectKey().equals("incoming/raced.wav")).toList();
+        });
+
+        List<Call> calls = minioNotificationService.register(List.of(
+            event(record("incoming/raced.wav", Map.of(
+                "X-Amz-Meta-Caller-Id", "555-0123", "X-Amz-Meta-Agent-Id", "agent-001"))),
+            event(record("incoming/fresh.wav", Map.of(
+                "X-Amz-Meta-Caller-Id", "555-0124", "X-Amz-Meta-Agent-Id", "agent-002")))));
+
+        assertThat(calls).singleElement()
+            .extracting(Call::getObjectKey).isEqualTo("incoming/fresh.wav");
+        verify(outboxService).enqueue(eq("calls.received"), eq(calls.get(0).getId().toString()),
+            eq(calls.get(0).getId()), eq("CallReceived"), any(CallReceivedEvent.class));
+        verifyNoMoreInteractions(outboxService);
+    }
+
+    @Test
+    void register_NeedsPreparation_InsertsFlaggedAndPreparesAfterCommit() {
+        stubStorageAndTransactions();
+        when(callRepository.findExistingObjectKeys(anyCollection())).thenReturn(Set.of());
+        when(callPreparationService.needsPreparation(any(Call.class)))
+            .thenAnswer(inv -> inv.<Call>getArgument(0).getChannelLayout() == ChannelLayout.AGENT_LEFT);
+
+        List<Call> calls = minioNotificationService.register(List.of(
+            event(record("incoming/stereo.wav", Map.of(
+                "X-Amz-Meta-Caller-Id", "555-0123", "X-Amz-Meta-Agent-Id", "agent-001",
+                "X-Amz-Meta-Channel-Layout", "agent_left"))),
+            event(record("incoming/mono.wav", Map.of(
+                "X-Amz-Meta-Caller-Id", "555-0124", "X-Amz-Meta-Agent-Id", "agent-002")))));
+
+        assertThat(calls).extracting(Call::isPreparationPending).containsExactly(true, false);
+        verify(callPreparationService).prepareAfterCommit(calls.get(0).getId());
+        // Only the call that needs no preparation is queued right away
+        verify(outboxService).enqueue(eq("calls.received"), eq(calls.get(1).getId().toString()),
+            eq(calls.get(1).getId()), eq("CallReceived"), any(CallReceivedEvent.class));
+        verifyNoMoreInteractions(outboxService);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubStorageAndTransactions() {
+        when(storageService.getBucketName()).thenReturn("calls");
+        when(storageService.objectUrl(anyString()))
+            .thenAnswer(inv -> "http://localhost:9000/calls/" + inv.getArgument(0));
+        when(transactionTemplate.execute(any()))
+            .thenAnswer(inv -> ((TransactionCallback<Object>) inv.getArgument(0)).doInTransaction(null));
+        lenient().when(callBatchRepository.insertNew(anyList(), anyInt())).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    private static MinioBucketEvent event(MinioBucketEvent.Record record) {
+        return MinioBucketEvent.builder()
+            .eventName(record.getEventName())
+            .key("calls/" + record.getS3().getObject().getKey())
+            .records(List.of(record))
+            .build();
+    }
+
+    private static MinioBucketEvent.Record record(String key, Map<String, String> userMetadata) {
+        return MinioBucketEvent.Record.builder()
+            .eventName("s3:ObjectCreated:Put")
+            .eventTime(EVENT_TIME)
+            .s3(MinioBucketEvent.S3.builder()
+                .bucket(MinioBucketEvent.Bucket.builder().name("calls").build())
+                .object(MinioBucketEvent.S3Object.builder()
+                    .key(key.replace(" ", "%20"))
+                    .size(1024L)
+                    .userMetadata(userMetadata)
+                    .build())
+                .build())
+            .build();
+    }
+}
@@ -0,0 +1,140 @@
+package com.callaudit.ingestion.service;
+
+import com.callaudit.ingestion.model.OutboxEvent;
+import com.callaudit.ingestion.repository.OutboxEventRepository;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for OutboxRelay
+ */
+@ExtendWith(MockitoExtension.class)
+@Tag("unit")
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private KafkaTemplate<String, String> outboxKafkaTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(outboxRelay, "batchSize", 2);
+        ReflectionTestUtils.setField(outboxRelay, "sendTimeoutMs", 1000L);
+        when(transactionTemplate.execute(any())).thenAnswer(inv ->
+            inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void relay_PublishesAndDeletesAcknowledgedEvents() {
+        OutboxEvent first = outboxEvent();
+        OutboxEvent second = outboxEvent();
+        when(outboxEventRepository.lockNextBatch(2))
+            .thenReturn(List.of(first, second))
+            .thenReturn(List.of());
+        when(outboxKafkaTemplate.send(any(ProducerRecord.class)))
+            .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        outboxRelay.relay();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<ProducerRecord<String, String>> recordCaptor = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(outboxKafkaTemplate, times(2)).send(recordCaptor.capture());
+        ProducerRecord<String, String> record = recordCaptor.getAllValues().get(0);
+        assertThat(record.topic()).isEqualTo("calls.received");
+        assertThat(record.key()).isEqualTo(first.getMessageKey());
+        assertThat(record.value()).isEqualTo(first.getPayload());
+        assertThat(new String(record.headers().lastHeader("__TypeId__").value(), StandardCharsets.UTF_8))
+            .isEqualTo("com.callaudit.ingestion.event.CallReceivedEvent");
+
+        verify(outboxKafkaTemplate, times(1)).flush();
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(first.getId(), second.getId()));
+        // Full batch, so the relay looked for more
+        verify(outboxEventRepository, times(2)).lockNextBatch(2);
+    }
+
+    @Test
+    void relay_FailedSend_KeepsEventForRetry() {
+        OutboxEvent delivered = outboxEvent();
+        OutboxEvent failed = outboxEvent();
+        when(outboxEventRepository.lockNextBatch(2)).thenReturn(List.of(delivered, failed));
+        when(outboxKafkaTemplate.send(any(ProducerRecord.class)))
+            .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)))
+            .thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker unavailable")));
+
+        outboxRelay.relay();
+
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(delivered.getId()));
+        // Partial batch ends the pass; the next scheduled run retries
+        verify(outboxEventRepository, times(1)).lockNextBatch(2);
+    }
+
+    @Test
+    void relay_AfterFailedBatch_BacksOffBeforeNextPass() {
+        ReflectionTestUtils.setField(outboxRelay, "retryBackoffMs", 60_000L);
+        ReflectionTestUtils.setField(outboxRelay, "maxRetryBackoffMs", 60_000L);
+        when(outboxEventRepository.lockNextBatch(2)).thenReturn(List.of(outboxEvent()));
+        when(outboxKafkaTemplate.send(any(ProducerRecord.class)))
+            .thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker unavailable")));
+
+        outboxRelay.relay();
+        outboxRelay.relay();
+
+        // The second pass falls inside the backoff and does not lock any rows
+        verify(outboxEventRepository, times(1)).lockNextBatch(2);
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of());
+    }
+
+    @Test
+    void relay_EmptyOutbox_SendsNothing() {
+        when(outboxEventRepository.lockNextBatch(2)).thenReturn(List.of());
+
+        outboxRelay.relay();
+
+        verifyNoInteractions(outboxKafkaTemplate);
+        verify(outboxEventRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    private OutboxEvent outboxEvent() {
+        UUID callId = UUID.randomUUID();
+        return OutboxEvent.builder()
+            .id(UUID.randomUUID())
+            .aggregateId(callId)
+            .eventType("CallReceived")
+            .topic("calls.received")
+            .messageKey(callId.toString())
+            .payloadType("com.callaudit.ingestion.event.CallReceivedEvent")
+            .payload("{\"eventType\":\"CallReceived\"}")
+            .createdAt(Instant.now())
+            .build();
+    }
+}
@@ -0,0 +1,140 @@
+package com.callaudit.ingestion.service;
+
+import com.callaudit.ingestion.event.CallReceivedEvent;
+import com.callaudit.ingestion.model.Call;
+import com.callaudit.ingestion.model.ChannelLayout;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SpeakerSplitService
+ */
+@ExtendWith(MockitoExtension.class)
+@Tag("unit")
+class SpeakerSplitServiceTest {
+
+    @Mock
+    private StorageService storageService;
+
+    @InjectMocks
+    private SpeakerSplitService speakerSplitService;
+
+    private static final String OBJECT_KEY = "2025/01/test-id.wav";
+    private static final String AGENT_URL = "http://localhost:9000/calls/2025/01/test-id/agent.wav";
+    private static final String CUSTOMER_URL = "http://localhost:9000/calls/2025/01/test-id/customer.wav";
+    private static final int FRAMES = 8000;
+
+    @Test
+    void split_AgentLeft_StoresEachChannelAsMonoTrack() {
+        byte[] stereo = stereoWav((short) 1000, (short) -2000);
+        when(storageService.downloadFile(OBJECT_KEY, 0, null)).thenAnswer(inv -> new ByteArrayInputStream(stereo));
+        Map<String, byte[]> stored = new HashMap<>();
+        when(storageService.uploadDerivative(eq(OBJECT_KEY), anyString(), any(InputStream.class),
+                eq(44L + FRAMES * 2), eq("audio/wav")))
+            .thenAnswer(inv -> {
+                String name = inv.getArgument(1);
+                stored.put(name, ((InputStream) inv.getArgument(2)).readAllBytes());
+                return name.equals("agent.wav") ? AGENT_URL : CUSTOMER_URL;
+            });
+
+        Optional<List<CallReceivedEvent.SpeakerAudio>> tracks =
+            speakerSplitService.split(storedCall(ChannelLayout.AGENT_LEFT, 2));
+
+        assertThat(tracks).isPresent();
+        assertThat(tracks.get()).extracting(CallReceivedEvent.SpeakerAudio::getSpeaker)
+            .containsExactly(SpeakerSplitService.AGENT, SpeakerSplitService.CUSTOMER);
+        assertThat(tracks.get()).extracting(CallReceivedEvent.SpeakerAudio::getChannelIndex).containsExactly(0, 1);
+        assertThat(tracks.get()).extracting(CallReceivedEvent.SpeakerAudio::getAudioFileUrl)
+            .containsExactly(AGENT_URL, CUSTOMER_URL);
+        assertThat(firstSample(stored.get("agent.wav"))).isEqualTo((short) 1000);
+        assertThat(firstSample(stored.get("customer.wav"))).isEqualTo((short) -2000);
+    }
+
+    @Test
+    void split_AgentRight_SwapsChannels() {
+        byte[] stereo = stereoWav((short) 1000, (short) -2000);
+        when(storageService.downloadFile(OBJECT_KEY, 0, null)).thenAnswer(inv -> new ByteArrayInputStream(stereo));
+        when(storageService.uploadDerivative(eq(OBJECT_KEY), anyString(), any(InputStream.class), anyLong(),
+                anyString()))
+            .thenReturn(AGENT_URL, CUSTOMER_URL);
+
+        Optional<List<CallReceivedEvent.SpeakerAudio>> tracks =
+            speakerSplitService.split(storedCall(ChannelLayout.AGENT_RIGHT, 2));
+
+        assertThat(tracks).isPresent();
+        assertThat(tracks.get()).extracting(CallReceivedEvent.SpeakerAudio::getChannelIndex).containsExactly(1, 0);
+    }
+
+    @Test
+    void split_MixedOrMonoCall_IsSkipped() {
+        assertThat(speakerSplitService.split(storedCall(null, 2))).isEmpty();
+        assertThat(speakerSplitService.split(storedCall(ChannelLayout.MIXED, 2))).isEmpty();
+        assertThat(speakerSplitService.split(storedCall(ChannelLayout.AGENT_LEFT, 1))).isEmpty();
+
+        verifyNoInteractions(storageService);
+    }
+
+    @Test
+    void split_SecondUploadFails_RemovesFirstTrack() {
+        byte[] stereo = stereoWav((short) 1000, (short) -2000);
+        when(storageService.downloadFile(OBJECT_KEY, 0, null)).thenAnswer(inv -> new ByteArrayInputStream(stereo));
+        when(storageService.uploadDerivative(eq(OBJECT_KEY), anyString(), any(InputStream.class), anyLong(),
+                anyString()))
+            .thenReturn(AGENT_URL)
+            .thenThrow(new RuntimeException("Failed to upload file to storage"));
+
+        assertThat(speakerSplitService.split(storedCall(ChannelLayout.AGENT_LEFT, 2))).isEmpty();
+
+        verify(storageService).deleteFile(AGENT_URL);
+    }
+
+    private static Call storedCall(ChannelLayout layout, int channels) {
+        return Call.builder()
+            .id(UUID.randomUUID())
+            .objectKey(OBJECT_KEY)
+            .fileFormat("wav")
+            .channelCount(channels)
+            .channelLayout(layout)
+            .build();
+    }
+
+    private static short firstSample(byte[] monoWav) {
+        return ByteBuffer.wrap(monoWav, 44, 2).order(ByteOrder.LITTLE_ENDIAN).getShort();
+    }
+
+    /**
+     * 16-bit stereo 8kHz WAV, one second long, with a constant value on each channel
+     */
+    private static byte[] stereoWav(short left, short right) {
+        int dataSize = FRAMES * 4;
+        ByteBuffer buffer = ByteBuffer.allocate(44 + dataSize).order(ByteOrder.LITTLE_ENDIAN)
+            .put("RIFF".getBytes(StandardCharsets.ISO_8859_1)).putInt(36 + dataSize)
+            .put("WAVEfmt ".getBytes(StandardCharsets.ISO_8859_1)).putInt(16)
+            .putShort((short) 1).putShort((short) 2).putInt(8000).putInt(8000 * 4)
+            .putShort((short) 4).putShort((short) 16)
+            .put("data".getBytes(StandardCharsets.ISO_8859_1)).putInt(dataSize);
+        for (int i = 0; i < FRAMES; i++) {
+            buffer.putShort(left).putShort(right);
+        }
+        return buffer.array();
+    }
+}
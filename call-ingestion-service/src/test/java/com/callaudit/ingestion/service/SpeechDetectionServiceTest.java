@@ -0,0 +1,145 @@
+package com.callaudit.ingestion.service;
+
+import com.callaudit.ingestion.event.CallReceivedEvent;
+import com.callaudit.ingestion.model.Call;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SpeechDetectionService
+ */
+@ExtendWith(MockitoExtension.class)
+@Tag("unit")
+class SpeechDetectionServiceTest {
+
+    @Mock
+    private StorageService storageService;
+
+    @InjectMocks
+    private SpeechDetectionService speechDetectionService;
+
+    private static final String OBJECT_KEY = "2025/01/test-id.wav";
+    private static final String TRIMMED_URL = "http://localhost:9000/calls/2025/01/test-id/speech.wav";
+    private static final int RATE = 8000;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(speechDetectionService, "enabled", true);
+        ReflectionTestUtils.setField(speechDetectionService, "marginDb", 9.0);
+        ReflectionTestUtils.setField(speechDetectionService, "minSilenceMillis", 500L);
+        ReflectionTestUtils.setField(speechDetectionService, "paddingMillis", 200L);
+    }
+
+    @Test
+    void detect_WavWithDeadAir_ReturnsSpeechRegions() {
+        byte[] wav = wav(10, 3, 5);
+        when(storageService.downloadFile(OBJECT_KEY, 0, null)).thenAnswer(inv -> new ByteArrayInputStream(wav));
+
+        Optional<SpeechDetectionService.DetectedSpeech> detected = speechDetectionService.detect(storedCall("wav"));
+
+        assertThat(detected).isPresent();
+        List<CallReceivedEvent.SpeechRegion> regions = detected.get().regions();
+        assertThat(regions).hasSize(1);
+        assertThat(regions.get(0).getStartMillis()).isEqualTo(2_800L);
+        assertThat(regions.get(0).getEndMillis()).isEqualTo(5_200L);
+        assertThat(detected.get().speechMillis()).isEqualTo(2_400L);
+        assertThat(detected.get().trimmedAudioFileUrl()).isNull();
+        verify(storageService, never()).uploadDerivative(anyString(), anyString(), any(), anyLong(), anyString());
+    }
+
+    @Test
+    void detect_StoreTrimmed_UploadsSpeechOnlyWav() {
+        ReflectionTestUtils.setField(speechDetectionService, "storeTrimmed", true);
+        byte[] wav = wav(10, 3, 5);
+        when(storageService.downloadFile(OBJECT_KEY, 0, null)).thenAnswer(inv -> new ByteArrayInputStream(wav));
+        when(storageService.uploadDerivative(eq(OBJECT_KEY), eq("speech.wav"), any(InputStream.class),
+                eq(44L + 2_400 * RATE / 1000 * 2), eq("audio/wav")))
+            .thenAnswer(inv -> {
+                ((InputStream) inv.getArgument(2)).readAllBytes();
+                return TRIMMED_URL;
+            });
+
+        Optional<SpeechDetectionService.DetectedSpeech> detected = speechDetectionService.detect(storedCall("wav"));
+
+        assertThat(detected).isPresent();
+        assertThat(detected.get().trimmedAudioFileUrl()).isEqualTo(TRIMMED_URL);
+    }
+
+    @Test
+    void detect_TrimmedUploadFails_KeepsRegions() {
+        ReflectionTestUtils.setField(speechDetectionService, "storeTrimmed", true);
+        byte[] wav = wav(10, 3, 5);
+        when(storageService.downloadFile(OBJECT_KEY, 0, null)).thenAnswer(inv -> new ByteArrayInputStream(wav));
+        when(storageService.uploadDerivative(anyString(), anyString(), any(InputStream.class), anyLong(), anyString()))
+            .thenThrow(new RuntimeException("Failed to upload file to storage"));
+
+        Optional<SpeechDetectionService.DetectedSpeech> detected = speechDetectionService.detect(storedCall("wav"));
+
+        assertThat(detected).isPresent();
+        assertThat(detected.get().regions()).hasSize(1);
+        assertThat(detected.get().trimmedAudioFileUrl()).isNull();
+    }
+
+    @Test
+    void detect_NotWavOrDisabled_IsSkipped() {
+        assertThat(speechDetectionService.detect(storedCall("mp3"))).isEmpty();
+
+        ReflectionTestUtils.setField(speechDetectionService, "enabled", false);
+        assertThat(speechDetectionService.detect(storedCall("wav"))).isEmpty();
+
+        verifyNoInteractions(storageService);
+    }
+
+    @Test
+    void detect_DownloadFails_ReturnsEmpty() {
+        when(storageService.downloadFile(OBJECT_KEY, 0, null))
+            .thenThrow(new RuntimeException("Failed to download file from storage"));
+
+        assertThat(speechDetectionService.detect(storedCall("wav"))).isEmpty();
+    }
+
+    private static Call storedCall(String format) {
+        return Call.builder()
+            .id(UUID.randomUUID())
+            .objectKey(format.equals("wav") ? OBJECT_KEY : "2025/01/test-id." + format)
+            .fileFormat(format)
+            .build();
+    }
+
+    /**
+     * 16-bit mono 8kHz WAV: a loud tone from speechStart to speechEnd, digital silence elsewhere
+     */
+    private static byte[] wav(int seconds, int speechStart, int speechEnd) {
+        int dataSize = seconds * RATE * 2;
+        ByteBuffer buffer = ByteBuffer.allocate(44 + dataSize).order(ByteOrder.LITTLE_ENDIAN)
+            .put("RIFF".getBytes(StandardCharsets.ISO_8859_1)).putInt(36 + dataSize)
+            .put("WAVEfmt ".getBytes(StandardCharsets.ISO_8859_1)).putInt(16)
+            .putShort((short) 1).putShort((short) 1).putInt(RATE).putInt(RATE * 2)
+            .putShort((short) 2).putShort((short) 16)
+            .put("data".getBytes(StandardCharsets.ISO_8859_1)).putInt(dataSize);
+        for (int i = 0; i < seconds * RATE; i++) {
+            boolean speech = i >= speechStart * RATE && i < speechEnd * RATE;
+            buffer.putShort((short) (speech ? 6000 * Math.sin(i * 0.2) : 0));
+        }
+        return buffer.array();
+    }
+}
@@ -2,6 +2,8 @@ package com.callaudit.ingestion.service;
 
 import io.minio.*;
 import io.minio.errors.*;
+import io.minio.http.Method;
+import io.minio.messages.ErrorResponse;
 import io.minio.messages.Item;
 import io.minio.GetObjectResponse;
 import org.junit.jupiter.api.BeforeEach;
@@ -60,11 +62,13 @@ class StorageServiceTest {
 
     private static final String BUCKET_NAME = "calls";
     private static final String MINIO_ENDPOINT = "http://localhost:9000";
+    private static final long STREAM_PART_SIZE = 5L * 1024 * 1024;
 
     @BeforeEach
     void setUp() {
         ReflectionTestUtils.setField(storageService, "bucketName", BUCKET_NAME);
         ReflectionTestUtils.setField(storageService, "minioEndpoint", MINIO_ENDPOINT);
+        ReflectionTestUtils.setField(storageService, "streamPartSize", STREAM_PART_SIZE);
     }
 
     @Test
@@ -191,6 +195,42 @@ class StorageServiceTest {
             .hasMessageContaining("Failed to upload file to storage");
     }
 
+    @Test
+    void uploadStream_UnknownSize_UsesBoundedPartSize() throws Exception {
+        // Arrange
+        UUID callId = UUID.randomUUID();
+        InputStream inputStream = new ByteArrayInputStream("streamed audio".getBytes());
+
+        when(minioClient.bucketExists(any(BucketExistsArgs.class))).thenReturn(true);
+
+        // Act
+        String result = storageService.uploadStream(callId, inputStream, "audio/wav", -1, "wav");
+
+        // Assert
+        assertThat(result).endsWith(callId + ".wav");
+
+        verify(minioClient).putObject(putObjectArgsCaptor.capture());
+        PutObjectArgs putArgs = putObjectArgsCaptor.getValue();
+        assertEquals(-1L, putArgs.objectSize());
+        assertEquals(STREAM_PART_SIZE, putArgs.partSize());
+    }
+
+    @Test
+    void uploadStream_MinioThrowsException_ThrowsRuntimeException() throws Exception {
+        // Arrange
+        UUID callId = UUID.randomUUID();
+        InputStream inputStream = new ByteArrayInputStream("content".getBytes());
+
+        when(minioClient.bucketExists(any(BucketExistsArgs.class))).thenReturn(true);
+        when(minioClient.putObject(any(PutObjectArgs.class)))
+            .thenThrow(new RuntimeException("MinIO connection failed"));
+
+        // Act & Assert
+        assertThatThrownBy(() -> storageService.uploadStream(callId, inputStream, "audio/wav", 7L, "wav"))
+            .isInstanceOf(RuntimeException.class)
+            .hasMessageContaining("Failed to upload file to storage");
+    }
+
     @Test
     void downloadFile_FileExists_ReturnsInputStream() throws Exception {
         // Arrange
@@ -251,6 +291,71 @@ class StorageServiceTest {
             .hasMessageContaining("Failed to download file from storage");
     }
 
+    @Test
+    void downloadFile_Range_PassesOffsetAndLength() throws Exception {
+        // Arrange
+        GetObjectResponse mockResponse = mock(GetObjectResponse.class);
+        when(minioClient.getObject(any(GetObjectArgs.class))).thenReturn(mockResponse);
+
+        // Act
+        InputStream result = storageService.downloadFile("2025/01/call.wav", 1024L, 2048L);
+
+        // Assert
+        assertEquals(mockResponse, result);
+        verify(minioClient).getObject(getObjectArgsCaptor.capture());
+        GetObjectArgs args = getObjectArgsCaptor.getValue();
+        assertEquals("2025/01/call.wav", args.object());
+        assertEquals(1024L, args.offset());
+        assertEquals(2048L, args.length());
+    }
+
+    @Test
+    void statFile_ObjectMissing_ReturnsEmpty() throws Exception {
+        // Arrange
+        ErrorResponseException notFound = mock(ErrorResponseException.class);
+        when(notFound.errorResponse()).thenReturn(
+            new ErrorResponse("NoSuchKey", "Object does not exist", BUCKET_NAME, "2025/01/call.wav", null, null, null));
+        when(minioClient.statObject(any(StatObjectArgs.class))).thenThrow(notFound);
+
+        // Act & Assert
+        assertThat(storageService.statFile("2025/01/call.wav")).isEmpty();
+    }
+
+    @Test
+    void presignPartUpload_Enabled_SignsPutForStagedPart() throws Exception {
+        // Arrange
+        UUID uploadId = UUID.randomUUID();
+        ReflectionTestUtils.setField(storageService, "presignedEnabled", true);
+        ReflectionTestUtils.setField(storageService, "presignedExpirySeconds", 600);
+        when(minioClient.getPresignedObjectUrl(any(GetPresignedObjectUrlArgs.class)))
+            .thenReturn("http://localhost:9000/calls/uploads/signed");
+
+        // Act
+        StorageService.PresignedUrl result = storageService.presignPartUpload(uploadId, 3);
+
+        // Assert
+        assertEquals("http://localhost:9000/calls/uploads/signed", result.url());
+        ArgumentCaptor<GetPresignedObjectUrlArgs> captor = ArgumentCaptor.forClass(GetPresignedObjectUrlArgs.class);
+        verify(minioClient).getPresignedObjectUrl(captor.capture());
+        assertEquals(Method.PUT, captor.getValue().method());
+        assertEquals("uploads/" + uploadId + "/part-00003", captor.getValue().object());
+        assertEquals(600, captor.getValue().expiry());
+    }
+
+    @Test
+    void presignDownload_Disabled_ThrowsPresigningDisabled() {
+        assertThatThrownBy(() -> storageService.presignDownload("2025/01/call.wav"))
+            .isInstanceOf(StorageService.PresigningDisabledException.class);
+        verifyNoInteractions(minioClient);
+    }
+
+    @Test
+    void objectNameFromUrl_StripsEndpointAndBucket() {
+        assertEquals("2025/01/call.wav",
+            storageService.objectNameFromUrl(MINIO_ENDPOINT + "/" + BUCKET_NAME + "/2025/01/call.wav"));
+        assertNull(storageService.objectNameFromUrl("http://elsewhere/other/2025/01/call.wav"));
+    }
+
     @Test
     void fileExists_FilePresent_ReturnsTrue() throws Exception {
         // Arrange
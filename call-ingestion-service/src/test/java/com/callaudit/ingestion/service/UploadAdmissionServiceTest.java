@@ -0,0 +1,185 @@
+package com.callaudit.ingestion.service;
+
+import com.callaudit.ingestion.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.minio.BucketExistsArgs;
+import io.minio.MinioClient;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for UploadAdmissionService
+ */
+@ExtendWith(MockitoExtension.class)
+@Tag("unit")
+class UploadAdmissionServiceTest {
+
+    @Mock
+    private MinioClient minioClient;
+
+    @Mock
+    private KafkaTemplate<String, String> outboxKafkaTemplate;
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private UploadAdmissionService uploadAdmissionService;
+
+    private static final long MB = 1024 * 1024;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        uploadAdmissionService = new UploadAdmissionService(minioClient, outboxKafkaTemplate, outboxEventRepository,
+            meterRegistry);
+        ReflectionTestUtils.setField(uploadAdmissionService, "bucketName", "test-bucket");
+        ReflectionTestUtils.setField(uploadAdmissionService, "enabled", true);
+        ReflectionTestUtils.setField(uploadAdmissionService, "maxInFlight", 2);
+        ReflectionTestUtils.setField(uploadAdmissionService, "maxInFlightBytes", 150 * MB);
+        ReflectionTestUtils.setField(uploadAdmissionService, "maxStorageLatencyMs", 2000L);
+        ReflectionTestUtils.setField(uploadAdmissionService, "maxOutboxAgeMs", 30000L);
+        ReflectionTestUtils.setField(uploadAdmissionService, "retryAfterSeconds", 5);
+        ReflectionTestUtils.setField(uploadAdmissionService, "probeIntervalMs", 0L); // probe() is driven by the tests
+        uploadAdmissionService.init();
+    }
+
+    @Test
+    void admit_UnderLimits_TracksAndReleasesInFlight() {
+        uploadAdmissionService.admit(10 * MB);
+        uploadAdmissionService.admit(20 * MB);
+
+        assertThat(meterRegistry.get("ingestion.admission.in_flight").gauge().value()).isEqualTo(2);
+        assertThat(meterRegistry.get("ingestion.admission.in_flight_bytes").gauge().value()).isEqualTo(30.0 * MB);
+
+        uploadAdmissionService.release(10 * MB);
+        uploadAdmissionService.release(20 * MB);
+
+        assertThat(meterRegistry.get("ingestion.admission.in_flight").gauge().value()).isZero();
+        assertThat(meterRegistry.get("ingestion.admission.in_flight_bytes").gauge().value()).isZero();
+    }
+
+    @Test
+    void admit_TooManyUploads_RejectedWithRetryAfter() {
+        uploadAdmissionService.admit(MB);
+        uploadAdmissionService.admit(MB);
+
+        assertThatThrownBy(() -> uploadAdmissionService.admit(MB))
+            .isInstanceOfSatisfying(UploadAdmissionService.UploadRejectedException.class, e -> {
+                assertThat(e.getReason()).isEqualTo(UploadAdmissionService.Reason.IN_FLIGHT);
+                assertThat(e.getRetryAfterSeconds()).isEqualTo(5);
+            });
+
+        // The rejected upload did not keep its reservation
+        assertThat(meterRegistry.get("ingestion.admission.in_flight").gauge().value()).isEqualTo(2);
+        assertThat(meterRegistry.get("ingestion.admission.rejected").tag("reason", "in_flight").counter().count())
+            .isEqualTo(1);
+
+        uploadAdmissionService.release(MB);
+        uploadAdmissionService.admit(MB);
+    }
+
+    @Test
+    void admit_TooManyBytes_Rejected() {
+        uploadAdmissionService.admit(100 * MB);
+
+        assertThatThrownBy(() -> uploadAdmissionService.admit(100 * MB))
+            .isInstanceOfSatisfying(UploadAdmissionService.UploadRejectedException.class,
+                e -> assertThat(e.getReason()).isEqualTo(UploadAdmissionService.Reason.IN_FLIGHT_BYTES));
+        assertThat(meterRegistry.get("ingestion.admission.in_flight_bytes").gauge().value()).isEqualTo(100.0 * MB);
+    }
+
+    @Test
+    void admit_MinioUnreachable_RejectedUntilProbeSucceeds() throws Exception {
+        when(minioClient.bucketExists(any(BucketExistsArgs.class)))
+            .thenThrow(new RuntimeException("Connection refused"))
+            .thenReturn(true);
+
+        uploadAdmissionService.probe();
+
+        assertThatThrownBy(() -> uploadAdmissionService.admit(MB))
+            .isInstanceOfSatisfying(UploadAdmissionService.UploadRejectedException.class,
+                e -> assertThat(e.getReason()).isEqualTo(UploadAdmissionService.Reason.STORAGE));
+        assertThat(meterRegistry.get("ingestion.admission.storage_available").gauge().value()).isZero();
+
+        uploadAdmissionService.probe();
+
+        uploadAdmissionService.admit(MB);
+        assertThat(meterRegistry.get("ingestion.admission.storage_available").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void admit_OutboxBacklogTooOld_RejectedUntilRelayCatchesUp() throws Exception {
+        when(minioClient.bucketExists(any(BucketExistsArgs.class))).thenReturn(true);
+        when(outboxEventRepository.findOldestCreatedAt())
+            .thenReturn(Optional.of(Instant.now().minusSeconds(60)))
+            .thenReturn(Optional.empty());
+
+        uploadAdmissionService.probe();
+
+        assertThat(meterRegistry.get("ingestion.admission.outbox_age").gauge().value()).isGreaterThanOrEqualTo(60000);
+        assertThatThrownBy(() -> uploadAdmissionService.admit(MB))
+            .isInstanceOfSatisfying(UploadAdmissionService.UploadRejectedException.class,
+                e -> assertThat(e.getReason()).isEqualTo(UploadAdmissionService.Reason.OUTBOX_BACKLOG));
+
+        uploadAdmissionService.probe();
+
+        uploadAdmissionService.admit(MB);
+        assertThat(meterRegistry.get("ingestion.admission.outbox_age").gauge().value()).isZero();
+    }
+
+    @Test
+    void probe_ProducerBufferNearlyFull_ExportedButAdmitted() throws Exception {
+        when(minioClient.bucketExists(any(BucketExistsArgs.class))).thenReturn(true);
+        when(outboxEventRepository.findOldestCreatedAt()).thenReturn(Optional.empty());
+        Map<MetricName, Metric> metrics = Map.of(
+            producerMetric("buffer-total-bytes"), metricValue(32.0 * MB),
+            producerMetric("buffer-available-bytes"), metricValue(1.0 * MB));
+        doReturn(metrics).when(outboxKafkaTemplate).metrics();
+
+        uploadAdmissionService.probe();
+
+        assertThat(meterRegistry.get("ingestion.admission.producer_buffer_fill").gauge().value())
+            .isBetween(0.96, 0.97);
+        uploadAdmissionService.admit(MB);
+    }
+
+    @Test
+    void admit_Disabled_AlwaysAdmits() {
+        ReflectionTestUtils.setField(uploadAdmissionService, "enabled", false);
+
+        for (int i = 0; i < 5; i++) {
+            uploadAdmissionService.admit(100 * MB);
+        }
+
+        assertThat(meterRegistry.get("ingestion.admission.in_flight").gauge().value()).isZero();
+    }
+
+    private static MetricName producerMetric(String name) {
+        return new MetricName(name, "producer-metrics", "", Map.of("client-id", "producer-1"));
+    }
+
+    private static Metric metricValue(double value) {
+        Metric metric = mock(Metric.class);
+        when(metric.metricValue()).thenReturn(value);
+        return metric;
+    }
+}
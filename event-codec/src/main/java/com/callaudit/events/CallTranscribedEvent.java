@@ -0,0 +1,64 @@
+package com.callaudit.events;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.util.List;
+
+/**
+ * Published by transcription-service on calls.transcribed (and calls.transcribed.priority)
+ * once a call has been transcribed. Matches transcription-service's models/events.py.
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@SuperBuilder
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+@EventSchema(type = CallTranscribedEvent.EVENT_TYPE, version = CallTranscribedEvent.SCHEMA_VERSION)
+public class CallTranscribedEvent extends EventEnvelope {
+
+    public static final String EVENT_TYPE = "CallTranscribed";
+    public static final int SCHEMA_VERSION = 1;
+
+    private Payload payload;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Payload {
+        private String callId;
+        private Transcription transcription;
+        private Double totalDuration; // seconds of audio, from CallReceived; null if unknown
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Transcription {
+        private String fullText;
+        private List<Segment> segments;
+        private String language;     // e.g. "en"
+        private Double confidence;   // 0.0 - 1.0
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Segment {
+        private String speaker;      // "agent" or "customer"
+        private Double startTime;    // seconds
+        private Double endTime;
+        private String text;
+    }
+}
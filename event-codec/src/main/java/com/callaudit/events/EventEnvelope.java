@@ -0,0 +1,41 @@
+package com.callaudit.events;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Fields every event on the pipeline topics carries. Decoding a record as the envelope skips the
+ * payload, which is enough for consumers that only route or track events.
+ */
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class EventEnvelope {
+
+    public static final String PRIORITY_HIGH = "HIGH";
+    public static final String PRIORITY_NORMAL = "NORMAL";
+
+    private String eventId;
+    private String eventType;
+    private String aggregateId;  // callId
+    private String aggregateType;
+    private Instant timestamp;
+    private Integer version;
+    private String causationId;
+    private String correlationId;
+    private Map<String, Object> metadata;
+
+    /**
+     * Processing lane set at ingest and carried in {@code metadata.priority}
+     */
+    public String priority() {
+        Object priority = metadata != null ? metadata.get("priority") : null;
+        return PRIORITY_HIGH.equals(priority) ? PRIORITY_HIGH : PRIORITY_NORMAL;
+    }
+}
@@ -0,0 +1,27 @@
+package com.callaudit.events;
+
+/**
+ * Kafka record headers that describe how an event value is encoded.
+ *
+ * Producers set all three; a record without {@link #CONTENT_TYPE} is JSON, which is what every
+ * producer wrote before the headers existed.
+ */
+public final class EventHeaders {
+
+    /** Encoding of the record value, e.g. {@value #JSON} or {@value #CBOR} */
+    public static final String CONTENT_TYPE = "content-type";
+
+    /** Event type, e.g. "CallTranscribed", readable without decoding the value */
+    public static final String EVENT_TYPE = "event-type";
+
+    /** Schema version of the event; consumers reject versions newer than the model they were built with */
+    public static final String EVENT_VERSION = "event-version";
+
+    public static final String JSON = "application/json";
+
+    /** RFC 8949 Concise Binary Object Representation: the JSON data model in a compact binary encoding */
+    public static final String CBOR = "application/cbor";
+
+    private EventHeaders() {
+    }
+}
@@ -0,0 +1,21 @@
+package com.callaudit.events;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Type and schema version of an event class, written to and checked against the
+ * {@link EventHeaders#EVENT_TYPE} and {@link EventHeaders#EVENT_VERSION} headers.
+ *
+ * Adding optional fields keeps the version; removing, renaming or retyping a field bumps it.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface EventSchema {
+
+    String type();
+
+    int version();
+}
@@ -0,0 +1,17 @@
+package com.callaudit.events.codec;
+
+/**
+ * Encoding of event values on Kafka, identified by the content type written to the
+ * {@link com.callaudit.events.EventHeaders#CONTENT_TYPE} header
+ */
+public interface EventCodec {
+
+    String contentType();
+
+    byte[] encode(Object event);
+
+    /**
+     * @throws EventCodecException if the value is not a valid encoding of {@code type}
+     */
+    <T> T decode(byte[] data, Class<T> type);
+}
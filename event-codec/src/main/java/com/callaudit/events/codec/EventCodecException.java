@@ -0,0 +1,16 @@
+package com.callaudit.events.codec;
+
+/**
+ * An event could not be encoded or decoded: malformed value, unknown content type or
+ * a schema version newer than the consumer understands
+ */
+public class EventCodecException extends RuntimeException {
+
+    public EventCodecException(String message) {
+        super(message);
+    }
+
+    public EventCodecException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,126 @@
+package com.callaudit.events.codec;
+
+import com.callaudit.events.EventHeaders;
+import com.callaudit.events.EventSchema;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The codecs a service understands, chosen per record from its {@link EventHeaders#CONTENT_TYPE} header.
+ *
+ * Consumers decode the record value once, from bytes, with the codec the producer used; records
+ * without the header are JSON. Events annotated with {@link EventSchema} are checked against
+ * {@link EventHeaders#EVENT_VERSION} before decoding and get the type and version headers when encoded.
+ */
+public class EventCodecs {
+
+    private final EventCodec defaultCodec;
+    private final Map<String, EventCodec> codecs = new LinkedHashMap<>();
+
+    /**
+     * @param defaultCodec codec for records without a content type header
+     * @param others       further codecs to negotiate
+     */
+    public EventCodecs(EventCodec defaultCodec, EventCodec... others) {
+        this.defaultCodec = defaultCodec;
+        codecs.put(defaultCodec.contentType(), defaultCodec);
+        for (EventCodec codec : others) {
+            codecs.put(codec.contentType(), codec);
+        }
+    }
+
+    /**
+     * JSON (default) and CBOR
+     */
+    public static EventCodecs standard() {
+        return new EventCodecs(JacksonEventCodec.json(), JacksonEventCodec.cbor());
+    }
+
+    public <T> T decode(ConsumerRecord<?, byte[]> record, Class<T> type) {
+        return decode(record.headers(), record.value(), type);
+    }
+
+    /**
+     * @return the event, or null for a null (tombstone) value
+     * @throws EventCodecException for an unknown content type, a newer schema version or a malformed value
+     */
+    public <T> T decode(Headers headers, byte[] data, Class<T> type) {
+        if (data == null) {
+            return null;
+        }
+        EventSchema schema = type.getAnnotation(EventSchema.class);
+        if (schema != null) {
+            String version = header(headers, EventHeaders.EVENT_VERSION);
+            if (version != null && parseVersion(version) > schema.version()) {
+                throw new EventCodecException(schema.type() + " version " + version
+                    + " is newer than the supported version " + schema.version());
+            }
+        }
+        return codecFor(headers).decode(data, type);
+    }
+
+    /**
+     * Encode an event and describe it in the record headers
+     *
+     * @param contentType codec to use, e.g. {@link EventHeaders#CBOR}
+     */
+    public byte[] encode(Object event, String contentType, Headers headers) {
+        EventCodec codec = codec(contentType);
+        headers.remove(EventHeaders.CONTENT_TYPE);
+        headers.add(EventHeaders.CONTENT_TYPE, codec.contentType().getBytes(StandardCharsets.UTF_8));
+        EventSchema schema = event.getClass().getAnnotation(EventSchema.class);
+        if (schema != null) {
+            headers.remove(EventHeaders.EVENT_TYPE);
+            headers.remove(EventHeaders.EVENT_VERSION);
+            headers.add(EventHeaders.EVENT_TYPE, schema.type().getBytes(StandardCharsets.UTF_8));
+            headers.add(EventHeaders.EVENT_VERSION,
+                Integer.toString(schema.version()).getBytes(StandardCharsets.UTF_8));
+        }
+        return codec.encode(event);
+    }
+
+    /**
+     * Codec for a record: the one named by its content type header, or the default if it has none
+     */
+    public EventCodec codecFor(Headers headers) {
+        String contentType = header(headers, EventHeaders.CONTENT_TYPE);
+        return contentType != null ? codec(contentType) : defaultCodec;
+    }
+
+    /**
+     * @param contentType media type; parameters such as {@code ;charset=utf-8} are ignored
+     */
+    public EventCodec codec(String contentType) {
+        int parameters = contentType.indexOf(';');
+        String mediaType = (parameters >= 0 ? contentType.substring(0, parameters) : contentType)
+            .trim().toLowerCase(Locale.ROOT);
+        EventCodec codec = codecs.get(mediaType);
+        if (codec == null) {
+            throw new EventCodecException("Unsupported event content type " + contentType
+                + ", expected one of " + codecs.keySet());
+        }
+        return codec;
+    }
+
+    private static String header(Headers headers, String name) {
+        if (headers == null) {
+            return null;
+        }
+        Header header = headers.lastHeader(name);
+        return header != null && header.value() != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+    }
+
+    private static int parseVersion(String version) {
+        try {
+            return Integer.parseInt(version.trim());
+        } catch (NumberFormatException e) {
+            throw new EventCodecException("Invalid " + EventHeaders.EVENT_VERSION + " header: " + version);
+        }
+    }
+}
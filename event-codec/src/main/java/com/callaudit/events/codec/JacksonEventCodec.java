@@ -0,0 +1,75 @@
+package com.callaudit.events.codec;
+
+import com.callaudit.events.EventHeaders;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Codec for any Jackson data format. The reader for each event class is built once and reused,
+ * so a record is parsed straight from its bytes into the event without an intermediate String.
+ */
+public class JacksonEventCodec implements EventCodec {
+
+    private final String contentType;
+    private final ObjectMapper mapper;
+    private final ObjectWriter writer;
+    private final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    public JacksonEventCodec(String contentType, ObjectMapper mapper) {
+        this.contentType = contentType;
+        this.mapper = mapper;
+        this.writer = mapper.writer();
+    }
+
+    public static JacksonEventCodec json() {
+        return new JacksonEventCodec(EventHeaders.JSON, configure(new ObjectMapper()));
+    }
+
+    public static JacksonEventCodec cbor() {
+        return new JacksonEventCodec(EventHeaders.CBOR, configure(new CBORMapper()));
+    }
+
+    @Override
+    public String contentType() {
+        return contentType;
+    }
+
+    @Override
+    public byte[] encode(Object event) {
+        try {
+            return writer.writeValueAsBytes(event);
+        } catch (JsonProcessingException e) {
+            throw new EventCodecException("Cannot encode " + event.getClass().getSimpleName() + " as " + contentType, e);
+        }
+    }
+
+    @Override
+    public <T> T decode(byte[] data, Class<T> type) {
+        try {
+            return readers.computeIfAbsent(type, mapper::readerFor).readValue(data);
+        } catch (IOException e) {
+            throw new EventCodecException("Cannot decode " + type.getSimpleName() + " from " + contentType, e);
+        }
+    }
+
+    /**
+     * Same conventions for every format: ISO-8601 timestamps, unknown fields ignored so producers
+     * can add fields without breaking older consumers
+     */
+    private static ObjectMapper configure(ObjectMapper mapper) {
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        return mapper;
+    }
+}
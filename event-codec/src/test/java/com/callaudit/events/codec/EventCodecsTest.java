@@ -0,0 +1,145 @@
+package com.callaudit.events.codec;
+
+import com.callaudit.events.CallTranscribedEvent;
+import com.callaudit.events.EventEnvelope;
+import com.callaudit.events.EventHeaders;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for EventCodecs
+ */
+class EventCodecsTest {
+
+    private final EventCodecs codecs = EventCodecs.standard();
+
+    @Test
+    void encodeDecode_Cbor_RoundTripsAndIsSmallerThanJson() {
+        CallTranscribedEvent event = event();
+        Headers headers = new RecordHeaders();
+
+        byte[] cbor = codecs.encode(event, EventHeaders.CBOR, headers);
+        byte[] json = codecs.codec(EventHeaders.JSON).encode(event);
+
+        assertThat(codecs.decode(headers, cbor, CallTranscribedEvent.class)).isEqualTo(event);
+        assertThat(cbor.length).isLessThan(json.length);
+    }
+
+    @Test
+    void encode_SetsContentTypeAndSchemaHeaders() {
+        Headers headers = new RecordHeaders();
+
+        codecs.encode(event(), EventHeaders.CBOR, headers);
+
+        assertThat(header(headers, EventHeaders.CONTENT_TYPE)).isEqualTo(EventHeaders.CBOR);
+        assertThat(header(headers, EventHeaders.EVENT_TYPE)).isEqualTo(CallTranscribedEvent.EVENT_TYPE);
+        assertThat(header(headers, EventHeaders.EVENT_VERSION)).isEqualTo("1");
+    }
+
+    @Test
+    void decode_NoContentType_FallsBackToJson() {
+        String json = """
+            {"eventId":"e-1","eventType":"CallTranscribed","aggregateId":"c-1","aggregateType":"Call",
+             "timestamp":"2025-01-01T12:00:00.123456Z","version":1,"correlationId":"r-1",
+             "metadata":{"service":"transcription-service","priority":"HIGH"},
+             "payload":{"callId":"c-1","transcription":{"fullText":"hello","language":"en","confidence":0.9,
+               "segments":[{"speaker":"agent","startTime":0.0,"endTime":1.5,"text":"hello","words":[]}]}}}
+            """;
+        ConsumerRecord<String, byte[]> record =
+            new ConsumerRecord<>("calls.transcribed", 0, 0L, "c-1", json.getBytes(StandardCharsets.UTF_8));
+
+        CallTranscribedEvent event = codecs.decode(record, CallTranscribedEvent.class);
+
+        assertThat(event.getTimestamp()).isEqualTo(Instant.parse("2025-01-01T12:00:00.123456Z"));
+        assertThat(event.priority()).isEqualTo(EventEnvelope.PRIORITY_HIGH);
+        assertThat(event.getPayload().getTranscription().getFullText()).isEqualTo("hello");
+        assertThat(event.getPayload().getTranscription().getSegments().get(0).getSpeaker()).isEqualTo("agent");
+    }
+
+    @Test
+    void decode_AsEnvelope_SkipsPayload() {
+        Headers headers = new RecordHeaders();
+        byte[] cbor = codecs.encode(event(), EventHeaders.CBOR, headers);
+
+        EventEnvelope envelope = codecs.decode(headers, cbor, EventEnvelope.class);
+
+        assertThat(envelope.getEventType()).isEqualTo("CallTranscribed");
+        assertThat(envelope.getAggregateId()).isEqualTo("c-1");
+    }
+
+    @Test
+    void decode_ContentTypeWithParameters_Accepted() {
+        Headers headers = new RecordHeaders();
+        headers.add(EventHeaders.CONTENT_TYPE, "Application/JSON; charset=utf-8".getBytes(StandardCharsets.UTF_8));
+
+        EventEnvelope envelope = codecs.decode(headers,
+            "{\"eventType\":\"CallTranscribed\"}".getBytes(StandardCharsets.UTF_8), EventEnvelope.class);
+
+        assertThat(envelope.getEventType()).isEqualTo("CallTranscribed");
+    }
+
+    @Test
+    void decode_UnknownContentType_Throws() {
+        Headers headers = new RecordHeaders();
+        headers.add(EventHeaders.CONTENT_TYPE, "application/avro".getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> codecs.decode(headers, new byte[]{1}, EventEnvelope.class))
+            .isInstanceOf(EventCodecException.class)
+            .hasMessageContaining("application/avro");
+    }
+
+    @Test
+    void decode_NewerSchemaVersion_Throws() {
+        Headers headers = new RecordHeaders();
+        byte[] json = codecs.encode(event(), EventHeaders.JSON, headers);
+        headers.remove(EventHeaders.EVENT_VERSION);
+        headers.add(EventHeaders.EVENT_VERSION, "2".getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> codecs.decode(headers, json, CallTranscribedEvent.class))
+            .isInstanceOf(EventCodecException.class)
+            .hasMessageContaining("version 2");
+    }
+
+    @Test
+    void decode_NullValue_ReturnsNull() {
+        assertThat(codecs.decode(new RecordHeaders(), null, CallTranscribedEvent.class)).isNull();
+    }
+
+    private static CallTranscribedEvent event() {
+        return CallTranscribedEvent.builder()
+            .eventId("e-1")
+            .eventType(CallTranscribedEvent.EVENT_TYPE)
+            .aggregateId("c-1")
+            .aggregateType("Call")
+            .timestamp(Instant.parse("2025-01-01T12:00:00Z"))
+            .version(1)
+            .correlationId("r-1")
+            .metadata(Map.of("service", "transcription-service", "priority", "NORMAL"))
+            .payload(CallTranscribedEvent.Payload.builder()
+                .callId("c-1")
+                .transcription(CallTranscribedEvent.Transcription.builder()
+                    .fullText("Thank you for calling, how can I help you today?")
+                    .language("en")
+                    .confidence(0.94)
+                    .segments(List.of(
+                        new CallTranscribedEvent.Segment("agent", 0.0, 2.4,
+                            "Thank you for calling, how can I help you today?")))
+                    .build())
+                .build())
+            .build();
+    }
+
+    private static String header(Headers headers, String name) {
+        return new String(headers.lastHeader(name).value(), StandardCharsets.UTF_8);
+    }
+}
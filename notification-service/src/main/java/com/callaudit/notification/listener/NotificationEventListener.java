@@ -1,5 +1,7 @@
 package com.callaudit.notification.listener;
 
+import com.callaudit.events.CallTranscribedEvent;
+import com.callaudit.events.codec.EventCodecs;
 import com.callaudit.notification.service.AlertRuleEngine;
 import com.callaudit.notification.service.NotificationService;
 import com.callaudit.notification.websocket.WebSocketNotificationService;
@@ -7,6 +9,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
@@ -23,12 +26,13 @@ public class NotificationEventListener {
     private final NotificationService notificationService;
     private final AlertRuleEngine alertRuleEngine;
     private final WebSocketNotificationService webSocketNotificationService;
+    private final EventCodecs eventCodecs;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     /**
      * Listens to sentiment analysis events
      */
-    @KafkaListener(topics = "calls.sentiment-analyzed", groupId = "notification-service")
+    @KafkaListener(topics = {"calls.sentiment-analyzed", "calls.sentiment-analyzed.priority"}, groupId = "notification-service")
     public void handleSentimentAnalyzed(String message) {
         try {
             log.debug("Received sentiment analyzed event: {}", message);
@@ -66,7 +70,7 @@ public class NotificationEventListener {
     /**
      * Listens to VoC analysis events
      */
-    @KafkaListener(topics = "calls.voc-analyzed", groupId = "notification-service")
+    @KafkaListener(topics = {"calls.voc-analyzed", "calls.voc-analyzed.priority"}, groupId = "notification-service")
     public void handleVoCAnalyzed(String message) {
         try {
             log.debug("Received VoC analyzed event: {}", message);
@@ -214,7 +218,7 @@ public class NotificationEventListener {
     /**
      * Listens to call received events - notifies clients that processing has started.
      */
-    @KafkaListener(topics = "calls.received", groupId = "notification-service-websocket")
+    @KafkaListener(topics = {"calls.received", "calls.received.priority"}, groupId = "notification-service-websocket")
     public void handleCallReceived(String message) {
         try {
             log.debug("Received call received event: {}", message);
@@ -240,32 +244,34 @@ public class NotificationEventListener {
     /**
      * Listens to transcription completed events - notifies clients of completion.
      */
-    @KafkaListener(topics = "calls.transcribed", groupId = "notification-service-websocket")
-    public void handleCallTranscribed(String message) {
+    @KafkaListener(topics = {"calls.transcribed", "calls.transcribed.priority"}, groupId = "notification-service-websocket",
+        containerFactory = "eventListenerContainerFactory")
+    public void handleCallTranscribed(ConsumerRecord<String, byte[]> record) {
         try {
-            log.debug("Received call transcribed event: {}", message);
-            JsonNode event = objectMapper.readTree(message);
+            CallTranscribedEvent event = eventCodecs.decode(record, CallTranscribedEvent.class);
+            log.debug("Received call transcribed event: {}", event.getEventId());
 
-            UUID callId = extractCallId(event);
+            UUID callId = toCallId(event.getAggregateId() != null ? event.getAggregateId()
+                : event.getPayload() != null ? event.getPayload().getCallId() : null);
             if (callId == null) {
                 log.warn("Could not extract valid callId from call transcribed event");
                 return;
             }
             String callIdStr = callId.toString();
-            JsonNode payload = event.get("payload");
 
             // Extract transcription details
             String transcriptionId = callIdStr; // Using callId as transcription ID
             int segmentCount = 0;
             long duration = 0;
 
-            if (payload != null) {
-                if (payload.has("segments") && payload.get("segments").isArray()) {
-                    segmentCount = payload.get("segments").size();
-                }
-                if (payload.has("totalDuration")) {
-                    duration = payload.get("totalDuration").asLong();
-                }
+            CallTranscribedEvent.Transcription transcription =
+                event.getPayload() != null ? event.getPayload().getTranscription() : null;
+            if (transcription != null && transcription.getSegments() != null) {
+                segmentCount = transcription.getSegments().size();
+            }
+            // Seconds of audio; trailing silence is not covered by any segment
+            if (event.getPayload() != null && event.getPayload().getTotalDuration() != null) {
+                duration = Math.round(event.getPayload().getTotalDuration());
             }
 
             // Notify WebSocket clients
@@ -289,7 +295,10 @@ public class NotificationEventListener {
         } else if (event.has("payload") && event.get("payload").has("callId")) {
             callIdStr = event.get("payload").get("callId").asText();
         }
+        return toCallId(callIdStr);
+    }
 
+    private UUID toCallId(String callIdStr) {
         if (callIdStr == null || callIdStr.isEmpty() || "unknown".equals(callIdStr)) {
             return null;
         }
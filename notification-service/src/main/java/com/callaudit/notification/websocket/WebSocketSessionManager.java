@@ -10,6 +10,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Manages WebSocket sessions for call updates.
@@ -27,6 +28,10 @@ public class WebSocketSessionManager {
     // Map of sessionId -> callId for reverse lookup
     private final Map<String, String> sessionToCall = new ConcurrentHashMap<>();
 
+    // Map of sessionId -> send lock; a session allows one sendMessage at a time. ReentrantLock rather than
+    // synchronized, so a virtual thread blocked on a slow client does not pin its carrier thread.
+    private final Map<String, ReentrantLock> sendLocks = new ConcurrentHashMap<>();
+
     /**
      * Register a session for a specific call.
      *
@@ -46,6 +51,7 @@ public class WebSocketSessionManager {
      */
     public void removeSession(WebSocketSession session) {
         String callId = sessionToCall.remove(session.getId());
+        sendLocks.remove(session.getId());
         if (callId != null) {
             Set<WebSocketSession> sessions = callSessions.get(callId);
             if (sessions != null) {
@@ -74,13 +80,15 @@ public class WebSocketSessionManager {
         TextMessage textMessage = new TextMessage(message);
         for (WebSocketSession session : sessions) {
             if (session.isOpen()) {
+                ReentrantLock lock = sendLocks.computeIfAbsent(session.getId(), id -> new ReentrantLock());
+                lock.lock();
                 try {
-                    synchronized (session) {
-                        session.sendMessage(textMessage);
-                    }
+                    session.sendMessage(textMessage);
                 } catch (IOException e) {
                     log.error("Failed to send message to session {}: {}", session.getId(), e.getMessage());
                     removeSession(session);
+                } finally {
+                    lock.unlock();
                 }
             } else {
                 removeSession(session);
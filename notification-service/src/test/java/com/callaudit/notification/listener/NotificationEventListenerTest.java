@@ -1,9 +1,15 @@
 package com.callaudit.notification.listener;
 
+import com.callaudit.events.CallTranscribedEvent;
+import com.callaudit.events.EventHeaders;
+import com.callaudit.events.codec.EventCodecs;
 import com.callaudit.notification.service.AlertRuleEngine;
 import com.callaudit.notification.service.NotificationService;
+import com.callaudit.notification.websocket.WebSocketNotificationService;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,6 +18,7 @@ import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
@@ -31,9 +38,15 @@ class NotificationEventListenerTest {
     @Mock
     private AlertRuleEngine alertRuleEngine;
 
+    @Mock
+    private WebSocketNotificationService webSocketNotificationService;
+
     @Spy
     private ObjectMapper objectMapper = new ObjectMapper();
 
+    @Spy
+    private EventCodecs eventCodecs = EventCodecs.standard();
+
     @InjectMocks
     private NotificationEventListener eventListener;
 
@@ -626,4 +639,38 @@ class NotificationEventListenerTest {
         assertDoesNotThrow(() -> eventListener.handleCallAudited(eventJson));
         verify(notificationService).processComplianceViolation(any(UUID.class), any(JsonNode.class));
     }
+
+    // Call Transcribed Event Tests
+
+    @Test
+    void handleCallTranscribed_CborEvent_NotifiesSegmentsAndDuration() {
+        // Arrange
+        String callId = "00000000-0000-0000-0000-000000006001";
+        CallTranscribedEvent event = CallTranscribedEvent.builder()
+            .eventId("event-601")
+            .eventType("CallTranscribed")
+            .aggregateId(callId)
+            .payload(CallTranscribedEvent.Payload.builder()
+                .callId(callId)
+                .transcription(CallTranscribedEvent.Transcription.builder()
+                    .fullText("Hello. I have a billing question.")
+                    .segments(List.of(
+                        new CallTranscribedEvent.Segment("agent", 0.0, 1.2, "Hello."),
+                        new CallTranscribedEvent.Segment("customer", 1.4, 4.6, "I have a billing question.")))
+                    .build())
+                .totalDuration(7.8)
+                .build())
+            .build();
+        RecordHeaders headers = new RecordHeaders();
+        byte[] value = EventCodecs.standard().encode(event, EventHeaders.CBOR, headers);
+        ConsumerRecord<String, byte[]> record = new ConsumerRecord<>("calls.transcribed", 0, 0L, callId, value);
+        headers.forEach(header -> record.headers().add(header));
+
+        // Act
+        eventListener.handleCallTranscribed(record);
+
+        // Assert
+        verify(webSocketNotificationService).notifyTranscriptionCompleted(callId, callId, 2, 8L);
+        verify(webSocketNotificationService).notifyCallStatusUpdate(callId, "TRANSCRIBED", "Transcription completed");
+    }
 }
@@ -101,11 +101,21 @@ CREATE TABLE IF NOT EXISTS core.calls (
     channel VARCHAR(255) NOT NULL, -- Values: 'INBOUND', 'OUTBOUND', 'INTERNAL'
     start_time TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
     duration INTEGER, -- Duration in seconds
+    sample_rate INTEGER, -- Hz, read from the container header at ingest
+    bit_depth INTEGER, -- PCM and lossless formats only
+    channel_count INTEGER,
+    channel_layout VARCHAR(20), -- Values: 'MIXED', 'AGENT_LEFT', 'AGENT_RIGHT'
     audio_file_url TEXT NOT NULL,
+    object_key VARCHAR(255), -- Exact MinIO object key; audio lookups never re-derive it
     file_size_bytes BIGINT,
     file_format VARCHAR(20),
+    original_format VARCHAR(20), -- Upload format when the audio was re-encoded at ingest (WAV stored as FLAC)
+    content_type VARCHAR(255),
+    content_sha256 VARCHAR(64), -- Hex SHA-256 of the audio, used to de-duplicate re-delivered recordings
     status VARCHAR(255) NOT NULL, -- Values: 'PENDING', 'TRANSCRIBING', 'ANALYZING', 'COMPLETED', 'FAILED'
+    priority VARCHAR(10) NOT NULL DEFAULT 'NORMAL', -- Values: 'NORMAL', 'HIGH'; HIGH calls use the *.priority topics
     correlation_id UUID NOT NULL DEFAULT uuid_generate_v4(),
+    preparation_pending BOOLEAN NOT NULL DEFAULT FALSE, -- CallReceived waits for post-commit audio preparation
     created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
     updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW()
 );
@@ -115,6 +125,44 @@ CREATE INDEX IF NOT EXISTS idx_calls_agent_id ON core.calls(agent_id);
 CREATE INDEX IF NOT EXISTS idx_calls_status ON core.calls(status);
 CREATE INDEX IF NOT EXISTS idx_calls_start_time ON core.calls(start_time);
 CREATE INDEX IF NOT EXISTS idx_calls_correlation_id ON core.calls(correlation_id);
+CREATE UNIQUE INDEX IF NOT EXISTS idx_calls_content_sha256_unique ON core.calls(content_sha256);
+-- Unique so concurrent registrations of one MinIO object (bucket notifications) insert a single call
+CREATE UNIQUE INDEX IF NOT EXISTS idx_calls_object_key_unique ON core.calls(object_key);
+CREATE INDEX IF NOT EXISTS idx_calls_preparation_pending ON core.calls(updated_at) WHERE preparation_pending;
+
+-- Resumable upload sessions (owned by call-ingestion-service)
+-- Chunks are staged in MinIO under uploads/{id}/ until the session is completed
+CREATE TABLE IF NOT EXISTS core.upload_sessions (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    filename VARCHAR(255) NOT NULL,
+    content_type VARCHAR(255) NOT NULL,
+    caller_id VARCHAR(255) NOT NULL,
+    agent_id VARCHAR(255) NOT NULL,
+    channel VARCHAR(255) NOT NULL,
+    priority VARCHAR(10) NOT NULL DEFAULT 'NORMAL', -- Lane of the call created on completion
+    status VARCHAR(255) NOT NULL, -- Values: 'ACTIVE', 'COMPLETING', 'COMPLETED', 'ABORTED', 'EXPIRED'
+    call_id UUID REFERENCES core.calls(id),
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW()
+);
+
+-- Expiry sweep of abandoned sessions
+CREATE INDEX IF NOT EXISTS idx_upload_sessions_status_updated ON core.upload_sessions(status, updated_at);
+
+-- Transactional outbox (owned by call-ingestion-service)
+-- Events are written with the row they describe and drained to Kafka by the outbox relay
+CREATE TABLE IF NOT EXISTS core.outbox_events (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    aggregate_id UUID NOT NULL,
+    event_type VARCHAR(255) NOT NULL,
+    topic VARCHAR(255) NOT NULL,
+    message_key VARCHAR(255) NOT NULL,
+    payload_type VARCHAR(255) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_outbox_events_created_at ON core.outbox_events(created_at);
 
 -- Event Store - shared event sourcing log
 CREATE TABLE IF NOT EXISTS core.event_store (
@@ -276,13 +324,75 @@ CREATE TABLE IF NOT EXISTS analytics.agent_performance (
     avg_sentiment_score DECIMAL(5,4),
     avg_churn_risk DECIMAL(5,4),
     avg_call_duration INTEGER,
-    total_violations INTEGER DEFAULT 0
+    total_violations INTEGER DEFAULT 0,
+    -- Events behind each average, so batched upserts can merge averages exactly
+    quality_score_count INTEGER NOT NULL DEFAULT 0,
+    sentiment_score_count INTEGER NOT NULL DEFAULT 0,
+    customer_satisfaction_count INTEGER NOT NULL DEFAULT 0,
+    compliance_count INTEGER NOT NULL DEFAULT 0,
+    churn_risk_count INTEGER NOT NULL DEFAULT 0
 );
 
 -- Convert to hypertable for time-series optimization
 SELECT create_hypertable('analytics.agent_performance', 'time', if_not_exists => TRUE);
 
 CREATE INDEX IF NOT EXISTS idx_agent_performance_agent ON analytics.agent_performance(agent_id, time DESC);
+-- One row per agent and hour; target of the ON CONFLICT upsert
+CREATE UNIQUE INDEX IF NOT EXISTS idx_agent_performance_agent_time ON analytics.agent_performance(agent_id, time);
+
+-- Hourly and daily rollups of agent_performance for trend queries (TimescaleDB continuous aggregates).
+-- Averages are stored as sum and count so they can be recombined exactly at any coarser bucket.
+-- materialized_only = false serves the not yet materialized tail straight from the hypertable.
+CREATE MATERIALIZED VIEW IF NOT EXISTS analytics.agent_performance_hourly
+WITH (timescaledb.continuous, timescaledb.materialized_only = false) AS
+SELECT time_bucket(INTERVAL '1 hour', time) AS bucket,
+       agent_id,
+       SUM(calls_processed) AS calls_processed,
+       SUM(avg_quality_score * quality_score_count) AS quality_score_sum,
+       SUM(quality_score_count) AS quality_score_count,
+       SUM(avg_sentiment_score * sentiment_score_count) AS sentiment_score_sum,
+       SUM(sentiment_score_count) AS sentiment_score_count,
+       SUM(avg_customer_satisfaction * customer_satisfaction_count) AS customer_satisfaction_sum,
+       SUM(customer_satisfaction_count) AS customer_satisfaction_count,
+       SUM(compliance_pass_rate * compliance_count) AS compliance_sum,
+       SUM(compliance_count) AS compliance_count,
+       SUM(avg_churn_risk * churn_risk_count) AS churn_risk_sum,
+       SUM(churn_risk_count) AS churn_risk_count
+FROM analytics.agent_performance
+GROUP BY bucket, agent_id
+WITH NO DATA;
+
+SELECT add_continuous_aggregate_policy('analytics.agent_performance_hourly',
+    start_offset => INTERVAL '3 days',
+    end_offset => INTERVAL '1 hour',
+    schedule_interval => INTERVAL '15 minutes',
+    if_not_exists => TRUE);
+
+-- Daily rollup built on the hourly one (hierarchical continuous aggregate); weekly trends re-bucket it
+CREATE MATERIALIZED VIEW IF NOT EXISTS analytics.agent_performance_daily
+WITH (timescaledb.continuous, timescaledb.materialized_only = false) AS
+SELECT time_bucket(INTERVAL '1 day', bucket) AS bucket,
+       agent_id,
+       SUM(calls_processed) AS calls_processed,
+       SUM(quality_score_sum) AS quality_score_sum,
+       SUM(quality_score_count) AS quality_score_count,
+       SUM(sentiment_score_sum) AS sentiment_score_sum,
+       SUM(sentiment_score_count) AS sentiment_score_count,
+       SUM(customer_satisfaction_sum) AS customer_satisfaction_sum,
+       SUM(customer_satisfaction_count) AS customer_satisfaction_count,
+       SUM(compliance_sum) AS compliance_sum,
+       SUM(compliance_count) AS compliance_count,
+       SUM(churn_risk_sum) AS churn_risk_sum,
+       SUM(churn_risk_count) AS churn_risk_count
+FROM analytics.agent_performance_hourly
+GROUP BY time_bucket(INTERVAL '1 day', bucket), agent_id
+WITH NO DATA;
+
+SELECT add_continuous_aggregate_policy('analytics.agent_performance_daily',
+    start_offset => INTERVAL '3 days',
+    end_offset => INTERVAL '1 day',
+    schedule_interval => INTERVAL '1 hour',
+    if_not_exists => TRUE);
 
 -- Daily compliance metrics
 CREATE TABLE IF NOT EXISTS analytics.compliance_metrics (
@@ -13,6 +13,12 @@ class Settings(BaseSettings):
     kafka_consumer_group: str = "sentiment-service"
     kafka_input_topic: str = "calls.transcribed"
     kafka_output_topic: str = "calls.sentiment-analyzed"
+    # HIGH priority calls use their own topics and are drained before the normal ones
+    kafka_priority_input_topic: str = "calls.transcribed.priority"
+    kafka_priority_output_topic: str = "calls.sentiment-analyzed.priority"
+    kafka_max_poll_records: int = 10  # normal events fetched between two checks of the priority topic
+    kafka_consumer_timeout_ms: int = 1000  # Timeout for the poll over both topics
+    kafka_priority_poll_timeout_ms: int = 100  # Wait for a priority fetch before polling both topics
     kafka_auto_offset_reset: str = "earliest"
     kafka_enable_auto_commit: bool = True
 
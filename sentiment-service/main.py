@@ -93,7 +93,9 @@ def process_single_event(event):
             metadata={
                 "service": settings.service_name,
                 "modelName": settings.model_name,
-                "usedFallback": sentiment_analyzer.use_vader_fallback
+                "usedFallback": sentiment_analyzer.use_vader_fallback,
+                # Processing lane set at ingest, carried forward to audit
+                "priority": (event.metadata or {}).get("priority", "NORMAL")
             },
             payload=SentimentAnalyzedEventPayload(
                 callId=call_id,
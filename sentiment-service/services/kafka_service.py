@@ -4,7 +4,8 @@ Kafka service for consuming and publishing events
 import asyncio
 import json
 import logging
-from typing import AsyncGenerator, Optional
+from typing import Any, AsyncGenerator, List, Optional, Tuple
+import cbor2
 from kafka import KafkaConsumer, KafkaProducer
 from kafka.errors import KafkaError
 
@@ -13,6 +14,36 @@ from models.events import CallTranscribedEvent, SentimentAnalyzedEvent
 
 logger = logging.getLogger(__name__)
 
+PRIORITY_HIGH = "HIGH"
+
+# Record header naming the wire format, shared with the Java event-codec module; absent means JSON
+HEADER_CONTENT_TYPE = "content-type"
+CONTENT_TYPE_JSON = "application/json"
+CONTENT_TYPE_CBOR = "application/cbor"
+
+
+def decode_value(value: bytes, headers: Optional[List[Tuple[str, bytes]]]) -> Any:
+    """
+    Decode a record value in the format named by its content-type header
+
+    Args:
+        value: Raw record value
+        headers: Record headers as (name, value) pairs
+
+    Returns: The decoded event as a dict
+
+    Raises: ValueError for an unsupported content type
+    """
+    content_type = CONTENT_TYPE_JSON
+    for name, header_value in headers or []:
+        if name.lower() == HEADER_CONTENT_TYPE and header_value:
+            content_type = header_value.decode('utf-8').split(';')[0].strip().lower()
+    if content_type == CONTENT_TYPE_CBOR:
+        return cbor2.loads(value)
+    if content_type == CONTENT_TYPE_JSON:
+        return json.loads(value.decode('utf-8'))
+    raise ValueError(f"Unsupported event content type: {content_type}")
+
 
 class KafkaService:
     """
@@ -28,16 +59,18 @@ class KafkaService:
         try:
             self.consumer = KafkaConsumer(
                 settings.kafka_input_topic,
+                settings.kafka_priority_input_topic,
                 bootstrap_servers=settings.kafka_bootstrap_servers,
                 group_id=settings.kafka_consumer_group,
                 auto_offset_reset=settings.kafka_auto_offset_reset,
                 enable_auto_commit=settings.kafka_enable_auto_commit,
-                value_deserializer=lambda m: json.loads(m.decode('utf-8')),
+                # Values stay bytes here: the format comes from each record's headers (see decode_value)
+                max_poll_records=settings.kafka_max_poll_records,
                 consumer_timeout_ms=1000  # Return control every second
             )
             logger.info(
-                f"Kafka consumer initialized: topic={settings.kafka_input_topic}, "
-                f"group={settings.kafka_consumer_group}"
+                f"Kafka consumer initialized: topics={settings.kafka_input_topic}, "
+                f"{settings.kafka_priority_input_topic}, group={settings.kafka_consumer_group}"
             )
         except KafkaError as e:
             logger.error(f"Failed to initialize Kafka consumer: {e}")
@@ -65,24 +98,29 @@ class KafkaService:
         The consumer will periodically check for new messages and yield control back
         to the async event loop.
 
+        The priority topic is drained first: normal partitions stay paused while it
+        has events, so HIGH calls do not wait behind the normal backlog.
+
         Yields: CallTranscribedEvent instances
         """
         if not self.consumer:
             raise RuntimeError("Consumer not initialized. Call initialize_consumer() first.")
 
-        logger.info(f"Starting to consume from topic: {settings.kafka_input_topic}")
+        logger.info(
+            f"Starting to consume from topics: {settings.kafka_priority_input_topic}, "
+            f"{settings.kafka_input_topic}"
+        )
 
         try:
             while True:
                 try:
-                    # Poll for messages with timeout (1000ms from consumer_timeout_ms config)
-                    messages = self.consumer.poll(timeout_ms=1000)
+                    messages = self._poll_priority_first()
 
                     # Process all messages from all partitions
                     for topic_partition, records in messages.items():
                         for message in records:
                             try:
-                                event_data = message.value
+                                event_data = decode_value(message.value, message.headers)
                                 logger.info(
                                     f"Received event: {event_data.get('eventType')} "
                                     f"for call {event_data.get('aggregateId')}"
@@ -114,9 +152,34 @@ class KafkaService:
         finally:
             logger.info("Stopping Kafka consumer")
 
+    def _poll_priority_first(self) -> dict:
+        """
+        Poll the priority topic with the normal partitions paused, waiting up to
+        kafka_priority_poll_timeout_ms since poll() only returns already-fetched records;
+        when it is empty poll both topics and order the priority batches first
+        Returns: records by partition, as returned by KafkaConsumer.poll()
+        """
+        normal_partitions = [
+            tp for tp in self.consumer.assignment() if tp.topic == settings.kafka_input_topic
+        ]
+        if normal_partitions:
+            self.consumer.pause(*normal_partitions)
+            try:
+                messages = self.consumer.poll(timeout_ms=settings.kafka_priority_poll_timeout_ms)
+            finally:
+                self.consumer.resume(*normal_partitions)
+            if messages:
+                return messages
+
+        messages = self.consumer.poll(timeout_ms=settings.kafka_consumer_timeout_ms)
+        return dict(sorted(
+            messages.items(), key=lambda item: item[0].topic != settings.kafka_priority_input_topic
+        ))
+
     def publish_sentiment(self, event: SentimentAnalyzedEvent) -> bool:
         """
-        Publish SentimentAnalyzed event to Kafka
+        Publish SentimentAnalyzed event to Kafka; HIGH priority events
+        (metadata.priority) go to the priority output topic
         Returns: True if successful, False otherwise
         """
         if not self.producer:
@@ -126,8 +189,14 @@ class KafkaService:
             # Convert Pydantic model to dict
             event_dict = event.model_dump(mode='json')
 
-            # Send to Kafka
-            future = self.producer.send(settings.kafka_output_topic, value=event_dict)
+            # Send to Kafka, keeping HIGH priority calls in their lane
+            priority = (event.metadata or {}).get("priority")
+            topic = (
+                settings.kafka_priority_output_topic
+                if priority == PRIORITY_HIGH
+                else settings.kafka_output_topic
+            )
+            future = self.producer.send(topic, value=event_dict)
 
             # Wait for acknowledgment (with timeout)
             record_metadata = future.get(timeout=10)
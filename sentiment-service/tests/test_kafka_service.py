@@ -3,11 +3,12 @@ Tests for Kafka service integration
 """
 import pytest
 import json
+import cbor2
 from unittest.mock import Mock, MagicMock, patch
 from kafka.errors import KafkaError
 from uuid import uuid4
 
-from services.kafka_service import KafkaService
+from services.kafka_service import KafkaService, decode_value
 from models.events import CallTranscribedEvent, SentimentAnalyzedEvent
 
 
@@ -56,23 +57,24 @@ class TestInitializeConsumer:
         with pytest.raises(KafkaError):
             service.initialize_consumer()
 
-    @patch('services.kafka_service.KafkaConsumer')
-    def test_initialize_consumer_sets_deserializer(self, mock_kafka_consumer):
-        """Test that JSON deserializer is configured"""
-        mock_consumer_instance = Mock()
-        mock_kafka_consumer.return_value = mock_consumer_instance
+    def test_decode_value_without_header_reads_json(self):
+        """Test that records without a content-type header are decoded as JSON"""
+        test_json = json.dumps({"test": "data"}).encode('utf-8')
 
-        service = KafkaService()
-        service.initialize_consumer()
+        assert decode_value(test_json, []) == {"test": "data"}
 
-        # Verify deserializer function is set
-        call_kwargs = mock_kafka_consumer.call_args[1]
-        deserializer = call_kwargs['value_deserializer']
+    def test_decode_value_cbor_header_reads_cbor(self):
+        """Test that records marked application/cbor are decoded as CBOR"""
+        test_cbor = cbor2.dumps({"test": "data", "confidence": 0.9})
 
-        # Test deserializer
-        test_json = json.dumps({"test": "data"}).encode('utf-8')
-        result = deserializer(test_json)
-        assert result == {"test": "data"}
+        result = decode_value(test_cbor, [("content-type", b"application/cbor"), ("event-version", b"1")])
+
+        assert result == {"test": "data", "confidence": 0.9}
+
+    def test_decode_value_unknown_content_type_raises(self):
+        """Test that an unsupported content type is rejected"""
+        with pytest.raises(ValueError, match="application/avro"):
+            decode_value(b"\x00", [("content-type", b"application/avro")])
 
     @patch('services.kafka_service.KafkaConsumer')
     def test_initialize_consumer_sets_timeout(self, mock_kafka_consumer):
@@ -160,7 +162,8 @@ class TestConsumeTranscribed:
         """Test that events are parsed and yielded correctly"""
         # Setup mock messages
         mock_message = Mock()
-        mock_message.value = sample_call_transcribed_event.model_dump(mode='json')
+        mock_message.value = json.dumps(sample_call_transcribed_event.model_dump(mode='json')).encode('utf-8')
+        mock_message.headers = []
 
         mock_consumer_instance = Mock()
         mock_consumer_instance.__iter__ = Mock(return_value=iter([mock_message]))
@@ -181,10 +184,12 @@ class TestConsumeTranscribed:
         """Test that invalid messages are skipped"""
         # Create mock messages: one invalid, one valid
         invalid_message = Mock()
-        invalid_message.value = {"invalid": "data"}  # Missing required fields
+        invalid_message.value = b'{"invalid": "data"}'  # Missing required fields
+        invalid_message.headers = []
 
         valid_message = Mock()
-        valid_message.value = {
+        valid_message.headers = [("content-type", b"application/cbor")]
+        valid_message.value = cbor2.dumps({
             "eventId": str(uuid4()),
             "eventType": "CallTranscribed",
             "aggregateId": "call-123",
@@ -196,7 +201,7 @@ class TestConsumeTranscribed:
                 "segments": [],
                 "duration": 10.0
             }
-        }
+        })
 
         mock_consumer_instance = Mock()
         mock_consumer_instance.__iter__ = Mock(
@@ -294,6 +299,38 @@ class TestPublishSentiment:
         call_args = mock_producer_instance.send.call_args
         assert call_args[0][0] == settings.kafka_output_topic
 
+    @patch('services.kafka_service.KafkaProducer')
+    def test_publish_sentiment_high_priority_uses_priority_topic(self, mock_kafka_producer):
+        """Test that HIGH priority events stay in the priority lane"""
+        from config import settings
+        from models.events import SentimentAnalyzedEvent, SentimentAnalyzedEventPayload
+
+        mock_future = Mock()
+        mock_future.get.return_value = Mock(topic=settings.kafka_priority_output_topic, partition=0, offset=1)
+        mock_producer_instance = Mock()
+        mock_producer_instance.send.return_value = mock_future
+        mock_kafka_producer.return_value = mock_producer_instance
+
+        service = KafkaService()
+        service.initialize_producer()
+
+        event = SentimentAnalyzedEvent(
+            aggregateId="call-123",
+            correlationId=uuid4(),
+            metadata={"service": settings.service_name, "priority": "HIGH"},
+            payload=SentimentAnalyzedEventPayload(
+                callId="call-123",
+                overallSentiment="negative",
+                sentimentScore=-0.6,
+                segments=[],
+                escalationDetected=True
+            )
+        )
+
+        assert service.publish_sentiment(event) is True
+        call_args = mock_producer_instance.send.call_args
+        assert call_args[0][0] == settings.kafka_priority_output_topic
+
     @patch('services.kafka_service.KafkaProducer')
     def test_publish_sentiment_handles_kafka_error(self, mock_kafka_producer):
         """Test handling of Kafka errors during publishing"""
@@ -12,6 +12,11 @@ class Settings(BaseSettings):
     # Kafka Consumer Configuration
     kafka_consumer_timeout_ms: int = 1000  # Timeout for consumer poll operations
     kafka_consumer_retry_delay_ms: int = 50  # Delay before retrying after errors
+    kafka_priority_poll_timeout_ms: int = 100  # Wait for a priority fetch before polling both topics
+
+    # Wire format for published events: "json" (default) or "cbor" (binary, smaller transcripts).
+    # Consumers pick the decoder from the record's content-type header, so this can change at any time.
+    event_codec: str = "json"
 
     # Whisper Model Configuration
     # Available models: tiny, base, small, medium, large
@@ -7,7 +7,7 @@ from routers import health, metrics
 from services.kafka_service import kafka_service
 from services.minio_service import minio_service
 from services.whisper_service import whisper_service
-from models.events import CallTranscribedEvent, CallTranscribedPayload, TranscriptionData, Segment
+from models.events import CallTranscribedEvent, CallTranscribedPayload, EventMetadata, TranscriptionData, Segment
 
 # Configure logging
 logging.basicConfig(
@@ -74,6 +74,7 @@ async def process_transcription_events():
                         aggregateId=call_id,
                         causationId=event.eventId,
                         correlationId=event.correlationId,
+                        metadata=EventMetadata(priority=event.metadata.priority),
                         payload=CallTranscribedPayload(
                             callId=call_id,
                             transcription=TranscriptionData(
@@ -81,7 +82,8 @@ async def process_transcription_events():
                                 segments=segments,
                                 language=transcription.language,
                                 confidence=transcription.confidence
-                            )
+                            ),
+                            totalDuration=event.payload.durationSeconds
                         )
                     )
 
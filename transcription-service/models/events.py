@@ -21,6 +21,7 @@ class EventMetadata(BaseModel):
     """Metadata for event tracking."""
     userId: str = "system"
     service: str = "transcription-service"
+    priority: str = Field(default="NORMAL", description="Processing lane (NORMAL or HIGH), set at ingest")
 
 
 class CallReceivedPayload(BaseModel):
@@ -33,6 +34,7 @@ class CallReceivedPayload(BaseModel):
     audioFileUrl: str
     audioFormat: str
     audioFileSize: int
+    durationSeconds: Optional[int] = Field(default=None, description="From the container header, if readable")
 
 
 class CallReceivedEvent(BaseModel):
@@ -61,6 +63,7 @@ class CallTranscribedPayload(BaseModel):
     """Payload for CallTranscribed event."""
     callId: str
     transcription: TranscriptionData
+    totalDuration: Optional[float] = Field(default=None, description="Seconds of audio, from CallReceived")
 
 
 class CallTranscribedEvent(BaseModel):
@@ -1,7 +1,8 @@
 import asyncio
 import json
 import logging
-from typing import AsyncGenerator
+from typing import Any, AsyncGenerator, List, Tuple
+import cbor2
 from kafka import KafkaConsumer, KafkaProducer
 from kafka.errors import KafkaError
 from models.events import CallReceivedEvent, CallTranscribedEvent
@@ -15,7 +16,16 @@ class KafkaService:
 
     TOPIC_CALLS_RECEIVED = "calls.received"
     TOPIC_CALLS_TRANSCRIBED = "calls.transcribed"
+    # HIGH priority calls travel on their own topics so they never queue behind a backlog
+    TOPIC_CALLS_RECEIVED_PRIORITY = "calls.received.priority"
+    TOPIC_CALLS_TRANSCRIBED_PRIORITY = "calls.transcribed.priority"
+    PRIORITY_HIGH = "HIGH"
     CONSUMER_GROUP = "transcription-service"
+    # Kafka header names and content types shared with the Java event-codec module
+    HEADER_CONTENT_TYPE = "content-type"
+    HEADER_EVENT_TYPE = "event-type"
+    HEADER_EVENT_VERSION = "event-version"
+    CONTENT_TYPES = {"json": "application/json", "cbor": "application/cbor"}
 
     def __init__(self):
         """Initialize Kafka service (connections created on demand)."""
@@ -27,17 +37,26 @@ class KafkaService:
         """
         Create and configure Kafka consumer.
 
+        The consumer is subscribed to both the normal and the priority topic and
+        fetches one record per poll, so the priority topic can be checked between
+        every transcription.
+
         Returns:
             Configured KafkaConsumer
         """
         try:
-            logger.info(f"Creating Kafka consumer for topic: {self.TOPIC_CALLS_RECEIVED}")
+            logger.info(
+                f"Creating Kafka consumer for topics: {self.TOPIC_CALLS_RECEIVED}, "
+                f"{self.TOPIC_CALLS_RECEIVED_PRIORITY}"
+            )
             consumer = KafkaConsumer(
                 self.TOPIC_CALLS_RECEIVED,
+                self.TOPIC_CALLS_RECEIVED_PRIORITY,
                 bootstrap_servers=settings.kafka_bootstrap_servers,
                 group_id=self.CONSUMER_GROUP,
                 auto_offset_reset='earliest',
                 enable_auto_commit=True,
+                max_poll_records=1,
                 value_deserializer=lambda m: json.loads(m.decode('utf-8'))
             )
             logger.info(f"Kafka consumer created successfully")
@@ -57,7 +76,7 @@ class KafkaService:
             logger.info("Creating Kafka producer")
             producer = KafkaProducer(
                 bootstrap_servers=settings.kafka_bootstrap_servers,
-                value_serializer=lambda v: json.dumps(v).encode('utf-8'),
+                value_serializer=self.serialize_value,
                 acks='all',  # Wait for all replicas to acknowledge
                 retries=3
             )
@@ -67,6 +86,44 @@ class KafkaService:
             logger.error(f"Failed to create Kafka producer: {e}")
             raise
 
+    def serialize_value(self, value: Any) -> bytes:
+        """
+        Encode an event in the configured wire format (EVENT_CODEC).
+
+        Args:
+            value: Event as a JSON-compatible dict
+
+        Returns:
+            Encoded bytes
+        """
+        if self._codec() == "cbor":
+            return cbor2.dumps(value)
+        return json.dumps(value).encode('utf-8')
+
+    def event_headers(self, event_type: str, version: int) -> List[Tuple[str, bytes]]:
+        """
+        Kafka headers describing an event, so consumers can decode it without guessing.
+
+        Args:
+            event_type: e.g. "CallTranscribed"
+            version: Schema version of the event
+
+        Returns:
+            Header list for KafkaProducer.send
+        """
+        return [
+            (self.HEADER_CONTENT_TYPE, self.CONTENT_TYPES[self._codec()].encode('utf-8')),
+            (self.HEADER_EVENT_TYPE, event_type.encode('utf-8')),
+            (self.HEADER_EVENT_VERSION, str(version).encode('utf-8')),
+        ]
+
+    @staticmethod
+    def _codec() -> str:
+        codec = settings.event_codec.lower()
+        if codec not in KafkaService.CONTENT_TYPES:
+            raise ValueError(f"Unsupported EVENT_CODEC: {settings.event_codec} (expected json or cbor)")
+        return codec
+
     async def consume_call_received(self) -> AsyncGenerator[CallReceivedEvent, None]:
         """
         Asynchronously consume CallReceived events from Kafka.
@@ -75,6 +132,11 @@ class KafkaService:
         proper async integration. The consumer will periodically check for new
         messages and yield control back to the async event loop.
 
+        Priority events are drained first: each cycle polls the priority topic
+        with the normal partitions paused, and only resumes them when nothing
+        urgent is waiting. A HIGH call therefore waits for at most the one
+        transcription in progress, however deep the normal backlog is.
+
         Yields:
             CallReceivedEvent instances
         """
@@ -91,8 +153,7 @@ class KafkaService:
             # Infinite loop with poll() instead of iterator
             while True:
                 try:
-                    # Poll for messages with configurable timeout
-                    messages = self.consumer.poll(timeout_ms=settings.kafka_consumer_timeout_ms)
+                    messages = self._poll_priority_first()
 
                     # Process all messages from all partitions
                     for topic_partition, records in messages.items():
@@ -105,7 +166,8 @@ class KafkaService:
                                 logger.info(
                                     f"Received event - ID: {event.eventId}, "
                                     f"CallID: {event.aggregateId}, "
-                                    f"Correlation: {event.correlationId}"
+                                    f"Correlation: {event.correlationId}, "
+                                    f"Priority: {event.metadata.priority}"
                                 )
 
                                 yield event
@@ -135,10 +197,41 @@ class KafkaService:
                 self.consumer.close()
                 self.consumer = None
 
+    def _poll_priority_first(self) -> dict:
+        """
+        Poll the priority topic on its own, then fall back to both topics.
+
+        poll() only returns records that have already been fetched, so the paused poll waits
+        up to kafka_priority_poll_timeout_ms for a priority fetch to land. A combined poll
+        can still carry priority records, so its batches are ordered priority topic first.
+
+        Returns:
+            Records by partition, as returned by KafkaConsumer.poll()
+        """
+        normal_partitions = [
+            tp for tp in self.consumer.assignment() if tp.topic == self.TOPIC_CALLS_RECEIVED
+        ]
+        if normal_partitions:
+            self.consumer.pause(*normal_partitions)
+            try:
+                messages = self.consumer.poll(timeout_ms=settings.kafka_priority_poll_timeout_ms)
+            finally:
+                self.consumer.resume(*normal_partitions)
+            if messages:
+                return messages
+
+        messages = self.consumer.poll(timeout_ms=settings.kafka_consumer_timeout_ms)
+        return dict(sorted(
+            messages.items(), key=lambda item: item[0].topic != self.TOPIC_CALLS_RECEIVED_PRIORITY
+        ))
+
     def publish_call_transcribed(self, event: CallTranscribedEvent) -> bool:
         """
         Publish CallTranscribed event to Kafka.
 
+        HIGH priority events go to the priority topic so the next stages can
+        drain them ahead of the normal backlog.
+
         Args:
             event: CallTranscribedEvent to publish
 
@@ -152,16 +245,24 @@ class KafkaService:
             # Convert event to dict for serialization
             event_dict = event.model_dump(mode='json')
 
+            topic = (
+                self.TOPIC_CALLS_TRANSCRIBED_PRIORITY
+                if event.metadata.priority == self.PRIORITY_HIGH
+                else self.TOPIC_CALLS_TRANSCRIBED
+            )
+
             logger.info(
                 f"Publishing CallTranscribed event - "
                 f"CallID: {event.aggregateId}, "
-                f"EventID: {event.eventId}"
+                f"EventID: {event.eventId}, "
+                f"Topic: {topic}"
             )
 
             # Send message to Kafka
             future = self.producer.send(
-                self.TOPIC_CALLS_TRANSCRIBED,
-                value=event_dict
+                topic,
+                value=event_dict,
+                headers=self.event_headers(event.eventType, event.version)
             )
 
             # Block until message is sent (with timeout)
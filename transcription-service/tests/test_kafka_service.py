@@ -11,11 +11,14 @@ Tests cover:
 """
 
 import json
+import cbor2
 import pytest
 from unittest.mock import patch, MagicMock, Mock, AsyncMock
 from kafka.errors import KafkaError
 from services.kafka_service import KafkaService
-from models.events import CallReceivedEvent, CallTranscribedEvent, CallTranscribedPayload, TranscriptionData, Segment
+from models.events import (
+    CallReceivedEvent, CallTranscribedEvent, CallTranscribedPayload, EventMetadata, TranscriptionData, Segment
+)
 
 
 class TestKafkaServiceInitialization:
@@ -34,6 +37,8 @@ class TestKafkaServiceInitialization:
 
         assert service.TOPIC_CALLS_RECEIVED == "calls.received"
         assert service.TOPIC_CALLS_TRANSCRIBED == "calls.transcribed"
+        assert service.TOPIC_CALLS_RECEIVED_PRIORITY == "calls.received.priority"
+        assert service.TOPIC_CALLS_TRANSCRIBED_PRIORITY == "calls.transcribed.priority"
         assert service.CONSUMER_GROUP == "transcription-service"
 
 
@@ -171,6 +176,19 @@ class TestProducerCreation:
         with pytest.raises(Exception, match="Connection failed"):
             service.create_producer()
 
+    @patch('services.kafka_service.settings')
+    @patch('services.kafka_service.KafkaProducer')
+    def test_create_producer_cbor_codec_serializes_cbor(self, mock_producer_class, mock_settings):
+        """Test that EVENT_CODEC=cbor switches the serializer to CBOR."""
+        mock_settings.event_codec = 'cbor'
+        service = KafkaService()
+        service.create_producer()
+
+        serializer = mock_producer_class.call_args[1]['value_serializer']
+
+        test_data = {"test": "data", "segments": [{"startTime": 0.5}]}
+        assert cbor2.loads(serializer(test_data)) == test_data
+
 
 class TestEventConsumption:
     """Tests for consuming CallReceived events."""
@@ -226,6 +244,81 @@ class TestEventConsumption:
         assert events[0].eventId == 'event-123'
         assert events[0].aggregateId == 'call-456'
 
+    @pytest.mark.asyncio
+    @patch('services.kafka_service.KafkaConsumer')
+    async def test_consume_call_received_drains_priority_topic_first(
+        self, mock_consumer_class, sample_call_received_event
+    ):
+        """Test that normal partitions stay paused while priority events are waiting."""
+        normal_partition = MagicMock(topic="calls.received")
+        priority_partition = MagicMock(topic="calls.received.priority")
+        priority_message = MagicMock(value={
+            **sample_call_received_event,
+            'metadata': {'userId': 'system', 'service': 'call-ingestion-service', 'priority': 'HIGH'}
+        })
+        normal_message = MagicMock(value=sample_call_received_event)
+
+        mock_consumer = MagicMock()
+        mock_consumer.assignment.return_value = {normal_partition, priority_partition}
+        mock_consumer.poll.side_effect = [
+            {priority_partition: [priority_message]},  # priority poll finds an urgent call
+            {},                                        # priority poll finds nothing
+            {normal_partition: [normal_message]},      # normal poll after resuming
+            KeyboardInterrupt()
+        ]
+        mock_consumer_class.return_value = mock_consumer
+
+        service = KafkaService()
+
+        events = []
+        try:
+            async for event in service.consume_call_received():
+                events.append(event)
+        except KeyboardInterrupt:
+            pass
+
+        assert [event.metadata.priority for event in events] == ["HIGH", "NORMAL"]
+        mock_consumer.pause.assert_called_with(normal_partition)
+        mock_consumer.resume.assert_called_with(normal_partition)
+        # poll() only returns fetched records, so the paused poll must wait for a fetch
+        assert mock_consumer.poll.call_args_list[0].kwargs == {'timeout_ms': 100}
+        assert mock_consumer.poll.call_args_list[2].kwargs == {'timeout_ms': 1000}
+
+    @pytest.mark.asyncio
+    @patch('services.kafka_service.KafkaConsumer')
+    async def test_consume_call_received_orders_priority_records_first_in_mixed_poll(
+        self, mock_consumer_class, sample_call_received_event
+    ):
+        """Test that a combined poll hands priority records out before normal ones."""
+        normal_partition = MagicMock(topic="calls.received")
+        priority_partition = MagicMock(topic="calls.received.priority")
+        priority_message = MagicMock(value={
+            **sample_call_received_event,
+            'metadata': {'userId': 'system', 'service': 'call-ingestion-service', 'priority': 'HIGH'}
+        })
+        normal_message = MagicMock(value=sample_call_received_event)
+
+        mock_consumer = MagicMock()
+        mock_consumer.assignment.return_value = {normal_partition, priority_partition}
+        mock_consumer.poll.side_effect = [
+            {},                                          # priority fetch not in yet
+            {normal_partition: [normal_message],         # it lands with the combined poll
+             priority_partition: [priority_message]},
+            KeyboardInterrupt()
+        ]
+        mock_consumer_class.return_value = mock_consumer
+
+        service = KafkaService()
+
+        events = []
+        try:
+            async for event in service.consume_call_received():
+                events.append(event)
+        except KeyboardInterrupt:
+            pass
+
+        assert [event.metadata.priority for event in events] == ["HIGH", "NORMAL"]
+
     @pytest.mark.asyncio
     @patch('services.kafka_service.KafkaConsumer')
     async def test_consume_call_received_handles_parse_errors(self, mock_consumer_class):
@@ -338,6 +431,39 @@ class TestEventPublishing:
         call_args = mock_producer.send.call_args
         assert call_args[0][0] == "calls.transcribed"
 
+    @patch('services.kafka_service.KafkaProducer')
+    def test_publish_call_transcribed_high_priority_uses_priority_topic(self, mock_producer_class):
+        """Test that HIGH priority transcriptions are published to the priority topic."""
+        mock_producer = MagicMock()
+        mock_future = MagicMock()
+        mock_future.get.return_value = MagicMock(topic='calls.transcribed.priority', partition=0, offset=7)
+        mock_producer.send.return_value = mock_future
+        mock_producer_class.return_value = mock_producer
+
+        service = KafkaService()
+
+        event = CallTranscribedEvent(
+            aggregateId='call-123',
+            causationId='event-456',
+            correlationId='corr-789',
+            metadata=EventMetadata(priority='HIGH'),
+            payload=CallTranscribedPayload(
+                callId='call-123',
+                transcription=TranscriptionData(
+                    fullText='Test',
+                    segments=[],
+                    language='en',
+                    confidence=0.9
+                )
+            )
+        )
+
+        service.publish_call_transcribed(event)
+
+        call_args = mock_producer.send.call_args
+        assert call_args[0][0] == "calls.transcribed.priority"
+        assert call_args[1]['value']['metadata']['priority'] == 'HIGH'
+
     @patch('services.kafka_service.KafkaProducer')
     def test_publish_call_transcribed_serializes_event_correctly(self, mock_producer_class):
         """Test that publish_call_transcribed serializes event to dict."""
@@ -459,6 +585,41 @@ class TestEventPublishing:
 
         assert result is False
 
+    @patch('services.kafka_service.settings')
+    @patch('services.kafka_service.KafkaProducer')
+    def test_publish_call_transcribed_sets_codec_headers(self, mock_producer_class, mock_settings):
+        """Test that published events describe their content type, type and version in headers."""
+        mock_settings.event_codec = 'cbor'
+        mock_producer = MagicMock()
+        mock_future = MagicMock()
+        mock_future.get.return_value = MagicMock(topic='calls.transcribed', partition=0, offset=123)
+        mock_producer.send.return_value = mock_future
+        mock_producer_class.return_value = mock_producer
+
+        service = KafkaService()
+
+        event = CallTranscribedEvent(
+            aggregateId='call-123',
+            causationId='event-456',
+            correlationId='corr-789',
+            payload=CallTranscribedPayload(
+                callId='call-123',
+                transcription=TranscriptionData(
+                    fullText='Test',
+                    segments=[],
+                    language='en',
+                    confidence=0.9
+                )
+            )
+        )
+
+        service.publish_call_transcribed(event)
+
+        headers = dict(mock_producer.send.call_args[1]['headers'])
+        assert headers['content-type'] == b'application/cbor'
+        assert headers['event-type'] == b'CallTranscribed'
+        assert headers['event-version'] == b'1'
+
 
 class TestHealthCheck:
     """Tests for Kafka health check."""
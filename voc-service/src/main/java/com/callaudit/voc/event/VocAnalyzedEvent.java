@@ -52,6 +52,13 @@ public class VocAnalyzedEvent {
      * Factory method to create a VocAnalyzedEvent
      */
     public static VocAnalyzedEvent create(String callId, VocPayload payload, String correlationId) {
+        return create(callId, payload, correlationId, "NORMAL");
+    }
+
+    /**
+     * Factory method to create a VocAnalyzedEvent that keeps the call's processing lane
+     */
+    public static VocAnalyzedEvent create(String callId, VocPayload payload, String correlationId, String priority) {
         return VocAnalyzedEvent.builder()
                 .eventId(UUID.randomUUID().toString())
                 .eventType("VocAnalyzed")
@@ -62,7 +69,8 @@ public class VocAnalyzedEvent {
                 .correlationId(correlationId)
                 .metadata(Map.of(
                         "service", "voc-service",
-                        "userId", "system"
+                        "userId", "system",
+                        "priority", priority
                 ))
                 .payload(payload)
                 .build();
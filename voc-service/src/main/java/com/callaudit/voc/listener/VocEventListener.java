@@ -1,6 +1,7 @@
 package com.callaudit.voc.listener;
 
-import com.callaudit.voc.event.CallTranscribedEvent;
+import com.callaudit.events.CallTranscribedEvent;
+import com.callaudit.events.codec.EventCodecs;
 import com.callaudit.voc.event.SentimentAnalyzedEvent;
 import com.callaudit.voc.event.VocAnalyzedEvent;
 import com.callaudit.voc.model.VocInsight;
@@ -9,6 +10,7 @@ import com.callaudit.voc.service.VocAnalysisService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
@@ -31,21 +33,24 @@ public class VocEventListener {
     private final InsightService insightService;
     private final KafkaTemplate<String, String> kafkaTemplate;
     private final ObjectMapper objectMapper;
+    private final EventCodecs eventCodecs;
 
     // Temporary storage for event aggregation
     private final Map<String, CallTranscribedEvent> transcriptionEvents = new ConcurrentHashMap<>();
     private final Map<String, SentimentAnalyzedEvent> sentimentEvents = new ConcurrentHashMap<>();
 
     /**
-     * Listen for CallTranscribed events
+     * Listen for CallTranscribed events, JSON or CBOR per the record's content-type header
      */
-    @KafkaListener(topics = "calls.transcribed", groupId = "${spring.kafka.consumer.group-id}")
-    public void handleCallTranscribed(String message) {
+    @KafkaListener(topics = "calls.transcribed", groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = "eventListenerContainerFactory")
+    @KafkaListener(topics = "calls.transcribed.priority", groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = "eventListenerContainerFactory")
+    public void handleCallTranscribed(ConsumerRecord<String, byte[]> record) {
         try {
-            log.info("Received CallTranscribed event: {}", message);
-
-            CallTranscribedEvent event = objectMapper.readValue(message, CallTranscribedEvent.class);
+            CallTranscribedEvent event = eventCodecs.decode(record, CallTranscribedEvent.class);
             String callId = event.getPayload().getCallId();
+            log.info("Received CallTranscribed event for call: {}", callId);
 
             transcriptionEvents.put(callId, event);
 
@@ -63,6 +68,7 @@ public class VocEventListener {
      * Listen for SentimentAnalyzed events
      */
     @KafkaListener(topics = "calls.sentiment-analyzed", groupId = "${spring.kafka.consumer.group-id}")
+    @KafkaListener(topics = "calls.sentiment-analyzed.priority", groupId = "${spring.kafka.consumer.group-id}")
     public void handleSentimentAnalyzed(String message) {
         try {
             log.info("Received SentimentAnalyzed event: {}", message);
@@ -98,7 +104,7 @@ public class VocEventListener {
             }
 
             // Extract data
-            String transcription = transcriptionEvent.getPayload().getTranscriptionText();
+            String transcription = transcriptionEvent.getPayload().getTranscription().getFullText();
             SentimentAnalyzedEvent.SentimentPayload sentiment = sentimentEvent.getPayload();
 
             // Perform VoC analysis
@@ -121,7 +127,8 @@ public class VocEventListener {
             log.info("Saved VoC insight for call: {}", callId);
 
             // Publish VocAnalyzed event
-            publishVocAnalyzedEvent(callId, result, sentimentEvent.getCorrelationId());
+            publishVocAnalyzedEvent(callId, result, sentimentEvent.getCorrelationId(),
+                    priorityOf(transcriptionEvent, sentimentEvent));
 
         } catch (Exception e) {
             log.error("Error processing VoC analysis for call: {}", callId, e);
@@ -129,10 +136,10 @@ public class VocEventListener {
     }
 
     /**
-     * Publish VocAnalyzed event to Kafka
+     * Publish VocAnalyzed event to Kafka; HIGH priority calls go to the priority topic
      */
     private void publishVocAnalyzedEvent(String callId, VocAnalysisService.VocAnalysisResult result,
-                                        String correlationId) {
+                                        String correlationId, String priority) {
         try {
             VocAnalyzedEvent.VocPayload payload = VocAnalyzedEvent.VocPayload.builder()
                     .callId(callId)
@@ -145,10 +152,11 @@ public class VocEventListener {
                     .summary(result.getSummary())
                     .build();
 
-            VocAnalyzedEvent event = VocAnalyzedEvent.create(callId, payload, correlationId);
+            VocAnalyzedEvent event = VocAnalyzedEvent.create(callId, payload, correlationId, priority);
 
             String eventJson = objectMapper.writeValueAsString(event);
-            kafkaTemplate.send("calls.voc-analyzed", callId, eventJson);
+            String topic = "HIGH".equals(priority) ? "calls.voc-analyzed.priority" : "calls.voc-analyzed";
+            kafkaTemplate.send(topic, callId, eventJson);
 
             log.info("Published VocAnalyzed event for call: {}", callId);
 
@@ -156,4 +164,17 @@ public class VocEventListener {
             log.error("Error publishing VocAnalyzed event for call: {}", callId, e);
         }
     }
+
+    /**
+     * Processing lane set at ingest; either upstream event may carry it
+     */
+    private static String priorityOf(CallTranscribedEvent transcription, SentimentAnalyzedEvent sentiment) {
+        if ("HIGH".equals(transcription.priority())) {
+            return "HIGH";
+        }
+        if (sentiment.getMetadata() != null && "HIGH".equals(sentiment.getMetadata().get("priority"))) {
+            return "HIGH";
+        }
+        return "NORMAL";
+    }
 }
@@ -1,6 +1,8 @@
 package com.callaudit.voc.listener;
 
-import com.callaudit.voc.event.CallTranscribedEvent;
+import com.callaudit.events.CallTranscribedEvent;
+import com.callaudit.events.codec.EventCodecException;
+import com.callaudit.events.codec.EventCodecs;
 import com.callaudit.voc.event.SentimentAnalyzedEvent;
 import com.callaudit.voc.event.VocAnalyzedEvent;
 import com.callaudit.voc.model.Intent;
@@ -9,6 +11,7 @@ import com.callaudit.voc.model.VocInsight;
 import com.callaudit.voc.service.InsightService;
 import com.callaudit.voc.service.VocAnalysisService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -47,6 +50,9 @@ class VocEventListenerTest {
     @Mock
     private ObjectMapper objectMapper;
 
+    @Mock
+    private EventCodecs eventCodecs;
+
     @InjectMocks
     private VocEventListener vocEventListener;
 
@@ -69,22 +75,22 @@ class VocEventListenerTest {
     @BeforeEach
     void setUp() {
         // Reset mocks between tests
-        reset(vocAnalysisService, insightService, kafkaTemplate, objectMapper);
+        reset(vocAnalysisService, insightService, kafkaTemplate, objectMapper, eventCodecs);
     }
 
     @Test
     void handleCallTranscribed_ValidEvent_StoresEventInMemory() throws Exception {
         // Arrange
-        String eventJson = createCallTranscribedEventJson();
+        ConsumerRecord<String, byte[]> record = createCallTranscribedRecord();
         CallTranscribedEvent event = createCallTranscribedEvent();
 
-        when(objectMapper.readValue(eventJson, CallTranscribedEvent.class)).thenReturn(event);
+        when(eventCodecs.decode(record, CallTranscribedEvent.class)).thenReturn(event);
 
         // Act
-        vocEventListener.handleCallTranscribed(eventJson);
+        vocEventListener.handleCallTranscribed(record);
 
         // Assert
-        verify(objectMapper).readValue(eventJson, CallTranscribedEvent.class);
+        verify(eventCodecs).decode(record, CallTranscribedEvent.class);
         verifyNoInteractions(vocAnalysisService);
         verifyNoInteractions(insightService);
     }
@@ -109,13 +115,13 @@ class VocEventListenerTest {
     @Test
     void handleBothEvents_ProcessesVocAnalysis() throws Exception {
         // Arrange
-        String transcriptionJson = createCallTranscribedEventJson();
+        ConsumerRecord<String, byte[]> transcriptionRecord = createCallTranscribedRecord();
         String sentimentJson = createSentimentAnalyzedEventJson();
 
         CallTranscribedEvent transcriptionEvent = createCallTranscribedEvent();
         SentimentAnalyzedEvent sentimentEvent = createSentimentAnalyzedEvent();
 
-        when(objectMapper.readValue(transcriptionJson, CallTranscribedEvent.class))
+        when(eventCodecs.decode(transcriptionRecord, CallTranscribedEvent.class))
             .thenReturn(transcriptionEvent);
         when(objectMapper.readValue(sentimentJson, SentimentAnalyzedEvent.class))
             .thenReturn(sentimentEvent);
@@ -131,7 +137,7 @@ class VocEventListenerTest {
             .thenReturn("{\"eventType\":\"VocAnalyzed\"}");
 
         // Act
-        vocEventListener.handleCallTranscribed(transcriptionJson);
+        vocEventListener.handleCallTranscribed(transcriptionRecord);
         vocEventListener.handleSentimentAnalyzed(sentimentJson);
 
         // Assert - Analysis should have been triggered
@@ -154,13 +160,13 @@ class VocEventListenerTest {
     @Test
     void handleBothEvents_ReverseOrder_ProcessesVocAnalysis() throws Exception {
         // Arrange - This time sentiment arrives first
-        String transcriptionJson = createCallTranscribedEventJson();
+        ConsumerRecord<String, byte[]> transcriptionRecord = createCallTranscribedRecord();
         String sentimentJson = createSentimentAnalyzedEventJson();
 
         CallTranscribedEvent transcriptionEvent = createCallTranscribedEvent();
         SentimentAnalyzedEvent sentimentEvent = createSentimentAnalyzedEvent();
 
-        when(objectMapper.readValue(transcriptionJson, CallTranscribedEvent.class))
+        when(eventCodecs.decode(transcriptionRecord, CallTranscribedEvent.class))
             .thenReturn(transcriptionEvent);
         when(objectMapper.readValue(sentimentJson, SentimentAnalyzedEvent.class))
             .thenReturn(sentimentEvent);
@@ -175,7 +181,7 @@ class VocEventListenerTest {
 
         // Act - Sentiment arrives first, then transcription
         vocEventListener.handleSentimentAnalyzed(sentimentJson);
-        vocEventListener.handleCallTranscribed(transcriptionJson);
+        vocEventListener.handleCallTranscribed(transcriptionRecord);
 
         // Assert - Analysis should still be triggered
         verify(vocAnalysisService).analyzeTranscription(anyString(), any(SentimentAnalyzedEvent.SentimentPayload.class));
@@ -183,15 +189,45 @@ class VocEventListenerTest {
         verify(kafkaTemplate).send(anyString(), anyString(), anyString());
     }
 
+    @Test
+    void handleBothEvents_HighPriorityTranscription_PublishesHighPriority() throws Exception {
+        // Arrange
+        ConsumerRecord<String, byte[]> transcriptionRecord = createCallTranscribedRecord();
+        String sentimentJson = createSentimentAnalyzedEventJson();
+
+        CallTranscribedEvent transcriptionEvent = createCallTranscribedEvent();
+        transcriptionEvent.setMetadata(Map.of("service", "transcription-service", "priority", "HIGH"));
+
+        when(eventCodecs.decode(transcriptionRecord, CallTranscribedEvent.class))
+            .thenReturn(transcriptionEvent);
+        when(objectMapper.readValue(sentimentJson, SentimentAnalyzedEvent.class))
+            .thenReturn(createSentimentAnalyzedEvent());
+        when(vocAnalysisService.analyzeTranscription(anyString(), any(SentimentAnalyzedEvent.SentimentPayload.class)))
+            .thenReturn(createAnalysisResult());
+        when(insightService.saveInsight(any(VocInsight.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        ArgumentCaptor<VocAnalyzedEvent> eventCaptor = ArgumentCaptor.forClass(VocAnalyzedEvent.class);
+        when(objectMapper.writeValueAsString(eventCaptor.capture()))
+            .thenReturn("{\"eventType\":\"VocAnalyzed\"}");
+
+        // Act
+        vocEventListener.handleCallTranscribed(transcriptionRecord);
+        vocEventListener.handleSentimentAnalyzed(sentimentJson);
+
+        // Assert
+        assertEquals("HIGH", eventCaptor.getValue().getMetadata().get("priority"));
+        verify(kafkaTemplate).send(eq("calls.voc-analyzed.priority"), eq(TEST_CALL_ID), anyString());
+    }
+
     @Test
     void handleCallTranscribed_InvalidJson_DoesNotThrowException() throws Exception {
         // Arrange
-        String invalidJson = "invalid json";
-        when(objectMapper.readValue(invalidJson, CallTranscribedEvent.class))
-            .thenThrow(new RuntimeException("JSON parse error"));
+        ConsumerRecord<String, byte[]> invalidRecord =
+            new ConsumerRecord<>("calls.transcribed", 0, 0L, TEST_CALL_ID, "invalid json".getBytes());
+        when(eventCodecs.decode(invalidRecord, CallTranscribedEvent.class))
+            .thenThrow(new EventCodecException("JSON parse error"));
 
         // Act - Should not throw exception
-        assertDoesNotThrow(() -> vocEventListener.handleCallTranscribed(invalidJson));
+        assertDoesNotThrow(() -> vocEventListener.handleCallTranscribed(invalidRecord));
 
         // Assert
         verifyNoInteractions(vocAnalysisService);
@@ -216,13 +252,13 @@ class VocEventListenerTest {
     @Test
     void processVocAnalysis_AnalysisServiceThrowsException_DoesNotThrowException() throws Exception {
         // Arrange
-        String transcriptionJson = createCallTranscribedEventJson();
+        ConsumerRecord<String, byte[]> transcriptionRecord = createCallTranscribedRecord();
         String sentimentJson = createSentimentAnalyzedEventJson();
 
         CallTranscribedEvent transcriptionEvent = createCallTranscribedEvent();
         SentimentAnalyzedEvent sentimentEvent = createSentimentAnalyzedEvent();
 
-        when(objectMapper.readValue(transcriptionJson, CallTranscribedEvent.class))
+        when(eventCodecs.decode(transcriptionRecord, CallTranscribedEvent.class))
             .thenReturn(transcriptionEvent);
         when(objectMapper.readValue(sentimentJson, SentimentAnalyzedEvent.class))
             .thenReturn(sentimentEvent);
@@ -231,7 +267,7 @@ class VocEventListenerTest {
             .thenThrow(new RuntimeException("Analysis error"));
 
         // Act - Should not throw exception
-        vocEventListener.handleCallTranscribed(transcriptionJson);
+        vocEventListener.handleCallTranscribed(transcriptionRecord);
         assertDoesNotThrow(() -> vocEventListener.handleSentimentAnalyzed(sentimentJson));
 
         // Assert
@@ -243,13 +279,13 @@ class VocEventListenerTest {
     @Test
     void processVocAnalysis_InsightServiceThrowsException_DoesNotThrowException() throws Exception {
         // Arrange
-        String transcriptionJson = createCallTranscribedEventJson();
+        ConsumerRecord<String, byte[]> transcriptionRecord = createCallTranscribedRecord();
         String sentimentJson = createSentimentAnalyzedEventJson();
 
         CallTranscribedEvent transcriptionEvent = createCallTranscribedEvent();
         SentimentAnalyzedEvent sentimentEvent = createSentimentAnalyzedEvent();
 
-        when(objectMapper.readValue(transcriptionJson, CallTranscribedEvent.class))
+        when(eventCodecs.decode(transcriptionRecord, CallTranscribedEvent.class))
             .thenReturn(transcriptionEvent);
         when(objectMapper.readValue(sentimentJson, SentimentAnalyzedEvent.class))
             .thenReturn(sentimentEvent);
@@ -262,7 +298,7 @@ class VocEventListenerTest {
             .thenThrow(new RuntimeException("Database error"));
 
         // Act - Should not throw exception
-        vocEventListener.handleCallTranscribed(transcriptionJson);
+        vocEventListener.handleCallTranscribed(transcriptionRecord);
         assertDoesNotThrow(() -> vocEventListener.handleSentimentAnalyzed(sentimentJson));
 
         // Assert
@@ -274,13 +310,13 @@ class VocEventListenerTest {
     @Test
     void processVocAnalysis_KafkaPublishThrowsException_DoesNotThrowException() throws Exception {
         // Arrange
-        String transcriptionJson = createCallTranscribedEventJson();
+        ConsumerRecord<String, byte[]> transcriptionRecord = createCallTranscribedRecord();
         String sentimentJson = createSentimentAnalyzedEventJson();
 
         CallTranscribedEvent transcriptionEvent = createCallTranscribedEvent();
         SentimentAnalyzedEvent sentimentEvent = createSentimentAnalyzedEvent();
 
-        when(objectMapper.readValue(transcriptionJson, CallTranscribedEvent.class))
+        when(eventCodecs.decode(transcriptionRecord, CallTranscribedEvent.class))
             .thenReturn(transcriptionEvent);
         when(objectMapper.readValue(sentimentJson, SentimentAnalyzedEvent.class))
             .thenReturn(sentimentEvent);
@@ -294,7 +330,7 @@ class VocEventListenerTest {
             .thenThrow(new RuntimeException("JSON serialization error"));
 
         // Act - Should not throw exception
-        vocEventListener.handleCallTranscribed(transcriptionJson);
+        vocEventListener.handleCallTranscribed(transcriptionRecord);
         assertDoesNotThrow(() -> vocEventListener.handleSentimentAnalyzed(sentimentJson));
 
         // Assert
@@ -308,15 +344,15 @@ class VocEventListenerTest {
         // Arrange
         String callId1 = "00000000-0000-0000-0000-000000000001";
         String callId2 = "00000000-0000-0000-0000-000000000002";
-        String call1TranscriptionJson = createCallTranscribedEventJson(callId1);
+        ConsumerRecord<String, byte[]> call1TranscriptionRecord = createCallTranscribedRecord(callId1);
         String call1SentimentJson = createSentimentAnalyzedEventJson(callId1);
-        String call2TranscriptionJson = createCallTranscribedEventJson(callId2);
+        ConsumerRecord<String, byte[]> call2TranscriptionRecord = createCallTranscribedRecord(callId2);
         String call2SentimentJson = createSentimentAnalyzedEventJson(callId2);
 
-        when(objectMapper.readValue(anyString(), eq(CallTranscribedEvent.class)))
+        when(eventCodecs.decode(any(ConsumerRecord.class), eq(CallTranscribedEvent.class)))
             .thenAnswer(invocation -> {
-                String arg = invocation.getArgument(0);
-                if (arg.contains(callId1)) {
+                ConsumerRecord<String, byte[]> arg = invocation.getArgument(0);
+                if (callId1.equals(arg.key())) {
                     return createCallTranscribedEvent(callId1);
                 } else {
                     return createCallTranscribedEvent(callId2);
@@ -342,8 +378,8 @@ class VocEventListenerTest {
             .thenReturn("{\"eventType\":\"VocAnalyzed\"}");
 
         // Act
-        vocEventListener.handleCallTranscribed(call1TranscriptionJson);
-        vocEventListener.handleCallTranscribed(call2TranscriptionJson);
+        vocEventListener.handleCallTranscribed(call1TranscriptionRecord);
+        vocEventListener.handleCallTranscribed(call2TranscriptionRecord);
         vocEventListener.handleSentimentAnalyzed(call1SentimentJson);
         vocEventListener.handleSentimentAnalyzed(call2SentimentJson);
 
@@ -355,12 +391,13 @@ class VocEventListenerTest {
 
     // Helper methods
 
-    private String createCallTranscribedEventJson() {
-        return "{\"eventId\":\"event-123\",\"eventType\":\"CallTranscribed\",\"aggregateId\":\"" + TEST_CALL_ID + "\"}";
+    private ConsumerRecord<String, byte[]> createCallTranscribedRecord() {
+        return createCallTranscribedRecord(TEST_CALL_ID);
     }
 
-    private String createCallTranscribedEventJson(String callId) {
-        return "{\"eventId\":\"event-123\",\"eventType\":\"CallTranscribed\",\"aggregateId\":\"" + callId + "\"}";
+    private ConsumerRecord<String, byte[]> createCallTranscribedRecord(String callId) {
+        String json = "{\"eventId\":\"event-123\",\"eventType\":\"CallTranscribed\",\"aggregateId\":\"" + callId + "\"}";
+        return new ConsumerRecord<>("calls.transcribed", 0, 0L, callId, json.getBytes());
     }
 
     private String createSentimentAnalyzedEventJson() {
@@ -376,12 +413,13 @@ class VocEventListenerTest {
     }
 
     private CallTranscribedEvent createCallTranscribedEvent(String callId) {
-        CallTranscribedEvent.TranscriptionPayload payload = CallTranscribedEvent.TranscriptionPayload.builder()
+        CallTranscribedEvent.Payload payload = CallTranscribedEvent.Payload.builder()
             .callId(callId)
-            .transcriptionText("This is a test transcription with billing problem")
-            .language("en")
-            .confidence(0.95)
-            .durationSeconds(120)
+            .transcription(CallTranscribedEvent.Transcription.builder()
+                .fullText("This is a test transcription with billing problem")
+                .language("en")
+                .confidence(0.95)
+                .build())
             .build();
 
         return CallTranscribedEvent.builder()